@@ -0,0 +1,136 @@
+/*-
+ * #%L
+ * athena-cloudwatch-metrics
+ * %%
+ * Copyright (C) 2019 - 2024 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.cloudwatch.metrics;
+
+import software.amazon.awssdk.services.cloudwatch.model.ListMetricsRequest;
+import software.amazon.awssdk.services.cloudwatch.model.ListMetricsResponse;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Caches the pages returned by ListMetrics between the requests handled by the same (warm) Lambda container, so that
+ * queries against the same namespace, metric or dimension do not list the same metrics over and over again. Pages are
+ * keyed on the whole request, including its next token.
+ * <p>
+ * 1. An age test is performed when a page is retrieved from cache, and upon insertion into cache. Pages that have aged
+ *    out (as indicated by the time-to-live) will be removed.
+ * 2. A cache capacity test is performed upon insertion into cache. The oldest page will be removed when the cache size
+ *    exceeds capacity.
+ */
+public class ListMetricsCache
+{
+    //The maximum number of pages allowed in the cache.
+    protected static final int MAX_CACHE_SIZE = 500;
+
+    private final long ttlMillis;
+    private final Map<ListMetricsRequest, CacheEntry> cache = new LinkedHashMap<>();
+
+    /**
+     * @param ttlMillis The maximum age allowed for stored pages in milliseconds. A value of zero (or less) disables the cache.
+     */
+    public ListMetricsCache(long ttlMillis)
+    {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Gets the page for the request from the cache. If the page is not in the cache, or has aged out, the loader is
+     * called to list it and the page is then inserted into the cache.
+     *
+     * @param request The ListMetrics request, used as the key of the page.
+     * @param loader Lists the page from Cloudwatch Metrics.
+     * @return The cached or the newly listed page.
+     * @throws TimeoutException If the loader gives up on a throttled ListMetrics call.
+     */
+    public synchronized ListMetricsResponse get(ListMetricsRequest request, Loader loader)
+            throws TimeoutException
+    {
+        if (ttlMillis <= 0) {
+            return loader.load();
+        }
+
+        CacheEntry cacheEntry = cache.get(request);
+        if (cacheEntry != null && cacheEntry.getAge() <= ttlMillis) {
+            return cacheEntry.response;
+        }
+
+        ListMetricsResponse response = loader.load();
+        //Re-insert the key so that the map stays ordered from older to newer pages.
+        cache.remove(request);
+        cache.put(request, new CacheEntry(response, System.currentTimeMillis()));
+        evictCache();
+
+        return response;
+    }
+
+    /**
+     * @return The number of pages stored in the cache.
+     */
+    public synchronized int size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Evicts pages that have aged out, as well as the oldest page if the cache's capacity has been exceeded.
+     */
+    private void evictCache()
+    {
+        Iterator<Map.Entry<ListMetricsRequest, CacheEntry>> itr = cache.entrySet().iterator();
+        while (itr.hasNext()) {
+            CacheEntry entry = itr.next().getValue();
+            //The map is ordered from older to newer, so there is no need to keep looking once we encounter
+            //an age-appropriate page.
+            if (entry.getAge() <= ttlMillis && cache.size() <= MAX_CACHE_SIZE) {
+                break;
+            }
+            itr.remove();
+        }
+    }
+
+    /**
+     * Lists a page of metrics from Cloudwatch Metrics on a cache miss.
+     */
+    public interface Loader
+    {
+        ListMetricsResponse load()
+                throws TimeoutException;
+    }
+
+    private static class CacheEntry
+    {
+        private final ListMetricsResponse response;
+        private final long createTime;
+
+        private CacheEntry(ListMetricsResponse response, long createTime)
+        {
+            this.response = response;
+            this.createTime = createTime;
+        }
+
+        private long getAge()
+        {
+            return System.currentTimeMillis() - createTime;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.google.common.math.LongMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.cloudwatch.model.Dimension;
@@ -35,7 +36,10 @@ import software.amazon.awssdk.services.cloudwatch.model.ListMetricsRequest;
 import software.amazon.awssdk.services.cloudwatch.model.Metric;
 import software.amazon.awssdk.services.cloudwatch.model.MetricDataQuery;
 import software.amazon.awssdk.services.cloudwatch.model.MetricStat;
+import software.amazon.awssdk.services.cloudwatch.model.ScanBy;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -59,6 +63,15 @@ public class MetricUtils
     //this is a format required by Cloudwatch Metrics
     private static final String METRIC_ID = "m1";
 
+    //The maximum number of datapoints a single GetMetricData call can return
+    private static final long MAX_DATAPOINTS_PER_REQUEST = 100_800;
+    //Cloudwatch Metrics does not retain datapoints for longer than 15 months
+    private static final Duration MAX_METRIC_RETENTION = Duration.ofDays(455);
+    //Window boundaries are aligned to the hour, which is what Cloudwatch rounds the start time of older datapoints to
+    private static final long WINDOW_ALIGNMENT_SECONDS = 3600;
+    //Every window costs at least one GetMetricData call (billed per metric), wider ranges are paged through instead
+    protected static final int MAX_WINDOWS = 16;
+
     // Environment variable to control cross-account metrics inclusion
     private static final String INCLUDE_LINKED_ACCOUNTS_ENV_VAR = "include_linked_accounts";
 
@@ -202,4 +215,55 @@ public class MetricUtils
 
         return dataRequestBuilder.build();
     }
+
+    /**
+     * Splits the time range of a Cloudwatch Metrics sample data request into consecutive windows, so that the windows
+     * can be fetched concurrently. Each window is sized to hold about as many datapoints as a single GetMetricData call
+     * returns for the queried metrics, and its datapoints are returned in ascending timestamp order. Ranges which would
+     * need more than MAX_WINDOWS windows (e.g. reads without a lower time bound) are not split, and are paged through
+     * with a single request instead, since most of their windows would be billed without holding any datapoints.
+     *
+     * @param dataRequest The Cloudwatch Metrics Data request covering the whole time range of the read operation.
+     * @return The Cloudwatch Metrics Data requests for each window, ordered by time.
+     */
+    protected static List<GetMetricDataRequest> makeWindowRequests(GetMetricDataRequest dataRequest)
+    {
+        long endTime = dataRequest.endTime().getEpochSecond();
+        //No datapoints are kept beyond the retention period, so there is nothing to fetch for older windows
+        long startTime = Math.max(dataRequest.startTime().getEpochSecond(),
+                endTime - MAX_METRIC_RETENTION.getSeconds());
+
+        if (startTime >= endTime) {
+            return Collections.singletonList(dataRequest.toBuilder().scanBy(ScanBy.TIMESTAMP_ASCENDING).build());
+        }
+
+        long period = 1;
+        for (MetricDataQuery query : dataRequest.metricDataQueries()) {
+            period = Math.max(period, query.metricStat().period());
+        }
+        long alignment = period / LongMath.gcd(period, WINDOW_ALIGNMENT_SECONDS) * WINDOW_ALIGNMENT_SECONDS;
+        long datapointsPerMetric = Math.max(1, MAX_DATAPOINTS_PER_REQUEST / Math.max(1, dataRequest.metricDataQueries().size()));
+        long windowSeconds = Math.max(1, datapointsPerMetric * period / alignment) * alignment;
+        long numWindows = Math.floorDiv(endTime - 1, windowSeconds) - Math.floorDiv(startTime, windowSeconds) + 1;
+        if (numWindows > MAX_WINDOWS) {
+            logger.info("makeWindowRequests: {} windows of {}s exceed the max of {}, using a single request",
+                    numWindows, windowSeconds, MAX_WINDOWS);
+            return Collections.singletonList(dataRequest.toBuilder().scanBy(ScanBy.TIMESTAMP_ASCENDING).build());
+        }
+
+        List<GetMetricDataRequest> windowRequests = new ArrayList<>();
+        long windowStart = startTime;
+        do {
+            long windowEnd = Math.min(endTime, (Math.floorDiv(windowStart, windowSeconds) + 1) * windowSeconds);
+            windowRequests.add(dataRequest.toBuilder()
+                    .startTime(Instant.ofEpochSecond(windowStart))
+                    .endTime(Instant.ofEpochSecond(windowEnd))
+                    .scanBy(ScanBy.TIMESTAMP_ASCENDING)
+                    .build());
+            windowStart = windowEnd;
+        }
+        while (windowStart < endTime);
+
+        return windowRequests;
+    }
 }
@@ -62,6 +62,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.MetricsExceptionFilter.EXCEPTION_FILTER;
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.tables.Table.PERIOD_FIELD;
@@ -103,8 +104,14 @@ public class MetricsMetadataHandler
     private static final int MAX_METRICS_PER_SPLIT = 100;
     //The minimum number of splits we'd like to have for some parallelization
     private static final int MIN_NUM_SPLITS_FOR_PARALLELIZATION = 3;
+    //Config for how long (in seconds) pages of ListMetrics are cached in a warm container, 0 disables the cache
+    protected static final String LIST_METRICS_CACHE_TTL_CONFIG = "list_metrics_cache_ttl_seconds";
+    //Newly published metrics take up to 15 minutes to be listed anyway, so a few minutes of caching is hardly noticed
+    protected static final String DEFAULT_LIST_METRICS_CACHE_TTL_SECONDS = "300";
     //Used to handle throttling events by applying AIMD congestion control
     private final ThrottlingInvoker invoker;
+    //Pages of ListMetrics which were listed by earlier requests
+    private final ListMetricsCache listMetricsCache;
 
     private final CloudWatchClient metrics;
 
@@ -134,6 +141,7 @@ public class MetricsMetadataHandler
         super(SOURCE_TYPE, configOptions);
         this.metrics = CloudWatchClient.create();
         this.invoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, configOptions).build();
+        this.listMetricsCache = makeListMetricsCache(configOptions);
     }
 
     @VisibleForTesting
@@ -149,6 +157,7 @@ public class MetricsMetadataHandler
         super(keyFactory, secretsManager, athena, SOURCE_TYPE, spillBucket, spillPrefix, configOptions);
         this.metrics = metrics;
         this.invoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, configOptions).build();
+        this.listMetricsCache = makeListMetricsCache(configOptions);
     }
 
     /**
@@ -241,7 +250,8 @@ public class MetricsMetadataHandler
             String period = getPeriodFromConstraint(getSplitsRequest.getConstraints());
             Set<Split> splits = new HashSet<>();
             ListMetricsRequest listMetricsRequest = listMetricsRequestBuilder.build();
-            ListMetricsResponse result = invoker.invoke(() -> metrics.listMetrics(listMetricsRequest));
+            ListMetricsResponse result = listMetricsCache.get(listMetricsRequest,
+                    () -> invoker.invoke(() -> metrics.listMetrics(listMetricsRequest)));
 
             List<MetricStat> metricStats = new ArrayList<>(100);
             for (Metric nextMetric : result.metrics()) {
@@ -283,6 +293,15 @@ public class MetricsMetadataHandler
         }
     }
 
+    /**
+     * Creates the cache of ListMetrics pages, with the time-to-live from the LIST_METRICS_CACHE_TTL_CONFIG config.
+     */
+    protected static ListMetricsCache makeListMetricsCache(java.util.Map<String, String> configOptions)
+    {
+        long ttlSeconds = Long.parseLong(configOptions.getOrDefault(LIST_METRICS_CACHE_TTL_CONFIG, DEFAULT_LIST_METRICS_CACHE_TTL_SECONDS));
+        return new ListMetricsCache(TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
     /**
      * Resolved the metric period to query, using a default if no period constraint is found.
      */
@@ -29,6 +29,7 @@ import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.cloudwatch.metrics.tables.MetricSamplesTable;
 import com.amazonaws.athena.connectors.cloudwatch.metrics.tables.MetricsTable;
 import com.amazonaws.athena.connectors.cloudwatch.metrics.tables.Table;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.slf4j.Logger;
@@ -48,16 +49,25 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
 import static com.amazonaws.athena.connector.lambda.data.FieldResolver.DEFAULT;
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.MetricsExceptionFilter.EXCEPTION_FILTER;
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.MetricsMetadataHandler.STATISTICS;
+import static com.amazonaws.athena.connectors.cloudwatch.metrics.MetricsMetadataHandler.makeListMetricsCache;
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.tables.Table.DIMENSIONS_FIELD;
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.tables.Table.DIMENSION_NAME_FIELD;
 import static com.amazonaws.athena.connectors.cloudwatch.metrics.tables.Table.DIMENSION_VALUE_FIELD;
@@ -75,6 +85,7 @@ import static com.amazonaws.athena.connectors.cloudwatch.metrics.tables.Table.VA
  * <p>
  * 1. Reads and maps Cloudwatch Metrics and Metric Samples.
  * 2. Attempts to push down time range predicates into Cloudwatch Metrics.
+ * 3. Fetches the time windows of the requested time range concurrently, and writes them in timestamp order.
  */
 public class MetricsRecordHandler
         extends RecordHandler
@@ -92,8 +103,16 @@ public class MetricsRecordHandler
     private static final long THROTTLING_INITIAL_DELAY = 140;
     private static final long THROTTLING_INCREMENTAL_INCREASE = 20;
 
+    //Config for how many time windows of metric samples are fetched concurrently
+    protected static final String GET_METRIC_DATA_CONCURRENCY_CONFIG = "get_metric_data_concurrency";
+    private static final String DEFAULT_GET_METRIC_DATA_CONCURRENCY = "4";
+
     //Used to handle throttling events by applying AIMD congestion control
     private final ThrottlingInvoker invoker;
+    //Pages of ListMetrics which were listed by earlier requests
+    private final ListMetricsCache listMetricsCache;
+    //The maximum number of GetMetricData windows in flight for a split
+    private final int getMetricDataConcurrency;
 
     private final S3Client amazonS3;
     private final CloudWatchClient cloudwatchClient;
@@ -116,6 +135,9 @@ public class MetricsRecordHandler
             .withInitialDelayMs(THROTTLING_INITIAL_DELAY)
             .withIncrease(THROTTLING_INCREMENTAL_INCREASE)
             .build();
+        this.listMetricsCache = makeListMetricsCache(configOptions);
+        this.getMetricDataConcurrency = Math.max(1,
+                Integer.parseInt(configOptions.getOrDefault(GET_METRIC_DATA_CONCURRENCY_CONFIG, DEFAULT_GET_METRIC_DATA_CONCURRENCY)));
     }
 
     /**
@@ -125,7 +147,7 @@ public class MetricsRecordHandler
      */
     @Override
     protected void readWithConstraint(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
-            throws TimeoutException
+            throws Exception
     {
         invoker.setBlockSpiller(blockSpiller);
         if (readRecordsRequest.getTableName().getTableName().equalsIgnoreCase(METRIC_TABLE.getName())) {
@@ -153,7 +175,8 @@ public class MetricsRecordHandler
         do {
             ListMetricsRequest listMetricsRequest = listMetricsRequestBuilder.build();
             prevToken = listMetricsRequest.nextToken();
-            ListMetricsResponse result = invoker.invoke(() -> cloudwatchClient.listMetrics(listMetricsRequest));
+            ListMetricsResponse result = listMetricsCache.get(listMetricsRequest,
+                    () -> invoker.invoke(() -> cloudwatchClient.listMetrics(listMetricsRequest)));
             for (Metric nextMetric : result.metrics()) {
                 blockSpiller.writeRows((Block block, int row) -> {
                     boolean matches = MetricUtils.applyMetricConstraints(blockSpiller.getConstraintEvaluator(), nextMetric, null);
@@ -198,81 +221,137 @@ public class MetricsRecordHandler
     }
 
     /**
-     * Handles retrieving the samples for a specific metric from Cloudwatch Metrics.
+     * Handles retrieving the samples for a specific metric from Cloudwatch Metrics. The requested time range is split
+     * into windows which are fetched concurrently, the windows are written to the spiller one after the other so that
+     * the samples of each metric are written in timestamp order.
      */
     private void readMetricSamplesWithConstraint(BlockSpiller blockSpiller, ReadRecordsRequest request, QueryStatusChecker queryStatusChecker)
-            throws TimeoutException
+            throws Exception
     {
         GetMetricDataRequest originalDataRequest = MetricUtils.makeGetMetricDataRequest(request);
         Map<String, MetricDataQuery> queries = new HashMap<>();
         for (MetricDataQuery query : originalDataRequest.metricDataQueries()) {
             queries.put(query.id(), query);
         }
-        GetMetricDataRequest.Builder dataRequestBuilder = originalDataRequest.toBuilder();
+        List<GetMetricDataRequest> windowRequests = MetricUtils.makeWindowRequests(originalDataRequest);
+        logger.info("readMetricSamplesWithConstraint: fetching {} windows, {} at a time", windowRequests.size(), getMetricDataConcurrency);
+
+        ExecutorService windowFetcher = Executors.newFixedThreadPool(Math.min(getMetricDataConcurrency, windowRequests.size()),
+                new ThreadFactoryBuilder().setNameFormat("metrics-window-fetch-%d").setDaemon(true).build());
+        Deque<Future<List<MetricDataResult>>> fetchedWindows = new ArrayDeque<>();
+        Iterator<GetMetricDataRequest> nextWindows = windowRequests.iterator();
+        try {
+            while (nextWindows.hasNext() && fetchedWindows.size() < getMetricDataConcurrency) {
+                GetMetricDataRequest windowRequest = nextWindows.next();
+                fetchedWindows.add(windowFetcher.submit(() -> fetchWindow(windowRequest, queryStatusChecker)));
+            }
+            while (!fetchedWindows.isEmpty()) {
+                List<MetricDataResult> results = getFetchedWindow(fetchedWindows.poll());
+                if (nextWindows.hasNext() && queryStatusChecker.isQueryRunning()) {
+                    GetMetricDataRequest windowRequest = nextWindows.next();
+                    fetchedWindows.add(windowFetcher.submit(() -> fetchWindow(windowRequest, queryStatusChecker)));
+                }
+                for (MetricDataResult nextMetric : results) {
+                    writeMetricSamples(blockSpiller, request, queries.get(nextMetric.id()).metricStat(), nextMetric);
+                }
+                if (!queryStatusChecker.isQueryRunning()) {
+                    break;
+                }
+            }
+        }
+        finally {
+            windowFetcher.shutdownNow();
+        }
+    }
 
+    /**
+     * Pages through GetMetricData for a single time window.
+     */
+    private List<MetricDataResult> fetchWindow(GetMetricDataRequest windowRequest, QueryStatusChecker queryStatusChecker)
+            throws TimeoutException
+    {
+        List<MetricDataResult> results = new ArrayList<>();
+        GetMetricDataRequest.Builder dataRequestBuilder = windowRequest.toBuilder();
         String prevToken;
         String nextToken;
-        ValueSet dimensionNameConstraint = request.getConstraints().getSummary().get(DIMENSION_NAME_FIELD);
-        ValueSet dimensionValueConstraint = request.getConstraints().getSummary().get(DIMENSION_VALUE_FIELD);
         do {
             GetMetricDataRequest dataRequest = dataRequestBuilder.build();
             prevToken = dataRequest.nextToken();
             GetMetricDataResponse result = invoker.invoke(() -> cloudwatchClient.getMetricData(dataRequest));
-            for (MetricDataResult nextMetric : result.metricDataResults()) {
-                MetricStat metricStat = queries.get(nextMetric.id()).metricStat();
-                List<Instant> timestamps = nextMetric.timestamps();
-                List<Double> values = nextMetric.values();
-                for (int i = 0; i < nextMetric.values().size(); i++) {
-                    int sampleNum = i;
-                    blockSpiller.writeRows((Block block, int row) -> {
-                        /**
-                         * Most constraints were already applied at split generation so we only need to apply
-                         * a subset.
-                         */
-                        block.offerValue(METRIC_NAME_FIELD, row, metricStat.metric().metricName());
-                        block.offerValue(NAMESPACE_FIELD, row, metricStat.metric().namespace());
-                        block.offerValue(STATISTIC_FIELD, row, metricStat.stat());
+            results.addAll(result.metricDataResults());
+            nextToken = result.nextToken();
+            dataRequestBuilder.nextToken(result.nextToken());
+        }
+        while (nextToken != null && !nextToken.equalsIgnoreCase(prevToken) && queryStatusChecker.isQueryRunning());
+        return results;
+    }
 
-                        block.offerComplexValue(DIMENSIONS_FIELD,
-                                row,
-                                (Field field, Object val) -> {
-                                    if (field.getName().equals(DIMENSION_NAME_FIELD)) {
-                                        return ((Dimension) val).name();
-                                    }
-                                    else if (field.getName().equals(DIMENSION_VALUE_FIELD)) {
-                                        return ((Dimension) val).value();
-                                    }
+    private static List<MetricDataResult> getFetchedWindow(Future<List<MetricDataResult>> fetchedWindow)
+            throws Exception
+    {
+        try {
+            return fetchedWindow.get();
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        }
+    }
 
-                                    throw new RuntimeException("Unexpected field " + field.getName());
-                                },
-                                metricStat.metric().dimensions());
+    private void writeMetricSamples(BlockSpiller blockSpiller, ReadRecordsRequest request, MetricStat metricStat, MetricDataResult nextMetric)
+    {
+        ValueSet dimensionNameConstraint = request.getConstraints().getSummary().get(DIMENSION_NAME_FIELD);
+        ValueSet dimensionValueConstraint = request.getConstraints().getSummary().get(DIMENSION_VALUE_FIELD);
+        List<Instant> timestamps = nextMetric.timestamps();
+        List<Double> values = nextMetric.values();
+        for (int i = 0; i < nextMetric.values().size(); i++) {
+            int sampleNum = i;
+            blockSpiller.writeRows((Block block, int row) -> {
+                /**
+                 * Most constraints were already applied at split generation so we only need to apply
+                 * a subset.
+                 */
+                block.offerValue(METRIC_NAME_FIELD, row, metricStat.metric().metricName());
+                block.offerValue(NAMESPACE_FIELD, row, metricStat.metric().namespace());
+                block.offerValue(STATISTIC_FIELD, row, metricStat.stat());
 
-                        //This field is 'faked' in that we just use it as a convenient way to filter single dimensions. As such
-                        //we always populate it with the value of the filter if the constraint passed and the filter was singleValue
-                        String dimName = (dimensionNameConstraint == null || !dimensionNameConstraint.isSingleValue())
-                                ? null : dimensionNameConstraint.getSingleValue().toString();
-                        block.offerValue(DIMENSION_NAME_FIELD, row, dimName);
+                block.offerComplexValue(DIMENSIONS_FIELD,
+                        row,
+                        (Field field, Object val) -> {
+                            if (field.getName().equals(DIMENSION_NAME_FIELD)) {
+                                return ((Dimension) val).name();
+                            }
+                            else if (field.getName().equals(DIMENSION_VALUE_FIELD)) {
+                                return ((Dimension) val).value();
+                            }
 
-                        //This field is 'faked' in that we just use it as a convenient way to filter single dimensions. As such
-                        //we always populate it with the value of the filter if the constraint passed and the filter was singleValue
-                        String dimVal = (dimensionValueConstraint == null || !dimensionValueConstraint.isSingleValue())
-                                ? null : dimensionValueConstraint.getSingleValue().toString();
-                        block.offerValue(DIMENSION_VALUE_FIELD, row, dimVal);
+                            throw new RuntimeException("Unexpected field " + field.getName());
+                        },
+                        metricStat.metric().dimensions());
 
-                        block.offerValue(PERIOD_FIELD, row, metricStat.period());
+                //This field is 'faked' in that we just use it as a convenient way to filter single dimensions. As such
+                //we always populate it with the value of the filter if the constraint passed and the filter was singleValue
+                String dimName = (dimensionNameConstraint == null || !dimensionNameConstraint.isSingleValue())
+                        ? null : dimensionNameConstraint.getSingleValue().toString();
+                block.offerValue(DIMENSION_NAME_FIELD, row, dimName);
 
-                        boolean matches = true;
-                        block.offerValue(VALUE_FIELD, row, values.get(sampleNum));
-                        long timestamp = timestamps.get(sampleNum).getEpochSecond();
-                        block.offerValue(TIMESTAMP_FIELD, row, timestamp);
+                //This field is 'faked' in that we just use it as a convenient way to filter single dimensions. As such
+                //we always populate it with the value of the filter if the constraint passed and the filter was singleValue
+                String dimVal = (dimensionValueConstraint == null || !dimensionValueConstraint.isSingleValue())
+                        ? null : dimensionValueConstraint.getSingleValue().toString();
+                block.offerValue(DIMENSION_VALUE_FIELD, row, dimVal);
 
-                        return matches ? 1 : 0;
-                    });
-                }
-            }
-            nextToken = result.nextToken();
-            dataRequestBuilder.nextToken(result.nextToken());
+                block.offerValue(PERIOD_FIELD, row, metricStat.period());
+
+                boolean matches = true;
+                block.offerValue(VALUE_FIELD, row, values.get(sampleNum));
+                long timestamp = timestamps.get(sampleNum).getEpochSecond();
+                block.offerValue(TIMESTAMP_FIELD, row, timestamp);
+
+                return matches ? 1 : 0;
+            });
         }
-        while (nextToken != null && !nextToken.equalsIgnoreCase(prevToken) && queryStatusChecker.isQueryRunning());
     }
 }
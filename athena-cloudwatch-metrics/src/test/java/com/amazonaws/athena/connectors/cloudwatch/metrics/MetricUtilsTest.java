@@ -43,8 +43,11 @@ import software.amazon.awssdk.services.cloudwatch.model.DimensionFilter;
 import software.amazon.awssdk.services.cloudwatch.model.GetMetricDataRequest;
 import software.amazon.awssdk.services.cloudwatch.model.ListMetricsRequest;
 import software.amazon.awssdk.services.cloudwatch.model.Metric;
+import software.amazon.awssdk.services.cloudwatch.model.MetricDataQuery;
 import software.amazon.awssdk.services.cloudwatch.model.MetricStat;
+import software.amazon.awssdk.services.cloudwatch.model.ScanBy;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -224,4 +227,49 @@ public class MetricUtilsTest
         assertEquals(1000L, actual.startTime().toEpochMilli());
         assertTrue(actual.startTime().toEpochMilli() <= System.currentTimeMillis() + 1_000);
     }
+
+    @Test
+    public void makeWindowRequests()
+    {
+        List<MetricDataQuery> queries = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            queries.add(MetricDataQuery.builder()
+                    .id("m" + i)
+                    .metricStat(MetricStat.builder()
+                            .metric(Metric.builder().namespace("namespace").metricName("metric-" + i).build())
+                            .period(60)
+                            .stat("p90")
+                            .build())
+                    .build());
+        }
+        long startTime = 1_700_001_800L;
+        long endTime = startTime + 3 * 24 * 3600;
+        GetMetricDataRequest dataRequest = GetMetricDataRequest.builder()
+                .metricDataQueries(queries)
+                .startTime(Instant.ofEpochSecond(startTime))
+                .endTime(Instant.ofEpochSecond(endTime))
+                .build();
+
+        //100 metrics at a 60 second period fit in 16 hour windows, aligned to the hour
+        List<GetMetricDataRequest> actual = MetricUtils.makeWindowRequests(dataRequest);
+        assertEquals(6, actual.size());
+        assertEquals(startTime, actual.get(0).startTime().getEpochSecond());
+        assertEquals(1_700_006_400L, actual.get(0).endTime().getEpochSecond());
+        for (int i = 1; i < actual.size(); i++) {
+            assertEquals(actual.get(i - 1).endTime(), actual.get(i).startTime());
+            assertEquals(0, actual.get(i).startTime().getEpochSecond() % (16 * 3600));
+        }
+        assertEquals(endTime, actual.get(actual.size() - 1).endTime().getEpochSecond());
+        for (GetMetricDataRequest next : actual) {
+            assertEquals(ScanBy.TIMESTAMP_ASCENDING, next.scanBy());
+            assertEquals(queries, next.metricDataQueries());
+        }
+
+        //Ranges needing more than MAX_WINDOWS windows, like reads without a lower time bound, are paged through instead
+        GetMetricDataRequest unbounded = dataRequest.toBuilder().startTime(Instant.ofEpochSecond(0)).build();
+        List<GetMetricDataRequest> unboundedRequests = MetricUtils.makeWindowRequests(unbounded);
+        assertEquals(1, unboundedRequests.size());
+        assertEquals(unbounded.startTime(), unboundedRequests.get(0).startTime());
+        assertEquals(unbounded.endTime(), unboundedRequests.get(0).endTime());
+    }
 }
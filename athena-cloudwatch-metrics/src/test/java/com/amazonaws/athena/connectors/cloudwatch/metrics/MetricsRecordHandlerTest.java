@@ -239,6 +239,49 @@ public class MetricsRecordHandlerTest
         logger.info("readMetricsWithConstraint: exit");
     }
 
+    @Test
+    public void readMetricsWithConstraintCachesListMetrics()
+            throws Exception
+    {
+        String namespace = "namespace";
+        AtomicLong numCalls = new AtomicLong(0);
+        when(mockMetrics.listMetrics(nullable(ListMetricsRequest.class))).thenAnswer((InvocationOnMock invocation) -> {
+            numCalls.incrementAndGet();
+            return ListMetricsResponse.builder()
+                    .metrics(Metric.builder().namespace(namespace).metricName("metric").build())
+                    .build();
+        });
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(NAMESPACE_FIELD, makeStringEquals(allocator, namespace));
+
+        for (int i = 0; i < 2; i++) {
+            Split split = Split.newBuilder(S3SpillLocation.newBuilder()
+                    .withBucket(UUID.randomUUID().toString())
+                    .withSplitId(UUID.randomUUID().toString())
+                    .withQueryId(UUID.randomUUID().toString())
+                    .withIsDirectory(true)
+                    .build(), keyFactory.create()).build();
+
+            ReadRecordsRequest request = new ReadRecordsRequest(identity,
+                    "catalog",
+                    "queryId-" + System.currentTimeMillis(),
+                    METRICS_TABLE_NAME,
+                    METRIC_TABLE.getSchema(),
+                    split,
+                    new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                    100_000_000_000L,
+                    100_000_000_000L//100GB don't expect this to spill
+            );
+
+            ReadRecordsResponse response = (ReadRecordsResponse) handler.doReadRecords(allocator, request);
+            assertEquals(1, response.getRecords().getRowCount());
+        }
+
+        //the second query was answered from the metrics listed by the first one
+        assertEquals(1, numCalls.get());
+    }
+
     @Test
     public void readMetricSamplesWithConstraint()
             throws Exception
@@ -0,0 +1,160 @@
+/*-
+ * #%L
+ * athena-cloudwatch
+ * %%
+ * Copyright (C) 2019 - 2024 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.cloudwatch;
+
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.ConstantExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.FederationExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.FunctionCallExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.VariableExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.amazonaws.athena.connector.lambda.domain.predicate.expression.ConstantExpression.DEFAULT_CONSTANT_EXPRESSION_BLOCK_NAME;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_MSG_FIELD;
+
+/**
+ * Turns the predicates on the log message column into a Cloudwatch Logs filter pattern, so that FilterLogEvents
+ * only returns the log events which can match the query.
+ * <p>
+ * The filter pattern is a conjunction of quoted terms, every log event containing all of them is returned. It is
+ * a superset of the rows matching the predicates, which are still evaluated on every returned log event:
+ * 1. message = 'value' requires the term value.
+ * 2. message LIKE 'pattern' requires the longest run of characters in the pattern which has no wildcard.
+ */
+public final class CloudwatchFilterPatternBuilder
+{
+    //Shorter terms are too unselective to be worth sending.
+    private static final int MIN_TERM_LENGTH = 3;
+    //The maximum length of a Cloudwatch Logs filter pattern.
+    private static final int MAX_FILTER_PATTERN_LENGTH = 1024;
+
+    private CloudwatchFilterPatternBuilder() {}
+
+    /**
+     * @param constraints The constraints for the read as provided by Athena based on the customer's query.
+     * @return The filter pattern, or null if the predicates on the log message can not be turned into one.
+     */
+    public static String buildFilterPattern(Constraints constraints)
+    {
+        Set<String> terms = new LinkedHashSet<>();
+
+        ValueSet messageConstraint = constraints.getSummary().get(LOG_MSG_FIELD);
+        if (messageConstraint != null && !messageConstraint.isNullAllowed() && messageConstraint.isSingleValue()) {
+            addTerm(terms, String.valueOf(messageConstraint.getSingleValue()));
+        }
+
+        for (String likePattern : getMessageLikePatterns(constraints)) {
+            String longestLiteral = "";
+            for (String literal : likePattern.split("[%_]")) {
+                if (literal.length() > longestLiteral.length()) {
+                    longestLiteral = literal;
+                }
+            }
+            addTerm(terms, longestLiteral);
+        }
+
+        if (terms.isEmpty()) {
+            return null;
+        }
+        String filterPattern = String.join(" ", terms);
+        return (filterPattern.length() <= MAX_FILTER_PATTERN_LENGTH) ? filterPattern : null;
+    }
+
+    /**
+     * Compiles the LIKE predicates on the log message, which Athena pushes down as function expressions, so that they
+     * can be evaluated on the log events read from Cloudwatch.
+     *
+     * @param constraints The constraints for the read as provided by Athena based on the customer's query.
+     * @return The patterns that the log message must fully match.
+     */
+    public static List<Pattern> buildMessagePatterns(Constraints constraints)
+    {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String likePattern : getMessageLikePatterns(constraints)) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char next : likePattern.toCharArray()) {
+                if (next == '%' || next == '_') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(next == '%' ? ".*" : ".");
+                }
+                else {
+                    literal.append(next);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            patterns.add(Pattern.compile(regex.toString(), Pattern.DOTALL));
+        }
+        return patterns;
+    }
+
+    /**
+     * @return The patterns of the message LIKE 'pattern' expressions which are ANDed with the rest of the query.
+     */
+    private static List<String> getMessageLikePatterns(Constraints constraints)
+    {
+        List<String> likePatterns = new ArrayList<>();
+        if (constraints.getExpression() == null) {
+            return likePatterns;
+        }
+        for (FederationExpression expression : constraints.getExpression()) {
+            if (!(expression instanceof FunctionCallExpression)) {
+                continue;
+            }
+            FunctionCallExpression functionCall = (FunctionCallExpression) expression;
+            if (!StandardFunctions.LIKE_PATTERN_FUNCTION_NAME.getFunctionName().equals(functionCall.getFunctionName())
+                    || functionCall.getArguments().size() != 2) {
+                continue;
+            }
+            FederationExpression column = functionCall.getArguments().get(0);
+            FederationExpression pattern = functionCall.getArguments().get(1);
+            if (column instanceof VariableExpression && LOG_MSG_FIELD.equals(((VariableExpression) column).getColumnName())
+                    && pattern instanceof ConstantExpression) {
+                FieldReader reader = ((ConstantExpression) pattern).getValues().getFieldReader(DEFAULT_CONSTANT_EXPRESSION_BLOCK_NAME);
+                reader.setPosition(0);
+                if (reader.isSet()) {
+                    likePatterns.add(String.valueOf(reader.readObject()));
+                }
+            }
+        }
+        return likePatterns;
+    }
+
+    private static void addTerm(Set<String> terms, String term)
+    {
+        //Terms are quoted so that they can hold any character but a double quote.
+        if (term.length() >= MIN_TERM_LENGTH && !term.contains("\"")) {
+            terms.add("\"" + term + "\"");
+        }
+    }
+}
@@ -27,6 +27,8 @@ import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.handlers.MetadataHandler;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
@@ -40,7 +42,9 @@ import com.amazonaws.athena.connector.lambda.metadata.ListSchemasRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListSchemasResponse;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.DataSourceOptimizations;
 import com.amazonaws.athena.connector.lambda.metadata.optimizations.OptimizationSubType;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.pushdown.ComplexExpressionPushdownSubType;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connectors.cloudwatch.qpt.CloudwatchQueryPassthrough;
 import com.google.common.collect.ImmutableMap;
@@ -68,11 +72,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchExceptionFilter.EXCEPTION_FILTER;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getLowerBound;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getResult;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getTimeSpan;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getUpperBound;
 
 /**
  * Handles metadata requests for the Athena Cloudwatch Connector.
@@ -82,7 +90,7 @@ import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getResu
  * 1. Each LogGroup is treated as a schema (aka database).
  * 2. Each LogStream is treated as a table.
  * 3. A special 'all_log_streams' view is added which allows you to query all LogStreams in a LogGroup.
- * 4. LogStreams area treated as partitions and scanned in parallel.
+ * 4. LogStreams area treated as partitions and scanned in parallel, large LogStreams are scanned in time slices.
  * 5. Timestamp predicates are pushed into Cloudwatch itself.
  */
 public class CloudwatchMetadataHandler
@@ -109,6 +117,26 @@ public class CloudwatchMetadataHandler
     protected static final String LOG_MSG_FIELD = "message";
     //The name of the log stream size field in our split objects.
     protected static final String LOG_STREAM_SIZE_FIELD = "log_stream_bytes";
+    //The names of the fields holding the time of the first and last events of a log stream in our partitions.
+    protected static final String LOG_STREAM_FIRST_EVENT_FIELD = "log_stream_first_event";
+    protected static final String LOG_STREAM_LAST_EVENT_FIELD = "log_stream_last_event";
+    //The names of the time range (start inclusive, end exclusive) of a log stream read by a split, either may be absent.
+    protected static final String LOG_SLICE_START_FIELD = "log_slice_start";
+    protected static final String LOG_SLICE_END_FIELD = "log_slice_end";
+    //Separates the log streams of a split which reads several small log streams, log stream names can not contain ':'.
+    protected static final String LOG_STREAM_SEPARATOR = ":";
+    //Log streams spanning more than this are read by several splits, each reading one slice of time.
+    protected static final String LOG_STREAM_SLICE_HOURS_CONFIG = "log_stream_slice_hours";
+    private static final long DEFAULT_LOG_STREAM_SLICE_HOURS = 24;
+    //The maximum number of slices a single log stream is cut into.
+    protected static final int MAX_SLICES_PER_LOG_STREAM = 100;
+    //Up to this many small log streams, spanning no more than one slice in total, are read by the same split.
+    protected static final String LOG_STREAMS_PER_SPLIT_CONFIG = "log_streams_per_split";
+    private static final int DEFAULT_LOG_STREAMS_PER_SPLIT = 10;
+    //Reads with FilterLogEvents, pushing down the predicates on the log message as a filter pattern.
+    protected static final String FILTER_PATTERN_PUSHDOWN_CONFIG = "filter_pattern_pushdown";
+    //Cloudwatch accepts events with a timestamp up to 2 hours after their ingestion time.
+    private static final long MAX_EVENT_INGESTION_DELAY_MILLIS = TimeUnit.HOURS.toMillis(2);
     //The the schema of all Cloudwatch tables.
     protected static final Schema CLOUDWATCH_SCHEMA;
 
@@ -255,6 +283,8 @@ public class CloudwatchMetadataHandler
         }
         partitionSchemaBuilder.addField(LOG_STREAM_SIZE_FIELD, new ArrowType.Int(64, true));
         partitionSchemaBuilder.addField(LOG_GROUP_FIELD, Types.MinorType.VARCHAR.getType());
+        partitionSchemaBuilder.addField(LOG_STREAM_FIRST_EVENT_FIELD, new ArrowType.Int(64, true));
+        partitionSchemaBuilder.addField(LOG_STREAM_LAST_EVENT_FIELD, new ArrowType.Int(64, true));
     }
 
     /**
@@ -289,6 +319,9 @@ public class CloudwatchMetadataHandler
                     boolean matched = block.setValue(LOG_GROUP_FIELD, rowNum, cwRequestBuilder.build().logGroupName());
                     matched &= block.setValue(LOG_STREAM_FIELD, rowNum, next.logStreamName());
                     matched &= block.setValue(LOG_STREAM_SIZE_FIELD, rowNum, next.storedBytes());
+                    //Only used to size the splits, so the last event time being eventually consistent is fine.
+                    block.setValue(LOG_STREAM_FIRST_EVENT_FIELD, rowNum, next.firstEventTimestamp());
+                    block.setValue(LOG_STREAM_LAST_EVENT_FIELD, rowNum, getLastEventTime(next));
                     return matched ? 1 : 0;
                 });
             }
@@ -298,8 +331,13 @@ public class CloudwatchMetadataHandler
     }
 
     /**
-     * Each partition is converted into a single Split which means we will potentially read all LogStreams required for
-     * the query in parallel.
+     * Partitions are converted into Splits based on the time range of the LogStream that the query has to read:
+     * 1. A LogStream spanning more than a slice of time (see LOG_STREAM_SLICE_HOURS_CONFIG) is cut into several Splits,
+     * each reading one slice of time. The first and last slices are left open so that events outside of the
+     * (eventually consistent) first and last event times of the LogStream are still read.
+     * 2. Smaller LogStreams are read together by one Split, as long as they span no more than a slice in total.
+     * This means we will potentially read all LogStreams required for the query in parallel, with each Split reading
+     * a similar range of time.
      *
      * @see MetadataHandler
      */
@@ -315,46 +353,136 @@ public class CloudwatchMetadataHandler
                             .build());
         }
 
+        long sliceMillis = TimeUnit.HOURS.toMillis(Long.parseLong(configOptions.getOrDefault(LOG_STREAM_SLICE_HOURS_CONFIG,
+                String.valueOf(DEFAULT_LOG_STREAM_SLICE_HOURS))));
+        int streamsPerSplit = Integer.parseInt(configOptions.getOrDefault(LOG_STREAMS_PER_SPLIT_CONFIG,
+                String.valueOf(DEFAULT_LOG_STREAMS_PER_SPLIT)));
+        Range timeSpan = getTimeSpan(request.getConstraints());
+        Long timeLowerBound = getLowerBound(timeSpan);
+        Long timeUpperBound = getUpperBound(timeSpan);
+
         int partitionContd = decodeContinuationToken(request);
         Set<Split> splits = new HashSet<>();
         Block partitions = request.getPartitions();
+        FieldReader logStreamReader = partitions.getFieldReader(LOG_STREAM_FIELD);
+        FieldReader logGroupReader = partitions.getFieldReader(LOG_GROUP_FIELD);
+        FieldReader sizeReader = partitions.getFieldReader(LOG_STREAM_SIZE_FIELD);
+        FieldReader firstEventReader = partitions.getFieldReader(LOG_STREAM_FIRST_EVENT_FIELD);
+        FieldReader lastEventReader = partitions.getFieldReader(LOG_STREAM_LAST_EVENT_FIELD);
+
+        //The small log streams waiting to be read by the same split.
+        List<String> batchedStreams = new ArrayList<>();
+        String batchedGroup = null;
+        long batchedBytes = 0;
+        long batchedSpan = 0;
         for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
-            FieldReader logStreamReader = partitions.getFieldReader(LOG_STREAM_FIELD);
             logStreamReader.setPosition(curPartition);
-
-            FieldReader logGroupReader = partitions.getFieldReader(LOG_GROUP_FIELD);
             logGroupReader.setPosition(curPartition);
-
-            FieldReader sizeReader = partitions.getFieldReader(LOG_STREAM_SIZE_FIELD);
             sizeReader.setPosition(curPartition);
+            firstEventReader.setPosition(curPartition);
+            lastEventReader.setPosition(curPartition);
+
+            String logStream = String.valueOf(logStreamReader.readText());
+            String logGroup = String.valueOf(logGroupReader.readText());
+            long size = sizeReader.isSet() ? sizeReader.readLong() : 0;
+
+            //Log streams which have not reported their event times yet are assumed to be small.
+            long low = 0;
+            long high = 0;
+            if (firstEventReader.isSet() && lastEventReader.isSet()) {
+                low = (timeLowerBound == null) ? firstEventReader.readLong() : Math.max(firstEventReader.readLong(), timeLowerBound);
+                high = (timeUpperBound == null) ? lastEventReader.readLong() : Math.min(lastEventReader.readLong(), timeUpperBound);
+            }
+            long span = Math.max(high - low, 0);
 
-            //Every split must have a unique location if we wish to spill to avoid failures
-            SpillLocation spillLocation = makeSpillLocation(request);
-
-            Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
-                    .add(CloudwatchMetadataHandler.LOG_GROUP_FIELD, String.valueOf(logGroupReader.readText()))
-                    .add(CloudwatchMetadataHandler.LOG_STREAM_FIELD, String.valueOf(logStreamReader.readText()))
-                    .add(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD, String.valueOf(sizeReader.readLong()));
-
-            splits.add(splitBuilder.build());
+            if (span > sliceMillis) {
+                splits.addAll(makeTimeSlicedSplits(request, logGroup, logStream, size, low, high, sliceMillis));
+            }
+            else {
+                if (!batchedStreams.isEmpty() && (batchedStreams.size() >= streamsPerSplit
+                        || batchedSpan + span > sliceMillis || !logGroup.equals(batchedGroup))) {
+                    splits.add(makeSplit(request, batchedGroup, batchedStreams, batchedBytes, null, null));
+                    batchedStreams.clear();
+                    batchedBytes = 0;
+                    batchedSpan = 0;
+                }
+                batchedStreams.add(logStream);
+                batchedGroup = logGroup;
+                batchedBytes += size;
+                batchedSpan += span;
+            }
 
             if (splits.size() >= MAX_SPLITS_PER_REQUEST) {
                 //We exceeded the number of split we want to return in a single request, return and provide
                 //a continuation token.
+                if (!batchedStreams.isEmpty()) {
+                    splits.add(makeSplit(request, batchedGroup, batchedStreams, batchedBytes, null, null));
+                }
                 return new GetSplitsResponse(request.getCatalogName(),
                         splits,
-                        encodeContinuationToken(curPartition));
+                        encodeContinuationToken(curPartition + 1));
             }
         }
 
+        if (!batchedStreams.isEmpty()) {
+            splits.add(makeSplit(request, batchedGroup, batchedStreams, batchedBytes, null, null));
+        }
+
         return new GetSplitsResponse(request.getCatalogName(), splits, null);
     }
 
+    /**
+     * Cuts the time range of a LogStream into slices of at least sliceMillis, making one Split per slice.
+     *
+     * @param low The start of the time range, the first slice reads everything before it as well.
+     * @param high The end of the time range, the last slice reads everything after it as well.
+     * @return The Splits reading the LogStream.
+     */
+    private List<Split> makeTimeSlicedSplits(GetSplitsRequest request, String logGroup, String logStream, long size,
+            long low, long high, long sliceMillis)
+    {
+        long sliceLength = Math.max(sliceMillis, (high - low + MAX_SLICES_PER_LOG_STREAM - 1) / MAX_SLICES_PER_LOG_STREAM);
+        int numSlices = (int) ((high - low + sliceLength - 1) / sliceLength);
+        List<Split> splits = new ArrayList<>(numSlices);
+        for (int slice = 0; slice < numSlices; slice++) {
+            Long sliceStart = (slice == 0) ? null : low + slice * sliceLength;
+            Long sliceEnd = (slice == numSlices - 1) ? null : low + (slice + 1) * sliceLength;
+            splits.add(makeSplit(request, logGroup, Collections.singletonList(logStream), size / numSlices, sliceStart, sliceEnd));
+        }
+        logger.info("makeTimeSlicedSplits: LogGroup[{}] LogStream[{}] slices[{}]", logGroup, logStream, numSlices);
+        return splits;
+    }
+
+    private Split makeSplit(GetSplitsRequest request, String logGroup, List<String> logStreams, long size,
+            Long sliceStart, Long sliceEnd)
+    {
+        //Every split must have a unique location if we wish to spill to avoid failures
+        SpillLocation spillLocation = makeSpillLocation(request);
+
+        Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
+                .add(CloudwatchMetadataHandler.LOG_GROUP_FIELD, logGroup)
+                .add(CloudwatchMetadataHandler.LOG_STREAM_FIELD, String.join(LOG_STREAM_SEPARATOR, logStreams))
+                .add(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD, String.valueOf(size));
+        if (sliceStart != null) {
+            splitBuilder.add(LOG_SLICE_START_FIELD, String.valueOf(sliceStart));
+        }
+        if (sliceEnd != null) {
+            splitBuilder.add(LOG_SLICE_END_FIELD, String.valueOf(sliceEnd));
+        }
+        return splitBuilder.build();
+    }
+
     @Override
     public GetDataSourceCapabilitiesResponse doGetDataSourceCapabilities(BlockAllocator allocator, GetDataSourceCapabilitiesRequest request)
     {
         ImmutableMap.Builder<String, List<OptimizationSubType>> capabilities = ImmutableMap.builder();
         queryPassthrough.addQueryPassthroughCapabilityIfEnabled(capabilities, configOptions);
+        if (Boolean.parseBoolean(configOptions.getOrDefault(FILTER_PATTERN_PUSHDOWN_CONFIG, "false"))) {
+            //LIKE predicates on the log message become part of the filter pattern
+            capabilities.put(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.withSupportedSubTypes(
+                    ComplexExpressionPushdownSubType.SUPPORTED_FUNCTION_EXPRESSION_TYPES
+                            .withSubTypeProperties(StandardFunctions.LIKE_PATTERN_FUNCTION_NAME.getFunctionName().getFunctionName())));
+        }
 
         return new GetDataSourceCapabilitiesResponse(request.getCatalogName(), capabilities.build());
     }
@@ -405,6 +533,21 @@ public class CloudwatchMetadataHandler
         return String.valueOf(partition);
     }
 
+    /**
+     * The last event time of a LogStream is updated on an eventual consistency basis, while events can not be
+     * ingested with a timestamp more than 2 hours after their ingestion time.
+     *
+     * @return The best estimate of the time of the last event in the LogStream, or null if it has no events.
+     */
+    private static Long getLastEventTime(LogStream logStream)
+    {
+        if (logStream.lastIngestionTime() == null) {
+            return logStream.lastEventTimestamp();
+        }
+        long lastIngestionTime = logStream.lastIngestionTime() + MAX_EVENT_INGESTION_DELAY_MILLIS;
+        return (logStream.lastEventTimestamp() == null) ? lastIngestionTime : Math.max(lastIngestionTime, logStream.lastEventTimestamp());
+    }
+
     /**
      * Helper that converts a LogStream to a TableName by lowercasing the schema of the request and the logstreamname.
      *
@@ -26,17 +26,18 @@ import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
-import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
-import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
-import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.cloudwatch.qpt.CloudwatchQueryPassthrough;
+import com.google.common.collect.Lists;
 import org.apache.arrow.util.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.FilterLogEventsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.FilterLogEventsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.FilteredLogEvent;
 import software.amazon.awssdk.services.cloudwatchlogs.model.GetLogEventsRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.GetLogEventsResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.GetQueryResultsResponse;
@@ -45,25 +46,37 @@ import software.amazon.awssdk.services.cloudwatchlogs.model.ResultField;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchExceptionFilter.EXCEPTION_FILTER;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchFilterPatternBuilder.buildFilterPattern;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchFilterPatternBuilder.buildMessagePatterns;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.FILTER_PATTERN_PUSHDOWN_CONFIG;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_GROUP_FIELD;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_MSG_FIELD;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_SLICE_END_FIELD;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_SLICE_START_FIELD;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_STREAM_FIELD;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_STREAM_SEPARATOR;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_TIME_FIELD;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getLowerBound;
 import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getResult;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getTimeSpan;
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchUtils.getUpperBound;
 
 /**
  * Handles data read record requests for the Athena Cloudwatch Connector.
  * <p>
  * For more detail, please see the module's README.md, some notable characteristics of this class include:
  * <p>
- * 1. Reads and maps Cloudwatch Logs data for a specific LogStream (split)
+ * 1. Reads and maps Cloudwatch Logs data for a specific LogStream, a slice of time of it or several small LogStreams (split)
  * 2. Attempts to push down time range predicates into Cloudwatch.
+ * 3. Optionally reads with FilterLogEvents, pushing down predicates on the log message as a filter pattern.
  */
 public class CloudwatchRecordHandler
         extends RecordHandler
@@ -71,11 +84,14 @@ public class CloudwatchRecordHandler
     private static final Logger logger = LoggerFactory.getLogger(CloudwatchRecordHandler.class);
     //Used to tag log lines generated by this connector for diagnostic purposes when interacting with Athena.
     private static final String SOURCE_TYPE = "cloudwatch";
+    //The maximum number of log streams a single FilterLogEvents request can read.
+    private static final int MAX_FILTER_LOG_STREAMS = 100;
     //Used to handle Throttling events and apply AIMD congestion control
     private final ThrottlingInvoker invoker;
     private final AtomicLong count = new AtomicLong(0);
     private final CloudWatchLogsClient awsLogs;
     private final CloudwatchQueryPassthrough queryPassthrough = new CloudwatchQueryPassthrough();
+    private final boolean filterPatternPushdown;
 
     public CloudwatchRecordHandler(java.util.Map<String, String> configOptions)
     {
@@ -93,6 +109,7 @@ public class CloudwatchRecordHandler
         super(amazonS3, secretsManager, athena, SOURCE_TYPE, configOptions);
         this.awsLogs = awsLogs;
         this.invoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, configOptions).build();
+        this.filterPatternPushdown = Boolean.parseBoolean(configOptions.getOrDefault(FILTER_PATTERN_PUSHDOWN_CONFIG, "false"));
     }
 
     /**
@@ -108,49 +125,120 @@ public class CloudwatchRecordHandler
             getQueryPassthreoughResults(spiller, recordsRequest);
         }
         else {
-            String continuationToken = null;
-            TableName tableName = recordsRequest.getTableName();
             Split split = recordsRequest.getSplit();
             invoker.setBlockSpiller(spiller);
-            do {
-                final String actualContinuationToken = continuationToken;
-                GetLogEventsResponse logEventsResponse = invoker.invoke(() -> awsLogs.getLogEvents(
-                        pushDownConstraints(recordsRequest.getConstraints(),
-                                GetLogEventsRequest.builder()
-                                        .logGroupName(split.getProperty(LOG_GROUP_FIELD))
-                                        //We use the property instead of the table name because of the special all_streams table
-                                        .logStreamName(split.getProperty(LOG_STREAM_FIELD))
-                                        .nextToken(actualContinuationToken)
-                                        // must be set to use nextToken correctly
-                                        .startFromHead(true)
-                                        .build()
-                        )));
-
-                if (continuationToken == null || !continuationToken.equals(logEventsResponse.nextForwardToken())) {
-                    continuationToken = logEventsResponse.nextForwardToken();
-                }
-                else {
-                    continuationToken = null;
+            List<String> logStreams = Arrays.asList(split.getProperty(LOG_STREAM_FIELD).split(LOG_STREAM_SEPARATOR));
+            List<Pattern> messagePatterns = buildMessagePatterns(recordsRequest.getConstraints());
+            String filterPattern = filterPatternPushdown ? buildFilterPattern(recordsRequest.getConstraints()) : null;
+            if (filterPattern != null) {
+                readFilteredLogEvents(spiller, recordsRequest, logStreams, filterPattern, messagePatterns, queryStatusChecker);
+                return;
+            }
+            //A split reads either a slice of time of one log stream, or several small log streams one after the other
+            for (String logStream : logStreams) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    return;
                 }
+                readLogStream(spiller, recordsRequest, logStream, messagePatterns, queryStatusChecker);
+            }
+        }
+    }
 
-                for (OutputLogEvent ole : logEventsResponse.events()) {
-                    spiller.writeRows((Block block, int rowNum) -> {
-                        boolean matched = true;
-                        matched &= block.offerValue(LOG_STREAM_FIELD, rowNum, split.getProperty(LOG_STREAM_FIELD));
-                        matched &= block.offerValue(LOG_TIME_FIELD, rowNum, ole.timestamp());
-                        matched &= block.offerValue(LOG_MSG_FIELD, rowNum, ole.message());
-                        return matched ? 1 : 0;
-                    });
+    /**
+     * Reads the log events matching the filter pattern with FilterLogEvents, which filters them on the Cloudwatch side
+     * instead of returning all the log events of the log streams.
+     */
+    private void readFilteredLogEvents(BlockSpiller spiller, ReadRecordsRequest recordsRequest, List<String> logStreams,
+            String filterPattern, List<Pattern> messagePatterns, QueryStatusChecker queryStatusChecker)
+            throws TimeoutException
+    {
+        Split split = recordsRequest.getSplit();
+        Long startTime = getStartTime(recordsRequest.getConstraints(), split);
+        //Unlike GetLogEvents, FilterLogEvents also returns the events at its end time, which belong to the next slice
+        Long exclusiveEndTime = getEndTime(recordsRequest.getConstraints(), split);
+        Long endTime = (exclusiveEndTime == null) ? null : exclusiveEndTime - 1;
+        for (List<String> nextLogStreams : Lists.partition(logStreams, MAX_FILTER_LOG_STREAMS)) {
+            String nextToken = null;
+            do {
+                FilterLogEventsRequest request = FilterLogEventsRequest.builder()
+                        .logGroupName(split.getProperty(LOG_GROUP_FIELD))
+                        .logStreamNames(nextLogStreams)
+                        .filterPattern(filterPattern)
+                        .startTime(startTime)
+                        .endTime(endTime)
+                        .nextToken(nextToken)
+                        .build();
+                FilterLogEventsResponse response = invoker.invoke(() -> awsLogs.filterLogEvents(request));
+
+                for (FilteredLogEvent event : response.events()) {
+                    writeLogEvent(spiller, event.logStreamName(), event.timestamp(), event.message(), messagePatterns);
                 }
+                nextToken = response.nextToken();
 
-                logger.info("readWithConstraint: LogGroup[{}] LogStream[{}] Continuation[{}] rows[{}]",
-                        tableName.getSchemaName(), tableName.getTableName(), continuationToken,
-                        logEventsResponse.events().size());
+                logger.info("readFilteredLogEvents: LogGroup[{}] FilterPattern[{}] Continuation[{}] rows[{}]",
+                        split.getProperty(LOG_GROUP_FIELD), filterPattern, nextToken, response.events().size());
             }
-            while (continuationToken != null && queryStatusChecker.isQueryRunning());
+            while (nextToken != null && queryStatusChecker.isQueryRunning());
         }
     }
 
+    private void readLogStream(BlockSpiller spiller, ReadRecordsRequest recordsRequest, String logStream,
+            List<Pattern> messagePatterns, QueryStatusChecker queryStatusChecker)
+            throws TimeoutException
+    {
+        String continuationToken = null;
+        TableName tableName = recordsRequest.getTableName();
+        Split split = recordsRequest.getSplit();
+        do {
+            final String actualContinuationToken = continuationToken;
+            GetLogEventsResponse logEventsResponse = invoker.invoke(() -> awsLogs.getLogEvents(
+                    pushDownConstraints(recordsRequest.getConstraints(), split,
+                            GetLogEventsRequest.builder()
+                                    .logGroupName(split.getProperty(LOG_GROUP_FIELD))
+                                    //We use the property instead of the table name because of the special all_streams table
+                                    .logStreamName(logStream)
+                                    .nextToken(actualContinuationToken)
+                                    // must be set to use nextToken correctly
+                                    .startFromHead(true)
+                                    .build()
+                    )));
+
+            if (continuationToken == null || !continuationToken.equals(logEventsResponse.nextForwardToken())) {
+                continuationToken = logEventsResponse.nextForwardToken();
+            }
+            else {
+                continuationToken = null;
+            }
+
+            for (OutputLogEvent ole : logEventsResponse.events()) {
+                writeLogEvent(spiller, logStream, ole.timestamp(), ole.message(), messagePatterns);
+            }
+
+            logger.info("readWithConstraint: LogGroup[{}] LogStream[{}] Continuation[{}] rows[{}]",
+                    tableName.getSchemaName(), logStream, continuationToken,
+                    logEventsResponse.events().size());
+        }
+        while (continuationToken != null && queryStatusChecker.isQueryRunning());
+    }
+
+    private void writeLogEvent(BlockSpiller spiller, String logStream, Long timestamp, String message,
+            List<Pattern> messagePatterns)
+    {
+        //LIKE predicates are not part of the constraints evaluated by the block
+        for (Pattern messagePattern : messagePatterns) {
+            if (message == null || !messagePattern.matcher(message).matches()) {
+                return;
+            }
+        }
+        spiller.writeRows((Block block, int rowNum) -> {
+            boolean matched = true;
+            matched &= block.offerValue(LOG_STREAM_FIELD, rowNum, logStream);
+            matched &= block.offerValue(LOG_TIME_FIELD, rowNum, timestamp);
+            matched &= block.offerValue(LOG_MSG_FIELD, rowNum, message);
+            return matched ? 1 : 0;
+        });
+    }
+
     private void getQueryPassthreoughResults(BlockSpiller spiller, ReadRecordsRequest recordsRequest) throws TimeoutException, InterruptedException
     {
         Map<String, String> qptArguments = recordsRequest.getConstraints().getQueryPassthroughArguments();
@@ -172,36 +260,46 @@ public class CloudwatchRecordHandler
     }
 
     /**
-     * Attempts to push down predicates into Cloudwatch Logs by decorating the Cloudwatch Logs request.
+     * Attempts to push down predicates into Cloudwatch Logs by decorating the Cloudwatch Logs request, and restricts
+     * the request to the slice of time read by the split.
      *
      * @param constraints The constraints for the read as provided by Athena based on the customer's query.
+     * @param split       The split, which may only read a slice of time of the log stream.
      * @param request     The Cloudwatch Logs request to inject predicates to.
      * @return The decorated Cloudwatch Logs request.
      * @note This impl currently only pushing down SortedRangeSet filters (>=, =<, between) on the log time column.
      */
-    private GetLogEventsRequest pushDownConstraints(Constraints constraints, GetLogEventsRequest request)
+    private GetLogEventsRequest pushDownConstraints(Constraints constraints, Split split, GetLogEventsRequest request)
     {
-        GetLogEventsRequest.Builder requestBuilder = request.toBuilder();
-        ValueSet timeConstraint = constraints.getSummary().get(LOG_TIME_FIELD);
-        if (timeConstraint instanceof SortedRangeSet && !timeConstraint.isNullAllowed()) {
-            //SortedRangeSet is how >, <, between is represented which are easiest and most common when
-            //searching logs so we attempt to push that down here as an optimization. SQL can represent complex
-            //overlapping ranges which Cloudwatch can not support so this is not a replacement for applying
-            //constraints using the ConstraintEvaluator.
-
-            Range basicPredicate = ((SortedRangeSet) timeConstraint).getSpan();
-
-            if (!basicPredicate.getLow().isNullValue()) {
-                Long lowerBound = (Long) basicPredicate.getLow().getValue();
-                requestBuilder.startTime(lowerBound);
-            }
+        return request.toBuilder()
+                .startTime(getStartTime(constraints, split))
+                .endTime(getEndTime(constraints, split))
+                .build();
+    }
 
-            if (!basicPredicate.getHigh().isNullValue()) {
-                Long upperBound = (Long) basicPredicate.getHigh().getValue();
-                requestBuilder.endTime(upperBound);
-            }
+    /**
+     * @return The inclusive start of the time range to read, or null if it is unbounded.
+     */
+    private static Long getStartTime(Constraints constraints, Split split)
+    {
+        Long lowerBound = getLowerBound(getTimeSpan(constraints));
+        if (split.getProperty(LOG_SLICE_START_FIELD) != null) {
+            long sliceStart = Long.parseLong(split.getProperty(LOG_SLICE_START_FIELD));
+            lowerBound = (lowerBound == null) ? sliceStart : Math.max(lowerBound, sliceStart);
         }
+        return lowerBound;
+    }
 
-        return requestBuilder.build();
+    /**
+     * @return The exclusive end of the time range to read, or null if it is unbounded.
+     */
+    private static Long getEndTime(Constraints constraints, Split split)
+    {
+        Long upperBound = getUpperBound(getTimeSpan(constraints));
+        if (split.getProperty(LOG_SLICE_END_FIELD) != null) {
+            long sliceEnd = Long.parseLong(split.getProperty(LOG_SLICE_END_FIELD));
+            upperBound = (upperBound == null) ? sliceEnd : Math.min(upperBound, sliceEnd);
+        }
+        return upperBound;
     }
 }
@@ -20,6 +20,10 @@
 package com.amazonaws.athena.connectors.cloudwatch;
 
 import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connectors.cloudwatch.qpt.CloudwatchQueryPassthrough;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +39,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
+import static com.amazonaws.athena.connectors.cloudwatch.CloudwatchMetadataHandler.LOG_TIME_FIELD;
+
 public final class CloudwatchUtils
 {
     private static final Logger logger = LoggerFactory.getLogger(CloudwatchUtils.class);
@@ -87,4 +93,44 @@ public final class CloudwatchUtils
 
         return getQueryResultsResponse;
     }
+
+    /**
+     * Gets the span of the predicate on the log time column, if it can be pushed down into Cloudwatch.
+     * SortedRangeSet is how >, <, between is represented which are easiest and most common when searching logs.
+     * SQL can represent complex overlapping ranges which Cloudwatch can not support so this is not a replacement
+     * for applying constraints using the ConstraintEvaluator.
+     *
+     * @param constraints The constraints for the read as provided by Athena based on the customer's query.
+     * @return The span of the time predicate, or null if there is no predicate that can be pushed down.
+     */
+    public static Range getTimeSpan(Constraints constraints)
+    {
+        ValueSet timeConstraint = constraints.getSummary().get(LOG_TIME_FIELD);
+        if (timeConstraint instanceof SortedRangeSet && !timeConstraint.isNullAllowed()) {
+            return ((SortedRangeSet) timeConstraint).getSpan();
+        }
+        return null;
+    }
+
+    /**
+     * @return The lower bound of the time span in epoch millis, or null if it is unbounded.
+     */
+    public static Long getLowerBound(Range timeSpan)
+    {
+        if (timeSpan == null || timeSpan.getLow().isNullValue()) {
+            return null;
+        }
+        return (Long) timeSpan.getLow().getValue();
+    }
+
+    /**
+     * @return The upper bound of the time span in epoch millis, or null if it is unbounded.
+     */
+    public static Long getUpperBound(Range timeSpan)
+    {
+        if (timeSpan == null || timeSpan.getHigh().isNullValue()) {
+            return null;
+        }
+        return (Long) timeSpan.getHigh().getValue();
+    }
 }
@@ -28,6 +28,8 @@ import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
@@ -71,6 +73,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
@@ -364,6 +367,8 @@ public class CloudwatchMetadataHandlerTest
                 .addField(CloudwatchMetadataHandler.LOG_STREAM_FIELD, new ArrowType.Utf8())
                 .addField(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD, new ArrowType.Int(64, true))
                 .addField(CloudwatchMetadataHandler.LOG_GROUP_FIELD, new ArrowType.Utf8())
+                .addField(CloudwatchMetadataHandler.LOG_STREAM_FIRST_EVENT_FIELD, new ArrowType.Int(64, true))
+                .addField(CloudwatchMetadataHandler.LOG_STREAM_LAST_EVENT_FIELD, new ArrowType.Int(64, true))
                 .build();
 
         Block partitions = allocator.createBlock(schema);
@@ -373,6 +378,9 @@ public class CloudwatchMetadataHandlerTest
             BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD), i, 2016L + i);
             BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_FIELD), i, "log_stream_" + i);
             BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_GROUP_FIELD), i, "log_group_" + i);
+            //20 hours of events, too long to share a split and too short to be sliced
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_FIRST_EVENT_FIELD), i, 0L);
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_LAST_EVENT_FIELD), i, TimeUnit.HOURS.toMillis(20));
         }
         partitions.setRowCount(num_partitions);
 
@@ -386,6 +394,7 @@ public class CloudwatchMetadataHandlerTest
                 new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
                 continuationToken);
         int numContinuations = 0;
+        int numSplits = 0;
         do {
             GetSplitsRequest req = new GetSplitsRequest(originalReq, continuationToken);
             logger.info("doGetSplits: req[{}]", req);
@@ -404,6 +413,7 @@ public class CloudwatchMetadataHandlerTest
                 assertNotNull(nextSplit.getProperty(CloudwatchMetadataHandler.LOG_GROUP_FIELD));
             }
 
+            numSplits += response.getSplits().size();
             if (continuationToken != null) {
                 numContinuations++;
             }
@@ -411,7 +421,79 @@ public class CloudwatchMetadataHandlerTest
         while (continuationToken != null);
 
         assertTrue(numContinuations > 0);
+        assertEquals(num_partitions, numSplits);
 
         logger.info("doGetSplits: exit");
     }
+
+    @Test
+    public void doGetSplitsTimeSlicedAndBatched()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField(CloudwatchMetadataHandler.LOG_STREAM_FIELD, new ArrowType.Utf8())
+                .addField(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD, new ArrowType.Int(64, true))
+                .addField(CloudwatchMetadataHandler.LOG_GROUP_FIELD, new ArrowType.Utf8())
+                .addField(CloudwatchMetadataHandler.LOG_STREAM_FIRST_EVENT_FIELD, new ArrowType.Int(64, true))
+                .addField(CloudwatchMetadataHandler.LOG_STREAM_LAST_EVENT_FIELD, new ArrowType.Int(64, true))
+                .build();
+
+        Block partitions = allocator.createBlock(schema);
+
+        //one log stream with 10 days of events
+        BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_FIELD), 0, "big_stream");
+        BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD), 0, 0L);
+        BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_GROUP_FIELD), 0, "log_group");
+        BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_FIRST_EVENT_FIELD), 0, 0L);
+        BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_LAST_EVENT_FIELD), 0, TimeUnit.DAYS.toMillis(10));
+
+        //and 25 log streams with a few minutes of events each
+        int numSmallStreams = 25;
+        for (int i = 1; i <= numSmallStreams; i++) {
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_FIELD), i, "small_stream_" + i);
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_SIZE_FIELD), i, 0L);
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_GROUP_FIELD), i, "log_group");
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_FIRST_EVENT_FIELD), i, 0L);
+            BlockUtils.setValue(partitions.getFieldVector(CloudwatchMetadataHandler.LOG_STREAM_LAST_EVENT_FIELD), i, TimeUnit.MINUTES.toMillis(5));
+        }
+        partitions.setRowCount(numSmallStreams + 1);
+
+        //only the last 5 days are queried
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(CloudwatchMetadataHandler.LOG_TIME_FIELD, SortedRangeSet.of(
+                Range.greaterThanOrEqual(allocator, Types.MinorType.BIGINT.getType(), TimeUnit.DAYS.toMillis(5))));
+
+        GetSplitsRequest req = new GetSplitsRequest(identity,
+                "queryId",
+                "catalog_name",
+                new TableName("schema", "all_log_streams"),
+                partitions,
+                Collections.singletonList(CloudwatchMetadataHandler.LOG_STREAM_FIELD),
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+        assertNull(response.getContinuationToken());
+
+        List<Split> slices = new ArrayList<>();
+        int numBatchedStreams = 0;
+        for (Split nextSplit : response.getSplits()) {
+            if (nextSplit.getProperty(CloudwatchMetadataHandler.LOG_STREAM_FIELD).equals("big_stream")) {
+                slices.add(nextSplit);
+            }
+            else {
+                String[] logStreams = nextSplit.getProperty(CloudwatchMetadataHandler.LOG_STREAM_FIELD)
+                        .split(CloudwatchMetadataHandler.LOG_STREAM_SEPARATOR);
+                assertTrue(logStreams.length <= 10);
+                numBatchedStreams += logStreams.length;
+            }
+        }
+
+        //the 5 queried days of the big stream are read one day per split, the first and last slices are left open
+        assertEquals(5, slices.size());
+        assertEquals(1, slices.stream().filter(next -> next.getProperty(CloudwatchMetadataHandler.LOG_SLICE_START_FIELD) == null).count());
+        assertEquals(1, slices.stream().filter(next -> next.getProperty(CloudwatchMetadataHandler.LOG_SLICE_END_FIELD) == null).count());
+        //the small streams are read 10 at a time
+        assertEquals(numSmallStreams, numBatchedStreams);
+        assertEquals(5 + 3, response.getSplits().size());
+    }
 }
@@ -30,6 +30,11 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.ConstantExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.FederationExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.FunctionCallExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.expression.VariableExpression;
+import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
@@ -40,13 +45,16 @@ import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteStreams;
+import org.apache.arrow.vector.complex.reader.FieldReader;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -56,6 +64,9 @@ import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.cloudwatchlogs.CloudWatchLogsClient;
+import software.amazon.awssdk.services.cloudwatchlogs.model.FilterLogEventsRequest;
+import software.amazon.awssdk.services.cloudwatchlogs.model.FilterLogEventsResponse;
+import software.amazon.awssdk.services.cloudwatchlogs.model.FilteredLogEvent;
 import software.amazon.awssdk.services.cloudwatchlogs.model.GetLogEventsRequest;
 import software.amazon.awssdk.services.cloudwatchlogs.model.GetLogEventsResponse;
 import software.amazon.awssdk.services.cloudwatchlogs.model.OutputLogEvent;
@@ -281,6 +292,124 @@ public class CloudwatchRecordHandlerTest
         logger.info("doReadRecordsSpill: exit");
     }
 
+    @Test
+    public void doReadRecordsFilterPattern()
+            throws Exception
+    {
+        CloudwatchRecordHandler filterHandler = new CloudwatchRecordHandler(mockS3, mockSecretsManager, mockAthena, mockAwsLogs,
+                ImmutableMap.of(CloudwatchMetadataHandler.FILTER_PATTERN_PUSHDOWN_CONFIG, "true"));
+
+        ArgumentCaptor<FilterLogEventsRequest> filterRequest = ArgumentCaptor.forClass(FilterLogEventsRequest.class);
+        when(mockAwsLogs.filterLogEvents(filterRequest.capture())).thenReturn(FilterLogEventsResponse.builder()
+                .events(FilteredLogEvent.builder().logStreamName("stream-1").timestamp(100L).message("an ERROR happened").build(),
+                        FilteredLogEvent.builder().logStreamName("stream-2").timestamp(200L).message("ERROR at the start").build())
+                .build());
+
+        //message LIKE '% ERROR %'
+        FederationExpression like = new FunctionCallExpression(Types.MinorType.BIT.getType(),
+                StandardFunctions.LIKE_PATTERN_FUNCTION_NAME.getFunctionName(),
+                ImmutableList.of(new VariableExpression(CloudwatchMetadataHandler.LOG_MSG_FIELD, Types.MinorType.VARCHAR.getType()),
+                        new ConstantExpression(BlockUtils.newBlock(allocator, ConstantExpression.DEFAULT_CONSTANT_EXPRESSION_BLOCK_NAME,
+                                Types.MinorType.VARCHAR.getType(), "% ERROR %"), Types.MinorType.VARCHAR.getType())));
+
+        ReadRecordsRequest request = new ReadRecordsRequest(identity,
+                "catalog",
+                "queryId-" + System.currentTimeMillis(),
+                new TableName("schema", "all_log_streams"),
+                schemaForRead,
+                Split.newBuilder(S3SpillLocation.newBuilder()
+                                .withBucket(UUID.randomUUID().toString())
+                                .withSplitId(UUID.randomUUID().toString())
+                                .withQueryId(UUID.randomUUID().toString())
+                                .withIsDirectory(true)
+                                .build(),
+                        keyFactory.create())
+                        .add(CloudwatchMetadataHandler.LOG_GROUP_FIELD, "group")
+                        .add(CloudwatchMetadataHandler.LOG_STREAM_FIELD, "stream-1" + CloudwatchMetadataHandler.LOG_STREAM_SEPARATOR + "stream-2")
+                        .build(),
+                new Constraints(Collections.emptyMap(), ImmutableList.of(like), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L,
+                100_000_000_000L//100GB don't expect this to spill
+        );
+
+        ReadRecordsResponse response = (ReadRecordsResponse) filterHandler.doReadRecords(allocator, request);
+
+        //both streams are read with a single request, filtered on the Cloudwatch side by the literal part of the pattern
+        assertEquals("\" ERROR \"", filterRequest.getValue().filterPattern());
+        assertEquals(ImmutableList.of("stream-1", "stream-2"), filterRequest.getValue().logStreamNames());
+        //the pattern itself is still evaluated on the returned log events
+        assertEquals(1, response.getRecords().getRowCount());
+        assertEquals("stream-1", response.getRecords().getFieldReader(CloudwatchMetadataHandler.LOG_STREAM_FIELD).readText().toString());
+    }
+
+    @Test
+    public void doReadRecordsFilterPatternSlicedSplits()
+            throws Exception
+    {
+        CloudwatchRecordHandler filterHandler = new CloudwatchRecordHandler(mockS3, mockSecretsManager, mockAthena, mockAwsLogs,
+                ImmutableMap.of(CloudwatchMetadataHandler.FILTER_PATTERN_PUSHDOWN_CONFIG, "true"));
+
+        //FilterLogEvents returns the events from startTime up to and including endTime
+        List<Long> timestamps = ImmutableList.of(1_000L, 1_999L, 2_000L, 2_999L);
+        ArgumentCaptor<FilterLogEventsRequest> filterRequest = ArgumentCaptor.forClass(FilterLogEventsRequest.class);
+        when(mockAwsLogs.filterLogEvents(filterRequest.capture())).thenAnswer((InvocationOnMock invocationOnMock) -> {
+            FilterLogEventsRequest request = (FilterLogEventsRequest) invocationOnMock.getArguments()[0];
+            List<FilteredLogEvent> events = new ArrayList<>();
+            for (Long timestamp : timestamps) {
+                if (timestamp >= request.startTime() && timestamp <= request.endTime()) {
+                    events.add(FilteredLogEvent.builder().logStreamName("stream-1").timestamp(timestamp).message("an ERROR happened").build());
+                }
+            }
+            return FilterLogEventsResponse.builder().events(events).build();
+        });
+
+        //message LIKE '% ERROR %'
+        FederationExpression like = new FunctionCallExpression(Types.MinorType.BIT.getType(),
+                StandardFunctions.LIKE_PATTERN_FUNCTION_NAME.getFunctionName(),
+                ImmutableList.of(new VariableExpression(CloudwatchMetadataHandler.LOG_MSG_FIELD, Types.MinorType.VARCHAR.getType()),
+                        new ConstantExpression(BlockUtils.newBlock(allocator, ConstantExpression.DEFAULT_CONSTANT_EXPRESSION_BLOCK_NAME,
+                                Types.MinorType.VARCHAR.getType(), "% ERROR %"), Types.MinorType.VARCHAR.getType())));
+
+        //two adjacent slices of the same log stream, the event at 2000 must only be read by the second one
+        List<Long> readTimestamps = new ArrayList<>();
+        for (long sliceStart : ImmutableList.of(1_000L, 2_000L)) {
+            ReadRecordsRequest request = new ReadRecordsRequest(identity,
+                    "catalog",
+                    "queryId-" + System.currentTimeMillis(),
+                    new TableName("schema", "stream-1"),
+                    schemaForRead,
+                    Split.newBuilder(S3SpillLocation.newBuilder()
+                                    .withBucket(UUID.randomUUID().toString())
+                                    .withSplitId(UUID.randomUUID().toString())
+                                    .withQueryId(UUID.randomUUID().toString())
+                                    .withIsDirectory(true)
+                                    .build(),
+                            keyFactory.create())
+                            .add(CloudwatchMetadataHandler.LOG_GROUP_FIELD, "group")
+                            .add(CloudwatchMetadataHandler.LOG_STREAM_FIELD, "stream-1")
+                            .add(CloudwatchMetadataHandler.LOG_SLICE_START_FIELD, String.valueOf(sliceStart))
+                            .add(CloudwatchMetadataHandler.LOG_SLICE_END_FIELD, String.valueOf(sliceStart + 1_000L))
+                            .build(),
+                    new Constraints(Collections.emptyMap(), ImmutableList.of(like), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                    100_000_000_000L,
+                    100_000_000_000L//100GB don't expect this to spill
+            );
+
+            ReadRecordsResponse response = (ReadRecordsResponse) filterHandler.doReadRecords(allocator, request);
+
+            assertEquals(Long.valueOf(sliceStart), filterRequest.getValue().startTime());
+            assertEquals(Long.valueOf(sliceStart + 999L), filterRequest.getValue().endTime());
+            for (int row = 0; row < response.getRecords().getRowCount(); row++) {
+                FieldReader timeReader = response.getRecords().getFieldReader(CloudwatchMetadataHandler.LOG_TIME_FIELD);
+                timeReader.setPosition(row);
+                readTimestamps.add(timeReader.readLong());
+            }
+            response.close();
+        }
+
+        assertEquals(timestamps, readTimestamps);
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;
@@ -45,6 +45,7 @@ import com.amazonaws.athena.connectors.docdb.qpt.DocDBQueryPassthrough;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import org.apache.arrow.util.VisibleForTesting;
@@ -60,6 +61,8 @@ import software.amazon.awssdk.services.glue.model.Table;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -88,6 +91,27 @@ public class DocDBMetadataHandler
     private static final String SOURCE_TYPE = "documentdb";
     //Field name used to store the connection string as a property on Split objects.
     protected static final String DOCDB_CONN_STR = "connStr";
+    //Field names used to store the range of a range split as properties on Split objects, see QueryUtils.makeSplitRangePredicate.
+    protected static final String SPLIT_FIELD = "split_field";
+    protected static final String SPLIT_LOWER_BOUND = "split_lower_bound";
+    protected static final String SPLIT_UPPER_BOUND = "split_upper_bound";
+    //Field name used to store the cursor batch size, derived from the average document size, as a property on Split objects.
+    protected static final String SPLIT_BATCH_SIZE = "batch_size";
+    //Config option for the (top level, scalar and ideally indexed) field used to split collections into ranges.
+    protected static final String SPLIT_FIELD_CONFIG = "split_field";
+    private static final String DEFAULT_SPLIT_FIELD = "_id";
+    //Config option for the amount of collection data (in bytes) each split should read.
+    protected static final String SPLIT_TARGET_SIZE_CONFIG = "split_target_size_bytes";
+    private static final long DEFAULT_SPLIT_TARGET_SIZE = 256L * 1024 * 1024;
+    //Config option for the max number of splits a collection is split into.
+    protected static final String MAX_SPLITS_CONFIG = "max_splits";
+    private static final int DEFAULT_MAX_SPLITS = 64;
+    //The number of documents sampled per split when picking split boundaries.
+    private static final int SAMPLES_PER_SPLIT = 20;
+    //The amount of documents (in bytes) we aim to fetch per cursor batch, and the bounds of the derived batch size.
+    private static final long TARGET_BATCH_BYTES = 4L * 1024 * 1024;
+    private static final int MIN_BATCH_SIZE = 10;
+    private static final int MAX_BATCH_SIZE = 10_000;
     //The Env variable name used to store the default DocDB connection string if no catalog specific
     //env variable is set.
     private static final String DEFAULT_DOCDB = "default_docdb";
@@ -339,22 +363,123 @@ public class DocDBMetadataHandler
     }
 
     /**
-     * Since our connector does not support parallel scans we generate a single Split and include the connection details
-     * as a property on the split so that the RecordHandler has easy access to it.
+     * Splits the collection into ranges of the split field (_id by default) so that large collections can be read in
+     * parallel, each split with its own cursor. The size of the collection (from collStats) determines the number of
+     * splits and the boundaries are picked from a $sample of the split field. Collections that are small, empty or whose
+     * sampled split field values do not share a single BSON type are read with a single split. Each split also carries a
+     * cursor batch size derived from the average document size of the collection.
      *
      * @see GlueMetadataHandler
      */
     @Override
     public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest request)
+    {
+        String connStr = getConnStr(request);
+        if (request.getConstraints().isQueryPassThrough()) {
+            logger.info("doGetSplits: QPT enabled");
+            return new GetSplitsResponse(request.getCatalogName(), makeSplit(request, connStr).build());
+        }
+
+        Set<Split> splits = new HashSet<>();
+        try {
+            MongoDatabase db = getOrCreateConn(request).getDatabase(request.getTableName().getSchemaName());
+            String collectionName = request.getTableName().getTableName();
+            Document stats = db.runCommand(new Document("collStats", collectionName));
+            long count = getLong(stats, "count");
+            long size = getLong(stats, "size");
+            long avgObjSize = getLong(stats, "avgObjSize");
+
+            String splitField = configOptions.getOrDefault(SPLIT_FIELD_CONFIG, DEFAULT_SPLIT_FIELD);
+            long targetSplitSize = configOptions.containsKey(SPLIT_TARGET_SIZE_CONFIG) ?
+                    Long.parseLong(configOptions.get(SPLIT_TARGET_SIZE_CONFIG)) : DEFAULT_SPLIT_TARGET_SIZE;
+            int maxSplits = configOptions.containsKey(MAX_SPLITS_CONFIG) ?
+                    Integer.parseInt(configOptions.get(MAX_SPLITS_CONFIG)) : DEFAULT_MAX_SPLITS;
+            int numSplits = (int) Math.max(1, Math.min(maxSplits, (size + targetSplitSize - 1) / targetSplitSize));
+            String batchSize = (avgObjSize > 0) ?
+                    String.valueOf(Math.max(MIN_BATCH_SIZE, Math.min(MAX_BATCH_SIZE, TARGET_BATCH_BYTES / avgObjSize))) : null;
+            logger.info("doGetSplits: collection[{}] count[{}] size[{}] avgObjSize[{}] numSplits[{}] batchSize[{}]",
+                    collectionName, count, size, avgObjSize, numSplits, batchSize);
+
+            List<Object> boundaries = (numSplits > 1 && count > 0) ?
+                    getSplitBoundaries(db.getCollection(collectionName), splitField, numSplits, count) : new ArrayList<>();
+            for (int i = 0; i <= boundaries.size(); i++) {
+                Split.Builder splitBuilder = makeSplit(request, connStr);
+                if (batchSize != null) {
+                    splitBuilder.add(SPLIT_BATCH_SIZE, batchSize);
+                }
+                if (!boundaries.isEmpty()) {
+                    splitBuilder.add(SPLIT_FIELD, splitField);
+                    if (i > 0) {
+                        splitBuilder.add(SPLIT_LOWER_BOUND, QueryUtils.encodeSplitBound(boundaries.get(i - 1)));
+                    }
+                    if (i < boundaries.size()) {
+                        splitBuilder.add(SPLIT_UPPER_BOUND, QueryUtils.encodeSplitBound(boundaries.get(i)));
+                    }
+                }
+                splits.add(splitBuilder.build());
+            }
+        }
+        catch (RuntimeException ex) {
+            //e.g. the collection is only known by its Glue name or collStats is not permitted, read it with a single split.
+            logger.warn("doGetSplits: Unable to plan range splits for {}, using a single split.", request.getTableName(), ex);
+            splits.clear();
+            splits.add(makeSplit(request, connStr).build());
+        }
+
+        return new GetSplitsResponse(request.getCatalogName(), splits);
+    }
+
+    /**
+     * Picks the boundaries of the range splits of a collection from a (sorted) $sample of the split field.
+     *
+     * @param collection The collection to split.
+     * @param splitField The field to split the collection on.
+     * @param numSplits The desired number of splits.
+     * @param count The number of documents in the collection.
+     * @return The distinct, ascending boundaries (numSplits - 1 at most), empty if the collection should not be split.
+     */
+    private List<Object> getSplitBoundaries(MongoCollection<Document> collection, String splitField, int numSplits, long count)
+    {
+        int sampleSize = (int) Math.min(count, (long) numSplits * SAMPLES_PER_SPLIT);
+        List<Object> samples = new ArrayList<>();
+        //let DocumentDB sort the samples so that the boundaries follow its own ordering of the values.
+        for (Document next : collection.aggregate(Arrays.asList(
+                new Document("$sample", new Document("size", sampleSize)),
+                new Document("$project", new Document(splitField, 1)),
+                new Document("$sort", new Document(splitField, 1))))) {
+            Object value = next.get(splitField);
+            if (value != null) {
+                samples.add(value);
+            }
+        }
+
+        List<Object> boundaries = new ArrayList<>();
+        for (int i = 1; i < numSplits && !samples.isEmpty(); i++) {
+            Object boundary = samples.get(i * samples.size() / numSplits);
+            if (boundary.getClass() != samples.get(0).getClass()) {
+                //range predicates only match values of the same type as their bound, so mixed types can't be split on.
+                logger.info("getSplitBoundaries: {} holds values of mixed types, not splitting.", splitField);
+                return new ArrayList<>();
+            }
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+        return boundaries;
+    }
+
+    private Split.Builder makeSplit(GetSplitsRequest request, String connStr)
     {
         //Every split must have a unique location if we wish to spill to avoid failures
         SpillLocation spillLocation = makeSpillLocation(request);
+        return Split.newBuilder(spillLocation, makeEncryptionKey())
+                .add(DOCDB_CONN_STR, connStr);
+    }
 
-        //Since our connector does not support parallel reads we return a fixed split.
-        return new GetSplitsResponse(request.getCatalogName(),
-                Split.newBuilder(spillLocation, makeEncryptionKey())
-                        .add(DOCDB_CONN_STR, getConnStr(request))
-                        .build());
+    private static long getLong(Document document, String key)
+    {
+        Object value = document.get(key);
+        return (value instanceof Number) ? ((Number) value).longValue() : 0;
     }
 
     /**
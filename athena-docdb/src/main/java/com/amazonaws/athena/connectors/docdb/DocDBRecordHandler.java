@@ -42,6 +42,7 @@ import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -49,6 +50,10 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler.SOURCE_TABLE_PROPERTY;
 import static com.amazonaws.athena.connectors.docdb.DocDBFieldResolver.DEFAULT_FIELD_RESOLVER;
 import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.DOCDB_CONN_STR;
+import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.SPLIT_BATCH_SIZE;
+import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.SPLIT_FIELD;
+import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.SPLIT_LOWER_BOUND;
+import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.SPLIT_UPPER_BOUND;
 
 /**
  * Handles data read record requests for the Athena DocumentDB Connector.
@@ -67,7 +72,8 @@ public class DocDBRecordHandler
     private static final String SOURCE_TYPE = "documentdb";
     //The env secret_name to use if defined 
     private static final String SECRET_NAME = "secret_name";
-    //Controls the page size for fetching batches of documents from the MongoDB client.
+    //Controls the page size for fetching batches of documents from the MongoDB client, unless the Split carries a
+    //batch size derived from the average document size of the collection.
     private static final int MONGO_QUERY_BATCH_SIZE = 100;
 
     // This needs to be turned on if the user is using a Glue table and their docdb tables contain cased column names
@@ -158,6 +164,16 @@ public class DocDBRecordHandler
             db =  client.getDatabase(schemaName);
             table = db.getCollection(tableName);
             query = QueryUtils.makeQuery(recordsRequest.getSchema(), constraintSummary);
+
+            //restrict the query to the range of the collection covered by this Split, see DocDBMetadataHandler.doGetSplits
+            Split split = recordsRequest.getSplit();
+            String splitField = split.getProperty(SPLIT_FIELD);
+            if (splitField != null) {
+                Document range = QueryUtils.makeSplitRangePredicate(splitField,
+                        QueryUtils.decodeSplitBound(split.getProperty(SPLIT_LOWER_BOUND)),
+                        QueryUtils.decodeSplitBound(split.getProperty(SPLIT_UPPER_BOUND)));
+                query = query.isEmpty() ? range : new Document("$and", Arrays.asList(query, range));
+            }
         }
 
         String disableProjectionAndCasingEnvValue = configOptions.getOrDefault(DISABLE_PROJECTION_AND_CASING_ENV, "false").toLowerCase();
@@ -170,12 +186,14 @@ public class DocDBRecordHandler
         // Once AWS DocumentDB supports collation, then projections do not have to be disabled anymore because case
         // insensitive indexes allows for case insensitive projections.
         Document projection = disableProjectionAndCasing ? null : QueryUtils.makeProjection(recordsRequest.getSchema());
-        logger.info("readWithConstraint: query[{}] projection[{}]", query, projection);
+        String splitBatchSize = recordsRequest.getSplit().getProperty(SPLIT_BATCH_SIZE);
+        int batchSize = (splitBatchSize != null) ? Integer.parseInt(splitBatchSize) : MONGO_QUERY_BATCH_SIZE;
+        logger.info("readWithConstraint: query[{}] projection[{}] batchSize[{}]", query, projection, batchSize);
 
         final MongoCursor<Document> iterable = table
                 .find(query)
                 .projection(projection)
-                .batchSize(MONGO_QUERY_BATCH_SIZE).iterator();
+                .batchSize(batchSize).iterator();
 
         long numRows = 0;
         AtomicLong numResultRows = new AtomicLong(0);
@@ -44,7 +44,9 @@ import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.arrow.vector.util.Text;
 import org.bson.Document;
+import org.bson.json.JsonMode;
 import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
@@ -79,6 +81,9 @@ public final class QueryUtils
     private static final String IN_OP = "$in";
     private static final String NOTIN_OP = "$nin";
     private static final String COLUMN_NAME_ID = "_id";
+    //Key used to wrap split bounds in a Document so that they can be serialized as (type preserving) extended Json.
+    private static final String SPLIT_BOUND_KEY = "bound";
+    private static final JsonWriterSettings SPLIT_BOUND_JSON_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
 
     private QueryUtils()
     {
@@ -248,6 +253,53 @@ public final class QueryUtils
         }
     }
 
+    /**
+     * Creates the predicate which restricts a query to the documents of a range split, see DocDBMetadataHandler.
+     * <p>
+     * The lower bound is inclusive and the upper bound is exclusive. Comparisons only match values of the same BSON type
+     * as the bound, so the first split (no lower bound) uses $not to also hold the documents which lack the field or
+     * hold a value of another type, which keeps the splits of a collection complete and disjoint.
+     *
+     * @param field The (top level, scalar) field the collection is split on.
+     * @param lowerBound The inclusive lower bound of the split, null for the first split.
+     * @param upperBound The exclusive upper bound of the split, null for the last split.
+     * @return The Document to combine with the query of the split.
+     */
+    public static Document makeSplitRangePredicate(String field, Object lowerBound, Object upperBound)
+    {
+        if (lowerBound == null) {
+            return documentOf(field, documentOf(NOT_OP, documentOf(GTE_OP, upperBound)));
+        }
+
+        Document range = documentOf(GTE_OP, lowerBound);
+        if (upperBound != null) {
+            range.append(LT_OP, upperBound);
+        }
+        return documentOf(field, range);
+    }
+
+    /**
+     * Serializes a split bound (e.g. an ObjectId) so that it can be stored as a property on a Split.
+     *
+     * @param bound The value of the split field to serialize.
+     * @return The bound as extended Json, null if the bound is null.
+     */
+    public static String encodeSplitBound(Object bound)
+    {
+        return (bound == null) ? null : documentOf(SPLIT_BOUND_KEY, bound).toJson(SPLIT_BOUND_JSON_SETTINGS);
+    }
+
+    /**
+     * Deserializes a split bound produced by encodeSplitBound.
+     *
+     * @param encodedBound The bound as extended Json, may be null.
+     * @return The value of the split field, null if the encoded bound is null.
+     */
+    public static Object decodeSplitBound(String encodedBound)
+    {
+        return (encodedBound == null) ? null : Document.parse(encodedBound).get(SPLIT_BOUND_KEY);
+    }
+
     private static Document documentOf(String key, Object value)
     {
         return new Document(key, value);
@@ -24,6 +24,7 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
@@ -40,6 +41,7 @@ import com.amazonaws.athena.connector.lambda.metadata.MetadataRequestType;
 import com.amazonaws.athena.connector.lambda.metadata.MetadataResponse;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.google.common.collect.ImmutableList;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
@@ -69,6 +71,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
@@ -479,4 +483,50 @@ public class DocDBMetadataHandlerTest
         assertTrue("Continuation criteria violated", response.getSplits().size() == 1);
         assertTrue("Continuation criteria violated", response.getContinuationToken() == null);
     }
+
+    @Test
+    public void doGetSplitsRanges()
+    {
+        //~1GB collection of 1MB documents, which should be split into 4 ranges of 256MB.
+        Document stats = new Document("count", 1000).append("size", 1000L * 1024 * 1024).append("avgObjSize", 1024 * 1024);
+        List<Document> samples = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            samples.add(new Document("_id", i));
+        }
+
+        MongoDatabase mockDatabase = mock(MongoDatabase.class);
+        MongoCollection mockCollection = mock(MongoCollection.class);
+        AggregateIterable mockIterable = mock(AggregateIterable.class);
+        when(mockClient.getDatabase(eq(DEFAULT_SCHEMA))).thenReturn(mockDatabase);
+        when(mockDatabase.runCommand(eq(new Document("collStats", TABLE_NAME.getTableName())))).thenReturn(stats);
+        when(mockDatabase.getCollection(eq(TABLE_NAME.getTableName()))).thenReturn(mockCollection);
+        when(mockCollection.aggregate(any(List.class))).thenReturn(mockIterable);
+        when(mockIterable.iterator()).thenReturn(new StubbingCursor(samples.iterator()));
+
+        Block partitions = BlockUtils.newBlock(allocator, PARTITION_ID, Types.MinorType.INT.getType(), 0);
+        GetSplitsRequest req = new GetSplitsRequest(IDENTITY,
+                QUERY_ID,
+                DEFAULT_CATALOG,
+                TABLE_NAME,
+                partitions,
+                new ArrayList<>(),
+                new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        assertEquals(4, response.getSplits().size());
+        Set<Integer> lowerBounds = new TreeSet<>();
+        Set<Integer> upperBounds = new TreeSet<>();
+        for (Split next : response.getSplits()) {
+            assertEquals("_id", next.getProperty(DocDBMetadataHandler.SPLIT_FIELD));
+            assertEquals("10", next.getProperty(DocDBMetadataHandler.SPLIT_BATCH_SIZE));
+            Object lowerBound = QueryUtils.decodeSplitBound(next.getProperty(DocDBMetadataHandler.SPLIT_LOWER_BOUND));
+            Object upperBound = QueryUtils.decodeSplitBound(next.getProperty(DocDBMetadataHandler.SPLIT_UPPER_BOUND));
+            lowerBounds.add(lowerBound == null ? -1 : (Integer) lowerBound);
+            upperBounds.add(upperBound == null ? -1 : (Integer) upperBound);
+        }
+        assertEquals(new TreeSet<>(Arrays.asList(-1, 20, 40, 60)), lowerBounds);
+        assertEquals(new TreeSet<>(Arrays.asList(20, 40, 60, -1)), upperBounds);
+    }
 }
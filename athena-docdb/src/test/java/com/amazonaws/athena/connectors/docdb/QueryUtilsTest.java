@@ -83,6 +83,22 @@ public class QueryUtilsTest
         assertEquals(expected, result);
     }
 
+    @Test
+    public void testMakeSplitRangePredicate()
+    {
+        ObjectId lower = new ObjectId("4ecbe7f9e8c1c9092c000027");
+        ObjectId upper = new ObjectId("5ecbe7f9e8c1c9092c000027");
+        Object decodedLower = QueryUtils.decodeSplitBound(QueryUtils.encodeSplitBound(lower));
+        assertEquals(lower, decodedLower);
+
+        assertEquals(new Document("_id", new Document("$not", new Document("$gte", upper))),
+                QueryUtils.makeSplitRangePredicate("_id", null, upper));
+        assertEquals(new Document("_id", new Document("$gte", lower).append("$lt", upper)),
+                QueryUtils.makeSplitRangePredicate("_id", decodedLower, upper));
+        assertEquals(new Document("_id", new Document("$gte", lower)),
+                QueryUtils.makeSplitRangePredicate("_id", lower, null));
+    }
+
     @Test
     public void testParseFilter()
     {
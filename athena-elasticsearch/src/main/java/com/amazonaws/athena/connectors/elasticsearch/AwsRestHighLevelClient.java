@@ -20,6 +20,8 @@
 package com.amazonaws.athena.connectors.elasticsearch;
 
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Splitter;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequestInterceptor;
@@ -27,13 +29,17 @@ import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.GetAliasesResponse;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -41,6 +47,7 @@ import org.elasticsearch.client.indices.GetMappingsRequest;
 import org.elasticsearch.client.indices.GetMappingsResponse;
 import org.elasticsearch.cluster.health.ClusterHealthStatus;
 import org.elasticsearch.cluster.metadata.MappingMetadata;
+import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.search.SearchHit;
 import org.slf4j.Logger;
@@ -52,6 +59,8 @@ import software.amazon.awssdk.services.glue.model.ErrorDetails;
 import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +75,8 @@ public class AwsRestHighLevelClient
 {
     private static final Logger logger = LoggerFactory.getLogger(AwsRestHighLevelClient.class);
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     /**
      * Constructs a new client (using a builder) injected with credentials.
      * @param builder is used to initialize the super class.
@@ -151,6 +162,20 @@ public class AwsRestHighLevelClient
      */
     public Set<Integer> getShardIds(String index, long timeout)
             throws RuntimeException, IOException
+    {
+        return getIndexShards(index, timeout).getShardIds();
+    }
+
+    /**
+     * Same as getShardIds(), but also tells whether the index was healthy (GREEN) when the shards were retrieved.
+     * @param index is used to restrict the request to a specified index.
+     * @param timeout is the command timeout period in seconds.
+     * @return the shard ids and the health of the specified index.
+     * @throws IOException if an error occurs while sending the request to the Elasticsearch instance.
+     * @throws RuntimeException if the request times out, or no active-primary shards are present.
+     */
+    public IndexShards getIndexShards(String index, long timeout)
+            throws RuntimeException, IOException
     {
         ClusterHealthRequest request = new ClusterHealthRequest(index)
                 .timeout(new TimeValue(timeout, TimeUnit.SECONDS));
@@ -173,7 +198,40 @@ public class AwsRestHighLevelClient
             throw new AthenaConnectorException("Request has an invalid index (" + index + ").", ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
         }
 
-        return response.getIndices().get(index).getShards().keySet();
+        return new IndexShards(response.getIndices().get(index).getShards().keySet(),
+                response.getStatus() == ClusterHealthStatus.GREEN);
+    }
+
+    /**
+     * Retrieves the number of documents and the store size of the primary shards of the specified index. The
+     * values are used to plan sliced reads of large shards, and to size the pages of the reads.
+     * @param index is the index (not a data stream) whose stats will be retrieved.
+     * @return the stats of the index.
+     * @throws IOException if an error occurs while sending the request to the Elasticsearch instance.
+     * @throws RuntimeException if the index does not exist.
+     */
+    public IndexStats getIndexStats(String index)
+            throws IOException
+    {
+        Request request = new Request("GET", "/_cat/indices/" + index);
+        request.addParameter("format", "json");
+        request.addParameter("bytes", "b");
+        request.addParameter("h", "docs.count,pri.store.size");
+        Response response = getLowLevelClient().performRequest(request);
+
+        List<Map<String, String>> rows;
+        try (InputStream content = response.getEntity().getContent()) {
+            rows = objectMapper.readValue(content, new TypeReference<List<Map<String, String>>>() {});
+        }
+        if (rows.isEmpty()) {
+            throw new AthenaConnectorException("Unable to retrieve stats for index (" + index + ").", ErrorDetails.builder().errorCode(FederationSourceErrorCode.ENTITY_NOT_FOUND_EXCEPTION.toString()).build());
+        }
+
+        // closed indices have no stats
+        String docCount = rows.get(0).get("docs.count");
+        String primaryStoreBytes = rows.get(0).get("pri.store.size");
+        return new IndexStats(docCount == null ? 0 : Long.parseLong(docCount),
+                primaryStoreBytes == null ? 0 : Long.parseLong(primaryStoreBytes));
     }
 
     /**
@@ -190,13 +248,73 @@ public class AwsRestHighLevelClient
     }
 
     /**
-     * Gets the Document from the search hit.
-     * @param searchHit is the search hit containing the document source.
+     * Gets the Document from the search hit. The values of the fields requested as doc values are added to the
+     * document as lists (the way Elasticsearch returns them), next to the fields from the document source.
+     * @param searchHit is the search hit containing the document source and doc values.
      * @return the Document as a Map object.
      */
     public Map<String, Object> getDocument(SearchHit searchHit)
     {
-        return searchHit.getSourceAsMap();
+        Map<String, DocumentField> docValues = searchHit.getFields();
+        if (docValues.isEmpty()) {
+            return searchHit.getSourceAsMap();
+        }
+
+        Map<String, Object> document = searchHit.hasSource() ? searchHit.getSourceAsMap() : new HashMap<>();
+        for (DocumentField docValue : docValues.values()) {
+            document.put(docValue.getName(), docValue.getValues());
+        }
+        return document;
+    }
+
+    /**
+     * The shard ids of an index, and whether the index was healthy (GREEN) when they were retrieved.
+     */
+    public static class IndexShards
+    {
+        private final Set<Integer> shardIds;
+        private final boolean green;
+
+        public IndexShards(Set<Integer> shardIds, boolean green)
+        {
+            this.shardIds = shardIds;
+            this.green = green;
+        }
+
+        public Set<Integer> getShardIds()
+        {
+            return shardIds;
+        }
+
+        public boolean isGreen()
+        {
+            return green;
+        }
+    }
+
+    /**
+     * The number of documents and the store size of the primary shards of an index.
+     */
+    public static class IndexStats
+    {
+        private final long docCount;
+        private final long primaryStoreBytes;
+
+        public IndexStats(long docCount, long primaryStoreBytes)
+        {
+            this.docCount = docCount;
+            this.primaryStoreBytes = primaryStoreBytes;
+        }
+
+        public long getDocCount()
+        {
+            return docCount;
+        }
+
+        public long getPrimaryStoreBytes()
+        {
+            return primaryStoreBytes;
+        }
     }
 
     /**
@@ -204,10 +322,23 @@ public class AwsRestHighLevelClient
      */
     public static class Builder
     {
+        /**
+         * The maximum number of pooled connections per node, and in total. Planning requests of concurrent queries
+         * and the page prefetching of the Record Handler share the client of an endpoint.
+         */
+        private static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+        private static final int MAX_CONNECTIONS_TOTAL = 50;
+        /**
+         * The maximum time an idle connection is kept alive in milliseconds. Amazon ES closes idle connections on
+         * its side, reusing them past that point fails the request instead of saving the TLS handshake.
+         */
+        private static final long MAX_KEEP_ALIVE_MS = 60_000;
+
         private final String endpoint;
         private final RestClientBuilder clientBuilder;
         private final AwsV4HttpSigner signer;
         private final Splitter domainSplitter;
+        private RestClientBuilder.HttpClientConfigCallback credentialsCallback = httpClientBuilder -> httpClientBuilder;
 
         /**
          * A constructor for the client builder.
@@ -245,8 +376,8 @@ public class AwsRestHighLevelClient
             if (domainSplits.size() > 1) {
                 interceptor = new AWSRequestSigningApacheInterceptor(ElasticsearchClient.SERVICE_NAME, signer, credentialsProvider, domainSplits.get(1));
 
-                clientBuilder.setHttpClientConfigCallback(httpClientBuilder -> httpClientBuilder
-                        .addInterceptorLast(interceptor));
+                credentialsCallback = httpClientBuilder -> httpClientBuilder
+                        .addInterceptorLast(interceptor);
             }
 
             return this;
@@ -264,18 +395,28 @@ public class AwsRestHighLevelClient
             credentialsProvider.setCredentials(AuthScope.ANY,
                     new UsernamePasswordCredentials(username, password));
 
-            clientBuilder.setHttpClientConfigCallback(httpClientBuilder -> httpClientBuilder
-                    .setDefaultCredentialsProvider(credentialsProvider));
+            credentialsCallback = httpClientBuilder -> httpClientBuilder
+                    .setDefaultCredentialsProvider(credentialsProvider);
 
             return this;
         }
 
         /**
-         * Builds the client.
+         * Builds the client. Its connections are pooled and kept alive between requests.
          * @return a new client injected with the builder.
          */
         public AwsRestHighLevelClient build()
         {
+            clientBuilder.setHttpClientConfigCallback(httpClientBuilder ->
+                    credentialsCallback.customizeHttpClient(httpClientBuilder)
+                            .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                            .setMaxConnTotal(MAX_CONNECTIONS_TOTAL)
+                            .setKeepAliveStrategy((response, context) -> {
+                                long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                                return keepAlive > 0 ? Math.min(keepAlive, MAX_KEEP_ALIVE_MS) : MAX_KEEP_ALIVE_MS;
+                            })
+                            .setDefaultIOReactorConfig(IOReactorConfig.custom().setSoKeepAlive(true).build()));
+
             return new AwsRestHighLevelClient(clientBuilder);
         }
     }
@@ -37,12 +37,17 @@ public class CacheableAwsRestHighLevelClient
      * The maximum number of clients allowed in the cache.
      */
     protected static final int MAX_CACHE_SIZE = 10;
+    /**
+     * The minimum time between two health tests of the same client in milliseconds (1 minute).
+     */
+    protected static final long HEALTH_CHECK_INTERVAL_MS = 60_000;
     /**
      * Stored cache of clients accessible via the endpoint. This cache has a maximum capacity of 10 clients.
      * The mechanism for removing clients from the cache is outlined in the following eviction policy:
      * 1) An age test is performed when a client is retrieved from cache, and upon insertion into cache. Clients that
      *    have aged out (as indicated by MAX_CACHE_AGE_MS), will be removed.
-     * 2) A health test is performed on a client retrieved from cache. A client that fails the test, will be removed.
+     * 2) A health test is performed on a client retrieved from cache, unless the client already passed one within
+     *    the last HEALTH_CHECK_INTERVAL_MS. A client that fails the test, will be removed.
      * 3) A cache capacity test is performed upon insertion into cache. The oldest client will be removed when the
      *    cache size exceeds capacity (as indicated by MAX_CACHE_SIZE).
      */
@@ -67,10 +72,13 @@ public class CacheableAwsRestHighLevelClient
                 evictCache(false);
                 return null;
             }
-            if (!clientIsHealthy(cacheEntry.getClient())) {
-                // Forceful eviction of unhealthy client.
-                evictCache(endpoint);
-                return null;
+            if (cacheEntry.getHealthCheckAge() > HEALTH_CHECK_INTERVAL_MS) {
+                if (!clientIsHealthy(cacheEntry.getClient())) {
+                    // Forceful eviction of unhealthy client.
+                    evictCache(endpoint);
+                    return null;
+                }
+                cacheEntry.setHealthCheckTime(System.currentTimeMillis());
             }
         }
 
@@ -180,12 +188,14 @@ public class CacheableAwsRestHighLevelClient
 
     /**
      * Clients are stored in the cache using a CacheEntry instance which consists of the client as well as the time
-     * of creation. The latter is used for the age test during the eviction from the cache process.
+     * of creation. The latter is used for the age test during the eviction from the cache process. The time of the
+     * last successful health test is kept as well (none yet for a new entry).
      */
     private class CacheEntry
     {
         private final AwsRestHighLevelClient client;
         private final long createTime;
+        private long healthCheckTime;
 
         public CacheEntry(AwsRestHighLevelClient client)
         {
@@ -207,6 +217,25 @@ public class CacheableAwsRestHighLevelClient
             return client;
         }
 
+        /**
+         * Records the time of a successful health test.
+         * @param healthCheckTime is the time of the health test in milliseconds.
+         */
+        public void setHealthCheckTime(long healthCheckTime)
+        {
+            this.healthCheckTime = healthCheckTime;
+        }
+
+        /**
+         * Gets the time elapsed since the last successful health test in milliseconds.
+         * @return the calculated age (in millisecond) based on the difference between the current time and
+         * healthCheckTime.
+         */
+        public long getHealthCheckAge()
+        {
+            return System.currentTimeMillis() - healthCheckTime;
+        }
+
         /**
          * Gets the age of the client entry in milliseconds.
          * @return the calculated age (in millisecond) based on the difference between the current time and createdTime.
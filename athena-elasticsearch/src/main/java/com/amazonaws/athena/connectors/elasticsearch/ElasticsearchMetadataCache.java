@@ -0,0 +1,182 @@
+/*-
+ * #%L
+ * athena-elasticsearch
+ * %%
+ * Copyright (C) 2019 - 2020 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.elasticsearch;
+
+import org.apache.arrow.util.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Caches metadata retrieved from an Elasticsearch instance (e.g. index mappings and shard ids) between the requests
+ * handled by the same (warm) Lambda container, so that queries planned in quick succession do not send the same
+ * metadata requests over and over again.
+ * The eviction policy follows the one of CacheableAwsRestHighLevelClient:
+ * 1) An age test is performed when an entry is retrieved from cache, and upon insertion into cache. Entries that
+ *    have aged out (as indicated by the time-to-live) will be removed.
+ * 2) A cache capacity test is performed upon insertion into cache. The oldest entry will be removed when the
+ *    cache size exceeds capacity.
+ * @param <V> is the type of the cached values.
+ */
+public class ElasticsearchMetadataCache<V>
+{
+    /**
+     * The maximum number of entries allowed in the cache.
+     */
+    protected static final int MAX_CACHE_SIZE = 100;
+
+    private final long ttlMillis;
+    private final Map<String, CacheEntry<V>> cache = new LinkedHashMap<>();
+
+    /**
+     * @param ttlMillis is the maximum age allowed for stored entries in milliseconds. A value of zero (or less)
+     *                  disables the cache.
+     */
+    public ElasticsearchMetadataCache(long ttlMillis)
+    {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Gets a value from the cache keyed on the key. If the value is not in the cache, or has aged out, the loader is
+     * called to retrieve it and the value is then inserted into the cache.
+     * @param key identifies the value (e.g. the endpoint and the index it belongs to).
+     * @param loader retrieves the value from the Elasticsearch instance.
+     * @return the cached or the newly loaded value.
+     * @throws IOException if the loader fails to retrieve the value.
+     */
+    public V get(String key, Loader<V> loader)
+            throws IOException
+    {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * Same as get(key, loader), but a newly loaded value is only inserted into the cache if it is cacheable, e.g.
+     * values which reflect a transient state of the Elasticsearch instance are loaded again by the next get().
+     * @param key identifies the value (e.g. the endpoint and the index it belongs to).
+     * @param loader retrieves the value from the Elasticsearch instance.
+     * @param cacheable tells whether a newly loaded value may be cached.
+     * @return the cached or the newly loaded value.
+     * @throws IOException if the loader fails to retrieve the value.
+     */
+    public synchronized V get(String key, Loader<V> loader, Predicate<V> cacheable)
+            throws IOException
+    {
+        if (ttlMillis <= 0) {
+            return loader.load();
+        }
+
+        CacheEntry<V> cacheEntry = cache.get(key);
+        if (cacheEntry != null && cacheEntry.getAge() <= ttlMillis) {
+            return cacheEntry.getValue();
+        }
+
+        V value = loader.load();
+        // Re-insert the key so that the map stays ordered from older to newer entries.
+        cache.remove(key);
+        if (!cacheable.test(value)) {
+            return value;
+        }
+        cache.put(key, new CacheEntry<>(value, System.currentTimeMillis()));
+        evictCache();
+
+        return value;
+    }
+
+    /**
+     * Removes the entry keyed on the key, forcing the next get() to load the value again.
+     * @param key identifies the value to be removed.
+     */
+    public synchronized void invalidate(String key)
+    {
+        cache.remove(key);
+    }
+
+    /**
+     * Evicts entries that have aged out, as well as the oldest entry if the cache's capacity has been exceeded.
+     */
+    private void evictCache()
+    {
+        Iterator<Map.Entry<String, CacheEntry<V>>> itr = cache.entrySet().iterator();
+        while (itr.hasNext()) {
+            CacheEntry<V> entry = itr.next().getValue();
+            // Since a LinkedHashMap is ordered from older to newer, no need to keep looking once we encounter
+            // an age-appropriate entry.
+            if (entry.getAge() <= ttlMillis && cache.size() <= MAX_CACHE_SIZE) {
+                break;
+            }
+            itr.remove();
+        }
+    }
+
+    /**
+     * @return the number of entries stored in the cache.
+     */
+    public synchronized int size()
+    {
+        return cache.size();
+    }
+
+    @VisibleForTesting
+    protected synchronized void addEntry(String key, V value, long createTime)
+    {
+        cache.put(key, new CacheEntry<>(value, createTime));
+    }
+
+    /**
+     * Retrieves a value from the Elasticsearch instance on a cache miss.
+     * @param <V> is the type of the value.
+     */
+    public interface Loader<V>
+    {
+        V load()
+                throws IOException;
+    }
+
+    /**
+     * Values are stored in the cache using a CacheEntry instance which consists of the value as well as the time
+     * of creation. The latter is used for the age test during the eviction from the cache process.
+     */
+    private static class CacheEntry<V>
+    {
+        private final V value;
+        private final long createTime;
+
+        private CacheEntry(V value, long createTime)
+        {
+            this.value = value;
+            this.createTime = createTime;
+        }
+
+        private V getValue()
+        {
+            return value;
+        }
+
+        private long getAge()
+        {
+            return System.currentTimeMillis() - createTime;
+        }
+    }
+}
@@ -51,7 +51,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.indices.GetDataStreamRequest;
 import org.elasticsearch.client.indices.GetIndexRequest;
-import org.elasticsearch.client.indices.GetIndexResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
@@ -61,12 +60,13 @@ import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -133,6 +133,44 @@ public class ElasticsearchMetadataHandler
 
     protected static final String INDEX_KEY = "index";
 
+    /**
+     * Keys used to store the slice of a shard in the Split's properties map when a large shard is read by several
+     * splits through a sliced scroll (later used by the Record Handler).
+     */
+    protected static final String SLICE_ID_KEY = "slice_id";
+    protected static final String SLICE_MAX_KEY = "slice_max";
+    /**
+     * Key used to store the number of documents the Record Handler should request per page.
+     */
+    protected static final String PAGE_SIZE_KEY = "page_size";
+
+    // Env. variable that holds the number of documents a single split should read from a shard. When set, shards
+    // holding more documents are read by several splits, each of them reading a slice of the shard.
+    private static final String SHARD_SLICE_DOCS = "shard_slice_docs";
+    // Env. variable that holds the approximate number of bytes of documents the Record Handler should request per page.
+    private static final String PAGE_TARGET_BYTES = "page_target_bytes";
+    private static final long DEFAULT_PAGE_TARGET_BYTES = 4L * 1024 * 1024;
+    // Elasticsearch rejects sliced scrolls with more slices than index.max_slices_per_scroll (1024 by default).
+    private static final int MAX_SLICES_PER_SHARD = 1024;
+    private static final int MIN_PAGE_SIZE = 100;
+    // Elasticsearch rejects pages larger than index.max_result_window (10000 by default).
+    private static final int MAX_PAGE_SIZE = 10000;
+
+    private final long shardSliceDocs;
+    private final long pageTargetBytes;
+
+    // Env. variable that holds for how long (in seconds) the domain map, the index mappings and the shard layouts are
+    // cached between requests, e.g. for dashboards that issue many small queries in a row. 0 disables the cache.
+    private static final String METADATA_CACHE_TTL_SECONDS = "metadata_cache_ttl_seconds";
+    private static final long DEFAULT_METADATA_CACHE_TTL_SECONDS = 60;
+
+    private final long metadataCacheTtlMillis;
+    private long domainMapRefreshTime;
+    private final ElasticsearchMetadataCache<Schema> mappingCache;
+    private final ElasticsearchMetadataCache<String[]> indicesCache;
+    private final ElasticsearchMetadataCache<AwsRestHighLevelClient.IndexShards> shardIdsCache;
+    private final ElasticsearchMetadataCache<AwsRestHighLevelClient.IndexStats> indexStatsCache;
+
     private final GlueClient awsGlue;
     private final AwsRestHighLevelClientFactory clientFactory;
     private final ElasticsearchDomainMapProvider domainMapProvider;
@@ -151,6 +189,15 @@ public class ElasticsearchMetadataHandler
         this.clientFactory = new AwsRestHighLevelClientFactory(this.autoDiscoverEndpoint);
         this.glueTypeMapper = new ElasticsearchGlueTypeMapper();
         this.queryTimeout = Long.parseLong(configOptions.getOrDefault(QUERY_TIMEOUT_CLUSTER, "10"));
+        this.shardSliceDocs = Long.parseLong(configOptions.getOrDefault(SHARD_SLICE_DOCS, "0"));
+        this.pageTargetBytes = Long.parseLong(configOptions.getOrDefault(PAGE_TARGET_BYTES, String.valueOf(DEFAULT_PAGE_TARGET_BYTES)));
+        this.metadataCacheTtlMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(configOptions.getOrDefault(
+                METADATA_CACHE_TTL_SECONDS, String.valueOf(DEFAULT_METADATA_CACHE_TTL_SECONDS))));
+        this.domainMapRefreshTime = System.currentTimeMillis();
+        this.mappingCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
+        this.indicesCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
+        this.shardIdsCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
+        this.indexStatsCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
     }
 
     @VisibleForTesting
@@ -175,6 +222,15 @@ public class ElasticsearchMetadataHandler
         this.clientFactory = clientFactory;
         this.glueTypeMapper = new ElasticsearchGlueTypeMapper();
         this.queryTimeout = queryTimeout;
+        this.shardSliceDocs = Long.parseLong(configOptions.getOrDefault(SHARD_SLICE_DOCS, "0"));
+        this.pageTargetBytes = Long.parseLong(configOptions.getOrDefault(PAGE_TARGET_BYTES, String.valueOf(DEFAULT_PAGE_TARGET_BYTES)));
+        this.metadataCacheTtlMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(configOptions.getOrDefault(
+                METADATA_CACHE_TTL_SECONDS, String.valueOf(DEFAULT_METADATA_CACHE_TTL_SECONDS))));
+        this.domainMapRefreshTime = System.currentTimeMillis();
+        this.mappingCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
+        this.indicesCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
+        this.shardIdsCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
+        this.indexStatsCache = new ElasticsearchMetadataCache<>(metadataCacheTtlMillis);
     }
 
     protected Map<String, String> resolveDomainMap(Map<String, String> config)
@@ -222,9 +278,9 @@ public class ElasticsearchMetadataHandler
     {
         logger.debug("doListSchemaNames: enter - " + request);
 
-        if (autoDiscoverEndpoint) {
+        if (autoDiscoverEndpoint && System.currentTimeMillis() - domainMapRefreshTime > metadataCacheTtlMillis) {
             // Refresh Domain Map as new domains could have been added (in Amazon ES), and/or old ones removed...
-            domainMap = domainMapProvider.getDomainMap(null);
+            refreshDomainMap();
         }
 
         return new ListSchemasResponse(request.getCatalogName(), domainMap.keySet());
@@ -366,18 +422,69 @@ public class ElasticsearchMetadataHandler
         AwsRestHighLevelClient client = creds != null ? clientFactory.getOrCreateClient(endpoint, username, password) : clientFactory.getOrCreateClient(endpoint);
         // We send index request in case the table name is a data stream, a data stream can contains multiple indices which are created by ES
         // For non data stream, index name is same as table name
-        GetIndexResponse indexResponse = client.indices().get(new GetIndexRequest(indx), RequestOptions.DEFAULT);
-
-        Set<Split> splits = Arrays.stream(indexResponse.getIndices())
-                .flatMap(index -> getShardsIDsFromES(client, index) // get all shards for an index.
-                        .stream()
-                        .map(shardId -> new Split(makeSpillLocation(request), makeEncryptionKey(), ImmutableMap.of(SECRET_USERNAME, username, SECRET_PASSWORD, password, domain, endpoint, SHARD_KEY, SHARD_VALUE + shardId.toString(), INDEX_KEY, index))) // make split for each (index + shardId) combination
-                )
-                .collect(Collectors.toSet());
+        GetIndexRequest indexRequest = new GetIndexRequest(indx);
+        String[] indices = indicesCache.get(endpoint + "/" + indx,
+                () -> client.indices().get(indexRequest, RequestOptions.DEFAULT).getIndices());
+
+        Set<Split> splits = new HashSet<>();
+        for (String index : indices) {
+            // get all shards for an index.
+            Set<Integer> shardIds = getShardsIDsFromES(client, endpoint, index);
+            int slicesPerShard = 1;
+            Map<String, String> readProperties = ImmutableMap.of();
+            if (shardSliceDocs > 0) {
+                AwsRestHighLevelClient.IndexStats indexStats = getIndexStatsFromES(client, endpoint, index);
+                slicesPerShard = getSlicesPerShard(indexStats, shardIds.size());
+                readProperties = ImmutableMap.of(PAGE_SIZE_KEY, String.valueOf(getPageSize(indexStats)));
+                logger.info("doGetSplits: index {} has {} docs in {} shards, reading {} slices per shard",
+                        index, indexStats.getDocCount(), shardIds.size(), slicesPerShard);
+            }
+            // make split for each (index + shardId + slice) combination
+            for (Integer shardId : shardIds) {
+                for (int slice = 0; slice < slicesPerShard; slice++) {
+                    ImmutableMap.Builder<String, String> properties = ImmutableMap.<String, String>builder()
+                            .put(SECRET_USERNAME, username)
+                            .put(SECRET_PASSWORD, password)
+                            .put(domain, endpoint)
+                            .put(SHARD_KEY, SHARD_VALUE + shardId.toString())
+                            .put(INDEX_KEY, index)
+                            .putAll(readProperties);
+                    if (slicesPerShard > 1) {
+                        properties.put(SLICE_ID_KEY, String.valueOf(slice))
+                                .put(SLICE_MAX_KEY, String.valueOf(slicesPerShard));
+                    }
+                    splits.add(new Split(makeSpillLocation(request), makeEncryptionKey(), properties.build()));
+                }
+            }
+        }
 
         return new GetSplitsResponse(request.getCatalogName(), splits);
     }
 
+    /**
+     * Number of slices each shard of the index is read with, so that a slice holds about shardSliceDocs documents.
+     * The sliced scroll is sent with the shard preference, for which Elasticsearch (6.4+) slices the documents of the
+     * targeted shard only.
+     */
+    @VisibleForTesting
+    protected int getSlicesPerShard(AwsRestHighLevelClient.IndexStats indexStats, int shardCount)
+    {
+        long docsPerShard = indexStats.getDocCount() / Math.max(1, shardCount);
+        long slices = (docsPerShard + shardSliceDocs - 1) / shardSliceDocs;
+        return (int) Math.max(1, Math.min(MAX_SLICES_PER_SHARD, slices));
+    }
+
+    /**
+     * Number of documents per page, so that a page holds about pageTargetBytes bytes, based on the average size of the
+     * documents stored in the primary shards.
+     */
+    @VisibleForTesting
+    protected int getPageSize(AwsRestHighLevelClient.IndexStats indexStats)
+    {
+        long averageDocBytes = Math.max(1, indexStats.getPrimaryStoreBytes() / Math.max(1, indexStats.getDocCount()));
+        return (int) Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, pageTargetBytes / averageDocBytes));
+    }
+
     @Override
     public GetDataSourceCapabilitiesResponse doGetDataSourceCapabilities(BlockAllocator allocator, GetDataSourceCapabilitiesRequest request)
     {
@@ -412,8 +519,8 @@ public class ElasticsearchMetadataHandler
         String password = creds != null ? creds.getCredential().getPassword() : "";
         AwsRestHighLevelClient client = creds != null ? clientFactory.getOrCreateClient(endpoint, username, password) : clientFactory.getOrCreateClient(endpoint);
         try {
-            Map<String, Object> mappings = client.getMapping(index);
-            schema = ElasticsearchSchemaUtils.parseMapping(mappings);
+            schema = mappingCache.get(endpoint + "/" + index,
+                    () -> ElasticsearchSchemaUtils.parseMapping(client.getMapping(index)));
         }
         catch (IOException error) {
             throw new AthenaConnectorException("Error retrieving mapping information for index (" +
@@ -445,19 +552,33 @@ public class ElasticsearchMetadataHandler
      * Mandatory checked exception needs to handle from here
      * This is to keep the lambda stream function clearer.
      * @param client
+     * @param endpoint
      * @param index
      * @return
      */
-    private Set<Integer> getShardsIDsFromES(AwsRestHighLevelClient client, String index)
+    private Set<Integer> getShardsIDsFromES(AwsRestHighLevelClient client, String endpoint, String index)
     {
         try {
-            return client.getShardIds(index, queryTimeout);
+            // The health check comes with the shard ids, they are only cached while the index is GREEN so that a
+            // RED index (or one without active shards) is checked again on every request.
+            return shardIdsCache.get(endpoint + "/" + index, () -> client.getIndexShards(index, queryTimeout),
+                    AwsRestHighLevelClient.IndexShards::isGreen).getShardIds();
         }
         catch (IOException error) {
             throw new AthenaConnectorException(String.format("Error trying to get shards ids for index: %s, error message: %s", index, error.getMessage()), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
         }
     }
 
+    private AwsRestHighLevelClient.IndexStats getIndexStatsFromES(AwsRestHighLevelClient client, String endpoint, String index)
+    {
+        try {
+            return indexStatsCache.get(endpoint + "/" + index, () -> client.getIndexStats(index));
+        }
+        catch (IOException error) {
+            throw new AthenaConnectorException(String.format("Error trying to get stats for index: %s, error message: %s", index, error.getMessage()), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
     /**
      * Gets an endpoint from the domain mapping. For AWS Elasticsearch Service, if the domain does not exist in
      * the domain map, refresh the latter by calling the AWS ES SDK (it's possible that the domain was added
@@ -473,7 +594,7 @@ public class ElasticsearchMetadataHandler
 
         if (endpoint == null && autoDiscoverEndpoint) {
             logger.warn("Unable to find domain ({}) in map! Attempting to refresh map...", domain);
-            domainMap = domainMapProvider.getDomainMap(null);
+            refreshDomainMap();
             endpoint = domainMap.get(domain);
         }
 
@@ -484,6 +605,15 @@ public class ElasticsearchMetadataHandler
         return endpoint;
     }
 
+    /**
+     * Retrieves the domain map from the AWS ES SDK again and records the time of the refresh.
+     */
+    private void refreshDomainMap()
+    {
+        domainMap = domainMapProvider.getDomainMap(null);
+        domainMapRefreshTime = System.currentTimeMillis();
+    }
+
     /**
      * @see GlueMetadataHandler
      */
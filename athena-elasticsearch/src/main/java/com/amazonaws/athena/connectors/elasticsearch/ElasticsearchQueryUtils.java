@@ -23,6 +23,8 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.google.common.collect.ImmutableSet;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -34,8 +36,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class has interfaces used for the generation of projections and predicates used for document search queries.
@@ -57,6 +61,12 @@ class ElasticsearchQueryUtils
     private static final String UPPER_EXCLUSIVE_RANGE = "}";
     private static final String EMPTY_PREDICATE = "";
 
+    // Types whose values can be read from the doc values instead of the _source. VARCHAR is left out because text
+    // fields (unlike keyword fields) have no doc values, and the two cannot be told apart by their Arrow type.
+    private static final Set<Types.MinorType> DOC_VALUE_TYPES = ImmutableSet.of(Types.MinorType.BIGINT,
+            Types.MinorType.INT, Types.MinorType.SMALLINT, Types.MinorType.TINYINT, Types.MinorType.FLOAT8,
+            Types.MinorType.DATEMILLI, Types.MinorType.BIT);
+
     // Existence predicates.
     private static final String existsPredicate(boolean exists, String fieldName)
     {
@@ -81,18 +91,59 @@ class ElasticsearchQueryUtils
      * @return a projection wrapped in a FetchSourceContext object.
      */
     protected static FetchSourceContext getProjection(Schema schema)
+    {
+        return getProjection(schema, ImmutableSet.of());
+    }
+
+    /**
+     * Creates a projection (using the schema) on which fields should be included in the search index request,
+     * leaving out the fields that are read from the doc values instead.
+     * @param schema is the schema containing the requested projection.
+     * @param docValueFields are the fields read from the doc values (see getDocValueFields()).
+     * @return a projection wrapped in a FetchSourceContext object, or one that disables the _source altogether if
+     * all the fields are read from the doc values.
+     */
+    protected static FetchSourceContext getProjection(Schema schema, Collection<String> docValueFields)
     {
         List<String> includedFields = new ArrayList<>();
 
         for (Field field : schema.getFields()) {
-            includedFields.add(field.getName());
+            if (!docValueFields.contains(field.getName())) {
+                includedFields.add(field.getName());
+            }
         }
 
         logger.info("Included fields: " + includedFields);
 
+        if (includedFields.isEmpty() && !schema.getFields().isEmpty()) {
+            return FetchSourceContext.DO_NOT_FETCH_SOURCE;
+        }
+
         return new FetchSourceContext(true, Strings.toStringArray(includedFields), Strings.EMPTY_ARRAY);
     }
 
+    /**
+     * Gets the projected fields whose values can be read from the doc values, which spares Elasticsearch the
+     * decompression of the _source and both sides the JSON (de)serialization of these fields. Only top-level fields
+     * of numeric, date and boolean types are eligible.
+     * @param schema is the schema containing the requested projection.
+     * @return the names of the eligible fields.
+     */
+    protected static List<String> getDocValueFields(Schema schema)
+    {
+        List<String> docValueFields = new ArrayList<>();
+
+        for (Field field : schema.getFields()) {
+            if (DOC_VALUE_TYPES.contains(Types.getMinorTypeForArrowType(field.getType()))) {
+                docValueFields.add(field.getName());
+            }
+        }
+
+        logger.info("Doc value fields: " + docValueFields);
+
+        return docValueFields;
+    }
+
     /**
      * Given a set of Constraints, create the query that can push predicates into the Elasticsearch data-source.
      * @param constraintSummary is a map containing the constraints used to form the predicate for predicate push-down.
@@ -24,11 +24,14 @@ import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.writers.GeneratedRowWriter;
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.elasticsearch.qpt.ElasticsearchQueryPassthrough;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.arrow.util.VisibleForTesting;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.action.search.ClearScrollRequest;
@@ -36,12 +39,15 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
@@ -51,8 +57,14 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -80,11 +92,20 @@ public class ElasticsearchRecordHandler
     // Env. variable that holds the scroll timeout for the Search queries.
     private static final String SCROLL_TIMEOUT = "query_scroll_timeout";
 
+    // Read the numeric, date and boolean columns from the doc values instead of the _source (off by default). The
+    // fields must not have doc values disabled in the mapping, and multi-valued fields return their lowest value.
+    private static final String DOCVALUE_FIELDS = "docvalue_fields";
+    // Dates are requested in a format the date extractor parses regardless of the format in the mapping.
+    private static final String DOCVALUE_DATE_FORMAT = "strict_date_optional_time";
+
     private final long queryTimeout;
     private final long scrollTimeout;
+    private final boolean useDocValueFields;
 
     // Pagination batch size (100 documents).
     private static final int QUERY_BATCH_SIZE = 100;
+    // Maximum number of empty rows written per call to the spiller when only the document count is needed.
+    private static final int MAX_ROWS_PER_WRITE = 100;
 
     private final AwsRestHighLevelClientFactory clientFactory;
     private final ElasticsearchTypeUtils typeUtils;
@@ -99,6 +120,7 @@ public class ElasticsearchRecordHandler
         this.clientFactory = new AwsRestHighLevelClientFactory(configOptions.getOrDefault(AUTO_DISCOVER_ENDPOINT, "").equalsIgnoreCase("true"));
         this.queryTimeout = Long.parseLong(configOptions.getOrDefault(QUERY_TIMEOUT_SEARCH, "720"));
         this.scrollTimeout = Long.parseLong(configOptions.getOrDefault(SCROLL_TIMEOUT, "60"));
+        this.useDocValueFields = configOptions.getOrDefault(DOCVALUE_FIELDS, "").equalsIgnoreCase("true");
     }
 
     @VisibleForTesting
@@ -117,6 +139,7 @@ public class ElasticsearchRecordHandler
         this.clientFactory = clientFactory;
         this.queryTimeout = queryTimeout;
         this.scrollTimeout = scrollTimeout;
+        this.useDocValueFields = configOptions.getOrDefault(DOCVALUE_FIELDS, "").equalsIgnoreCase("true");
     }
 
     /**
@@ -165,18 +188,48 @@ public class ElasticsearchRecordHandler
                 recordsRequest.getSchema(), query);
         long numRows = 0;
 
-        if (queryStatusChecker.isQueryRunning()) {
+        if (queryStatusChecker.isQueryRunning() && recordsRequest.getSchema().getFields().isEmpty()) {
+            // No column is projected (e.g. SELECT count(*)), only the number of matching documents is needed.
+            AwsRestHighLevelClient client = useSecret ? clientFactory.getOrCreateClient(endpoint, username, password) : clientFactory.getOrCreateClient(endpoint);
+            numRows = writeDocumentCount(spiller, recordsRequest, queryStatusChecker, client, index, shard, query);
+        }
+        else if (queryStatusChecker.isQueryRunning()) {
             AwsRestHighLevelClient client = useSecret ? clientFactory.getOrCreateClient(endpoint, username, password) : clientFactory.getOrCreateClient(endpoint);
+            // The next page is requested in the background while the hits of the current page are written.
+            ExecutorService pagePrefetcher = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("elasticsearch-page-prefetch-%d").setDaemon(true).build());
             try {
                 // Create field extractors for all data types in the schema.
                 GeneratedRowWriter rowWriter = createFieldExtractors(recordsRequest);
 
+                // Eligible columns are read from the doc values, the rest from the _source.
+                List<String> docValueFields = useDocValueFields ?
+                        ElasticsearchQueryUtils.getDocValueFields(recordsRequest.getSchema()) : Collections.emptyList();
+
                 // Create a new search-source injected with the projection, predicate, and the pagination batch size.
                 SearchSourceBuilder searchSource = new SearchSourceBuilder()
-                        .size(QUERY_BATCH_SIZE)
+                        .size(getPageSize(recordsRequest.getSplit()))
                         .timeout(new TimeValue(queryTimeout, TimeUnit.SECONDS))
-                        .fetchSource(ElasticsearchQueryUtils.getProjection(recordsRequest.getSchema()))
-                        .query(query);
+                        .fetchSource(ElasticsearchQueryUtils.getProjection(recordsRequest.getSchema(), docValueFields))
+                        .query(query)
+                        // scrolls are cheapest in index order, the results of a split are not ordered anyway
+                        .sort(FieldSortBuilder.DOC_FIELD_NAME);
+                for (String docValueField : docValueFields) {
+                    Field field = recordsRequest.getSchema().findField(docValueField);
+                    if (Types.getMinorTypeForArrowType(field.getType()) == Types.MinorType.DATEMILLI) {
+                        searchSource.docValueField(docValueField, DOCVALUE_DATE_FORMAT);
+                    }
+                    else {
+                        searchSource.docValueField(docValueField);
+                    }
+                }
+
+                // A large shard is read by several splits, each of them scrolling through a slice of the shard.
+                String sliceId = recordsRequest.getSplit().getProperty(ElasticsearchMetadataHandler.SLICE_ID_KEY);
+                String sliceMax = recordsRequest.getSplit().getProperty(ElasticsearchMetadataHandler.SLICE_MAX_KEY);
+                if (sliceId != null && sliceMax != null) {
+                    searchSource.slice(new SliceBuilder(Integer.parseInt(sliceId), Integer.parseInt(sliceMax)));
+                }
 
                 //init scroll
                 Scroll scroll = new Scroll(TimeValue.timeValueSeconds(this.scrollTimeout));
@@ -193,6 +246,10 @@ public class ElasticsearchRecordHandler
                         && searchResponse.getHits().getHits() != null
                         && searchResponse.getHits().getHits().length > 0
                         && queryStatusChecker.isQueryRunning()) {
+                    //prep for next hits and keep track of scroll id, the next page is fetched while this one is written.
+                    SearchScrollRequest scrollRequest = new SearchScrollRequest(searchResponse.getScrollId()).scroll(scroll);
+                    Future<SearchResponse> nextPage = pagePrefetcher.submit(() -> client.scroll(scrollRequest, RequestOptions.DEFAULT));
+
                     Iterator<SearchHit> finalIterator = searchResponse.getHits().iterator();
                     while (finalIterator.hasNext() && queryStatusChecker.isQueryRunning()) {
                         ++numRows;
@@ -200,9 +257,7 @@ public class ElasticsearchRecordHandler
                                 rowWriter.writeRow(block, rowNum, client.getDocument(finalIterator.next())) ? 1 : 0);
                     }
 
-                    //prep for next hits and keep track of scroll id.
-                    SearchScrollRequest scrollRequest = new SearchScrollRequest(searchResponse.getScrollId()).scroll(scroll);
-                    searchResponse = client.scroll(scrollRequest, RequestOptions.DEFAULT);
+                    searchResponse = getNextPage(nextPage);
                     if (searchResponse.isTimedOut()) {
                         throw new AthenaConnectorException("Request for index (" + index + ") " + shard + " timed out.", ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
                     }
@@ -215,11 +270,85 @@ public class ElasticsearchRecordHandler
             catch (IOException error) {
                 throw new AthenaConnectorException("Error sending search query: " + error.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).errorMessage(error.getMessage()).build());
             }
+            finally {
+                pagePrefetcher.shutdownNow();
+            }
         }
 
         logger.info("readWithConstraint: numRows[{}]", numRows);
     }
 
+    /**
+     * Counts the documents of the shard matching the query and writes as many empty rows, instead of scrolling through
+     * the documents themselves. A shard read by several sliced splits is counted by its first slice only.
+     * @return the number of rows written.
+     * @throws RuntimeException when an error occurs while sending the count request.
+     */
+    private long writeDocumentCount(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker,
+                                    AwsRestHighLevelClient client, String index, String shard, QueryBuilder query)
+    {
+        String sliceId = recordsRequest.getSplit().getProperty(ElasticsearchMetadataHandler.SLICE_ID_KEY);
+        if (sliceId != null && Integer.parseInt(sliceId) != 0) {
+            return 0;
+        }
+
+        long count;
+        try {
+            CountRequest countRequest = new CountRequest(index)
+                    .preference(shard)
+                    .query(query);
+            count = client.count(countRequest, RequestOptions.DEFAULT).getCount();
+        }
+        catch (IOException error) {
+            throw new AthenaConnectorException("Error sending count query: " + error.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).errorMessage(error.getMessage()).build());
+        }
+        logger.info("writeDocumentCount: index {} {} has {} matching documents", index, shard, count);
+
+        long remaining = count;
+        while (remaining > 0 && queryStatusChecker.isQueryRunning()) {
+            int rows = (int) Math.min(MAX_ROWS_PER_WRITE, remaining);
+            spiller.writeRows((Block block, int rowNum) -> rows);
+            remaining -= rows;
+        }
+        return count - remaining;
+    }
+
+    /**
+     * Waits for the page requested in the background.
+     * @param nextPage the pending scroll request.
+     * @return the next page of the scroll.
+     * @throws IOException if the scroll request failed.
+     */
+    private SearchResponse getNextPage(Future<SearchResponse> nextPage)
+            throws IOException
+    {
+        try {
+            return nextPage.get();
+        }
+        catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new AthenaConnectorException("Interrupted while waiting for the next page: " + error.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+        }
+        catch (ExecutionException error) {
+            if (error.getCause() instanceof IOException) {
+                throw (IOException) error.getCause();
+            }
+            if (error.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) error.getCause();
+            }
+            throw new AthenaConnectorException("Error fetching the next page: " + error.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
+    /**
+     * @return the page size planned for the split, or the default pagination batch size.
+     */
+    private int getPageSize(Split split)
+    {
+        String pageSize = split.getProperty(ElasticsearchMetadataHandler.PAGE_SIZE_KEY);
+        return pageSize == null ? QUERY_BATCH_SIZE : Integer.parseInt(pageSize);
+    }
+
     /**
      * Creates field extractors to aid in extracting values from retrieved documents. Method makeExtractor()
      * is used for creating the extractors for simple data types (e.g. INT, BIGINT, etc...) Complex data types such as
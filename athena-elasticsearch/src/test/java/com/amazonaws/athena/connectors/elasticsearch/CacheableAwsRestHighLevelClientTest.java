@@ -34,6 +34,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -134,6 +136,21 @@ public class CacheableAwsRestHighLevelClientTest
         logger.info("evictUnhealthyClientTest - exit");
     }
 
+    /**
+     * Test that a client which passed a health test recently is not tested again.
+     */
+    @Test
+    public void skipRecentHealthCheckTest()
+            throws IOException
+    {
+        when(client1.ping(any())).thenReturn(true);
+        clientCache.put("endpoint1", client1);
+
+        assertEquals("Wrong client returned from cache.", client1, clientCache.get("endpoint1"));
+        assertEquals("Wrong client returned from cache.", client1, clientCache.get("endpoint1"));
+        verify(client1, times(1)).ping(any());
+    }
+
     /**
      * Test the cache's ability to evict the oldest clients when the cache's capacity is exceeded (as indicated by
      * MAX_CACHE_SIZE).
@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * athena-elasticsearch
+ * %%
+ * Copyright (C) 2019 - 2020 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.elasticsearch;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class is used to test the ElasticsearchMetadataCache class.
+ */
+public class ElasticsearchMetadataCacheTest
+{
+    private static final long TTL_MS = 60_000;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Test the cache's ability to return a stored value without loading it again.
+     */
+    @Test
+    public void getCachedValueTest()
+            throws IOException
+    {
+        ElasticsearchMetadataCache<String> cache = new ElasticsearchMetadataCache<>(TTL_MS);
+
+        assertEquals("value1", cache.get("key1", () -> load("value1")));
+        assertEquals("value1", cache.get("key1", () -> load("other")));
+        assertEquals("value2", cache.get("key2", () -> load("value2")));
+
+        assertEquals("Values loaded more than once.", 2, loads.get());
+        assertEquals("Cache has wrong number of entries.", 2, cache.size());
+
+        cache.invalidate("key1");
+        assertEquals("value3", cache.get("key1", () -> load("value3")));
+        assertEquals("Invalidated value was not loaded again.", 3, loads.get());
+    }
+
+    /**
+     * Test the cache's ability to load values again once they have aged out.
+     */
+    @Test
+    public void reloadOldValueTest()
+            throws IOException
+    {
+        ElasticsearchMetadataCache<String> cache = new ElasticsearchMetadataCache<>(TTL_MS);
+        cache.addEntry("key1", "value1", System.currentTimeMillis() - TTL_MS - 1);
+
+        assertEquals("value2", cache.get("key1", () -> load("value2")));
+        assertEquals("Cache has wrong number of entries.", 1, cache.size());
+    }
+
+    /**
+     * Test that values which are not cacheable are loaded again by the next get().
+     */
+    @Test
+    public void skipUncacheableValueTest()
+            throws IOException
+    {
+        ElasticsearchMetadataCache<String> cache = new ElasticsearchMetadataCache<>(TTL_MS);
+
+        assertEquals("red", cache.get("key1", () -> load("red"), "green"::equals));
+        assertEquals("Uncacheable value was cached.", 0, cache.size());
+        assertEquals("green", cache.get("key1", () -> load("green"), "green"::equals));
+        assertEquals("green", cache.get("key1", () -> load("red"), "green"::equals));
+
+        assertEquals("Cacheable value was loaded more than once.", 2, loads.get());
+    }
+
+    /**
+     * Test that a cache without a time-to-live always loads the values.
+     */
+    @Test
+    public void disabledCacheTest()
+            throws IOException
+    {
+        ElasticsearchMetadataCache<String> cache = new ElasticsearchMetadataCache<>(0);
+
+        cache.get("key1", () -> load("value1"));
+        cache.get("key1", () -> load("value1"));
+
+        assertEquals("Values were cached.", 2, loads.get());
+        assertEquals("Cache has wrong number of entries.", 0, cache.size());
+    }
+
+    /**
+     * Test the cache's ability to evict the oldest entries when the cache's capacity is exceeded (as indicated by
+     * MAX_CACHE_SIZE).
+     */
+    @Test
+    public void evictExceededCapacityTest()
+            throws IOException
+    {
+        ElasticsearchMetadataCache<String> cache = new ElasticsearchMetadataCache<>(TTL_MS);
+
+        cache.get("key1", () -> load("value1"));
+        for (int i = 0; i < ElasticsearchMetadataCache.MAX_CACHE_SIZE; ++i) {
+            String key = "newkey" + i;
+            cache.get(key, () -> load(key));
+        }
+
+        assertEquals("Cache has wrong number of entries.",
+                ElasticsearchMetadataCache.MAX_CACHE_SIZE, cache.size());
+        assertEquals("value2", cache.get("key1", () -> load("value2")));
+    }
+
+    private String load(String value)
+    {
+        loads.incrementAndGet();
+        return value;
+    }
+}
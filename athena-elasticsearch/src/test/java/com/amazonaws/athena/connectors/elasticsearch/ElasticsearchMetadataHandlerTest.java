@@ -79,6 +79,8 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -444,8 +446,8 @@ public class ElasticsearchMetadataHandlerTest
         String endpoint = "https://search-movies-ne3fcqzfipy6jcrew2wca6kyqu.us-east-1.es.amazonaws.com";
         when(domainMapProvider.getDomainMap(null)).thenReturn(ImmutableMap.of(domain, endpoint));
 
-        when(mockClient.getShardIds(nullable(String.class), anyLong())).thenReturn(ImmutableSet
-                .of(new Integer(0), new Integer(1), new Integer(2)));
+        when(mockClient.getIndexShards(nullable(String.class), anyLong())).thenReturn(new AwsRestHighLevelClient.IndexShards(
+                ImmutableSet.of(new Integer(0), new Integer(1), new Integer(2)), true));
 
         IndicesClient indices = mock(IndicesClient.class);
         GetIndexResponse mockIndexResponse = mock(GetIndexResponse.class);
@@ -488,6 +490,94 @@ public class ElasticsearchMetadataHandlerTest
         logger.info("doGetSplits: exit");
     }
 
+    /**
+     * Used to test that the shard ids are only cached while the index is healthy (GREEN).
+     */
+    @Test
+    public void doGetSplitsCachesShardIdsOfGreenIndexOnly()
+            throws Exception
+    {
+        String index = "customer";
+        Block partitions = BlockUtils.newBlock(allocator, "partitionId", Types.MinorType.INT.getType(), 0);
+        GetSplitsRequest req = new GetSplitsRequest(fakeIdentity(),
+                "queryId",
+                "elasticsearch",
+                new TableName("movies", index),
+                partitions,
+                new ArrayList<>(),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        String domain = "movies";
+        String endpoint = "https://search-movies-ne3fcqzfipy6jcrew2wca6kyqu.us-east-1.es.amazonaws.com";
+        when(domainMapProvider.getDomainMap(null)).thenReturn(ImmutableMap.of(domain, endpoint));
+        when(mockClient.getIndexShards(nullable(String.class), anyLong())).thenReturn(
+                new AwsRestHighLevelClient.IndexShards(ImmutableSet.of(0, 1, 2), false),
+                new AwsRestHighLevelClient.IndexShards(ImmutableSet.of(0, 1, 2), false),
+                new AwsRestHighLevelClient.IndexShards(ImmutableSet.of(0, 1, 2), true));
+
+        IndicesClient indices = mock(IndicesClient.class);
+        GetIndexResponse mockIndexResponse = mock(GetIndexResponse.class);
+        when(mockIndexResponse.getIndices()).thenReturn(new String[]{index});
+        when(indices.get(nullable(GetIndexRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(mockIndexResponse);
+        when(mockClient.indices()).thenReturn(indices);
+
+        handler = new ElasticsearchMetadataHandler(awsGlue, new LocalKeyFactory(), awsSecretsManager, amazonAthena,
+                "spill-bucket", "spill-prefix", domainMapProvider, clientFactory, 10, ImmutableMap.of(), false);
+
+        // The health check runs on every request until the index is GREEN, the GREEN shard ids are then cached.
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Response has invalid number of splits", 3, handler.doGetSplits(allocator, req).getSplits().size());
+        }
+        verify(mockClient, times(3)).getIndexShards(index, 10);
+    }
+
+    @Test
+    public void doGetSplitsWithSlicedShards()
+            throws Exception
+    {
+        String index = "customer";
+        Block partitions = BlockUtils.newBlock(allocator, "partitionId", Types.MinorType.INT.getType(), 0);
+        GetSplitsRequest req = new GetSplitsRequest(fakeIdentity(),
+                "queryId",
+                "elasticsearch",
+                new TableName("movies", index),
+                partitions,
+                new ArrayList<>(),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        String domain = "movies";
+        String endpoint = "https://search-movies-ne3fcqzfipy6jcrew2wca6kyqu.us-east-1.es.amazonaws.com";
+        when(domainMapProvider.getDomainMap(null)).thenReturn(ImmutableMap.of(domain, endpoint));
+        when(mockClient.getIndexShards(nullable(String.class), anyLong())).thenReturn(new AwsRestHighLevelClient.IndexShards(ImmutableSet.of(0, 1, 2), true));
+        // 2000 docs of 2KB per shard
+        when(mockClient.getIndexStats(index)).thenReturn(new AwsRestHighLevelClient.IndexStats(6000, 6000 * 2048));
+
+        IndicesClient indices = mock(IndicesClient.class);
+        GetIndexResponse mockIndexResponse = mock(GetIndexResponse.class);
+        when(mockIndexResponse.getIndices()).thenReturn(new String[]{index});
+        when(indices.get(nullable(GetIndexRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(mockIndexResponse);
+        when(mockClient.indices()).thenReturn(indices);
+
+        handler = new ElasticsearchMetadataHandler(awsGlue, new LocalKeyFactory(), awsSecretsManager, amazonAthena,
+                "spill-bucket", "spill-prefix", domainMapProvider, clientFactory, 10,
+                ImmutableMap.of("shard_slice_docs", "1000"), false);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        // every shard is read by 2 slices
+        assertEquals("Response has invalid number of splits", 6, response.getSplits().size());
+        Set<String> shardSlices = new HashSet<>();
+        response.getSplits().forEach(split -> {
+            assertEquals("2", split.getProperty(ElasticsearchMetadataHandler.SLICE_MAX_KEY));
+            // 4MB pages of 2KB docs
+            assertEquals("2048", split.getProperty(ElasticsearchMetadataHandler.PAGE_SIZE_KEY));
+            shardSlices.add(split.getProperty(ElasticsearchMetadataHandler.SHARD_KEY) + "/" + split.getProperty(ElasticsearchMetadataHandler.SLICE_ID_KEY));
+        });
+        assertEquals(ImmutableSet.of("_shards:0/0", "_shards:0/1", "_shards:1/0", "_shards:1/1", "_shards:2/0", "_shards:2/1"), shardSlices);
+    }
+
     private static FederatedIdentity fakeIdentity()
     {
         return new FederatedIdentity("access_key_id",
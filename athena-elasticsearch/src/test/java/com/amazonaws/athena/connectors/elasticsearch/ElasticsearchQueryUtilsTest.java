@@ -44,6 +44,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 
 /**
@@ -111,6 +112,30 @@ public class ElasticsearchQueryUtilsTest
         logger.info("getProjectionTest - exit");
     }
 
+    @Test
+    public void getDocValueFieldsTest()
+    {
+        List<String> expectedDocValueFields = ImmutableList.of("myinteger", "myshort", "mybyte", "mydouble",
+                "myscaled", "mydatemilli", "myboolean");
+        List<String> docValueFields = ElasticsearchQueryUtils.getDocValueFields(mapping);
+        assertEquals("Doc value fields do not match", expectedDocValueFields, docValueFields);
+
+        // The remaining fields are still read from the _source.
+        List<String> expectedProjection = ImmutableList.of("mytext", "mykeyword", "mylong", "myfloat", "myhalf",
+                "mydatenano", "mybinary", "mynested");
+        FetchSourceContext context = ElasticsearchQueryUtils.getProjection(mapping, docValueFields);
+        assertEquals("Projections do not match", expectedProjection, ImmutableList.copyOf(context.includes()));
+
+        // No _source at all when every field is read from the doc values.
+        Schema numericMapping = SchemaBuilder.newBuilder()
+                .addField("myinteger", Types.MinorType.INT.getType())
+                .addField("myboolean", Types.MinorType.BIT.getType())
+                .build();
+        context = ElasticsearchQueryUtils.getProjection(numericMapping,
+                ElasticsearchQueryUtils.getDocValueFields(numericMapping));
+        assertFalse(context.fetchSource());
+    }
+
     @Test
     public void getRangePredicateTest()
     {
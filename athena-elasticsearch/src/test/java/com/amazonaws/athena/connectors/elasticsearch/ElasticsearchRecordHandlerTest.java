@@ -48,8 +48,11 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.client.core.CountResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -80,14 +83,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
@@ -383,6 +389,124 @@ public class ElasticsearchRecordHandlerTest
         logger.info("doReadRecordsNoSpill: exit");
     }
 
+    @Test
+    public void doReadRecordsSlicedShard()
+            throws Exception
+    {
+        SearchHit searchHit[] = new SearchHit[2];
+        searchHit[0] = new SearchHit(1);
+        searchHit[1] = new SearchHit(2);
+        SearchHits searchHits =
+                new SearchHits(searchHit, new TotalHits(2, TotalHits.Relation.EQUAL_TO), 4);
+        when(mockResponse.getHits()).thenReturn(searchHits);
+
+        Split slicedSplit = Split.newBuilder(makeSpillLocation(), null)
+                .add("movies", "https://search-movies-ne3fcqzfipy6jcrew2wca6kyqu.us-east-1.es.amazonaws.com")
+                .add(ElasticsearchMetadataHandler.SHARD_KEY, "_shards:5")
+                .add(ElasticsearchMetadataHandler.INDEX_KEY, "index1")
+                .add(ElasticsearchMetadataHandler.SLICE_ID_KEY, "1")
+                .add(ElasticsearchMetadataHandler.SLICE_MAX_KEY, "3")
+                .add(ElasticsearchMetadataHandler.PAGE_SIZE_KEY, "500")
+                .build();
+
+        ReadRecordsRequest request = new ReadRecordsRequest(fakeIdentity(),
+                "elasticsearch",
+                "queryId-" + System.currentTimeMillis(),
+                new TableName("movies", "mishmash"),
+                mapping,
+                slicedSplit,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        ArgumentCaptor<SearchRequest> argumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(mockClient).search(argumentCaptor.capture(), any());
+        SearchRequest searchRequest = argumentCaptor.getValue();
+        assertEquals("_shards:5", searchRequest.preference());
+        assertEquals(1, searchRequest.source().slice().getId());
+        assertEquals(3, searchRequest.source().slice().getMax());
+        assertEquals(500, searchRequest.source().size());
+
+        assertEquals(2, ((ReadRecordsResponse) rawResponse).getRecords().getRowCount());
+    }
+
+    @Test
+    public void doReadRecordsDocValueFields()
+            throws Exception
+    {
+        SearchHit searchHit[] = new SearchHit[2];
+        searchHit[0] = new SearchHit(1);
+        searchHit[1] = new SearchHit(2);
+        SearchHits searchHits =
+                new SearchHits(searchHit, new TotalHits(2, TotalHits.Relation.EQUAL_TO), 4);
+        when(mockResponse.getHits()).thenReturn(searchHits);
+
+        handler = new ElasticsearchRecordHandler(amazonS3, awsSecretsManager, athena, clientFactory, 720, 60,
+                ImmutableMap.of("docvalue_fields", "true"));
+
+        ReadRecordsRequest request = new ReadRecordsRequest(fakeIdentity(),
+                "elasticsearch",
+                "queryId-" + System.currentTimeMillis(),
+                new TableName("movies", "mishmash"),
+                mapping,
+                split,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        ArgumentCaptor<SearchRequest> argumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(mockClient).search(argumentCaptor.capture(), any());
+        SearchSourceBuilder searchSource = argumentCaptor.getValue().source();
+        List<String> docValueFields = searchSource.docValueFields().stream()
+                .map(docValueField -> docValueField.field)
+                .collect(Collectors.toList());
+        assertEquals(ImmutableList.of("myinteger", "myshort", "mybyte", "mydouble", "myscaled", "mydatemilli", "myboolean"),
+                docValueFields);
+        assertEquals("strict_date_optional_time", searchSource.docValueFields().get(5).format);
+        // the doc value fields are no longer read from the _source
+        List<String> sourceFields = ImmutableList.copyOf(searchSource.fetchSource().includes());
+        assertTrue(sourceFields.contains("mytext"));
+        assertFalse(sourceFields.contains("myinteger"));
+
+        assertEquals(2, ((ReadRecordsResponse) rawResponse).getRecords().getRowCount());
+    }
+
+    @Test
+    public void doReadRecordsCountOnly()
+            throws Exception
+    {
+        CountResponse countResponse = mock(CountResponse.class);
+        when(countResponse.getCount()).thenReturn(250L);
+        when(mockClient.count(any(CountRequest.class), any())).thenReturn(countResponse);
+
+        ReadRecordsRequest request = new ReadRecordsRequest(fakeIdentity(),
+                "elasticsearch",
+                "queryId-" + System.currentTimeMillis(),
+                new TableName("movies", "mishmash"),
+                SchemaBuilder.newBuilder().build(),
+                split,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        // the documents are counted, not scrolled through
+        ArgumentCaptor<CountRequest> argumentCaptor = ArgumentCaptor.forClass(CountRequest.class);
+        verify(mockClient).count(argumentCaptor.capture(), any());
+        assertEquals("_shards:5", argumentCaptor.getValue().preference());
+        verify(mockClient, never()).search(any(), any());
+
+        assertEquals(250, ((ReadRecordsResponse) rawResponse).getRecords().getRowCount());
+    }
+
     @Test
     public void doReadRecordsSpill()
             throws Exception
@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+/**
+ * Keeps idle resources which are expensive to create (i.e. clients holding an authenticated connection) around
+ * between the splits processed by the same (warm) Lambda container, so that each split does not pay for setting
+ * them up again.
+ * <p>
+ * Resources are keyed by everything that went into building them, a resource is handed out to one split at a time
+ * and it is reset before it goes back to the pool. Resources which failed to reset, aged out or do not fit in the
+ * pool anymore are closed.
+ *
+ * @param <T> The type of the pooled resources.
+ */
+public class ResourcePool<T extends AutoCloseable>
+{
+    private static final Logger logger = LoggerFactory.getLogger(ResourcePool.class);
+
+    private final int maxIdlePerKey;
+    private final long maxIdleMillis;
+    private final Consumer<T> reset;
+    private final Map<String, Deque<IdleResource<T>>> idleResources = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxIdlePerKey How many idle resources are kept for the same key.
+     * @param maxIdleMillis Idle resources older than this are closed instead of being reused.
+     * @param reset Called on a resource when it is released, i.e. to drop the state of the split that used it.
+     */
+    public ResourcePool(int maxIdlePerKey, long maxIdleMillis, Consumer<T> reset)
+    {
+        this.maxIdlePerKey = maxIdlePerKey;
+        this.maxIdleMillis = maxIdleMillis;
+        this.reset = reset;
+    }
+
+    /**
+     * Gives an idle resource for the key, or creates a new one with the factory if there is none.
+     *
+     * @param key The pool key of the resource.
+     * @param factory Creates a new resource when the pool has no idle resource for the key.
+     * @param <R> The type of the resource, resources of the same key must all be of the same type.
+     * @return The idle or newly created resource.
+     * @throws Exception If the factory failed to create the resource.
+     */
+    @SuppressWarnings("unchecked")
+    public <R extends T> R acquire(String key, Callable<R> factory)
+            throws Exception
+    {
+        Deque<IdleResource<T>> resources = idleResources.get(key);
+        if (resources != null) {
+            IdleResource<T> idle = resources.pollFirst();
+            while (idle != null) {
+                if (System.currentTimeMillis() - idle.releasedAt <= maxIdleMillis) {
+                    logger.debug("acquire: reusing pooled resource, {} idle resources left", resources.size());
+                    return (R) idle.resource;
+                }
+                close(idle.resource);
+                idle = resources.pollFirst();
+            }
+        }
+        logger.debug("acquire: no idle resource in the pool, creating a new one");
+        return factory.call();
+    }
+
+    /**
+     * Gives the resource back to the pool once the split has been read.
+     *
+     * @param key The pool key the resource was acquired with.
+     * @param resource The resource to pool.
+     */
+    public void release(String key, T resource)
+    {
+        try {
+            reset.accept(resource);
+        }
+        catch (RuntimeException ex) {
+            logger.warn("release: failed to reset resource, closing it instead of pooling", ex);
+            close(resource);
+            return;
+        }
+
+        Deque<IdleResource<T>> resources = idleResources.computeIfAbsent(key, it -> new ConcurrentLinkedDeque<>());
+        if (resources.size() >= maxIdlePerKey) {
+            close(resource);
+            return;
+        }
+        resources.offerFirst(new IdleResource<>(resource, System.currentTimeMillis()));
+    }
+
+    /**
+     * Closes a resource which must not be reused, i.e. one that failed in the middle of reading a split.
+     *
+     * @param resource The resource to close.
+     */
+    public void invalidate(T resource)
+    {
+        close(resource);
+    }
+
+    private void close(T resource)
+    {
+        try {
+            resource.close();
+        }
+        catch (Exception ex) {
+            logger.warn("close: failed to close resource", ex);
+        }
+    }
+
+    private static class IdleResource<T>
+    {
+        private final T resource;
+        private final long releasedAt;
+
+        private IdleResource(T resource, long releasedAt)
+        {
+            this.resource = resource;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
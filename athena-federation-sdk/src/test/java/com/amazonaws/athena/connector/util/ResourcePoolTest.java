@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResourcePoolTest
+{
+    @Test
+    public void releasedResourceIsResetAndReusedForSameKey()
+            throws Exception
+    {
+        ResourcePool<TestResource> pool = new ResourcePool<>(2, 60_000L, TestResource::reset);
+        TestResource resource = new TestResource();
+
+        TestResource acquired = pool.acquire("key", () -> resource);
+        pool.release("key", acquired);
+
+        assertTrue(resource.reset);
+        assertFalse(resource.closed);
+        assertSame(resource, pool.acquire("key", TestResource::new));
+        assertNotSame(resource, pool.acquire("key", TestResource::new));
+    }
+
+    @Test
+    public void resourceIsNotSharedAcrossKeys()
+            throws Exception
+    {
+        ResourcePool<TestResource> pool = new ResourcePool<>(2, 60_000L, TestResource::reset);
+        TestResource resource = new TestResource();
+        pool.release("key1", resource);
+
+        assertNotSame(resource, pool.acquire("key2", TestResource::new));
+    }
+
+    @Test
+    public void expiredInvalidatedAndFailedResourcesAreClosed()
+            throws Exception
+    {
+        ResourcePool<TestResource> pool = new ResourcePool<>(2, -1L, TestResource::reset);
+        TestResource expired = new TestResource();
+        pool.release("key", expired);
+        assertNotSame(expired, pool.acquire("key", TestResource::new));
+        assertTrue(expired.closed);
+
+        TestResource invalidated = new TestResource();
+        pool.invalidate(invalidated);
+        assertTrue(invalidated.closed);
+
+        ResourcePool<TestResource> failingPool = new ResourcePool<>(2, 60_000L, it -> {
+            throw new IllegalStateException("reset failed");
+        });
+        TestResource failed = new TestResource();
+        failingPool.release("key", failed);
+        assertTrue(failed.closed);
+        assertNotSame(failed, failingPool.acquire("key", TestResource::new));
+    }
+
+    @Test
+    public void poolSizeIsBounded()
+            throws Exception
+    {
+        ResourcePool<TestResource> pool = new ResourcePool<>(1, 60_000L, TestResource::reset);
+        TestResource first = new TestResource();
+        TestResource second = new TestResource();
+        pool.release("key", first);
+        pool.release("key", second);
+
+        assertTrue(second.closed);
+        assertSame(first, pool.acquire("key", TestResource::new));
+    }
+
+    private static class TestResource
+            implements AutoCloseable
+    {
+        private boolean reset;
+        private boolean closed;
+
+        private void reset()
+        {
+            reset = true;
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+}
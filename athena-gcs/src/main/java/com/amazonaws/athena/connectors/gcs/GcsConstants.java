@@ -33,6 +33,21 @@ public class GcsConstants
     static final String STORAGE_SPLIT_JSON = "storage_split_json";
     static final int MAX_SPLITS_PER_REQUEST = 1000;
 
+    /**
+     * Optional config to set how many bytes of files a single split should read. The files of a partition folder are
+     * balanced by size over as many splits as needed to stay close to this target, a file larger than the target gets
+     * a split of its own.
+     */
+    public static final String SPLIT_TARGET_BYTES = "split_target_bytes";
+    public static final long DEFAULT_SPLIT_TARGET_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Optional config to set how many files of a split are opened ahead, in the background, while the current file
+     * is being written to the spiller. Each file opened ahead holds at most one decoded batch of records.
+     */
+    public static final String FILE_READ_AHEAD = "file_read_ahead";
+    public static final int DEFAULT_FILE_READ_AHEAD = 4;
+
     /**
      * An environment variable in the deployed Lambda which is name of the secret in AWS Secrets Manager.
      * contains credential keys/values in the form of JSON to access the GCS buckets/objects
@@ -63,9 +63,11 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.CLASSIFICATION_GLUE_TABLE_PARAM;
+import static com.amazonaws.athena.connectors.gcs.GcsConstants.DEFAULT_SPLIT_TARGET_BYTES;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.FILE_FORMAT;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.GCS_LOCATION_PREFIX;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.GCS_SECRET_KEY_ENV_VAR;
+import static com.amazonaws.athena.connectors.gcs.GcsConstants.SPLIT_TARGET_BYTES;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.STORAGE_SPLIT_JSON;
 import static java.util.Objects.requireNonNull;
 
@@ -85,6 +87,7 @@ public class GcsMetadataHandler
     private final StorageMetadata datasource;
     private final GlueClient glueClient;
     private final BufferAllocator allocator;
+    private final long splitTargetBytes;
 
     public GcsMetadataHandler(BufferAllocator allocator, java.util.Map<String, String> configOptions) throws IOException
     {
@@ -94,6 +97,7 @@ public class GcsMetadataHandler
         this.glueClient = getAwsGlue();
         requireNonNull(glueClient, "Glue Client is null");
         this.allocator = allocator;
+        this.splitTargetBytes = Long.parseLong(configOptions.getOrDefault(SPLIT_TARGET_BYTES, String.valueOf(DEFAULT_SPLIT_TARGET_BYTES)));
     }
 
     @VisibleForTesting
@@ -112,6 +116,7 @@ public class GcsMetadataHandler
         this.glueClient = getAwsGlue();
         requireNonNull(glueClient, "Glue Client is null");
         this.allocator = allocator;
+        this.splitTargetBytes = Long.parseLong(configOptions.getOrDefault(SPLIT_TARGET_BYTES, String.valueOf(DEFAULT_SPLIT_TARGET_BYTES)));
     }
 
     /**
@@ -239,28 +244,30 @@ public class GcsMetadataHandler
             URI locationUri = PartitionUtil.getPartitionsFolderLocationUri(table, partitions.getFieldVectors(), curPartition);
             LOGGER.info("Partition location {} ", locationUri);
 
-            //getting storage file list
-            List<String> fileList = datasource.getStorageSplits(locationUri);
-            SpillLocation spillLocation = makeSpillLocation(request);
-            LOGGER.info("Split list for {}.{} is \n{}", table.databaseName(), table.name(), fileList);
+            //getting storage files, balanced by size over one or more splits
+            List<List<String>> fileGroups = datasource.getStorageSplits(locationUri, splitTargetBytes);
+            LOGGER.info("Split list for {}.{} is \n{}", table.databaseName(), table.name(), fileGroups);
 
-            //creating splits based folder
-            String storageSplitJson = new ObjectMapper().writeValueAsString(fileList);
-            LOGGER.info("MetadataHandler=GcsMetadataHandler|Method=doGetSplits|Message=StorageSplit JSON\n{}",
-                    storageSplitJson);
-            Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
-                    .add(FILE_FORMAT, table.parameters().get(CLASSIFICATION_GLUE_TABLE_PARAM))
-                    .add(STORAGE_SPLIT_JSON, storageSplitJson);
+            for (List<String> fileList : fileGroups) {
+                SpillLocation spillLocation = makeSpillLocation(request);
+                //creating a split for each group of files of the partition folder
+                String storageSplitJson = new ObjectMapper().writeValueAsString(fileList);
+                LOGGER.info("MetadataHandler=GcsMetadataHandler|Method=doGetSplits|Message=StorageSplit JSON\n{}",
+                        storageSplitJson);
+                Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
+                        .add(FILE_FORMAT, table.parameters().get(CLASSIFICATION_GLUE_TABLE_PARAM))
+                        .add(STORAGE_SPLIT_JSON, storageSplitJson);
 
-            // set partition column name and value in split
-            for (FieldVector fieldVector : partitions.getFieldVectors()) {
-                fieldVector.getReader().setPosition(curPartition);
-                if (fieldVector.getName().equalsIgnoreCase(FILE_FORMAT) || fieldVector.getName().equalsIgnoreCase(STORAGE_SPLIT_JSON)) {
-                    throw new RuntimeException("column name is same as metadata");
+                // set partition column name and value in split
+                for (FieldVector fieldVector : partitions.getFieldVectors()) {
+                    fieldVector.getReader().setPosition(curPartition);
+                    if (fieldVector.getName().equalsIgnoreCase(FILE_FORMAT) || fieldVector.getName().equalsIgnoreCase(STORAGE_SPLIT_JSON)) {
+                        throw new RuntimeException("column name is same as metadata");
+                    }
+                    splitBuilder.add(fieldVector.getName(), fieldVector.getReader().readObject().toString());
                 }
-                splitBuilder.add(fieldVector.getName(), fieldVector.getReader().readObject().toString());
+                splits.add(splitBuilder.build());
             }
-            splits.add(splitBuilder.build());
 
             if (splits.size() >= GcsConstants.MAX_SPLITS_PER_REQUEST) {
                 //We exceeded the number of split we want to return in a single request, return and provide a continuation token.
@@ -30,6 +30,7 @@ import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.arrow.dataset.file.FileFormat;
 import org.apache.arrow.dataset.file.FileSystemDatasetFactory;
 import org.apache.arrow.dataset.jni.NativeMemoryPool;
@@ -38,6 +39,7 @@ import org.apache.arrow.dataset.scanner.Scanner;
 import org.apache.arrow.dataset.source.Dataset;
 import org.apache.arrow.dataset.source.DatasetFactory;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.util.AutoCloseables;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
@@ -52,11 +54,22 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+import static com.amazonaws.athena.connectors.gcs.GcsConstants.DEFAULT_FILE_READ_AHEAD;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.FILE_FORMAT;
+import static com.amazonaws.athena.connectors.gcs.GcsConstants.FILE_READ_AHEAD;
 import static com.amazonaws.athena.connectors.gcs.GcsThrottlingExceptionFilter.EXCEPTION_FILTER;
 import static com.amazonaws.athena.connectors.gcs.GcsUtil.createUri;
 
@@ -67,10 +80,13 @@ public class GcsRecordHandler
 
     private static final String SOURCE_TYPE = "gcs";
     public static final int BATCH_SIZE = 32768;
+    // how long a split waits for the files it opened ahead when it stops early
+    private static final long FILE_OPENER_SHUTDOWN_TIMEOUT_SECONDS = 10;
     private BufferAllocator allocator;
 
     // to handle back-pressure during API invocation to GCS
     private final ThrottlingInvoker invoker;
+    private final int fileReadAhead;
 
     public GcsRecordHandler(BufferAllocator allocator, java.util.Map<String, String> configOptions)
     {
@@ -92,6 +108,7 @@ public class GcsRecordHandler
     {
         super(amazonS3, secretsManager, amazonAthena, SOURCE_TYPE, configOptions);
         this.invoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, configOptions).build();
+        this.fileReadAhead = Math.max(1, Integer.parseInt(configOptions.getOrDefault(FILE_READ_AHEAD, String.valueOf(DEFAULT_FILE_READ_AHEAD))));
     }
 
     /**
@@ -118,47 +135,146 @@ public class GcsRecordHandler
         List<String> fileList = new ObjectMapper()
             .readValue(split.getProperty(GcsConstants.STORAGE_SPLIT_JSON).getBytes(StandardCharsets.UTF_8), new TypeReference<List<String>>(){});
         String classification = split.getProperty(FILE_FORMAT);
-        FileFormat format = FileFormat.valueOf(classification.toUpperCase());
         List<Field> partitionColumns = schema.getFields().stream().filter(field -> split.getProperties().containsKey(field.getName().toLowerCase())).collect(Collectors.toList());
-        for (String file : fileList) {
-            String uri = createUri(file);
-            LOGGER.info("Retrieving records from the URL {} for the table {}.{}", uri, tableInfo.getSchemaName(), tableInfo.getTableName());
-            Optional<String[]> selectedColumns =
-                getSchemaFromSource(uri, classification).map(schemaFromSource -> getSelectedColumnNames(schemaFromSource, recordsRequest.getSchema()));
-            ScanOptions options = new ScanOptions(BATCH_SIZE, selectedColumns);
-            try (
-                    // DatasetFactory provides a way to inspect a Dataset potential schema before materializing it.
-                    // Thus, we can peek the schema for data sources and decide on a unified schema.
-                    DatasetFactory datasetFactory = new FileSystemDatasetFactory(
-                            allocator, NativeMemoryPool.getDefault(), format, uri
-                    );
-
-                    // Creates a Dataset with auto-inferred schema
-                    Dataset dataset = datasetFactory.finish();
-
-                    // Create a new Scanner using the provided scan options.
-                    // This scanner also contains the arrow schema for the dataset.
-                    Scanner scanner = dataset.newScan(options);
-
-                    // To read Schema and ArrowRecordBatches we need a reader.
-                    // This reader reads the dataset as a stream of record batches.
-                    ArrowReader reader = scanner.scanBatches()
-            ) {
-                // We are loading records batch by batch until we reached at the end.
-                while (reader.loadNextBatch()) {
-                    try (
-                            // Returns the vector schema root.
-                            // This will be loaded with new values on every call to loadNextBatch on the reader.
-                            VectorSchemaRoot root = reader.getVectorSchemaRoot()
-                    ) {
+        List<String> uris = fileList.stream().map(file -> createUri(file)).collect(Collectors.toList());
+
+        // The next files are opened in the background while the current one is written to the spiller, so that
+        // a split of many small files is not bound by the latency of opening them one after another.
+        ExecutorService fileOpener = Executors.newFixedThreadPool(fileReadAhead,
+                new ThreadFactoryBuilder().setNameFormat("gcs-file-opener-%d").setDaemon(true).build());
+        Deque<Future<OpenedFile>> openedFiles = new ArrayDeque<>();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Iterator<String> nextUris = uris.iterator();
+        try {
+            while (nextUris.hasNext() && openedFiles.size() < fileReadAhead) {
+                String uri = nextUris.next();
+                openedFiles.add(fileOpener.submit(() -> openFileAhead(uri, classification, recordsRequest, abandoned)));
+            }
+            while (!openedFiles.isEmpty()) {
+                try (OpenedFile openedFile = getOpenedFile(openedFiles.poll())) {
+                    if (nextUris.hasNext()) {
+                        String uri = nextUris.next();
+                        openedFiles.add(fileOpener.submit(() -> openFileAhead(uri, classification, recordsRequest, abandoned)));
+                    }
+                    LOGGER.info("Retrieving records from the URL {} for the table {}.{}", openedFile.uri, tableInfo.getSchemaName(), tableInfo.getTableName());
+                    // The first batch has been loaded already while the file was opened, we are loading records batch by batch until we reached at the end.
+                    boolean hasBatch = openedFile.hasFirstBatch;
+                    while (hasBatch) {
+                        // Returns the vector schema root.
+                        // This will be loaded with new values on every call to loadNextBatch on the reader.
+                        VectorSchemaRoot root = openedFile.reader.getVectorSchemaRoot();
                         // We will loop on batch records and consider each records to write in spiller.
                         for (int rowIndex = 0; rowIndex < root.getRowCount(); rowIndex++) {
                             // we are passing record to spiller to be written.
                             execute(spiller, invoker.invoke(root::getFieldVectors), rowIndex, partitionColumns, split);
                         }
+                        hasBatch = openedFile.reader.loadNextBatch();
+                    }
+                }
+                if (!openedFiles.isEmpty() && !queryStatusChecker.isQueryRunning()) {
+                    LOGGER.info("Query {} is no longer running, skipping the remaining files of the split", recordsRequest.getQueryId());
+                    break;
+                }
+            }
+        }
+        finally {
+            // Files still being opened are closed by their own task once it sees the split was abandoned, we only
+            // close those whose task has completed, so that a task stuck on GCS can not hang the split.
+            abandoned.set(true);
+            fileOpener.shutdown();
+            if (!openedFiles.isEmpty() && !fileOpener.awaitTermination(FILE_OPENER_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Files opened ahead did not complete in {}s, leaving them to be closed by their task", FILE_OPENER_SHUTDOWN_TIMEOUT_SECONDS);
+            }
+            for (Future<OpenedFile> openedFile : openedFiles) {
+                if (!openedFile.isDone()) {
+                    continue;
+                }
+                try (OpenedFile unread = getOpenedFile(openedFile)) {
+                    if (unread != null) {
+                        LOGGER.debug("Closing unread file {}", unread.uri);
                     }
                 }
+                catch (Exception ex) {
+                    LOGGER.warn("Failed to close a file opened ahead", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a file of the split ahead of it being read. The file is closed right away, and null is returned, when
+     * the split was abandoned (i.e. it failed or the query stopped) while the file was opened, since nobody is
+     * going to read or close it anymore.
+     *
+     * @param uri            the URI of the file
+     * @param classification the table classification, i.e. the file format
+     * @param recordsRequest the read request, for the projection and the constraints
+     * @param abandoned      set once the split stopped reading its files
+     * @return the opened file, or null when the split was abandoned
+     */
+    private OpenedFile openFileAhead(String uri, String classification, ReadRecordsRequest recordsRequest, AtomicBoolean abandoned) throws Exception
+    {
+        if (abandoned.get()) {
+            return null;
+        }
+        OpenedFile openedFile = openFile(uri, classification, recordsRequest);
+        if (abandoned.get()) {
+            LOGGER.debug("Closing file {} opened for an abandoned split", uri);
+            openedFile.close();
+            return null;
+        }
+        return openedFile;
+    }
+
+    /**
+     * Opens a file of the split for scanning and loads its first batch. The schema of the file is inspected through the
+     * same {@link DatasetFactory} that builds the {@link Dataset}, so the file is not opened a second time just to
+     * learn about its columns.
+     *
+     * @param uri            the URI of the file
+     * @param classification the table classification, i.e. the file format
+     * @param recordsRequest the read request, for the projection and the constraints
+     * @return the opened file, positioned on its first batch
+     */
+    private OpenedFile openFile(String uri, String classification, ReadRecordsRequest recordsRequest) throws Exception
+    {
+        FileFormat format = FileFormat.valueOf(classification.toUpperCase());
+        OpenedFile openedFile = new OpenedFile(uri);
+        try {
+            // DatasetFactory provides a way to inspect a Dataset potential schema before materializing it.
+            // Thus, we can peek the schema for data sources and decide on a unified schema.
+            openedFile.datasetFactory = new FileSystemDatasetFactory(allocator, NativeMemoryPool.getDefault(), format, uri);
+            Optional<Schema> schemaFromSource = getSchemaFromSource(openedFile.datasetFactory, format);
+            Optional<String[]> selectedColumns = schemaFromSource.map(sourceSchema -> getSelectedColumnNames(sourceSchema, recordsRequest.getSchema()));
+            ScanOptions options = new ScanOptions(BATCH_SIZE, selectedColumns);
+
+            // Creates a Dataset with auto-inferred schema
+            openedFile.dataset = openedFile.datasetFactory.finish();
+            // Create a new Scanner using the provided scan options.
+            // This scanner also contains the arrow schema for the dataset.
+            openedFile.scanner = openedFile.dataset.newScan(options);
+            // To read Schema and ArrowRecordBatches we need a reader.
+            // This reader reads the dataset as a stream of record batches.
+            openedFile.reader = openedFile.scanner.scanBatches();
+            openedFile.hasFirstBatch = openedFile.reader.loadNextBatch();
+            return openedFile;
+        }
+        catch (Exception ex) {
+            openedFile.close();
+            throw ex;
+        }
+    }
+
+    private static OpenedFile getOpenedFile(Future<OpenedFile> openedFile) throws Exception
+    {
+        try {
+            return openedFile.get();
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
             }
+            throw ex;
         }
     }
 
@@ -232,17 +348,40 @@ public class GcsRecordHandler
             .collect(Collectors.toCollection(() -> new java.util.TreeSet<>(String.CASE_INSENSITIVE_ORDER)));
     }
 
-    private Optional<Schema> getSchemaFromSource(String uri, String tableClassification) throws Exception
+    private Optional<Schema> getSchemaFromSource(DatasetFactory datasetFactory, FileFormat format)
     {
-        FileFormat format = FileFormat.valueOf(tableClassification.toUpperCase());
         switch (format) {
             case PARQUET:
                 LOGGER.info("Source is PARQUET");
-                return Optional.of(new FileSystemDatasetFactory(allocator, NativeMemoryPool.getDefault(), format, uri).inspect());
+                return Optional.of(datasetFactory.inspect());
             case CSV:
                 // for CSV, it won't work, so return none
                 return Optional.empty();
         }
-        throw new IllegalArgumentException("Table classification " + tableClassification + " is not supported by the connector");
+        throw new IllegalArgumentException("Table classification " + format + " is not supported by the connector");
+    }
+
+    /**
+     * A file of the split with everything that has to be closed once it has been read.
+     */
+    private static class OpenedFile implements AutoCloseable
+    {
+        private final String uri;
+        private DatasetFactory datasetFactory;
+        private Dataset dataset;
+        private Scanner scanner;
+        private ArrowReader reader;
+        private boolean hasFirstBatch;
+
+        private OpenedFile(String uri)
+        {
+            this.uri = uri;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            AutoCloseables.close(reader, scanner, dataset, datasetFactory);
+        }
     }
 }
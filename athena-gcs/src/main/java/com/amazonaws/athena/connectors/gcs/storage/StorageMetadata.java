@@ -53,9 +53,12 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -103,20 +106,43 @@ public class StorageMetadata
     }
 
     /**
-     * Retrieves a list of StorageSplit that essentially contain the list of all files for a given table type in a storage location
+     * Retrieves all files in a storage location and balances them by size into groups of roughly targetBytesPerSplit
+     * bytes each, so that every group can be read by its own split. Files are assigned largest first to the group
+     * with the fewest bytes so far, a file larger than the target ends up alone in its group.
      *
      * @param locationUri location uri
-     * @return A list of files
+     * @param targetBytesPerSplit how many bytes of files a group should hold
+     * @return A list of file groups, each of them a list of files
      */
-    public List<String> getStorageSplits(URI locationUri)
+    public List<List<String>> getStorageSplits(URI locationUri, long targetBytesPerSplit)
     {
         String bucketName = locationUri.getAuthority();
         // Trim leading /
         String path = locationUri.getPath().replaceFirst("^/", "");
         Page<Blob> blobs = storage.list(bucketName, prefix(path));
-        return StreamSupport.stream(blobs.iterateAll().spliterator(), false)
+        List<Blob> files = StreamSupport.stream(blobs.iterateAll().spliterator(), false)
             .filter(blob -> isBlobFile(blob))
-            .map(blob -> bucketName + "/" + blob.getName())
+            .sorted(Comparator.comparingLong((Blob blob) -> blob.getSize()).reversed())
+            .collect(Collectors.toList());
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        long totalBytes = files.stream().mapToLong(blob -> blob.getSize()).sum();
+        long groupCount = Math.min(files.size(), Math.max(1, (totalBytes + targetBytesPerSplit - 1) / targetBytesPerSplit));
+        PriorityQueue<FileGroup> groups = new PriorityQueue<>(Comparator.comparingLong((FileGroup group) -> group.bytes));
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(new FileGroup());
+        }
+        for (Blob file : files) {
+            FileGroup group = groups.poll();
+            group.files.add(bucketName + "/" + file.getName());
+            group.bytes += file.getSize();
+            groups.add(group);
+        }
+        LOGGER.info("Balanced {} files ({} bytes) under {} into {} splits", files.size(), totalBytes, locationUri, groupCount);
+        return groups.stream()
+            .map(group -> group.files)
             .collect(Collectors.toList());
     }
 
@@ -204,6 +230,12 @@ public class StorageMetadata
         return factory.inspect();
     }
 
+    private static class FileGroup
+    {
+        private final List<String> files = new ArrayList<>();
+        private long bytes;
+    }
+
     private boolean partitionConstraintsSatisfied(Map<String, String> partitionMap, Map<String, Optional<Set<String>>> columnValueConstraintMap)
     {
         // For all constraints (column name -> set of valid values), validate that any partition column being
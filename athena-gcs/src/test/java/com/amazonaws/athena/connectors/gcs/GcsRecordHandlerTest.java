@@ -79,6 +79,8 @@ public class GcsRecordHandlerTest extends GenericGcsTest
     GoogleCredentials credentials;
 
     private S3BlockSpiller spillWriter;
+    private SpillConfig spillConfig;
+    private BlockAllocator blockAllocator;
 
 
     private final EncryptionKeyFactory keyFactory = new LocalKeyFactory();
@@ -103,14 +105,14 @@ public class GcsRecordHandlerTest extends GenericGcsTest
         System.setProperty("aws.region", "us-east-1");
         LOGGER.info("Starting init.");
         federatedIdentity = Mockito.mock(FederatedIdentity.class);
-        BlockAllocator allocator = new BlockAllocatorImpl();
+        blockAllocator = new BlockAllocatorImpl();
         S3Client amazonS3 = mock(S3Client.class);
 
         // Create Spill config
         // This will be enough for a single block
         // This will force the writer to spill.
         // Async Writing.
-        SpillConfig spillConfig = SpillConfig.newBuilder()
+        spillConfig = SpillConfig.newBuilder()
                 .withEncryptionKey(encryptionKey)
                 //This will be enough for a single block
                 .withMaxBlockBytes(100000)
@@ -129,7 +131,7 @@ public class GcsRecordHandlerTest extends GenericGcsTest
         mockedAthenaClientBuilder.when(AthenaClient::create).thenReturn(athena);
         mockedGoogleCredentials.when(() -> GoogleCredentials.fromStream(any())).thenReturn(credentials);
         Schema schemaForRead = new Schema(GcsTestUtils.getTestSchemaFieldsArrow());
-        spillWriter = new S3BlockSpiller(amazonS3, spillConfig, allocator, schemaForRead, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of());
+        spillWriter = new S3BlockSpiller(amazonS3, spillConfig, blockAllocator, schemaForRead, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of());
 
         // Mocking GcsUtil
         final File parquetFile = new File(GcsRecordHandlerTest.class.getProtectionDomain().getCodeSource().getLocation().getPath());
@@ -174,4 +176,42 @@ public class GcsRecordHandlerTest extends GenericGcsTest
         }
     }
 
+    @Test
+    public void testReadWithConstraintMultipleFiles()
+            throws Exception
+    {
+        // every file of the split points to the same parquet file, see the mocked GcsUtil.createUri
+        Split split = mock(Split.class);
+        when(split.getProperty(STORAGE_SPLIT_JSON)).thenReturn("[\"data1.parquet\", \"data2.parquet\", \"data3.parquet\"]");
+        when(split.getProperty(FILE_FORMAT)).thenReturn("parquet");
+        // keep the rows of all files inline, so that they can be counted from the block
+        SpillConfig inlineSpillConfig = SpillConfig.newBuilder()
+                .withEncryptionKey(encryptionKey)
+                .withMaxBlockBytes(100000)
+                .withMaxInlineBlockBytes(100000)
+                .withNumSpillThreads(0)
+                .withRequestId(UUID.randomUUID().toString())
+                .withSpillLocation(s3SpillLocation)
+                .build();
+        S3BlockSpiller spiller = new S3BlockSpiller(mock(S3Client.class), inlineSpillConfig, blockAllocator, new Schema(GcsTestUtils.getTestSchemaFieldsArrow()),
+                ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of());
+        GcsRecordHandler handler = new GcsRecordHandler(bufferAllocator, com.google.common.collect.ImmutableMap.of(GcsConstants.FILE_READ_AHEAD, "2"));
+
+        try (ReadRecordsRequest request = new ReadRecordsRequest(
+                federatedIdentity,
+                GcsTestUtils.PROJECT_1_NAME,
+                "queryId",
+                new TableName("dataset1", "table1"), // dummy table
+                GcsTestUtils.getDatatypeTestSchema(),
+                split,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                0, //This is ignored when directly calling readWithConstraints.
+                0)) {  //This is ignored when directly calling readWithConstraints.
+
+            QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+            when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+            handler.readWithConstraint(spiller, request, queryStatusChecker);
+            assertEquals(6, spiller.getBlock().getRowCount(), "Total records should be 6");
+        }
+    }
 }
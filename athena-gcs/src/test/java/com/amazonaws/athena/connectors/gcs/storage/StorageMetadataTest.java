@@ -31,6 +31,7 @@ import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
@@ -52,10 +53,12 @@ import software.amazon.awssdk.services.glue.model.Column;
 import software.amazon.awssdk.services.glue.model.StorageDescriptor;
 import software.amazon.awssdk.services.glue.model.Table;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -234,6 +237,32 @@ public class StorageMetadataTest extends GenericGcsTest
         assertEquals(partValue4, ImmutableList.of());
     }
 
+    @Test
+    public void testGetStorageSplitsBalancedBySize() throws Exception
+    {
+        FieldUtils.writeField(storageMetadata, "storage", storage, true);
+        Mockito.when(storage.list(any(), any())).thenReturn(blobPage);
+        List<Blob> bList = new ArrayList<>();
+        Map<String, Long> fileSizes = ImmutableMap.of("year=2000/a.parquet", 70L, "year=2000/b.parquet", 40L,
+                "year=2000/c.parquet", 20L, "year=2000/d.parquet", 10L);
+        for (Map.Entry<String, Long> fileSize : fileSizes.entrySet()) {
+            Blob fileBlob = Mockito.mock(Blob.class);
+            Mockito.when(fileBlob.getName()).thenReturn(fileSize.getKey());
+            Mockito.when(fileBlob.getSize()).thenReturn(fileSize.getValue());
+            bList.add(fileBlob);
+        }
+        Mockito.when(blobPage.iterateAll()).thenReturn(bList);
+
+        List<List<String>> splits = storageMetadata.getStorageSplits(new URI("gs://mydatalake1test/birthday/year=2000/"), 80);
+        assertEquals(2, splits.size());
+        assertEquals(ImmutableSet.of(ImmutableList.of("mydatalake1test/year=2000/a.parquet"),
+                        ImmutableList.of("mydatalake1test/year=2000/b.parquet", "mydatalake1test/year=2000/c.parquet", "mydatalake1test/year=2000/d.parquet")),
+                new HashSet<>(splits));
+
+        // every file larger than the target is read by a split of its own
+        assertEquals(4, storageMetadata.getStorageSplits(new URI("gs://mydatalake1test/birthday/year=2000/"), 5).size());
+    }
+
     @NotNull
     private Schema getSchema(GlueClient glue, List<Field> fieldList, List<Column> partKeys, String partitionPattern)
     {
@@ -49,6 +49,26 @@ public class BigQueryConstants
 
     public static final String TMP_SERVICE_ACCOUNT_JSON = "/tmp/service-account.json";
 
+    /**
+     * When set, tables bigger than this many bytes are read through several streams of one Storage Read API session,
+     * one split per stream. Smaller tables, and every table when it is not set, are read by a single split. Opt-in
+     * because GetSplits does not know the projected columns, so these sessions read (and bill) every column.
+     */
+    public static final String READ_STREAM_TARGET_BYTES = "read_stream_target_bytes";
+
+    /**
+     * The maximum number of streams (and so splits) requested for a single read session.
+     */
+    public static final String MAX_READ_STREAMS = "max_read_streams";
+    public static final int DEFAULT_MAX_READ_STREAMS = 50;
+
+    /**
+     * Split properties of a split which reads a single stream of a read session created by GetSplits.
+     */
+    public static final String READ_SESSION_NAME = "read_session_name";
+    public static final String READ_STREAM_NAME = "read_stream_name";
+    public static final String READ_SESSION_ARROW_SCHEMA = "read_session_arrow_schema";
+
     private BigQueryConstants()
     {
     }
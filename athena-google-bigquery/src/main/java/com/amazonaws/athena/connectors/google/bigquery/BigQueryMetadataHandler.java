@@ -26,6 +26,7 @@ import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.handlers.MetadataHandler;
@@ -60,8 +61,16 @@ import com.google.cloud.bigquery.QueryJobConfiguration;
 import com.google.cloud.bigquery.Table;
 import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.internal.PickFirstLoadBalancerProvider;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -71,7 +80,10 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
 import static com.amazonaws.athena.connectors.google.bigquery.BigQueryUtils.fixCaseForDatasetName;
@@ -87,10 +99,19 @@ public class BigQueryMetadataHandler
             configOptions.get(BigQueryConstants.GCP_PROJECT_ID).toLowerCase() : null;
 
     private final BigQueryQueryPassthrough queryPassthrough = new BigQueryQueryPassthrough();
+    private final ReadClientFactory readClientFactory;
 
     BigQueryMetadataHandler(java.util.Map<String, String> configOptions)
+    {
+        this(configOptions, BigQueryReadClient::create);
+    }
+
+    @VisibleForTesting
+    BigQueryMetadataHandler(java.util.Map<String, String> configOptions, ReadClientFactory readClientFactory)
     {
         super(BigQueryConstants.SOURCE_TYPE, configOptions);
+        this.readClientFactory = readClientFactory;
+        LoadBalancerRegistry.getDefaultRegistry().register(new PickFirstLoadBalancerProvider());
     }
 
     @Override
@@ -222,8 +243,9 @@ public class BigQueryMetadataHandler
     }
 
     /**
-     * Making minimum(10) splits based on constraints. Since without constraints query may give lambda timeout if table has large data,
-     * concurrencyLimit is configurable and it can be changed based on Google BigQuery Quota Limits.
+     * Tables are read through the BigQuery Storage Read API. When read_stream_target_bytes is set, a table bigger than
+     * that many bytes gets a read session with several streams, sized from the table bytes, and one split per stream.
+     * Everything else (views, query passthrough, queries with a limit and small tables) is read by a single split.
      *
      * @param allocator Tool for creating and managing Apache Arrow Blocks.
      * @param request   Provides details of the catalog, database, table, and partition(s) being queried as well as
@@ -231,13 +253,98 @@ public class BigQueryMetadataHandler
      * @return GetSplitsResponse
      */
     @Override
-    public GetSplitsResponse doGetSplits(BlockAllocator allocator, GetSplitsRequest request)
+    public GetSplitsResponse doGetSplits(BlockAllocator allocator, GetSplitsRequest request) throws IOException
     {
         //Every split must have a unique location if we wish to spill to avoid failures
         SpillLocation spillLocation = makeSpillLocation(request);
 
-        return new GetSplitsResponse(request.getCatalogName(), Split.newBuilder(spillLocation,
-                makeEncryptionKey()).build());
+        if (request.getConstraints().isQueryPassThrough() || request.getConstraints().getLimit() > 0) {
+            return new GetSplitsResponse(request.getCatalogName(), Split.newBuilder(spillLocation,
+                    makeEncryptionKey()).build());
+        }
+
+        BigQuery bigQuery = BigQueryUtils.getBigQueryClient(configOptions);
+        String datasetName = fixCaseForDatasetName(projectName, request.getTableName().getSchemaName(), bigQuery);
+        String tableName = fixCaseForTableName(projectName, datasetName, request.getTableName().getTableName(), bigQuery);
+        Table table = bigQuery.getTable(TableId.of(projectName, datasetName, tableName));
+        int streamCount = getReadStreamCount(table);
+        if (streamCount <= 1) {
+            return new GetSplitsResponse(request.getCatalogName(), Split.newBuilder(spillLocation,
+                    makeEncryptionKey()).build());
+        }
+
+        ReadSession session = createReadSession(table, datasetName, tableName, request.getConstraints(), streamCount);
+        logger.info("doGetSplits: read session {} has {} streams for table {}.{}", session.getName(), session.getStreamsCount(), datasetName, tableName);
+        String arrowSchema = Base64.getEncoder().encodeToString(session.getArrowSchema().getSerializedSchema().toByteArray());
+        Set<Split> splits = new HashSet<>();
+        for (ReadStream stream : session.getStreamsList()) {
+            splits.add(Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
+                    .add(BigQueryConstants.READ_SESSION_NAME, session.getName())
+                    .add(BigQueryConstants.READ_STREAM_NAME, stream.getName())
+                    .add(BigQueryConstants.READ_SESSION_ARROW_SCHEMA, arrowSchema)
+                    .build());
+        }
+        if (splits.isEmpty()) {
+            // An empty table may not have any stream, the single split finds that out on its own.
+            splits.add(Split.newBuilder(spillLocation, makeEncryptionKey()).build());
+        }
+        return new GetSplitsResponse(request.getCatalogName(), splits);
+    }
+
+    /**
+     * Calculates how many streams the read session of the table should have, from the size of the table.
+     *
+     * @param table The BigQuery table
+     * @return the number of streams, 1 if multi-stream reads are not enabled, for views and tables smaller than the
+     * bytes per stream
+     */
+    @VisibleForTesting
+    int getReadStreamCount(Table table)
+    {
+        if (!configOptions.containsKey(BigQueryConstants.READ_STREAM_TARGET_BYTES) || table == null
+                || !TableDefinition.Type.TABLE.equals(table.getDefinition().getType()) || table.getNumBytes() == null) {
+            return 1;
+        }
+        long bytesPerStream = Long.parseLong(configOptions.get(BigQueryConstants.READ_STREAM_TARGET_BYTES));
+        int maxStreams = Integer.parseInt(configOptions.getOrDefault(BigQueryConstants.MAX_READ_STREAMS,
+                String.valueOf(BigQueryConstants.DEFAULT_MAX_READ_STREAMS)));
+        long streams = (table.getNumBytes() + bytesPerStream - 1) / bytesPerStream;
+        return (int) Math.max(1, Math.min(maxStreams, streams));
+    }
+
+    /**
+     * Creates the read session all the splits of the table read from. GetSplits does not know the projected
+     * columns of the query, so the session selects every column, the row restriction is still pushed down.
+     * BigQuery may return fewer streams than requested.
+     */
+    private ReadSession createReadSession(Table table, String datasetName, String tableName, Constraints constraints, int streamCount) throws IOException
+    {
+        SchemaBuilder schemaBuilder = SchemaBuilder.newBuilder();
+        convertBigQuerySchema(table.getDefinition().getSchema(), new ArrayList<>(), schemaBuilder);
+        ReadSession.TableReadOptions options = BigQueryStorageApiUtils.setConstraints(
+                ReadSession.TableReadOptions.newBuilder(), schemaBuilder.build(), constraints).build();
+
+        ReadSession.Builder sessionBuilder = ReadSession.newBuilder()
+                .setTable(String.format("projects/%s/datasets/%s/tables/%s", projectName, datasetName, tableName))
+                .setDataFormat(DataFormat.ARROW)
+                .setReadOptions(options);
+        CreateReadSessionRequest createReadSessionRequest = CreateReadSessionRequest.newBuilder()
+                .setParent(String.format("projects/%s", projectName))
+                .setReadSession(sessionBuilder)
+                .setMaxStreamCount(streamCount)
+                .build();
+        try (BigQueryReadClient client = readClientFactory.create()) {
+            return client.createReadSession(createReadSessionRequest);
+        }
+    }
+
+    /**
+     * Creates the Storage Read API client used to create the read sessions of multi-stream reads.
+     */
+    @VisibleForTesting
+    interface ReadClientFactory
+    {
+        BigQueryReadClient create() throws IOException;
     }
 
     /**
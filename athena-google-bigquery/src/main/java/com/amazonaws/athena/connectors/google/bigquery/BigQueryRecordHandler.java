@@ -42,6 +42,7 @@ import com.google.cloud.bigquery.QueryParameterValue;
 import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableResult;
+import com.google.cloud.bigquery.storage.v1.ArrowSchema;
 import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
 import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
 import com.google.cloud.bigquery.storage.v1.DataFormat;
@@ -50,6 +51,7 @@ import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
 import io.grpc.LoadBalancerRegistry;
 import io.grpc.internal.PickFirstLoadBalancerProvider;
 import org.apache.arrow.memory.BufferAllocator;
@@ -64,6 +66,7 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -85,6 +88,8 @@ public class BigQueryRecordHandler
         extends RecordHandler
 {
     private static final Logger logger = LoggerFactory.getLogger(BigQueryRecordHandler.class);
+    // Must not exceed the max rows per call of the BlockSpiller.
+    private static final int MAX_ROWS_PER_WRITE = 100;
     private final ThrottlingInvoker invoker;
     BufferAllocator allocator;
 
@@ -127,6 +132,13 @@ public class BigQueryRecordHandler
                                      List<QueryParameterValue> parameterValues,
                                      BigQuery bigQueryClient) throws Exception
     {
+        // The split reads one stream of a read session that was created while planning the splits.
+        String streamName = recordsRequest.getSplit().getProperty(BigQueryConstants.READ_STREAM_NAME);
+        if (streamName != null) {
+            getStreamData(spiller, recordsRequest, streamName);
+            return;
+        }
+
         String projectName = configOptions.get(BigQueryConstants.GCP_PROJECT_ID).toLowerCase();
         String datasetName = fixCaseForDatasetName(projectName, recordsRequest.getTableName().getSchemaName(), bigQueryClient);
         String tableName = fixCaseForTableName(projectName, datasetName, recordsRequest.getTableName().getTableName(), bigQueryClient);
@@ -273,33 +285,124 @@ public class BigQueryRecordHandler
 
                 // Use the first stream to perform reading.
                 String streamName = session.getStreams(0).getName();
+                readStream(client, reader, spiller, recordsRequest, streamName);
+            }
+        }
+    }
 
-                ReadRowsRequest readRowsRequest =
-                        ReadRowsRequest.newBuilder().setReadStream(streamName).build();
-
-                // Process each block of rows as they arrive and decode using our simple row reader.
-                ServerStream<ReadRowsResponse> stream = client.readRowsCallable().call(readRowsRequest);
-                for (ReadRowsResponse response : stream) {
-                    Preconditions.checkState(response.hasArrowRecordBatch());
-                    VectorSchemaRoot root = reader.processRows(response.getArrowRecordBatch());
-                    long rowLimit = (recordsRequest.getConstraints().getLimit() > 0 && recordsRequest.getConstraints().getLimit() < root.getRowCount()) ? recordsRequest.getConstraints().getLimit() : root.getRowCount();
-                    for (int rowIndex = 0; rowIndex < rowLimit; rowIndex++) {
-                        outputResults(spiller, recordsRequest, root, rowIndex);
-                    }
+    /**
+     * Reads a single stream of a read session created by the metadata handler, the arrow schema
+     * of the session comes with the split.
+     */
+    private void getStreamData(BlockSpiller spiller, ReadRecordsRequest recordsRequest, String streamName) throws IOException
+    {
+        logger.info("Reading stream {} of read session {}", streamName, recordsRequest.getSplit().getProperty(BigQueryConstants.READ_SESSION_NAME));
+        ArrowSchema arrowSchema = ArrowSchema.newBuilder()
+                .setSerializedSchema(ByteString.copyFrom(Base64.getDecoder().decode(
+                        recordsRequest.getSplit().getProperty(BigQueryConstants.READ_SESSION_ARROW_SCHEMA))))
+                .build();
+        try (BigQueryReadClient client = BigQueryReadClient.create();
+                BigQueryRowReader reader = new BigQueryRowReader(arrowSchema, allocator)) {
+            readStream(client, reader, spiller, recordsRequest, streamName);
+        }
+    }
+
+    private void readStream(BigQueryReadClient client, BigQueryRowReader reader, BlockSpiller spiller, ReadRecordsRequest recordsRequest, String streamName) throws IOException
+    {
+        ReadRowsRequest readRowsRequest =
+                ReadRowsRequest.newBuilder().setReadStream(streamName).build();
+
+        // Without constraints to evaluate, the arrow batches are copied column by column into the block.
+        boolean columnar = recordsRequest.getConstraints().getSummary().isEmpty();
+        long limit = recordsRequest.getConstraints().getLimit();
+        long remaining = limit > 0 ? limit : Long.MAX_VALUE;
+
+        // Process each block of rows as they arrive and decode using our simple row reader.
+        ServerStream<ReadRowsResponse> stream = client.readRowsCallable().call(readRowsRequest);
+        for (ReadRowsResponse response : stream) {
+            Preconditions.checkState(response.hasArrowRecordBatch());
+            VectorSchemaRoot root = reader.processRows(response.getArrowRecordBatch());
+            if (columnar) {
+                remaining -= outputColumns(spiller, root, (int) Math.min(root.getRowCount(), remaining));
+            }
+            else {
+                for (int rowIndex = 0; rowIndex < root.getRowCount() && remaining > 0; rowIndex++) {
+                    remaining -= outputResults(spiller, recordsRequest, root, rowIndex);
                 }
             }
+            // The limit applies to the whole stream, not to each batch.
+            if (remaining <= 0) {
+                stream.cancel();
+                break;
+            }
         }
     }
 
+    /**
+     * Writes the first rows of an arrow batch into the blocks, column by column. Columns whose BigQuery arrow type
+     * is the type of the block's column are copied vector to vector without boxing the values, the other columns
+     * (timestamps, big numerics, nested types) go through the same conversion as the row by row path.
+     * Columns of the batch that are not projected are skipped.
+     *
+     * @param spiller The {@link BlockSpiller} provided when readWithConstraints() is called.
+     * @param result  The arrow batch loaded by the {@link BigQueryRowReader}.
+     * @param rows    How many rows of the batch to write.
+     * @return the number of rows written
+     */
+    private int outputColumns(BlockSpiller spiller, VectorSchemaRoot result, int rows)
+    {
+        for (int start = 0; start < rows; start += MAX_ROWS_PER_WRITE) {
+            final int offset = start;
+            final int count = Math.min(MAX_ROWS_PER_WRITE, rows - start);
+            spiller.writeRows((Block block, int rowNum) -> {
+                for (FieldVector vector : result.getFieldVectors()) {
+                    String fieldName = vector.getField().getName();
+                    FieldVector target = block.getFieldVector(fieldName);
+                    if (target == null) {
+                        continue;
+                    }
+                    if (isDirectCopy(vector, target)) {
+                        for (int i = 0; i < count; i++) {
+                            target.copyFromSafe(offset + i, rowNum + i, vector);
+                        }
+                        continue;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        Object value = vector.getObject(offset + i);
+                        switch (vector.getMinorType()) {
+                            case LIST:
+                            case STRUCT:
+                                block.offerComplexValue(fieldName, rowNum + i, FieldResolver.DEFAULT, value);
+                                break;
+                            default:
+                                block.offerValue(fieldName, rowNum + i, BigQueryUtils.coerce(vector, value));
+                                break;
+                        }
+                    }
+                }
+                return count;
+            });
+        }
+        return rows;
+    }
+
+    private static boolean isDirectCopy(FieldVector source, FieldVector target)
+    {
+        return source.getField().getChildren().isEmpty()
+                && source.getField().getType().equals(target.getField().getType());
+    }
+
     /**
      * Iterates through all the results that comes back from BigQuery and saves the result to be read by the Athena Connector.
      *
      * @param spiller        The {@link BlockSpiller} provided when readWithConstraints() is called.
      * @param recordsRequest The {@link ReadRecordsRequest} provided when readWithConstraints() is called.
      * @param result         The {@link TableResult} provided by {@link BigQuery} client after a query has completed executing.
+     * @return 1 if the row was written, 0 if it did not match the constraints
      */
-    private void outputResults(BlockSpiller spiller, ReadRecordsRequest recordsRequest, VectorSchemaRoot result, int rowIndex)
+    private int outputResults(BlockSpiller spiller, ReadRecordsRequest recordsRequest, VectorSchemaRoot result, int rowIndex)
     {
+        int[] written = {0};
         if (result != null) {
             spiller.writeRows((Block block, int rowNum) -> {
                 for (FieldVector vector : result.getFieldVectors()) {
@@ -318,9 +421,11 @@ public class BigQueryRecordHandler
                         return 0;
                     }
                 }
+                written[0] = 1;
                 return 1;
             });
         }
+        return written[0];
     }
 
     /**
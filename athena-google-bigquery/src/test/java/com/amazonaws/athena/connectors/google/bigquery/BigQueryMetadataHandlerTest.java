@@ -49,10 +49,18 @@ import com.google.cloud.bigquery.StandardTableDefinition;
 import com.google.cloud.bigquery.Table;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableResult;
+import com.google.cloud.bigquery.storage.v1.ArrowSchema;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -65,6 +73,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
@@ -228,9 +238,8 @@ public class BigQueryMetadataHandlerTest
     @Test
     public void testDoGetSplits() throws Exception
     {
-
-//        mockedStatic.when(() -> BigQueryUtils.fixCaseForDatasetName(any(String.class), any(String.class), any(BigQuery.class))).thenReturn("testDataset");
-//        mockedStatic.when(() -> BigQueryUtils.fixCaseForTableName(any(String.class), any(String.class), any(String.class), any(BigQuery.class))).thenReturn("testTable");
+        mockedStatic.when(() -> BigQueryUtils.fixCaseForDatasetName(any(String.class), any(String.class), any(BigQuery.class))).thenReturn("testDataset");
+        mockedStatic.when(() -> BigQueryUtils.fixCaseForTableName(any(String.class), any(String.class), any(String.class), any(BigQuery.class))).thenReturn("testTable");
         BlockAllocator blockAllocator = new BlockAllocatorImpl();
         GetSplitsRequest request = new GetSplitsRequest(federatedIdentity,
                 QUERY_ID, CATALOG, TABLE_NAME,
@@ -245,11 +254,54 @@ public class BigQueryMetadataHandlerTest
                 FieldList.of(testSchemaFields));
         List<FieldValueList> tableRows = Arrays.asList(fieldValueList);
 
+        // multi-stream reads are opt-in, without read_stream_target_bytes a table is read by a single split
+        Table table = mock(Table.class);
+        when(bigQuery.getTable(any(TableId.class))).thenReturn(table);
+
         GetSplitsResponse response = bigQueryMetadataHandler.doGetSplits(blockAllocator, request);
 
         assertEquals(1, response.getSplits().size());
     }
 
+    @Test
+    public void testDoGetSplitsWithReadStreams() throws Exception
+    {
+        mockedStatic.when(() -> BigQueryUtils.fixCaseForDatasetName(any(String.class), any(String.class), any(BigQuery.class))).thenReturn("testDataset");
+        mockedStatic.when(() -> BigQueryUtils.fixCaseForTableName(any(String.class), any(String.class), any(String.class), any(BigQuery.class))).thenReturn("testTable");
+        Table table = mock(Table.class);
+        when(table.getDefinition()).thenReturn(StandardTableDefinition.of(Schema.of(Field.of("countCol", LegacySQLTypeName.INTEGER))));
+        when(table.getNumBytes()).thenReturn(3500L);
+        when(bigQuery.getTable(any(TableId.class))).thenReturn(table);
+
+        ReadSession readSession = ReadSession.newBuilder()
+                .setName("testSession")
+                .setArrowSchema(ArrowSchema.newBuilder().setSerializedSchema(ByteString.copyFromUtf8("schema")))
+                .addStreams(ReadStream.newBuilder().setName("testSession/streams/0"))
+                .addStreams(ReadStream.newBuilder().setName("testSession/streams/1"))
+                .addStreams(ReadStream.newBuilder().setName("testSession/streams/2"))
+                .build();
+        BigQueryReadClient readClient = mock(BigQueryReadClient.class);
+        ArgumentCaptor<CreateReadSessionRequest> sessionRequest = ArgumentCaptor.forClass(CreateReadSessionRequest.class);
+        when(readClient.createReadSession(sessionRequest.capture())).thenReturn(readSession);
+
+        BigQueryMetadataHandler handler = new BigQueryMetadataHandler(com.google.common.collect.ImmutableMap.of(
+                "gcp_project_id", "testProject",
+                BigQueryConstants.READ_STREAM_TARGET_BYTES, "1000"), () -> readClient);
+        GetSplitsRequest request = new GetSplitsRequest(federatedIdentity,
+                QUERY_ID, CATALOG, TABLE_NAME,
+                mock(Block.class), Collections.<String>emptyList(), new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null), null);
+        GetSplitsResponse response = handler.doGetSplits(blockAllocator, request);
+
+        // 3500 bytes at 1000 bytes per stream, BigQuery answered with one stream less
+        assertEquals(4, sessionRequest.getValue().getMaxStreamCount());
+        assertEquals(3, response.getSplits().size());
+        Set<String> streams = response.getSplits().stream()
+                .map(split -> split.getProperty(BigQueryConstants.READ_STREAM_NAME))
+                .collect(Collectors.toSet());
+        assertEquals(ImmutableSet.of("testSession/streams/0", "testSession/streams/1", "testSession/streams/2"), streams);
+        response.getSplits().forEach(split -> assertEquals("testSession", split.getProperty(BigQueryConstants.READ_SESSION_NAME)));
+    }
+
     @Test(expected = Exception.class)
     public void testDoListSchemaNamesForException() throws IOException
     {
@@ -20,8 +20,11 @@
 package com.amazonaws.athena.connectors.google.bigquery;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.S3BlockSpillReader;
 import com.amazonaws.athena.connector.lambda.data.S3BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.SpillConfig;
@@ -29,6 +32,9 @@ import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
@@ -59,11 +65,15 @@ import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorLoader;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.impl.UnionListWriter;
 import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.WriteChannel;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.After;
 import org.junit.Before;
@@ -80,8 +90,13 @@ import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -89,12 +104,15 @@ import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connectors.google.bigquery.BigQueryTestUtils.getBlockTestSchema;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -139,6 +157,7 @@ public class BigQueryRecordHandlerTest
     private MockedStatic<MessageSerializer> messageSer;
     MockedConstruction<VectorSchemaRoot> mockedDefaultVectorSchemaRoot;
     MockedConstruction<VectorLoader> mockedDefaultVectorLoader;
+    private MockedStatic<BigQueryReadClient> mockedReadClient;
 
     public List<FieldVector> getFieldVectors()
     {
@@ -239,10 +258,19 @@ public class BigQueryRecordHandlerTest
     @After
     public void close()
     {
-        mockedDefaultVectorLoader.close();
-        mockedDefaultVectorSchemaRoot.close();
+        if (mockedDefaultVectorLoader != null) {
+            mockedDefaultVectorLoader.close();
+        }
+        if (mockedDefaultVectorSchemaRoot != null) {
+            mockedDefaultVectorSchemaRoot.close();
+        }
+        if (messageSer != null) {
+            messageSer.close();
+        }
+        if (mockedReadClient != null) {
+            mockedReadClient.close();
+        }
         mockedStatic.close();
-        messageSer.close();
         allocator.close();
     }
 
@@ -274,7 +302,7 @@ public class BigQueryRecordHandlerTest
             ServerStreamingCallable ssCallable = mock(ServerStreamingCallable.class);
 
             // Mocking method calls
-            mockStatic(BigQueryReadClient.class);
+            mockedReadClient = mockStatic(BigQueryReadClient.class);
             when(BigQueryReadClient.create()).thenReturn(bigQueryReadClient);
             messageSer = mockStatic(MessageSerializer.class);
             when(MessageSerializer.deserializeSchema((ReadChannel) any())).thenReturn(BigQueryTestUtils.getBlockTestSchema());
@@ -321,4 +349,156 @@ public class BigQueryRecordHandlerTest
             assertTrue(spillWriter.spilled());
         }
     }
+
+    @Test
+    public void testReadStreamCopiesVectorsWithoutConstraints()
+            throws Exception
+    {
+        Schema schema = getStreamTestSchema();
+        mockReadStream(schema, createReadRowsResponse(schema, 0, 3));
+
+        List<Integer> writtenRows = new ArrayList<>();
+        Block block = allocator.createBlock(schema);
+        bigQueryRecordHandler.readWithConstraint(createBlockSpiller(block, writtenRows),
+                createStreamReadRecordsRequest(schema, Collections.emptyMap(), DEFAULT_NO_LIMIT), mock(QueryStatusChecker.class));
+
+        // The whole batch is copied into the block with a single write.
+        assertEquals(Collections.singletonList(3), writtenRows);
+        assertEquals(3, block.getRowCount());
+        for (int row = 0; row < 3; row++) {
+            assertEquals(row, ((IntVector) block.getFieldVector("int1")).get(row));
+            assertEquals("row" + row, block.getFieldVector("string1").getObject(row).toString());
+        }
+    }
+
+    @Test
+    public void testReadStreamWritesRowsWithConstraints()
+            throws Exception
+    {
+        Schema schema = getStreamTestSchema();
+        mockReadStream(schema, createReadRowsResponse(schema, 0, 3));
+
+        Map<String, ValueSet> summary = Collections.singletonMap("int1",
+                SortedRangeSet.of(Range.greaterThan(allocator, Types.MinorType.INT.getType(), 1)));
+        ReadRecordsRequest request = createStreamReadRecordsRequest(schema, summary, DEFAULT_NO_LIMIT);
+
+        List<Integer> writtenRows = new ArrayList<>();
+        Block block = allocator.createBlock(schema);
+        block.constrain(new ConstraintEvaluator(allocator, schema, request.getConstraints()));
+        bigQueryRecordHandler.readWithConstraint(createBlockSpiller(block, writtenRows), request, mock(QueryStatusChecker.class));
+
+        // Each row is offered on its own so the constraints are evaluated, only the last row matches.
+        assertEquals(Arrays.asList(0, 0, 1), writtenRows);
+        assertEquals(1, block.getRowCount());
+        assertEquals(2, ((IntVector) block.getFieldVector("int1")).get(0));
+        assertEquals("row2", block.getFieldVector("string1").getObject(0).toString());
+    }
+
+    @Test
+    public void testReadStreamStopsAtLimitWithinSecondBatch()
+            throws Exception
+    {
+        Schema schema = getStreamTestSchema();
+        mockReadStream(schema,
+                createReadRowsResponse(schema, 0, 3),
+                createReadRowsResponse(schema, 3, 3),
+                createReadRowsResponse(schema, 6, 3));
+
+        List<Integer> writtenRows = new ArrayList<>();
+        Block block = allocator.createBlock(schema);
+        bigQueryRecordHandler.readWithConstraint(createBlockSpiller(block, writtenRows),
+                createStreamReadRecordsRequest(schema, Collections.emptyMap(), 4), mock(QueryStatusChecker.class));
+
+        // The limit applies to the stream, the second batch is cut after its first row and the third is not read.
+        assertEquals(Arrays.asList(3, 1), writtenRows);
+        assertEquals(4, block.getRowCount());
+        for (int row = 0; row < 4; row++) {
+            assertEquals(row, ((IntVector) block.getFieldVector("int1")).get(row));
+        }
+        verify(serverStream).cancel();
+    }
+
+    private static Schema getStreamTestSchema()
+    {
+        return new Schema(ImmutableList.of(
+                Field.nullable("int1", Types.MinorType.INT.getType()),
+                Field.nullable("string1", Types.MinorType.VARCHAR.getType())));
+    }
+
+    /**
+     * Serves the given responses from the stream named in the split, as if the read session had been created by
+     * the metadata handler.
+     */
+    private void mockReadStream(Schema schema, ReadRowsResponse... responses)
+    {
+        mockedReadClient = mockStatic(BigQueryReadClient.class);
+        mockedReadClient.when(BigQueryReadClient::create).thenReturn(bigQueryReadClient);
+        ServerStreamingCallable<ReadRowsRequest, ReadRowsResponse> ssCallable = mock(ServerStreamingCallable.class);
+        when(bigQueryReadClient.readRowsCallable()).thenReturn(ssCallable);
+        when(ssCallable.call(any(ReadRowsRequest.class))).thenReturn(serverStream);
+        when(serverStream.iterator()).thenReturn(ImmutableList.copyOf(responses).iterator());
+    }
+
+    private ReadRowsResponse createReadRowsResponse(Schema schema, int firstRow, int rows)
+            throws IOException
+    {
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, rootAllocator)) {
+            IntVector intVector = (IntVector) root.getVector("int1");
+            VarCharVector varCharVector = (VarCharVector) root.getVector("string1");
+            for (int i = 0; i < rows; i++) {
+                intVector.setSafe(i, firstRow + i);
+                varCharVector.setSafe(i, ("row" + (firstRow + i)).getBytes(StandardCharsets.UTF_8));
+            }
+            root.setRowCount(rows);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ArrowRecordBatch batch = new VectorUnloader(root).getRecordBatch()) {
+                MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch);
+            }
+            return ReadRowsResponse.newBuilder()
+                    .setRowCount(rows)
+                    .setArrowRecordBatch(com.google.cloud.bigquery.storage.v1.ArrowRecordBatch.newBuilder()
+                            .setSerializedRecordBatch(ByteString.copyFrom(out.toByteArray()))
+                            .setRowCount(rows))
+                    .build();
+        }
+    }
+
+    private ReadRecordsRequest createStreamReadRecordsRequest(Schema schema, Map<String, ValueSet> summary, long limit)
+            throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), schema);
+        Split split = Split.newBuilder(s3SpillLocation, keyFactory.create())
+                .add(BigQueryConstants.READ_SESSION_NAME, "testSession")
+                .add(BigQueryConstants.READ_STREAM_NAME, "testStream")
+                .add(BigQueryConstants.READ_SESSION_ARROW_SCHEMA, Base64.getEncoder().encodeToString(out.toByteArray()))
+                .build();
+        return new ReadRecordsRequest(
+                federatedIdentity,
+                BigQueryTestUtils.PROJECT_1_NAME,
+                "queryId",
+                new TableName("dataset1", "table1"),
+                schema,
+                split,
+                new Constraints(summary, Collections.emptyList(), Collections.emptyList(), limit, Collections.emptyMap(), null),
+                0,
+                0);
+    }
+
+    /**
+     * Creates a spiller which writes into the given block and records how many rows each write added.
+     */
+    private static BlockSpiller createBlockSpiller(Block block, List<Integer> writtenRows)
+    {
+        BlockSpiller spiller = mock(BlockSpiller.class);
+        doAnswer(invocation -> {
+            BlockWriter.RowWriter rowWriter = invocation.getArgument(0);
+            int rows = rowWriter.writeRows(block, block.getRowCount());
+            block.setRowCount(block.getRowCount() + rows);
+            writtenRows.add(rows);
+            return null;
+        }).when(spiller).writeRows(any());
+        return spiller;
+    }
 }
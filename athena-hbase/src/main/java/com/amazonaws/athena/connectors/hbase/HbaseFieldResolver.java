@@ -23,6 +23,10 @@ import com.amazonaws.athena.connector.lambda.data.FieldResolver;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.hadoop.hbase.client.Result;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * Used to resolve and convert complex types from HBase to Apache Arrow's type system
  * when using BlockUtils.setComplexValue(...).
@@ -32,6 +36,8 @@ public class HbaseFieldResolver
 {
     private final byte[] family;
     private final boolean isNative;
+    //The qualifier bytes and coercion functions of the known columns of the family, keyed by column name.
+    private final Map<String, Column> columns = new HashMap<>();
 
     /**
      * @param isNative True if the values are stored as native byte arrays in HBase.
@@ -54,6 +60,23 @@ public class HbaseFieldResolver
         return new HbaseFieldResolver(isNative, family.getBytes());
     }
 
+    /**
+     * Static construction helper which resolves the qualifiers and coercion functions of the family's columns up front,
+     * instead of once per value.
+     *
+     * @param isNative True if the values are stored as native byte arrays in HBase.
+     * @param family The Apache Arrow STRUCT field representing the HBase column family.
+     */
+    public static HbaseFieldResolver resolver(boolean isNative, Field family)
+    {
+        HbaseFieldResolver resolver = new HbaseFieldResolver(isNative, family.getName().getBytes());
+        for (Field child : family.getChildren()) {
+            resolver.columns.put(child.getName(),
+                    new Column(child.getName().getBytes(), HbaseSchemaUtils.makeCoercer(isNative, child.getType())));
+        }
+        return resolver;
+    }
+
     /**
      * @param field The Apache Arrow field we'd like to extract from the val.
      * @param val The value from which we'd like to extract the provide field.
@@ -68,7 +91,25 @@ public class HbaseFieldResolver
             throw new IllegalArgumentException("Expected value of type Result but found " + clazz);
         }
 
-        byte[] rawFieldValue = ((Result) val).getValue(family, field.getName().getBytes());
-        return HbaseSchemaUtils.coerceType(isNative, field.getType(), rawFieldValue);
+        Column column = columns.get(field.getName());
+        if (column == null) {
+            byte[] rawFieldValue = ((Result) val).getValue(family, field.getName().getBytes());
+            return HbaseSchemaUtils.coerceType(isNative, field.getType(), rawFieldValue);
+        }
+
+        byte[] rawFieldValue = ((Result) val).getValue(family, column.qualifier);
+        return (rawFieldValue == null) ? null : column.coercer.apply(rawFieldValue);
+    }
+
+    private static class Column
+    {
+        private final byte[] qualifier;
+        private final Function<byte[], Object> coercer;
+
+        private Column(byte[] qualifier, Function<byte[], Object> coercer)
+        {
+            this.qualifier = qualifier;
+            this.coercer = coercer;
+        }
     }
 }
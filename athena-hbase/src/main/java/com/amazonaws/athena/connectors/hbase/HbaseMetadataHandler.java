@@ -53,6 +53,7 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.hadoop.hbase.HRegionInfo;
 import org.apache.hadoop.hbase.NamespaceDescriptor;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
@@ -309,9 +310,16 @@ public class HbaseMetadataHandler
         }
 
         Set<Split> splits = new HashSet<>();
+        //The row key ranges allowed by the constraints on the 'row' column, null if the row key is not constrained.
+        List<RowRange> rowRanges = HbaseRowKeyRanges.getRowRanges(request.getConstraints());
 
         //We can read each region in parallel
         for (HRegionInfo info : getOrCreateConn(request).getTableRegions(HbaseTableNameUtils.getQualifiedTable(request.getTableName()))) {
+            //Skip regions that can not hold any of the requested row keys.
+            if (rowRanges != null && HbaseRowKeyRanges.clipToRegion(rowRanges, info.getStartKey(), info.getEndKey()).isEmpty()) {
+                logger.info("doGetSplits: Pruned region {}", info.getRegionNameAsString());
+                continue;
+            }
             Split.Builder splitBuilder = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
                     .add(HBASE_CONN_STR, getConnStr(request))
                     .add(START_KEY_FIELD, new String(info.getStartKey()))
@@ -23,7 +23,6 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.domain.Split;
-import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
@@ -33,20 +32,21 @@ import com.amazonaws.athena.connectors.hbase.connection.HbaseConnectionFactory;
 import com.amazonaws.athena.connectors.hbase.qpt.HbaseQueryPassthrough;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.types.Types;
-import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.filter.ParseFilter;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
-import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
@@ -55,7 +55,10 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
 import java.nio.charset.CharacterCodingException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 
 import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.END_KEY_FIELD;
 import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.HBASE_CONN_STR;
@@ -79,6 +82,18 @@ public class HbaseRecordHandler
 
     //Used to denote the 'type' of this connector for diagnostic purposes.
     private static final String SOURCE_TYPE = "hbase";
+    //The max number of row keys to read in a single multi-get when the row key is constrained to a set of values.
+    private static final int GET_BATCH_SIZE = 100;
+    //Config option for the max size (in bytes) of the results returned by a single scanner RPC.
+    protected static final String SCAN_MAX_RESULT_SIZE_CONFIG = "hbase_scan_max_result_size";
+    protected static final long DEFAULT_SCAN_MAX_RESULT_SIZE = 4 * 1024 * 1024;
+    //Config option to override the number of rows returned by a single scanner RPC, sized to fit the projected
+    //row width into the max result size by default.
+    protected static final String SCAN_CACHING_CONFIG = "hbase_scan_caching";
+    //Upper bound of the number of rows returned by a single scanner RPC when sized from the projected row width.
+    private static final int MAX_SCAN_CACHING = 10_000;
+    //Config option to disable fetching the next batch of scan results in the background while we process the current one.
+    protected static final String SCAN_ASYNC_PREFETCH_CONFIG = "hbase_scan_async_prefetch";
 
     private final S3Client amazonS3;
     private final HbaseConnectionFactory connectionFactory;
@@ -122,10 +137,13 @@ public class HbaseRecordHandler
         Split split = request.getSplit();
         String conStr = split.getProperty(HBASE_CONN_STR);
         boolean isNative = projection.getCustomMetadata().get(HBASE_NATIVE_STORAGE_FLAG) != null;
+        //resolve column bytes and type coercions once for the split rather than once per cell.
+        HbaseRowWriter rowWriter = HbaseRowWriter.compile(projection, isNative);
 
         String schemaName;
         String tableName;
         Scan scan;
+        List<RowRange> rowRanges = null;
         if (request.getConstraints().isQueryPassThrough()) {
             Map<String, String> qptArguments = request.getConstraints().getQueryPassthroughArguments();
             queryPassthrough.verify(qptArguments);
@@ -145,88 +163,141 @@ public class HbaseRecordHandler
             }
         }
         else {
+            byte[] regionStart = split.getProperty(START_KEY_FIELD).getBytes();
+            byte[] regionEnd = split.getProperty(END_KEY_FIELD).getBytes();
             //setup the scan so that we only read the key range associated with the region represented by our Split.
-            scan = new Scan(split.getProperty(START_KEY_FIELD).getBytes(), split.getProperty(END_KEY_FIELD).getBytes());
+            scan = new Scan(regionStart, regionEnd);
             //attempts to push down a partial predicate using HBase Filters
-            scan.setFilter(pushdownPredicate(isNative, request.getConstraints()));
+            Filter filter = pushdownPredicate(isNative, request.getConstraints());
+
+            //narrow the scan down to the row keys allowed by the constraints on the 'row' column, if any.
+            rowRanges = HbaseRowKeyRanges.getRowRanges(request.getConstraints());
+            if (rowRanges != null) {
+                rowRanges = HbaseRowKeyRanges.clipToRegion(rowRanges, regionStart, regionEnd);
+                if (rowRanges.isEmpty()) {
+                    logger.info("readWithConstraint: No row key in region {} can match the constraints.",
+                            split.getProperty(HbaseMetadataHandler.REGION_NAME_FIELD));
+                    return;
+                }
+                RowRange first = rowRanges.get(0);
+                RowRange last = rowRanges.get(rowRanges.size() - 1);
+                scan.withStartRow(first.getStartRow(), first.isStartRowInclusive());
+                scan.withStopRow(last.getStopRow(), last.isStopRowInclusive());
+                if (rowRanges.size() > 1 && !HbaseRowKeyRanges.isPointLookup(rowRanges)) {
+                    Filter rangeFilter = new MultiRowRangeFilter(rowRanges);
+                    filter = (filter == null) ? rangeFilter : new FilterList(FilterList.Operator.MUST_PASS_ALL, rangeFilter, filter);
+                }
+            }
+            scan.setFilter(filter);
             schemaName = request.getTableName().getSchemaName();
             tableName = request.getTableName().getTableName();
         }
-        TableName tableNameObj = new TableName(schemaName, tableName);
+        TableName hbaseTableName = HbaseTableNameUtils.getQualifiedTable(schemaName, tableName);
 
         //setup the projection so we only pull columns/families that we need
         for (Field next : request.getSchema().getFields()) {
             addToProjection(scan, next);
         }
 
-        getOrCreateConn(conStr).scanTable(HbaseTableNameUtils.getQualifiedTable(tableNameObj),
+        if (rowRanges != null && HbaseRowKeyRanges.isPointLookup(rowRanges)) {
+            //equality and IN predicates on the row key are served by batches of Gets instead of a Scan.
+            getFilterProject(getOrCreateConn(conStr), hbaseTableName, scan, rowRanges,
+                    rowWriter, blockSpiller, queryStatusChecker);
+            return;
+        }
+
+        configureScanner(scan, rowWriter);
+        getOrCreateConn(conStr).scanTable(hbaseTableName,
                 scan,
-                (ResultScanner scanner) -> scanFilterProject(scanner, request, blockSpiller, queryStatusChecker));
+                (ResultScanner scanner) -> scanFilterProject(scanner, rowWriter, blockSpiller, queryStatusChecker));
     }
 
-    private boolean scanFilterProject(ResultScanner scanner, ReadRecordsRequest request, BlockSpiller blockSpiller, QueryStatusChecker queryStatusChecker)
+    /**
+     * Sizes the scanner RPCs to the projected row width and enables prefetching of the next batch of scan results, so
+     * that narrow projections do not pay a round trip per handful of rows and wide ones do not exceed the max result size.
+     *
+     * @param scan The scan object that will be used to read data from HBase.
+     * @param rowWriter The compiled plan for the projection, used to estimate the size of a row.
+     */
+    private void configureScanner(Scan scan, HbaseRowWriter rowWriter)
     {
-        Schema projection = request.getSchema();
-        boolean isNative = projection.getCustomMetadata().get(HBASE_NATIVE_STORAGE_FLAG) != null;
+        long maxResultSize = configOptions.containsKey(SCAN_MAX_RESULT_SIZE_CONFIG) ?
+                Long.parseLong(configOptions.get(SCAN_MAX_RESULT_SIZE_CONFIG)) : DEFAULT_SCAN_MAX_RESULT_SIZE;
+        int caching = configOptions.containsKey(SCAN_CACHING_CONFIG) ?
+                Integer.parseInt(configOptions.get(SCAN_CACHING_CONFIG)) :
+                (int) Math.max(1, Math.min(MAX_SCAN_CACHING, maxResultSize / rowWriter.getEstimatedRowBytes()));
+        boolean asyncPrefetch = Boolean.parseBoolean(configOptions.getOrDefault(SCAN_ASYNC_PREFETCH_CONFIG, "true"));
 
-        for (Result row : scanner) {
-            if (!queryStatusChecker.isQueryRunning()) {
-                return true;
-            }
-            blockSpiller.writeRows((Block block, int rowNum) -> {
-                boolean match = true;
-                for (Field field : projection.getFields()) {
-                    if (match) {
-                        match &= writeField(block, field, isNative, row, rowNum);
-                    }
-                }
-                return match ? 1 : 0;
-            });
-        }
-        return true;
+        logger.info("configureScanner: caching[{}] maxResultSize[{}] asyncPrefetch[{}] estimatedRowBytes[{}]",
+                caching, maxResultSize, asyncPrefetch, rowWriter.getEstimatedRowBytes());
+        scan.setCaching(caching);
+        scan.setMaxResultSize(maxResultSize);
+        scan.setAsyncPrefetch(asyncPrefetch);
     }
 
     /**
-     * Used to filter and write field values from the HBase scan to the response block.
+     * Reads the requested row keys using batches of Gets which share the projection and filter of the given scan.
      *
-     * @param block The Block we should write to.
-     * @param field The Apache Arrow Field we need to write.
-     * @param isNative Boolean indicating if the HBase value is stored as a String (false) or as Native byte[] (true).
-     * @param row The HBase row from which we should extract a value for the field denoted by vector.
-     * @param rowNum The rowNumber to write into on the vector.
-     * @return True if the value passed the ConstraintEvaluator's test.
+     * @param conn The HBase connection to use.
+     * @param tableName The HBase table to read from.
+     * @param scan The scan holding the projection and filter to apply to each Get.
+     * @param rowRanges The single row ranges (one per row key) to read.
+     * @param rowWriter The compiled plan used to write the rows.
+     * @param blockSpiller The BlockSpiller to write the matching rows to.
+     * @param queryStatusChecker Used to stop reading once the query is no longer running.
      */
-    private boolean writeField(Block block, Field field, boolean isNative, Result row, int rowNum)
+    private void getFilterProject(HBaseConnection conn,
+            TableName tableName,
+            Scan scan,
+            List<RowRange> rowRanges,
+            HbaseRowWriter rowWriter,
+            BlockSpiller blockSpiller,
+            QueryStatusChecker queryStatusChecker)
     {
-        String fieldName = field.getName();
-        ArrowType type = field.getType();
-        Types.MinorType minorType = Types.getMinorTypeForArrowType(type);
-        try {
-            //Is this field the special 'row' field that can be used to group column families that may
-            //have been spread across different region servers if they are needed in the same query.
-            if (HbaseSchemaUtils.ROW_COLUMN_NAME.equals(fieldName)) {
-                String value = Bytes.toString(row.getRow());
-                return block.offerValue(fieldName, rowNum, value);
+        List<Get> gets = new ArrayList<>();
+        for (int i = 0; i < rowRanges.size(); i++) {
+            Get get = new Get(rowRanges.get(i).getStartRow());
+            for (Map.Entry<byte[], NavigableSet<byte[]>> family : scan.getFamilyMap().entrySet()) {
+                if (family.getValue() == null) {
+                    get.addFamily(family.getKey());
+                }
+                else {
+                    for (byte[] qualifier : family.getValue()) {
+                        get.addColumn(family.getKey(), qualifier);
+                    }
+                }
             }
+            get.setFilter(scan.getFilter());
+            gets.add(get);
 
-            switch (minorType) {
-                case STRUCT:
-                    //Column is actually a Column Family stored as a STRUCT.
-                    return block.offerComplexValue(fieldName,
-                            rowNum,
-                            HbaseFieldResolver.resolver(isNative, fieldName),
-                            row);
-                default:
-                    //We expect the column name format to be <FAMILY>:<QUALIFIER>
-                    String[] columnParts = HbaseSchemaUtils.extractColumnParts(fieldName);
-                    byte[] rawValue = row.getValue(columnParts[0].getBytes(), columnParts[1].getBytes());
-                    Object value = HbaseSchemaUtils.coerceType(isNative, type, rawValue);
-                    return block.offerValue(fieldName, rowNum, value);
+            if (gets.size() >= GET_BATCH_SIZE || i == rowRanges.size() - 1) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    return;
+                }
+                for (Result row : conn.getRows(tableName, gets)) {
+                    if (row != null && !row.isEmpty()) {
+                        writeRow(row, rowWriter, blockSpiller);
+                    }
+                }
+                gets = new ArrayList<>();
             }
         }
-        catch (RuntimeException ex) {
-            throw new RuntimeException("Exception while processing field " + fieldName + " type " + minorType, ex);
+    }
+
+    private boolean scanFilterProject(ResultScanner scanner, HbaseRowWriter rowWriter, BlockSpiller blockSpiller, QueryStatusChecker queryStatusChecker)
+    {
+        for (Result row : scanner) {
+            if (!queryStatusChecker.isQueryRunning()) {
+                return true;
+            }
+            writeRow(row, rowWriter, blockSpiller);
         }
+        return true;
+    }
+
+    private void writeRow(Result row, HbaseRowWriter rowWriter, BlockSpiller blockSpiller)
+    {
+        blockSpiller.writeRows((Block block, int rowNum) -> rowWriter.write(block, row, rowNum) ? 1 : 0);
     }
 
     /**
@@ -265,20 +336,22 @@ public class HbaseRecordHandler
      * @param constraints The constraints that we can attempt to push into HBase as part of the scan.
      * @return A filter if we found a predicate we can push down, null otherwise/
      * @note Currently this method only supports constraints that can be represented by HBase's SingleColumnValueFilter
-     * or RowFilter and CompareOp of EQUAL. In the future we can add > and < for certain field types.
+     * and CompareOp of EQUAL, constraints on the row key are handled by HbaseRowKeyRanges instead. In the future we
+     * can add > and < for certain field types.
      */
     private Filter pushdownPredicate(boolean isNative, Constraints constraints)
     {
         for (Map.Entry<String, ValueSet> next : constraints.getSummary().entrySet()) {
+            //constraints on the 'row' column are pushed down as row key ranges, see HbaseRowKeyRanges.
+            if (next.getKey().equals(HbaseSchemaUtils.ROW_COLUMN_NAME)) {
+                continue;
+            }
             if (next.getValue().isSingleValue() && !next.getValue().isNullAllowed()) {
                 byte[] value = HbaseSchemaUtils.toBytes(isNative, next.getValue().getSingleValue());
                 String[] colParts = HbaseSchemaUtils.extractColumnParts(next.getKey());
                 CompareFilter.CompareOp compareOp = CompareFilter.CompareOp.EQUAL;
-                boolean isRowKey = next.getKey().equals(HbaseSchemaUtils.ROW_COLUMN_NAME);
 
-                return isRowKey ?
-                       new RowFilter(compareOp, new BinaryComparator(value)) :
-                       new SingleColumnValueFilter(colParts[0].getBytes(), colParts[1].getBytes(), compareOp, value);
+                return new SingleColumnValueFilter(colParts[0].getBytes(), colParts[1].getBytes(), compareOp, value);
             }
         }
 
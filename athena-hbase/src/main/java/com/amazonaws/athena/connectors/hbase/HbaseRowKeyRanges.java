@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * athena-hbase
+ * %%
+ * Copyright (C) 2019 - 2024 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.hbase;
+
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Turns the constraints on the special 'row' column into the row key ranges a read has to cover, so that point lookups
+ * and range queries on the row key do not scan every region of the table.
+ * <p>
+ * Equality and IN predicates become single row ranges (start and stop row are the same and inclusive), range
+ * predicates, including the ones Athena derives from prefix LIKE predicates, become the matching row ranges. An empty
+ * start row means the range has no lower bound and an empty stop row means it has no upper bound, as in HBase.
+ */
+public final class HbaseRowKeyRanges
+{
+    private HbaseRowKeyRanges() {}
+
+    /**
+     * @param constraints The constraints of the read.
+     * @return The sorted, non-overlapping row ranges that can hold matching rows, or null if the row key is not constrained.
+     */
+    public static List<RowRange> getRowRanges(Constraints constraints)
+    {
+        ValueSet valueSet = constraints.getSummary().get(HbaseSchemaUtils.ROW_COLUMN_NAME);
+        if (valueSet == null || valueSet.isAll()) {
+            return null;
+        }
+
+        List<RowRange> rowRanges = new ArrayList<>();
+        if (valueSet instanceof EquatableValueSet) {
+            EquatableValueSet equatableValueSet = (EquatableValueSet) valueSet;
+            if (!equatableValueSet.isWhiteList()) {
+                return null;
+            }
+            for (int i = 0; i < equatableValueSet.getValueBlock().getRowCount(); i++) {
+                Object value = equatableValueSet.getValue(i);
+                if (value != null) {
+                    byte[] rowKey = toRowKey(value);
+                    rowRanges.add(new RowRange(rowKey, true, rowKey, true));
+                }
+            }
+        }
+        else if (valueSet instanceof SortedRangeSet) {
+            for (Range range : valueSet.getRanges().getOrderedRanges()) {
+                boolean lowerUnbounded = range.getLow().isLowerUnbounded();
+                boolean upperUnbounded = range.getHigh().isUpperUnbounded();
+                rowRanges.add(new RowRange(
+                        lowerUnbounded ? HConstants.EMPTY_START_ROW : toRowKey(range.getLow().getValue()),
+                        lowerUnbounded || range.getLow().getBound() == Marker.Bound.EXACTLY,
+                        upperUnbounded ? HConstants.EMPTY_END_ROW : toRowKey(range.getHigh().getValue()),
+                        !upperUnbounded && range.getHigh().getBound() == Marker.Bound.EXACTLY));
+            }
+        }
+        else {
+            return null;
+        }
+
+        Collections.sort(rowRanges);
+        return rowRanges;
+    }
+
+    /**
+     * Restricts the row ranges to the rows held by a region.
+     *
+     * @param rowRanges The sorted row ranges, as returned by getRowRanges.
+     * @param regionStart The start row of the region (inclusive), empty for the first region.
+     * @param regionEnd The end row of the region (exclusive), empty for the last region.
+     * @return The sorted row ranges held by the region, empty if the region can not hold any matching row.
+     */
+    public static List<RowRange> clipToRegion(List<RowRange> rowRanges, byte[] regionStart, byte[] regionEnd)
+    {
+        List<RowRange> clipped = new ArrayList<>();
+        for (RowRange next : rowRanges) {
+            byte[] start = next.getStartRow();
+            boolean startInclusive = next.isStartRowInclusive();
+            if (start.length == 0 || Bytes.compareTo(start, regionStart) < 0) {
+                start = regionStart;
+                startInclusive = true;
+            }
+
+            byte[] stop = next.getStopRow();
+            boolean stopInclusive = next.isStopRowInclusive();
+            if (regionEnd.length > 0 && (stop.length == 0 || Bytes.compareTo(stop, regionEnd) >= 0)) {
+                stop = regionEnd;
+                stopInclusive = false;
+            }
+
+            if (stop.length == 0) {
+                clipped.add(new RowRange(start, startInclusive, stop, stopInclusive));
+                continue;
+            }
+            int cmp = Bytes.compareTo(start, stop);
+            if (cmp < 0 || (cmp == 0 && startInclusive && stopInclusive)) {
+                clipped.add(new RowRange(start, startInclusive, stop, stopInclusive));
+            }
+        }
+        return clipped;
+    }
+
+    /**
+     * @return True if every row range holds a single row key, i.e. the rows can be read with Gets instead of a Scan.
+     */
+    public static boolean isPointLookup(List<RowRange> rowRanges)
+    {
+        for (RowRange next : rowRanges) {
+            if (!next.isStartRowInclusive() || !next.isStopRowInclusive()
+                    || next.getStartRow().length == 0 || !Bytes.equals(next.getStartRow(), next.getStopRow())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] toRowKey(Object value)
+    {
+        //The row column is always read as a String, regardless of the storage format of the other columns.
+        return Bytes.toBytes(value.toString());
+    }
+}
@@ -0,0 +1,178 @@
+/*-
+ * #%L
+ * athena-hbase
+ * %%
+ * Copyright (C) 2019 - 2024 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.hbase;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes HBase rows into response Blocks using a plan compiled once per Split from the requested projection. Column
+ * family and qualifier bytes, field resolvers and type coercion functions are resolved when the plan is compiled so that
+ * wide tables do not pay for splitting column names, encoding Strings or picking a coercion for every cell.
+ */
+public class HbaseRowWriter
+{
+    //Rough per-cell overhead of HBase's KeyValue format (key/value lengths, row length, timestamp, type), in bytes.
+    private static final int CELL_OVERHEAD_BYTES = 20;
+    //The size we assume for row keys and variable width values when estimating the size of a row, in bytes.
+    private static final int VARIABLE_WIDTH_BYTES = 32;
+
+    private final List<FieldWriter> fieldWriters;
+    private final long estimatedRowBytes;
+
+    private HbaseRowWriter(List<FieldWriter> fieldWriters, long estimatedRowBytes)
+    {
+        this.fieldWriters = fieldWriters;
+        this.estimatedRowBytes = estimatedRowBytes;
+    }
+
+    /**
+     * Compiles the plan used to write HBase rows for the given projection.
+     *
+     * @param projection The Apache Arrow Schema of the fields to write.
+     * @param isNative True if the values are stored as native byte arrays in HBase, false if they are stored as Strings.
+     * @return The compiled HbaseRowWriter.
+     */
+    public static HbaseRowWriter compile(Schema projection, boolean isNative)
+    {
+        List<FieldWriter> fieldWriters = new ArrayList<>();
+        long estimatedRowBytes = 0;
+        for (Field field : projection.getFields()) {
+            fieldWriters.add(makeFieldWriter(field, isNative));
+            estimatedRowBytes += estimateFieldBytes(field);
+        }
+        return new HbaseRowWriter(fieldWriters, Math.max(1, estimatedRowBytes));
+    }
+
+    /**
+     * Writes the fields of the HBase row to the response Block.
+     *
+     * @param block The Block we should write to.
+     * @param row The HBase row from which we should extract the values of the fields.
+     * @param rowNum The rowNumber to write into on the Block.
+     * @return True if all the values passed the ConstraintEvaluator's test.
+     */
+    public boolean write(Block block, Result row, int rowNum)
+    {
+        for (FieldWriter next : fieldWriters) {
+            if (!next.write(block, row, rowNum)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A rough estimate of the size (in bytes) of the HBase cells read for a single row of the projection, used to
+     * size scanner caching.
+     */
+    public long getEstimatedRowBytes()
+    {
+        return estimatedRowBytes;
+    }
+
+    private static FieldWriter makeFieldWriter(Field field, boolean isNative)
+    {
+        String fieldName = field.getName();
+        Types.MinorType minorType = Types.getMinorTypeForArrowType(field.getType());
+
+        //Is this field the special 'row' field that can be used to group column families that may
+        //have been spread across different region servers if they are needed in the same query.
+        if (HbaseSchemaUtils.ROW_COLUMN_NAME.equals(fieldName)) {
+            return (Block block, Result row, int rowNum) -> block.offerValue(fieldName, rowNum, Bytes.toString(row.getRow()));
+        }
+
+        FieldWriter writer;
+        switch (minorType) {
+            case STRUCT:
+                //Column is actually a Column Family stored as a STRUCT.
+                HbaseFieldResolver resolver = HbaseFieldResolver.resolver(isNative, field);
+                writer = (Block block, Result row, int rowNum) -> block.offerComplexValue(fieldName, rowNum, resolver, row);
+                break;
+            default:
+                //We expect the column name format to be <FAMILY>:<QUALIFIER>
+                String[] columnParts = HbaseSchemaUtils.extractColumnParts(fieldName);
+                byte[] family = columnParts[0].getBytes();
+                byte[] qualifier = columnParts[1].getBytes();
+                Function<byte[], Object> coercer = HbaseSchemaUtils.makeCoercer(isNative, field.getType());
+                writer = (Block block, Result row, int rowNum) -> {
+                    byte[] rawValue = row.getValue(family, qualifier);
+                    return block.offerValue(fieldName, rowNum, (rawValue == null) ? null : coercer.apply(rawValue));
+                };
+        }
+
+        return (Block block, Result row, int rowNum) -> {
+            try {
+                return writer.write(block, row, rowNum);
+            }
+            catch (RuntimeException ex) {
+                throw new RuntimeException("Exception while processing field " + fieldName + " type " + minorType, ex);
+            }
+        };
+    }
+
+    private static long estimateFieldBytes(Field field)
+    {
+        if (HbaseSchemaUtils.ROW_COLUMN_NAME.equals(field.getName())) {
+            return VARIABLE_WIDTH_BYTES;
+        }
+
+        switch (Types.getMinorTypeForArrowType(field.getType())) {
+            case STRUCT:
+                long bytes = 0;
+                for (Field child : field.getChildren()) {
+                    bytes += CELL_OVERHEAD_BYTES + VARIABLE_WIDTH_BYTES + field.getName().length() + child.getName().length()
+                            + estimateValueBytes(child);
+                }
+                return bytes;
+            default:
+                return CELL_OVERHEAD_BYTES + VARIABLE_WIDTH_BYTES + field.getName().length() + estimateValueBytes(field);
+        }
+    }
+
+    private static long estimateValueBytes(Field field)
+    {
+        switch (Types.getMinorTypeForArrowType(field.getType())) {
+            case BIT:
+                return 1;
+            case INT:
+            case FLOAT4:
+                return 4;
+            case BIGINT:
+            case FLOAT8:
+                return 8;
+            default:
+                return VARIABLE_WIDTH_BYTES;
+        }
+    }
+
+    private interface FieldWriter
+    {
+        boolean write(Block block, Result row, int rowNum);
+    }
+}
@@ -38,6 +38,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Collection of helpful utilities that handle HBase schema inference, type, and naming conversion.
@@ -185,29 +186,44 @@ public class HbaseSchemaUtils
             return null;
         }
 
+        return makeCoercer(isNative, type).apply(value);
+    }
+
+    /**
+     * Resolves the function used to coerce (non-null) HBase values to the requested Apache Arrow type, so that callers
+     * reading many values of the same column can do so once per column instead of once per value.
+     *
+     * @param isNative If True, the HBase value is stored using native bytes. If False, the value is serialized as a String.
+     * @param type The Apache Arrow Type that the values should be coerced to.
+     * @return The function which coerces HBase values to the provided Apache Arrow type.
+     */
+    public static Function<byte[], Object> makeCoercer(boolean isNative, ArrowType type)
+    {
         Types.MinorType minorType = Types.getMinorTypeForArrowType(type);
         switch (minorType) {
             case VARCHAR:
-                return Bytes.toString(value);
+                return Bytes::toString;
             case INT:
-                return isNative ? ByteBuffer.wrap(value).getInt() : Integer.parseInt(Bytes.toString(value));
+                return isNative ? (byte[] value) -> ByteBuffer.wrap(value).getInt() : (byte[] value) -> Integer.parseInt(Bytes.toString(value));
             case BIGINT:
-                return isNative ? ByteBuffer.wrap(value).getLong() : Long.parseLong(Bytes.toString(value));
+                return isNative ? (byte[] value) -> ByteBuffer.wrap(value).getLong() : (byte[] value) -> Long.parseLong(Bytes.toString(value));
             case FLOAT4:
-                return isNative ? ByteBuffer.wrap(value).getFloat() : Float.parseFloat(Bytes.toString(value));
+                return isNative ? (byte[] value) -> ByteBuffer.wrap(value).getFloat() : (byte[] value) -> Float.parseFloat(Bytes.toString(value));
             case FLOAT8:
-                return isNative ? ByteBuffer.wrap(value).getDouble() : Double.parseDouble(Bytes.toString(value));
+                return isNative ? (byte[] value) -> ByteBuffer.wrap(value).getDouble() : (byte[] value) -> Double.parseDouble(Bytes.toString(value));
             case BIT:
                 if (isNative) {
-                    return (value[0] != 0);
+                    return (byte[] value) -> (value[0] != 0);
                 }
                 else {
-                    return Boolean.parseBoolean(Bytes.toString(value));
+                    return (byte[] value) -> Boolean.parseBoolean(Bytes.toString(value));
                 }
             case VARBINARY:
-                return value;
+                return (byte[] value) -> value;
             default:
-                throw new IllegalArgumentException(type + " with minorType[" + minorType + "] is not supported.");
+                return (byte[] value) -> {
+                    throw new IllegalArgumentException(type + " with minorType[" + minorType + "] is not supported.");
+                };
         }
     }
 
@@ -27,6 +27,8 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
@@ -156,6 +158,22 @@ public class HBaseConnection
         });
     }
 
+    /**
+     * Used to read a batch of rows by their row keys, in a single round trip per region server.
+     *
+     * @param tableName The HBase table to read from.
+     * @param gets The HBase gets (row keys, columns, filters, etc...) to run.
+     * @return The results of the gets, in the order of the gets. Rows that do not exist yield empty results.
+     */
+    public Result[] getRows(TableName tableName, List<Get> gets)
+    {
+        return callWithReconnectAndRetry(() -> {
+            try (Table table = connection.getTable(tableName)) {
+                return table.get(gets);
+            }
+        });
+    }
+
     /**
      * Retrieves whether the table exists
      *
@@ -46,4 +46,16 @@ public class HbaseFieldResolverTest
         Object result = resolver.getFieldValue(field, mockResult);
         assertEquals(expectedValue, result);
     }
+
+    @Test
+    public void getFieldValueFromFamilyField()
+    {
+        Field child = FieldBuilder.newBuilder("col1", Types.MinorType.BIGINT.getType()).build();
+        Field family = FieldBuilder.newBuilder("family", Types.MinorType.STRUCT.getType()).addField(child).build();
+        Result mockResult = mock(Result.class);
+        HbaseFieldResolver resolver = HbaseFieldResolver.resolver(false, family);
+
+        when(mockResult.getValue("family".getBytes(), "col1".getBytes())).thenReturn("100".getBytes());
+        assertEquals(100L, resolver.getFieldValue(child, mockResult));
+    }
 }
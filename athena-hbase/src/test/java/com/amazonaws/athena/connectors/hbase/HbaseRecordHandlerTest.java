@@ -27,6 +27,7 @@ import com.amazonaws.athena.connector.lambda.data.S3BlockSpillReader;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
@@ -48,6 +49,7 @@ import com.google.common.io.ByteStreams;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
@@ -58,6 +60,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -93,6 +96,8 @@ import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -226,6 +231,75 @@ public class HbaseRecordHandlerTest
 
         assertTrue(response.getRecords().getRowCount() == 1);
         logger.info("doReadRecordsNoSpill: {}", BlockUtils.rowToString(response.getRecords(), 0));
+
+        //the scanner should be sized to the projection and prefetch the next batch of results.
+        ArgumentCaptor<Scan> scanCaptor = ArgumentCaptor.forClass(Scan.class);
+        verify(mockClient).scanTable(any(), scanCaptor.capture(), any());
+        assertTrue(scanCaptor.getValue().getCaching() > 1);
+        assertEquals(HbaseRecordHandler.DEFAULT_SCAN_MAX_RESULT_SIZE, scanCaptor.getValue().getMaxResultSize());
+        assertTrue(scanCaptor.getValue().isAsyncPrefetch());
+    }
+
+    @Test
+    public void doReadRecordsRowKeyGet()
+            throws Exception
+    {
+        Result result1 = TestUtils.makeResult("family1", "col1", "varchar1");
+        when(result1.getRow()).thenReturn("key1".getBytes());
+        Result result2 = TestUtils.makeResult("family1", "col1", "varchar2");
+        when(result2.getRow()).thenReturn("key2".getBytes());
+        when(mockClient.getRows(any(), any())).thenReturn(new Result[] {result1, result2});
+
+        //The row key 'zzz' is outside of the region and should not be requested.
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(HbaseSchemaUtils.ROW_COLUMN_NAME,
+                EquatableValueSet.newBuilder(allocator, Types.MinorType.VARCHAR.getType(), true, false)
+                        .add("key1")
+                        .add("key2")
+                        .add("zzz")
+                        .build());
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        Split.Builder splitBuilder = Split.newBuilder(splitLoc, keyFactory.create())
+                .add(HBASE_CONN_STR, "fake_con_str")
+                .add(START_KEY_FIELD, "a")
+                .add(END_KEY_FIELD, "m")
+                .add(REGION_ID_FIELD, "fake_region_id")
+                .add(REGION_NAME_FIELD, "fake_region_name");
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                new TableName(DEFAULT_SCHEMA, TEST_TABLE),
+                schemaForRead,
+                splitBuilder.build(),
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        logger.info("doReadRecordsRowKeyGet: rows[{}]", response.getRecordCount());
+
+        ArgumentCaptor<List<Get>> getsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockClient).getRows(any(), getsCaptor.capture());
+        verify(mockClient, never()).scanTable(any(), any(), any());
+
+        List<Get> gets = getsCaptor.getValue();
+        assertEquals(2, gets.size());
+        assertEquals("key1", new String(gets.get(0).getRow()));
+        assertEquals("key2", new String(gets.get(1).getRow()));
+        assertEquals(2, response.getRecords().getRowCount());
     }
 
     @Test
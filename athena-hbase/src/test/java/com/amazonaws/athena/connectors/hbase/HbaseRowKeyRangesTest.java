@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * athena-hbase
+ * %%
+ * Copyright (C) 2019 - 2024 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.hbase;
+
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import org.apache.arrow.vector.types.Types;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HbaseRowKeyRangesTest
+{
+    private BlockAllocatorImpl allocator;
+
+    @Before
+    public void setUp()
+    {
+        allocator = new BlockAllocatorImpl();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void getRowRangesUnconstrained()
+    {
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("family1:col1", SortedRangeSet.copyOf(Types.MinorType.BIGINT.getType(),
+                Collections.singletonList(Range.greaterThan(allocator, Types.MinorType.BIGINT.getType(), 0L)), false));
+
+        assertNull(HbaseRowKeyRanges.getRowRanges(makeConstraints(constraintsMap)));
+    }
+
+    @Test
+    public void getRowRangesPointLookup()
+    {
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(HbaseSchemaUtils.ROW_COLUMN_NAME,
+                EquatableValueSet.newBuilder(allocator, Types.MinorType.VARCHAR.getType(), true, false)
+                        .add("key2")
+                        .add("key1")
+                        .build());
+
+        List<RowRange> rowRanges = HbaseRowKeyRanges.getRowRanges(makeConstraints(constraintsMap));
+
+        assertEquals(2, rowRanges.size());
+        assertEquals("key1", Bytes.toString(rowRanges.get(0).getStartRow()));
+        assertEquals("key2", Bytes.toString(rowRanges.get(1).getStartRow()));
+        assertTrue(HbaseRowKeyRanges.isPointLookup(rowRanges));
+    }
+
+    @Test
+    public void getRowRangesRanges()
+    {
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(HbaseSchemaUtils.ROW_COLUMN_NAME, SortedRangeSet.copyOf(Types.MinorType.VARCHAR.getType(),
+                Collections.singletonList(Range.range(allocator, Types.MinorType.VARCHAR.getType(), "b", true, "d", false)), false));
+
+        List<RowRange> rowRanges = HbaseRowKeyRanges.getRowRanges(makeConstraints(constraintsMap));
+
+        assertEquals(1, rowRanges.size());
+        assertEquals("b", Bytes.toString(rowRanges.get(0).getStartRow()));
+        assertTrue(rowRanges.get(0).isStartRowInclusive());
+        assertEquals("d", Bytes.toString(rowRanges.get(0).getStopRow()));
+        assertFalse(rowRanges.get(0).isStopRowInclusive());
+        assertFalse(HbaseRowKeyRanges.isPointLookup(rowRanges));
+    }
+
+    @Test
+    public void clipToRegion()
+    {
+        List<RowRange> rowRanges = Collections.singletonList(new RowRange(Bytes.toBytes("b"), true, Bytes.toBytes("y"), true));
+
+        List<RowRange> clipped = HbaseRowKeyRanges.clipToRegion(rowRanges, Bytes.toBytes("d"), Bytes.toBytes("f"));
+        assertEquals(1, clipped.size());
+        assertEquals("d", Bytes.toString(clipped.get(0).getStartRow()));
+        assertTrue(clipped.get(0).isStartRowInclusive());
+        assertEquals("f", Bytes.toString(clipped.get(0).getStopRow()));
+        assertFalse(clipped.get(0).isStopRowInclusive());
+
+        //the region starts after the range ends
+        assertTrue(HbaseRowKeyRanges.clipToRegion(rowRanges, Bytes.toBytes("z"), new byte[0]).isEmpty());
+    }
+
+    private Constraints makeConstraints(Map<String, ValueSet> constraintsMap)
+    {
+        return new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+    }
+}
@@ -67,6 +67,48 @@ public class KafkaConstants
     public static final String AWS_SECRET_PWD = "password";
 
     public static final int MAX_RECORDS_IN_SPLIT = 10_000;
+    /**
+     * Name of the column holding the timestamp of each kafka record (the CreateTime set by the producer or the
+     * LogAppendTime set by the broker). It is filled from the record metadata rather than decoded from the message,
+     * and a lower bound on it is translated into the start offset of each topic partition while creating the splits.
+     */
+    public static final String MESSAGE_TIMESTAMP_COLUMN = "_timestamp";
+
+    /**
+     * Consumer fetch tuning, the maximum number of records returned by a single poll.
+     */
+    public static final String MAX_POLL_RECORDS = "max_poll_records";
+    public static final String DEFAULT_MAX_POLL_RECORDS = "10000";
+    /**
+     * Consumer fetch tuning, the maximum number of bytes fetched per partition by a single request.
+     */
+    public static final String MAX_PARTITION_FETCH_BYTES = "max_partition_fetch_bytes";
+    public static final String DEFAULT_MAX_PARTITION_FETCH_BYTES = "1048576";
+    /**
+     * Consumer fetch tuning, how long a single poll waits for records.
+     */
+    public static final String POLL_TIMEOUT_MS = "poll_timeout_ms";
+    public static final long DEFAULT_POLL_TIMEOUT_MS = 1000L;
+    /**
+     * How many idle consumers per cluster and credentials we keep in a warm container,
+     * and for how long. Setting the pool size to 0 disables consumer reuse.
+     */
+    public static final String CONSUMER_POOL_SIZE = "consumer_pool_size";
+    public static final int DEFAULT_CONSUMER_POOL_SIZE = 2;
+    public static final String CONSUMER_POOL_IDLE_MS = "consumer_pool_idle_ms";
+    public static final long DEFAULT_CONSUMER_POOL_IDLE_MS = 300_000L;
+    /**
+     * Size-aware split planning. When it is set, topic partitions are cut into splits of about this many bytes,
+     * estimated from the size of the latest records of each partition, and partitions smaller than that
+     * are merged into a single split. When it is not set, every split holds MAX_RECORDS_IN_SPLIT records.
+     */
+    public static final String SPLIT_TARGET_BYTES = "split_target_bytes";
+    /**
+     * How many of the latest records of each partition are sampled to estimate the bytes per record,
+     * and how many polls we spend at most on the sampling.
+     */
+    public static final int SPLIT_SAMPLE_RECORDS = 20;
+    public static final int SPLIT_SAMPLE_MAX_POLLS = 5;
 
     public static final String AVRO_DATA_FORMAT = "avro";
     public static final String PROTOBUF_DATA_FORMAT = "protobuf";
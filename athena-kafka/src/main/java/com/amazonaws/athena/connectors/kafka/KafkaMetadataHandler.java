@@ -42,12 +42,17 @@ import com.amazonaws.athena.connectors.kafka.dto.SplitParameters;
 import com.amazonaws.athena.connectors.kafka.dto.TopicPartitionPiece;
 import com.amazonaws.athena.connectors.kafka.dto.TopicSchema;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.protobuf.Descriptors;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,8 +64,10 @@ import software.amazon.awssdk.services.glue.model.ListRegistriesResponse;
 import software.amazon.awssdk.services.glue.model.RegistryId;
 import software.amazon.awssdk.services.glue.model.RegistryListItem;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -72,6 +79,8 @@ import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.U
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.AVRO_DATA_FORMAT;
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.MAX_RECORDS_IN_SPLIT;
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.PROTOBUF_DATA_FORMAT;
+import static com.amazonaws.athena.connectors.kafka.KafkaConstants.SPLIT_SAMPLE_MAX_POLLS;
+import static com.amazonaws.athena.connectors.kafka.KafkaConstants.SPLIT_SAMPLE_RECORDS;
 
 public class KafkaMetadataHandler extends MetadataHandler
 {
@@ -355,7 +364,7 @@ public class KafkaMetadataHandler extends MetadataHandler
         LOGGER.debug("[KafkaPartition] total partitions {} found for topic: {}", topicPartitions.size(), topic);
 
         // Get start offset of each topic partitions from kafka server.
-        Map<TopicPartition, Long> startOffsets = kafkaConsumer.beginningOffsets(topicPartitions);
+        Map<TopicPartition, Long> startOffsets = new HashMap<>(kafkaConsumer.beginningOffsets(topicPartitions));
         if (LOGGER.isDebugEnabled()) {
             startOffsets.forEach((k, v) -> {
                 LOGGER.debug("[KafkaPartitionOffset] start offset info [topic: {}, partition: {}, start-offset: {}]",
@@ -365,7 +374,7 @@ public class KafkaMetadataHandler extends MetadataHandler
         }
 
         // Get end offset of each topic partitions from kafka server.
-        Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(topicPartitions);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>(kafkaConsumer.endOffsets(topicPartitions));
         if (LOGGER.isDebugEnabled()) {
             endOffsets.forEach((k, v) -> {
                 LOGGER.debug("[KafkaPartitionOffset] end offset info [topic: {}, partition: {}, end-offset: {}]",
@@ -374,14 +383,31 @@ public class KafkaMetadataHandler extends MetadataHandler
             });
         }
 
+        // If the query has a lower bound on the record timestamp column, the records written before it
+        // do not need to be read.
+        Long minTimestamp = KafkaUtils.getMinMessageTimestamp(request.getConstraints());
+        if (minTimestamp != null) {
+            LOGGER.info("[KafkaPartitionOffset] narrowing start offsets of topic {} to timestamp {}", topic, minTimestamp);
+            narrowStartOffsetsByTimestamp(topicPartitions, startOffsets, endOffsets, minTimestamp);
+        }
+
         Set<Split> splits = new HashSet<>();
         SpillLocation spillLocation = makeSpillLocation(request);
         int continuationToken = request.getContinuationToken() == null ? 0 : Integer.parseInt(request.getContinuationToken());
+        String splitTargetBytes = configOptions.get(KafkaConstants.SPLIT_TARGET_BYTES);
+        if (StringUtils.isNotBlank(splitTargetBytes)) {
+            return doGetSplitsBySize(request, spillLocation, topicPartitions.subList(continuationToken, topicPartitions.size()),
+                    continuationToken, startOffsets, endOffsets, Long.parseLong(splitTargetBytes.trim()));
+        }
         for (
             int partitionIndex = continuationToken;
             partitionIndex < topicPartitions.size();
             partitionIndex++) {
             TopicPartition partition = topicPartitions.get(partitionIndex);
+            if (minTimestamp != null && startOffsets.get(partition) >= endOffsets.get(partition)) {
+                LOGGER.debug("[KafkaPartitionOffset] skipping partition {}, no message in timestamp range", partition.partition());
+                continue;
+            }
             // Calculate how many pieces we can divide a topic partition.
             List<TopicPartitionPiece>  topicPartitionPieces = pieceTopicPartition(startOffsets.get(partition), endOffsets.get(partition));
             LOGGER.info("[TopicPartitionPiece] Total pieces created {} for partition {} in topic {}",
@@ -419,6 +445,162 @@ public class KafkaMetadataHandler extends MetadataHandler
         return new GetSplitsResponse(request.getCatalogName(), splits);
     }
 
+    /**
+     * Creates the splits of the topic partitions by their estimated size in bytes instead of their record count.
+     * Partitions bigger than the target are cut into pieces of about the target size, smaller partitions are
+     * packed together into merged splits which read their pieces one after the other.
+     *
+     * @param request - instance of {@link GetSplitsRequest}
+     * @param spillLocation - instance of {@link SpillLocation}
+     * @param topicPartitions - the partitions of the topic that are left to plan, starting at the continuation token
+     * @param continuationToken - the index of the first partition in the list above
+     * @param startOffsets - start offset of each partition
+     * @param endOffsets - end offset of each partition
+     * @param splitTargetBytes - the size a split should have
+     * @return {@link GetSplitsResponse}
+     */
+    private GetSplitsResponse doGetSplitsBySize(
+            GetSplitsRequest request,
+            SpillLocation spillLocation,
+            List<TopicPartition> topicPartitions,
+            int continuationToken,
+            Map<TopicPartition, Long> startOffsets,
+            Map<TopicPartition, Long> endOffsets,
+            long splitTargetBytes)
+    {
+        Map<TopicPartition, Double> bytesPerRecord = estimateBytesPerRecord(topicPartitions, startOffsets, endOffsets);
+        // Partitions without sample use the average of the topic, if nothing could be sampled at all
+        // we fall back to MAX_RECORDS_IN_SPLIT records per split.
+        double defaultBytesPerRecord = bytesPerRecord.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .average()
+                .orElse((double) splitTargetBytes / MAX_RECORDS_IN_SPLIT);
+        LOGGER.info("[KafkaSplitSize] target {} bytes per split, sampled {} partitions, average {} bytes per record",
+                splitTargetBytes, bytesPerRecord.size(), defaultBytesPerRecord
+        );
+
+        Set<Split> splits = new HashSet<>();
+        List<SplitParameters> mergedPieces = new ArrayList<>();
+        double mergedBytes = 0;
+        for (int index = 0; index < topicPartitions.size(); index++) {
+            TopicPartition partition = topicPartitions.get(index);
+            long startOffset = startOffsets.get(partition);
+            long endOffset = endOffsets.get(partition);
+            if (startOffset >= endOffset) {
+                LOGGER.debug("[KafkaSplitSize] skipping partition {}, no message to read", partition.partition());
+            }
+            else {
+                double recordBytes = bytesPerRecord.getOrDefault(partition, defaultBytesPerRecord);
+                double partitionBytes = (endOffset - startOffset) * recordBytes;
+                // The split end offset is inclusive, the end offset of the partition is the next offset to be written.
+                if (partitionBytes < splitTargetBytes) {
+                    if (!mergedPieces.isEmpty() && mergedBytes + partitionBytes > splitTargetBytes) {
+                        splits.add(createSplit(spillLocation, mergedPieces));
+                        mergedPieces = new ArrayList<>();
+                        mergedBytes = 0;
+                    }
+                    mergedPieces.add(new SplitParameters(partition.topic(), partition.partition(), startOffset, endOffset - 1));
+                    mergedBytes += partitionBytes;
+                }
+                else {
+                    long recordsInSplit = Math.max(1L, (long) (splitTargetBytes / recordBytes));
+                    List<TopicPartitionPiece> topicPartitionPieces = pieceTopicPartition(startOffset, endOffset - 1, recordsInSplit);
+                    LOGGER.info("[TopicPartitionPiece] Total pieces created {} of {} records for partition {} in topic {}",
+                            topicPartitionPieces.size(), recordsInSplit, partition.partition(), partition.topic()
+                    );
+                    for (TopicPartitionPiece topicPartitionPiece : topicPartitionPieces) {
+                        splits.add(createSplit(spillLocation, ImmutableList.of(
+                                new SplitParameters(partition.topic(), partition.partition(), topicPartitionPiece.startOffset, topicPartitionPiece.endOffset))));
+                    }
+                }
+            }
+
+            // if this isn't the last partition, and we've read more than our max splits per request, paginate the request.
+            if (splits.size() >= MAX_SPLITS_PER_REQUEST && index < topicPartitions.size() - 1) {
+                if (!mergedPieces.isEmpty()) {
+                    splits.add(createSplit(spillLocation, mergedPieces));
+                }
+                LOGGER.debug("[kafka] Total split created {} exceeded MAX_SPLITS_PER_REQUEST, sending paginated response", splits.size());
+                String encodedContinuationToken = String.valueOf(continuationToken + index + 1);
+                return new GetSplitsResponse(request.getCatalogName(), splits, encodedContinuationToken);
+            }
+        }
+        if (!mergedPieces.isEmpty()) {
+            splits.add(createSplit(spillLocation, mergedPieces));
+        }
+        LOGGER.debug("[kafka] Total split created {} ", splits.size());
+        return new GetSplitsResponse(request.getCatalogName(), splits);
+    }
+
+    /**
+     * Creates a split reading the given pieces, a single piece is a plain topic partition range.
+     *
+     * @param spillLocation - instance of {@link SpillLocation}
+     * @param pieces - the pieces of the split, all of the same topic
+     * @return {@link Split}
+     */
+    private Split createSplit(SpillLocation spillLocation, List<SplitParameters> pieces)
+    {
+        SplitParameters first = pieces.get(0);
+        Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
+                .add(SplitParameters.TOPIC, first.topic);
+        if (pieces.size() == 1) {
+            splitBuilder.add(SplitParameters.PARTITION, Integer.toString(first.partition))
+                    .add(SplitParameters.START_OFFSET, Long.toString(first.startOffset))
+                    .add(SplitParameters.END_OFFSET, Long.toString(first.endOffset));
+        }
+        else {
+            splitBuilder.add(SplitParameters.PIECES, pieces.stream().map(SplitParameters::toPiece).collect(Collectors.joining(",")));
+        }
+        return splitBuilder.build();
+    }
+
+    /**
+     * Estimates the size of a record of each topic partition by sampling its latest records.
+     * The serialized key and value sizes are used, so it does not matter how the values are decoded.
+     *
+     * @param topicPartitions - the partitions of the topic
+     * @param startOffsets - start offset of each partition
+     * @param endOffsets - end offset of each partition
+     * @return the average bytes per record of each partition that could be sampled
+     */
+    @VisibleForTesting
+    Map<TopicPartition, Double> estimateBytesPerRecord(
+            List<TopicPartition> topicPartitions,
+            Map<TopicPartition, Long> startOffsets,
+            Map<TopicPartition, Long> endOffsets)
+    {
+        List<TopicPartition> partitionsWithData = topicPartitions.stream()
+                .filter(it -> startOffsets.get(it) < endOffsets.get(it))
+                .collect(Collectors.toList());
+        if (partitionsWithData.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<TopicPartition, Long> sampledBytes = new HashMap<>();
+        Map<TopicPartition, Integer> sampledRecords = new HashMap<>();
+        kafkaConsumer.assign(partitionsWithData);
+        try {
+            partitionsWithData.forEach(it -> kafkaConsumer.seek(it, Math.max(startOffsets.get(it), endOffsets.get(it) - SPLIT_SAMPLE_RECORDS)));
+            Duration pollTimeout = KafkaUtils.getPollTimeout(configOptions);
+            for (int poll = 0; poll < SPLIT_SAMPLE_MAX_POLLS && sampledRecords.size() < partitionsWithData.size(); poll++) {
+                for (ConsumerRecord<String, String> record : kafkaConsumer.poll(pollTimeout)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    long recordBytes = Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+                    sampledBytes.merge(partition, recordBytes, Long::sum);
+                    sampledRecords.merge(partition, 1, Integer::sum);
+                }
+            }
+        }
+        finally {
+            kafkaConsumer.unsubscribe();
+        }
+
+        Map<TopicPartition, Double> bytesPerRecord = new HashMap<>();
+        sampledRecords.forEach((partition, count) -> bytesPerRecord.put(partition, (double) sampledBytes.get(partition) / count));
+        return bytesPerRecord;
+    }
+
     /**
      * Create the arrow schema for a specific topic. In the metadata
      * we keep the additional information of topic schema and fields.
@@ -493,6 +675,9 @@ public class KafkaMetadataHandler extends MetadataHandler
             // Putting the additional schema level information into the metadata in ArrowType schema.
             schemaBuilder.addMetadata("dataFormat", topicSchema.getMessage().getDataFormat());
         }
+        // The record timestamp is not part of the message, it is filled from the metadata of each record.
+        // It is added last so that it replaces a message field of the same name.
+        schemaBuilder.addField(KafkaConstants.MESSAGE_TIMESTAMP_COLUMN, Types.MinorType.DATEMILLI.getType());
         // NOTE: these values are being shoved in here for usage later in the calling context
         // of doGetTable() since Java doesn't have tuples.
         schemaBuilder.addMetadata("glueRegistryName", glueRegistryName);
@@ -501,6 +686,45 @@ public class KafkaMetadataHandler extends MetadataHandler
         return schemaBuilder.build();
     }
 
+    /**
+     * Moves the start offset of each topic partition to the earliest offset whose timestamp is greater than
+     * or equal to the given timestamp, using the time index of the kafka broker (offsetsForTimes). Every record
+     * before that offset has a smaller timestamp, so no matching record is skipped.
+     *
+     * The end offsets are not narrowed: record timestamps are not ordered within a partition when they are
+     * set by the producer, so a record after the first offset past an upper bound may still match.
+     *
+     * @param topicPartitions - the partitions of the topic
+     * @param startOffsets - start offset of each partition, updated in place
+     * @param endOffsets - end offset of each partition
+     * @param minTimestamp - the lowest record timestamp (epoch millis) the query reads
+     */
+    @VisibleForTesting
+    void narrowStartOffsetsByTimestamp(
+            List<TopicPartition> topicPartitions,
+            Map<TopicPartition, Long> startOffsets,
+            Map<TopicPartition, Long> endOffsets,
+            long minTimestamp)
+    {
+        Map<TopicPartition, Long> timestampsToSearch = new HashMap<>();
+        topicPartitions.forEach(it -> timestampsToSearch.put(it, minTimestamp));
+        Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes = kafkaConsumer.offsetsForTimes(timestampsToSearch);
+        for (TopicPartition partition : topicPartitions) {
+            OffsetAndTimestamp offsetAndTimestamp = offsetsForTimes.get(partition);
+            // No message has been written with a timestamp at or after the lower bound, nothing to read from this partition.
+            long startOffset = offsetAndTimestamp == null ? endOffsets.get(partition) : offsetAndTimestamp.offset();
+            startOffsets.put(partition, Math.max(startOffsets.get(partition), startOffset));
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            topicPartitions.forEach(it -> {
+                LOGGER.debug("[KafkaPartitionOffset] narrowed offset info [topic: {}, partition: {}, start-offset: {}, end-offset: {}]",
+                        it.topic(), it.partition(), startOffsets.get(it), endOffsets.get(it)
+                );
+            });
+        }
+    }
+
     /**
      * Splits topic partition into smaller piece and calculates
      * the start and end offsets of each piece.
@@ -510,12 +734,25 @@ public class KafkaMetadataHandler extends MetadataHandler
      * @return {@link List<TopicPartitionPiece>}
      */
     public  List<TopicPartitionPiece> pieceTopicPartition(long startOffset, long endOffset)
+    {
+        return pieceTopicPartition(startOffset, endOffset, MAX_RECORDS_IN_SPLIT);
+    }
+
+    /**
+     * Splits topic partition into pieces of the given number of records.
+     *
+     * @param startOffset - the first offset of topic partition
+     * @param endOffset - the last offset of topic partition
+     * @param recordsInSplit - the number of records of a piece
+     * @return {@link List<TopicPartitionPiece>}
+     */
+    public List<TopicPartitionPiece> pieceTopicPartition(long startOffset, long endOffset, long recordsInSplit)
     {
         List<TopicPartitionPiece> topicPartitionPieces = new ArrayList<>();
 
-        // If endOffset + 1 is smaller or equal to MAX_RECORDS_IN_SPLIT then we do not
+        // If endOffset + 1 is smaller or equal to recordsInSplit then we do not
         // need to piece the topic partition.
-        if (endOffset + 1 <= startOffset + MAX_RECORDS_IN_SPLIT) {
+        if (endOffset + 1 <= startOffset + recordsInSplit) {
             topicPartitionPieces.add(new TopicPartitionPiece(startOffset, endOffset));
             return topicPartitionPieces;
         }
@@ -525,19 +762,19 @@ public class KafkaMetadataHandler extends MetadataHandler
 
         // We need to piece the partition basing its end offset.
         // Calculate the number of pieces for the topic partition.
-        int pieces = (int) Math.ceil((float) totalOffset / (float) MAX_RECORDS_IN_SPLIT);
+        int pieces = (int) Math.ceil((float) totalOffset / (float) recordsInSplit);
 
         // Set the start and end offset for the first piece
         long xOffset = startOffset;
-        long yOffset = startOffset + MAX_RECORDS_IN_SPLIT;
+        long yOffset = startOffset + recordsInSplit;
 
         // Now we will traverse on loop for the calculated pieces and
         // keep calculating the start and end offsets for each piece
         // until we reach to the end of loop.
-        for (int i = 0; i < pieces; i++) {
+        for (int i = 0; i < pieces && xOffset <= endOffset; i++) {
             topicPartitionPieces.add(new TopicPartitionPiece(xOffset, yOffset));
             xOffset = yOffset + 1;
-            yOffset = xOffset + MAX_RECORDS_IN_SPLIT;
+            yOffset = xOffset + recordsInSplit;
 
             // The last yOffset of the last piece must not be greater than the endOffset
             // of the topic partition, it will be at least equal to endOffset of the topic partition.
@@ -24,10 +24,12 @@ import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connector.util.ResourcePool;
 import com.amazonaws.athena.connectors.kafka.dto.KafkaField;
 import com.amazonaws.athena.connectors.kafka.dto.SplitParameters;
 import com.amazonaws.athena.connectors.kafka.dto.TopicResultSet;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 import org.apache.avro.Schema;
@@ -44,7 +46,12 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.AVRO_DATA_FORMAT;
@@ -55,6 +62,11 @@ public class KafkaRecordHandler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaRecordHandler.class);
     private static final int MAX_EMPTY_RESULT_FOUND_COUNT = 3;
+    // Must not exceed the max rows per call of the BlockSpiller.
+    private static final int MAX_ROWS_PER_WRITE = 100;
+
+    // Lives as long as the lambda container, so consumers are reused across splits.
+    private final ResourcePool<Consumer<?, ?>> consumerPool;
 
     KafkaRecordHandler(java.util.Map<String, String> configOptions)
     {
@@ -69,6 +81,10 @@ public class KafkaRecordHandler
     public KafkaRecordHandler(S3Client amazonS3, SecretsManagerClient secretsManager, AthenaClient athena, java.util.Map<String, String> configOptions)
     {
         super(amazonS3, secretsManager, athena, KafkaConstants.KAFKA_SOURCE, configOptions);
+        this.consumerPool = new ResourcePool<>(
+                Integer.parseInt(configOptions.getOrDefault(KafkaConstants.CONSUMER_POOL_SIZE, String.valueOf(KafkaConstants.DEFAULT_CONSUMER_POOL_SIZE))),
+                Long.parseLong(configOptions.getOrDefault(KafkaConstants.CONSUMER_POOL_IDLE_MS, String.valueOf(KafkaConstants.DEFAULT_CONSUMER_POOL_IDLE_MS))),
+                Consumer::unsubscribe);
     }
 
     /**
@@ -81,96 +97,94 @@ public class KafkaRecordHandler
     @Override
     public void readWithConstraint(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker) throws Exception
     {
-        // Taking the Split parameters in a readable pojo format.
-        SplitParameters splitParameters = KafkaUtils.createSplitParam(recordsRequest.getSplit().getProperties());
+        // Taking the Split parameters in a readable pojo format, a merged split has more than one piece.
+        List<SplitParameters> splitParameters = KafkaUtils.createSplitParams(recordsRequest.getSplit().getProperties());
         LOGGER.info("[kafka] {} RecordHandler running", splitParameters);
-        // Set which topic and partition we are going to read.
-        TopicPartition partition = new TopicPartition(splitParameters.topic, splitParameters.partition);
-        Collection<TopicPartition> partitions = com.google.common.collect.ImmutableList.of(partition);
         GlueRegistryReader registryReader = new GlueRegistryReader();
 
         String dataFormat = registryReader.getGlueSchemaType(recordsRequest.getTableName().getSchemaName(), recordsRequest.getTableName().getTableName());
+        // The record timestamp column is filled from the record metadata, the messages are decoded without it.
+        org.apache.arrow.vector.types.pojo.Schema valueSchema = KafkaUtils.getValueSchema(recordsRequest.getSchema());
+        String poolKey = KafkaUtils.getConsumerPoolKey(dataFormat, valueSchema, configOptions);
         if (dataFormat.equalsIgnoreCase(AVRO_DATA_FORMAT)) {
-            try (Consumer<String, GenericRecord> kafkaAvroConsumer = KafkaUtils.getAvroKafkaConsumer(configOptions)) {
-                // Assign the topic and partition into this consumer.
-                kafkaAvroConsumer.assign(partitions);
-
-                // Setting the start offset from where we are interested to read data from topic partition.
-                // We have configured this start offset when we had created the split on MetadataHandler.
-                kafkaAvroConsumer.seek(partition, splitParameters.startOffset);
-
-                // If endOffsets is 0 that means there is no data close consumer and exit
-                Map<TopicPartition, Long> endOffsets = kafkaAvroConsumer.endOffsets(partitions);
-                if (endOffsets.get(partition) == 0) {
-                    LOGGER.debug("[kafka] topic does not have data, closing consumer {}", splitParameters);
-                    kafkaAvroConsumer.close();
-
-                    // For debug insight
-                    splitParameters.info = "endOffset is 0 i.e partition does not have data";
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug(splitParameters.debug());
-                    }
-                    return;
-                }
-                // Consume topic data
-                avroConsume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaAvroConsumer);
-            }
+            // The avro values only hold the projected columns, the other fields are skipped while decoding.
+            Consumer<String, GenericRecord> kafkaAvroConsumer = consumerPool.acquire(poolKey, () -> KafkaUtils.getAvroKafkaConsumer(valueSchema, configOptions));
+            read(spiller, queryStatusChecker, splitParameters, poolKey, kafkaAvroConsumer, this::writeAvroRecord);
         }
         else if (dataFormat.equalsIgnoreCase(PROTOBUF_DATA_FORMAT)) {
-            try (Consumer<String, DynamicMessage> kafkaProtobufConsumer = KafkaUtils.getProtobufKafkaConsumer(configOptions)) {
-                // Assign the topic and partition into this consumer.
-                kafkaProtobufConsumer.assign(partitions);
-
-                // Setting the start offset from where we are interested to read data from topic partition.
-                // We have configured this start offset when we had created the split on MetadataHandler.
-                kafkaProtobufConsumer.seek(partition, splitParameters.startOffset);
-
-                // If endOffsets is 0 that means there is no data close consumer and exit
-                Map<TopicPartition, Long> endOffsets = kafkaProtobufConsumer.endOffsets(partitions);
-                if (endOffsets.get(partition) == 0) {
-                    LOGGER.debug("[kafka] topic does not have data, closing consumer {}", splitParameters);
-                    kafkaProtobufConsumer.close();
+            Consumer<String, DynamicMessage> kafkaProtobufConsumer = consumerPool.acquire(poolKey, () -> KafkaUtils.getProtobufKafkaConsumer(configOptions));
+            read(spiller, queryStatusChecker, splitParameters, poolKey, kafkaProtobufConsumer, this::writeProtobufRecord);
+        }
+        else {
+            // Consumer that MUST not belong to any consumer group.
+            Consumer<String, TopicResultSet> kafkaConsumer = consumerPool.acquire(poolKey, () -> KafkaUtils.getKafkaConsumer(valueSchema, configOptions));
+            read(spiller, queryStatusChecker, splitParameters, poolKey, kafkaConsumer, this::writeTopicResultSet);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            splitParameters.forEach(it -> LOGGER.debug(it.debug()));
+        }
+    }
 
-                    // For debug insight
-                    splitParameters.info = "endOffset is 0 i.e partition does not have data";
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug(splitParameters.debug());
-                    }
-                    return;
-                }
-                // Consume topic data
-                protobufConsume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaProtobufConsumer);
+    /**
+     * Assigns the topic partition of each piece of the split to the consumer, consumes it and gives the consumer
+     * back to the pool. A consumer that failed while reading is closed instead of pooled.
+     *
+     * @param spiller - instance of {@link BlockSpiller}
+     * @param queryStatusChecker - instance of {@link QueryStatusChecker}
+     * @param pieces - the {@link SplitParameters} of each piece of the split
+     * @param poolKey - the key the consumer was acquired with
+     * @param consumer - instance of {@link Consumer}
+     * @param fieldWriter - writes the fields of one record value into the block
+     */
+    private <T> void read(
+            BlockSpiller spiller,
+            QueryStatusChecker queryStatusChecker,
+            List<SplitParameters> pieces,
+            String poolKey,
+            Consumer<String, T> consumer,
+            RecordFieldWriter<T> fieldWriter)
+    {
+        try {
+            for (SplitParameters splitParameters : pieces) {
+                readPiece(spiller, queryStatusChecker, splitParameters, consumer, fieldWriter);
             }
         }
-        else {
-            // Initiate new KafkaConsumer that MUST not belong to any consumer group.
-            try (Consumer<String, TopicResultSet> kafkaConsumer = KafkaUtils.getKafkaConsumer(recordsRequest.getSchema(), configOptions)) {
-                // Assign the topic and partition into this consumer.
-                kafkaConsumer.assign(partitions);
+        catch (RuntimeException ex) {
+            consumerPool.invalidate(consumer);
+            throw ex;
+        }
+        consumerPool.release(poolKey, consumer);
+    }
 
-                // Setting the start offset from where we are interested to read data from topic partition.
-                // We have configured this start offset when we had created the split on MetadataHandler.
-                kafkaConsumer.seek(partition, splitParameters.startOffset);
+    private <T> void readPiece(
+            BlockSpiller spiller,
+            QueryStatusChecker queryStatusChecker,
+            SplitParameters splitParameters,
+            Consumer<String, T> consumer,
+            RecordFieldWriter<T> fieldWriter)
+    {
+        // Set which topic and partition we are going to read.
+        TopicPartition partition = new TopicPartition(splitParameters.topic, splitParameters.partition);
+        Collection<TopicPartition> partitions = ImmutableList.of(partition);
 
-                // If endOffsets is 0 that means there is no data close consumer and exit
-                Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(partitions);
-                if (endOffsets.get(partition) == 0) {
-                    LOGGER.debug("[kafka] topic does not have data, closing consumer {}", splitParameters);
-                    kafkaConsumer.close();
+        // Assign the topic and partition into this consumer.
+        consumer.assign(partitions);
 
-                    // For debug insight
-                    splitParameters.info = "endOffset is 0 i.e partition does not have data";
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug(splitParameters.debug());
-                    }
-                    return;
-                }
-                // Consume topic data
-                consume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaConsumer);
-            }
+        // Setting the start offset from where we are interested to read data from topic partition.
+        // We have configured this start offset when we had created the split on MetadataHandler.
+        consumer.seek(partition, splitParameters.startOffset);
+
+        // If endOffsets is 0 that means there is no data, skip the piece
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        if (endOffsets.get(partition) == 0) {
+            LOGGER.debug("[kafka] topic does not have data, skipping piece {}", splitParameters);
+
+            // For debug insight
+            splitParameters.info = "endOffset is 0 i.e partition does not have data";
         }
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug(splitParameters.debug());
+        else {
+            // Consume topic data
+            consume(spiller, queryStatusChecker, splitParameters, consumer, fieldWriter);
         }
     }
 
@@ -178,278 +192,166 @@ public class KafkaRecordHandler
      * Consume topic data as batch.
      *
      * @param spiller - instance of {@link BlockSpiller}
-     * @param recordsRequest - instance of {@link ReadRecordsRequest}
      * @param queryStatusChecker - instance of {@link QueryStatusChecker}
      * @param splitParameters - instance of {@link SplitParameters}
-     * @param kafkaConsumer - instance of {@link KafkaConsumer}
+     * @param consumer - instance of {@link KafkaConsumer}
+     * @param fieldWriter - writes the fields of one record value into the block
      */
-    private void consume(
+    private <T> void consume(
             BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
             QueryStatusChecker queryStatusChecker,
             SplitParameters splitParameters,
-            Consumer<String, TopicResultSet> kafkaConsumer)
+            Consumer<String, T> consumer,
+            RecordFieldWriter<T> fieldWriter)
     {
         LOGGER.info("[kafka] {} Polling for data", splitParameters);
+        Duration pollTimeout = KafkaUtils.getPollTimeout(configOptions);
         int emptyResultFoundCount = 0;
-        try (Consumer<String, TopicResultSet> consumer = kafkaConsumer) {
-            while (true) {
-                if (!queryStatusChecker.isQueryRunning()) {
-                    LOGGER.debug("[kafka]{}  Stopping and closing consumer due to query execution terminated by athena", splitParameters);
-                    splitParameters.info = "query status is false i.e no need to work";
-                    return;
-                }
+        List<ConsumerRecord<String, T>> batch = new ArrayList<>(MAX_ROWS_PER_WRITE);
+        while (true) {
+            if (!queryStatusChecker.isQueryRunning()) {
+                LOGGER.debug("[kafka]{}  Stopping consumer due to query execution terminated by athena", splitParameters);
+                splitParameters.info = "query status is false i.e no need to work";
+                return;
+            }
 
-                // Call the poll on consumer to fetch data from kafka server
-                // poll returns data as batch which can be configured.
-                ConsumerRecords<String, TopicResultSet> records = consumer.poll(Duration.ofSeconds(1L));
-                LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
+            // Call the poll on consumer to fetch data from kafka server
+            // poll returns data as batch which can be configured.
+            ConsumerRecords<String, T> records = consumer.poll(pollTimeout);
+            LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
 
-                // For debug insight
-                splitParameters.pulled += records.count();
+            // For debug insight
+            splitParameters.pulled += records.count();
 
-                // Keep track for how many times we are getting empty result for the polling call.
-                if (records.count() == 0) {
-                    emptyResultFoundCount++;
-                }
+            // Keep track for how many times we are getting empty result for the polling call.
+            if (records.count() == 0) {
+                emptyResultFoundCount++;
+            }
 
-                // We will close KafkaConsumer if we are getting empty result again and again.
-                // Here we are comparing with a max threshold (MAX_EMPTY_RESULT_FOUNT_COUNT) to
-                // stop the polling.
-                if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
-                    LOGGER.debug("[kafka] {} Closing consumer due to getting empty result from broker", splitParameters);
-                    splitParameters.info = "always getting empty data i.e leaving from work";
-                    return;
-                }
+            // We will stop polling if we are getting empty result again and again.
+            // Here we are comparing with a max threshold (MAX_EMPTY_RESULT_FOUNT_COUNT) to
+            // stop the polling.
+            if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
+                LOGGER.debug("[kafka] {} Stopping consumer due to getting empty result from broker", splitParameters);
+                splitParameters.info = "always getting empty data i.e leaving from work";
+                return;
+            }
 
-                for (ConsumerRecord<String, TopicResultSet> record : records) {
-                    // Pass batch data one by one to be processed to execute. execute method is
-                    // a kind of abstraction to keep data filtering and writing on spiller separate.
-                    execute(spiller, recordsRequest, queryStatusChecker, splitParameters, record);
+            // The polled records are written to the spiller in batches of up to MAX_ROWS_PER_WRITE rows
+            // instead of dispatching through the spiller once per record.
+            boolean reachedEndOffset = false;
+            for (ConsumerRecord<String, T> record : records) {
+                if (record == null || record.value() == null) {
+                    LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
+                }
+                else {
+                    batch.add(record);
+                    if (batch.size() >= MAX_ROWS_PER_WRITE) {
+                        writeBatch(spiller, splitParameters, batch, fieldWriter);
+                    }
+                }
 
-                    // If we have reached at the end offset of the partition. we will not continue
-                    // to call the polling.
-                    if (record.offset() >= splitParameters.endOffset) {
-                        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
+                // If we have reached at the end offset of the partition. we will not continue
+                // to call the polling.
+                if (record != null && record.offset() >= splitParameters.endOffset) {
+                    LOGGER.debug("[kafka] {} Stopping consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
 
-                        // For debug insight
-                        splitParameters.info = String.format(
-                                "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
-                                record.offset(),
-                                splitParameters.endOffset
-                        );
-                        return;
-                    }
+                    // For debug insight
+                    splitParameters.info = String.format(
+                            "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
+                            record.offset(),
+                            splitParameters.endOffset
+                    );
+                    reachedEndOffset = true;
+                    break;
                 }
             }
+            writeBatch(spiller, splitParameters, batch, fieldWriter);
+            if (reachedEndOffset) {
+                return;
+            }
         }
     }
 
     /**
-     * Abstraction to keep the data filtering and writing on spiller separate.
+     * Writes a batch of records to the spiller with a single call. Records that do not satisfy
+     * the constraints are not counted, so the next record is written into the same row.
      *
      * @param spiller - instance of {@link BlockSpiller}
-     * @param recordsRequest - instance of {@link ReadRecordsRequest}
-     * @param queryStatusChecker - instance of {@link QueryStatusChecker}
      * @param splitParameters - instance of {@link SplitParameters}
-     * @param record - instance of {@link ConsumerRecord}
+     * @param batch - the records to write, cleared once written
+     * @param fieldWriter - writes the fields of one record value into the block
      */
-    private void execute(
+    private <T> void writeBatch(
             BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
             SplitParameters splitParameters,
-            ConsumerRecord<String, TopicResultSet> record)
+            List<ConsumerRecord<String, T>> batch,
+            RecordFieldWriter<T> fieldWriter)
     {
-        final boolean[] isExecuted = {false};
-        if (record == null || record.value() == null) {
-            LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
+        if (batch.isEmpty()) {
             return;
         }
         spiller.writeRows((Block block, int rowNum) -> {
-            for (KafkaField field : record.value().getFields()) {
-                boolean isMatched = block.offerValue(field.getName(), rowNum, field.getValue());
-                if (!isMatched) {
+            int written = 0;
+            for (ConsumerRecord<String, T> record : batch) {
+                if (writeTimestamp(block, rowNum + written, record) && fieldWriter.write(block, rowNum + written, record.value())) {
+                    written++;
+                }
+                else {
                     LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
                 }
             }
             // For debug insight
-            splitParameters.spilled += 1;
-            return 1;
+            splitParameters.spilled += written;
+            return written;
         });
+        batch.clear();
     }
 
-    private void avroConsume(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            Consumer<String, GenericRecord> kafkaAvroConsumer)
+    private boolean writeTimestamp(Block block, int rowNum, ConsumerRecord<?, ?> record)
     {
-        LOGGER.info("[kafka] {} Polling for data", splitParameters);
-        int emptyResultFoundCount = 0;
-        try (Consumer<String, GenericRecord> avroConsumer = kafkaAvroConsumer) {
-            while (true) {
-                if (!queryStatusChecker.isQueryRunning()) {
-                    LOGGER.debug("[kafka]{}  Stopping and closing consumer due to query execution terminated by athena", splitParameters);
-                    splitParameters.info = "query status is false i.e no need to work";
-                    return;
-                }
-
-                // Call the poll on consumer to fetch data from kafka server
-                // poll returns data as batch which can be configured.
-                ConsumerRecords<String, GenericRecord> records = avroConsumer.poll(Duration.ofSeconds(1L));
-                LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
-
-                // For debug insight
-                splitParameters.pulled += records.count();
-
-                // Keep track for how many times we are getting empty result for the polling call.
-                if (records.count() == 0) {
-                    emptyResultFoundCount++;
-                }
-
-                // We will close KafkaConsumer if we are getting empty result again and again.
-                // Here we are comparing with a max threshold (MAX_EMPTY_RESULT_FOUNT_COUNT) to
-                // stop the polling.
-                if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
-                    LOGGER.debug("[kafka] {} Closing consumer due to getting empty result from broker", splitParameters);
-                    splitParameters.info = "always getting empty data i.e leaving from work";
-                    return;
-                }
-
-                for (ConsumerRecord<String, GenericRecord> record : records) {
-                    // Pass batch data one by one to be processed to execute. execute method is
-                    // a kind of abstraction to keep data filtering and writing on spiller separate.
-                    avroExecute(spiller, recordsRequest, queryStatusChecker, splitParameters, record);
-
-                    // If we have reached at the end offset of the partition. we will not continue
-                    // to call the polling.
-                    if (record.offset() >= splitParameters.endOffset) {
-                        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC);
+        return block.offerValue(KafkaConstants.MESSAGE_TIMESTAMP_COLUMN, rowNum, timestamp);
+    }
 
-                        // For debug insight
-                        splitParameters.info = String.format(
-                                "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
-                                record.offset(),
-                                splitParameters.endOffset
-                        );
-                        return;
-                    }
-                }
+    private boolean writeTopicResultSet(Block block, int rowNum, TopicResultSet value)
+    {
+        for (KafkaField field : value.getFields()) {
+            if (!block.offerValue(field.getName(), rowNum, field.getValue())) {
+                return false;
             }
         }
+        return true;
     }
 
-    private void avroExecute(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            ConsumerRecord<String, GenericRecord> record)
+    private boolean writeAvroRecord(Block block, int rowNum, GenericRecord value)
     {
-        if (record == null || record.value() == null) {
-            LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
-            return; // Skip processing this record
-        }
-        spiller.writeRows((Block block, int rowNum) -> {
-            for (Schema.Field next : record.value().getSchema().getFields()) {
-                boolean isMatched = block.offerValue(next.name(), rowNum, record.value().get(next.name()));
-                if (!isMatched) {
-                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
-                }
+        for (Schema.Field next : value.getSchema().getFields()) {
+            if (!block.offerValue(next.name(), rowNum, value.get(next.name()))) {
+                return false;
             }
-            // For debug insight
-            splitParameters.spilled += 1;
-            return 1;
-        });
+        }
+        return true;
     }
 
-    private void protobufConsume(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            Consumer<String, DynamicMessage> kafkaProtobufConsumer)
+    private boolean writeProtobufRecord(Block block, int rowNum, DynamicMessage value)
     {
-        LOGGER.info("[kafka] {} Polling for data", splitParameters);
-        int emptyResultFoundCount = 0;
-        try (Consumer<String, DynamicMessage> protobufConsumer = kafkaProtobufConsumer) {
-            while (true) {
-                if (!queryStatusChecker.isQueryRunning()) {
-                    LOGGER.debug("[kafka]{}  Stopping and closing consumer due to query execution terminated by athena", splitParameters);
-                    splitParameters.info = "query status is false i.e no need to work";
-                    return;
-                }
-
-                // Call the poll on consumer to fetch data from kafka server
-                // poll returns data as batch which can be configured.
-                ConsumerRecords<String, DynamicMessage> records = protobufConsumer.poll(Duration.ofSeconds(1L));
-                LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
-
-                // For debug insight
-                splitParameters.pulled += records.count();
-
-                // Keep track for how many times we are getting empty result for the polling call.
-                if (records.count() == 0) {
-                    emptyResultFoundCount++;
-                }
-
-                // We will close KafkaConsumer if we are getting empty result again and again.
-                // Here we are comparing with a max threshold (MAX_EMPTY_RESULT_FOUNT_COUNT) to
-                // stop the polling.
-                if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
-                    LOGGER.debug("[kafka] {} Closing consumer due to getting empty result from broker", splitParameters);
-                    splitParameters.info = "always getting empty data i.e leaving from work";
-                    return;
-                }
-
-                for (ConsumerRecord<String, DynamicMessage> record : records) {
-                    // Pass batch data one by one to be processed to execute. execute method is
-                    // a kind of abstraction to keep data filtering and writing on spiller separate.
-                    protobufExecute(spiller, recordsRequest, queryStatusChecker, splitParameters, record);
-
-                    // If we have reached at the end offset of the partition. we will not continue
-                    // to call the polling.
-                    if (record.offset() >= splitParameters.endOffset) {
-                        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
-
-                        // For debug insight
-                        splitParameters.info = String.format(
-                                "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
-                                record.offset(),
-                                splitParameters.endOffset
-                        );
-                        return;
-                    }
-                }
+        for (Descriptors.FieldDescriptor next : value.getAllFields().keySet()) {
+            if (!block.offerValue(next.getName(), rowNum, value.getField(next))) {
+                return false;
             }
         }
+        return true;
     }
-    private void protobufExecute(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            ConsumerRecord<String, DynamicMessage> record)
+
+    /**
+     * Writes the fields of a single record value into the given row of the block.
+     */
+    private interface RecordFieldWriter<T>
     {
-        if (record == null || record.value() == null) {
-            LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
-            return; // Skip processing this record
-        }
-        spiller.writeRows((Block block, int rowNum) -> {
-            for (Descriptors.FieldDescriptor next : record.value().getAllFields().keySet()) {
-                boolean isMatched = block.offerValue(next.getName(), rowNum, record.value().getField(next));
-                if (!isMatched) {
-                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
-                }
-            }
-            // For debug insight
-            splitParameters.spilled += 1;
-            return 1;
-        });
+        /**
+         * @return false if a value did not satisfy the constraints, so the row must not be counted
+         */
+        boolean write(Block block, int rowNum, T value);
     }
 }
@@ -19,16 +19,24 @@
  */
 package com.amazonaws.athena.connectors.kafka;
 
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connectors.kafka.dto.Message;
 import com.amazonaws.athena.connectors.kafka.dto.SplitParameters;
 import com.amazonaws.athena.connectors.kafka.dto.TopicResultSet;
+import com.amazonaws.athena.connectors.kafka.serde.KafkaAvroProjectionDeserializer;
 import com.amazonaws.athena.connectors.kafka.serde.KafkaCsvDeserializer;
 import com.amazonaws.athena.connectors.kafka.serde.KafkaJsonDeserializer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.protobuf.DynamicMessage;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.commons.lang3.StringUtils;
@@ -56,9 +64,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class KafkaUtils
 {
@@ -154,12 +169,23 @@ public class KafkaUtils
         );
     }
 
-    public static Consumer<String, GenericRecord> getAvroKafkaConsumer(java.util.Map<String, String> configOptions) throws Exception
+    /**
+     * Creates a kafka consumer for avro topics which only decodes the columns of the given
+     * (projected) schema, see {@link KafkaAvroProjectionDeserializer}.
+     *
+     * @param schema - the projected schema of the query
+     * @return {@link Consumer}
+     * @throws Exception - {@link Exception}
+     */
+    public static Consumer<String, GenericRecord> getAvroKafkaConsumer(Schema schema, java.util.Map<String, String> configOptions) throws Exception
     {
         Properties properties = getKafkaProperties(configOptions);
-        properties.setProperty(KAFKA_VALUE_DESERIALIZER_CLASS_CONFIG, io.confluent.kafka.serializers.KafkaAvroDeserializer.class.getName());
-        properties.setProperty(KAFKA_SCHEMA_REGISTRY_URL, getRequiredConfig(KafkaConstants.KAFKA_SCHEMA_REGISTRY_URL, configOptions));
-        return new KafkaConsumer<>(properties);
+        String schemaRegistryUrl = getRequiredConfig(KafkaConstants.KAFKA_SCHEMA_REGISTRY_URL, configOptions);
+        return new KafkaConsumer<>(
+                properties,
+                new StringDeserializer(),
+                new KafkaAvroProjectionDeserializer(schemaRegistryUrl, schema)
+        );
     }
 
     public static Consumer<String, DynamicMessage> getProtobufKafkaConsumer(java.util.Map<String, String> configOptions) throws Exception
@@ -185,8 +211,10 @@ public class KafkaUtils
         properties.setProperty(KAFKA_EXCLUDE_INTERNAL_TOPICS_CONFIG, "true");
         properties.setProperty(KAFKA_ENABLE_AUTO_COMMIT_CONFIG, "false");
         properties.setProperty(KAFKA_AUTO_OFFSET_RESET_CONFIG, "earliest");
-        properties.setProperty(KAFKA_MAX_POLL_RECORDS_CONFIG, "10000");
-        properties.setProperty(KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG, "1048576");
+        properties.setProperty(KAFKA_MAX_POLL_RECORDS_CONFIG,
+                configOptions.getOrDefault(KafkaConstants.MAX_POLL_RECORDS, KafkaConstants.DEFAULT_MAX_POLL_RECORDS));
+        properties.setProperty(KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG,
+                configOptions.getOrDefault(KafkaConstants.MAX_PARTITION_FETCH_BYTES, KafkaConstants.DEFAULT_MAX_PARTITION_FETCH_BYTES));
         properties.setProperty(KAFKA_KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
 
         //fetch authentication type for the kafka cluster
@@ -401,6 +429,40 @@ public class KafkaUtils
         return value;
     }
 
+    /**
+     * Builds the key under which consumers are pooled. Consumers can only be shared when they
+     * talk to the same cluster with the same credentials, and decode the values the same way.
+     *
+     * @param dataFormat - the data format of the topic
+     * @param schema - the table schema, the json, csv and avro deserializers are bound to it
+     * @return the pool key
+     */
+    public static String getConsumerPoolKey(String dataFormat, Schema schema, java.util.Map<String, String> configOptions)
+    {
+        StringBuilder key = new StringBuilder();
+        key.append(configOptions.get(KafkaConstants.ENV_KAFKA_ENDPOINT)).append('|');
+        key.append(configOptions.get(KafkaConstants.AUTH_TYPE)).append('|');
+        key.append(configOptions.get(KafkaConstants.SECRET_MANAGER_KAFKA_CREDS_NAME)).append('|');
+        key.append(configOptions.get(KafkaConstants.CERTIFICATES_S3_REFERENCE)).append('|');
+        key.append(configOptions.get(KafkaConstants.KAFKA_SCHEMA_REGISTRY_URL)).append('|');
+        key.append(dataFormat.toLowerCase());
+        if (!dataFormat.equalsIgnoreCase(KafkaConstants.PROTOBUF_DATA_FORMAT)) {
+            key.append('|').append(schema.toJson());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Gets how long a single poll waits for records.
+     *
+     * @return {@link Duration}
+     */
+    public static Duration getPollTimeout(java.util.Map<String, String> configOptions)
+    {
+        String pollTimeout = configOptions.get(KafkaConstants.POLL_TIMEOUT_MS);
+        return Duration.ofMillis(StringUtils.isBlank(pollTimeout) ? KafkaConstants.DEFAULT_POLL_TIMEOUT_MS : Long.parseLong(pollTimeout.trim()));
+    }
+
     /**
      * Translates Split parameters as readable pojo format.
      *
@@ -416,6 +478,86 @@ public class KafkaUtils
         return new SplitParameters(topic, partition, startOffset, endOffset);
     }
 
+    /**
+     * Creates the parameters of every piece the split has to read. A merged split carries
+     * several small partitions of the topic, any other split a single partition range.
+     *
+     * @param params - the properties of the split
+     * @return {@link List<SplitParameters>}
+     */
+    public static List<SplitParameters> createSplitParams(Map<String, String> params)
+    {
+        String pieces = params.get(SplitParameters.PIECES);
+        if (StringUtils.isBlank(pieces)) {
+            return ImmutableList.of(createSplitParam(params));
+        }
+
+        String topic = params.get(SplitParameters.TOPIC);
+        List<SplitParameters> splitParameters = new ArrayList<>();
+        for (String piece : pieces.split(",")) {
+            String[] values = piece.split(":");
+            splitParameters.add(new SplitParameters(topic, Integer.parseInt(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2])));
+        }
+        return splitParameters;
+    }
+
+    /**
+     * Gives the lower bound of the predicate on the record timestamp column, in epoch millis. Only the span of a
+     * {@link SortedRangeSet} is used, the exact predicate is still applied by the ConstraintEvaluator when the
+     * records are written to the spiller.
+     *
+     * @param constraints - the constraints of the query
+     * @return the lowest record timestamp the query reads, or null when there is nothing to push down
+     */
+    public static Long getMinMessageTimestamp(Constraints constraints)
+    {
+        if (constraints == null || constraints.getSummary() == null) {
+            return null;
+        }
+
+        ValueSet valueSet = constraints.getSummary().get(KafkaConstants.MESSAGE_TIMESTAMP_COLUMN);
+        if (!(valueSet instanceof SortedRangeSet) || valueSet.isNone()) {
+            return null;
+        }
+
+        Range span = ((SortedRangeSet) valueSet).getSpan();
+        return span.getLow().isNullValue() ? null : toEpochMillis(span.getLow());
+    }
+
+    /**
+     * Removes the record timestamp column, which is not part of the message, from the schema the messages are
+     * decoded with.
+     *
+     * @param schema - the schema of the request
+     * @return {@link Schema} of the message value
+     */
+    public static Schema getValueSchema(Schema schema)
+    {
+        List<Field> fields = schema.getFields().stream()
+                .filter(it -> !KafkaConstants.MESSAGE_TIMESTAMP_COLUMN.equals(it.getName()))
+                .collect(Collectors.toList());
+        return new Schema(fields, schema.getCustomMetadata());
+    }
+
+    private static Long toEpochMillis(Marker marker)
+    {
+        Object value = marker.getValue();
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        else if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        else if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).getTime();
+        }
+        else if (value instanceof Long) {
+            return (Long) value;
+        }
+        LOGGER.info("Skipping timestamp pushdown, unsupported value type {}", value == null ? null : value.getClass());
+        return null;
+    }
+
     /**
      * Converts string data type name to ArrowType.
      * After pulling schema from glue schema registry we use this method
@@ -25,6 +25,11 @@ public class SplitParameters
     public static final String PARTITION = "partition";
     public static final String START_OFFSET = "startOffset";
     public static final String END_OFFSET = "endOffset";
+    /**
+     * A merged split reads several small partitions of the same topic, one after the other.
+     * The pieces are encoded as comma separated partition:startOffset:endOffset triples.
+     */
+    public static final String PIECES = "pieces";
 
     public final String topic;
     public final int partition;
@@ -51,6 +56,14 @@ public class SplitParameters
         this.endOffset = endOffset;
     }
 
+    /**
+     * Encodes this piece for the {@link #PIECES} property of a merged split.
+     */
+    public String toPiece()
+    {
+        return partition + ":" + startOffset + ":" + endOffset;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * Athena Kafka Connector
+ * %%
+ * Copyright (C) 2019 - 2022 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.kafka.serde;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes avro messages in the confluent wire format (magic byte, 4 bytes schema id, avro binary)
+ * into records which only hold the columns projected by the query.
+ *
+ * The writer schema of the message is resolved against a reader schema made of the projected fields,
+ * so the avro decoder skips the other fields without materializing them. The datum readers of the most
+ * recent schema ids are kept by the deserializer, which lives as long as its pooled consumer.
+ */
+public class KafkaAvroProjectionDeserializer implements Deserializer<GenericRecord>
+{
+    private static final byte MAGIC_BYTE = 0x0;
+    private static final int HEADER_SIZE = 5;
+    private static final int SCHEMA_REGISTRY_CACHE_CAPACITY = 1000;
+
+    //Datum readers are bound to the projection of this deserializer, we keep the ones of the most recent writer schemas.
+    private static final int MAX_DATUM_READERS = 64;
+
+    private static final Map<String, SchemaRegistryClient> schemaRegistryClients = new ConcurrentHashMap<>();
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final Set<String> projectedColumns;
+    private final Map<Integer, DatumReader<GenericRecord>> datumReaders = new LinkedHashMap<Integer, DatumReader<GenericRecord>>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, DatumReader<GenericRecord>> eldest)
+        {
+            return size() > MAX_DATUM_READERS;
+        }
+    };
+    private BinaryDecoder decoder;
+
+    public KafkaAvroProjectionDeserializer(String schemaRegistryUrl, Schema schema)
+    {
+        this(schemaRegistryClients.computeIfAbsent(schemaRegistryUrl, url -> new CachedSchemaRegistryClient(url, SCHEMA_REGISTRY_CACHE_CAPACITY)),
+                schema);
+    }
+
+    @VisibleForTesting
+    public KafkaAvroProjectionDeserializer(SchemaRegistryClient schemaRegistryClient, Schema schema)
+    {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.projectedColumns = new TreeSet<>();
+        schema.getFields().forEach(field -> projectedColumns.add(field.getName().toLowerCase(Locale.ROOT)));
+    }
+
+    @Override
+    public GenericRecord deserialize(String topic, byte[] data)
+    {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < HEADER_SIZE || data[0] != MAGIC_BYTE) {
+            throw new SerializationException("Unknown magic byte in avro message of topic " + topic);
+        }
+
+        int schemaId = ByteBuffer.wrap(data, 1, 4).getInt();
+        try {
+            DatumReader<GenericRecord> datumReader = getDatumReader(schemaId);
+            decoder = DecoderFactory.get().binaryDecoder(data, HEADER_SIZE, data.length - HEADER_SIZE, decoder);
+            return datumReader.read(null, decoder);
+        }
+        catch (IOException | RestClientException e) {
+            throw new SerializationException("Error deserializing avro message of topic " + topic + " with schema id " + schemaId, e);
+        }
+    }
+
+    private DatumReader<GenericRecord> getDatumReader(int schemaId) throws IOException, RestClientException
+    {
+        DatumReader<GenericRecord> datumReader = datumReaders.get(schemaId);
+        if (datumReader == null) {
+            org.apache.avro.Schema writerSchema = ((AvroSchema) schemaRegistryClient.getSchemaById(schemaId)).rawSchema();
+            datumReader = new GenericDatumReader<>(writerSchema, projectSchema(writerSchema, projectedColumns));
+            datumReaders.put(schemaId, datumReader);
+        }
+        return datumReader;
+    }
+
+    /**
+     * Creates the reader schema holding only the projected fields of the writer schema.
+     *
+     * @param writerSchema - the avro schema the message was written with
+     * @param projectedColumns - lower case names of the projected columns
+     * @return the reader schema
+     */
+    @VisibleForTesting
+    static org.apache.avro.Schema projectSchema(org.apache.avro.Schema writerSchema, Set<String> projectedColumns)
+    {
+        List<org.apache.avro.Schema.Field> fields = new ArrayList<>();
+        for (org.apache.avro.Schema.Field field : writerSchema.getFields()) {
+            if (projectedColumns.contains(field.name().toLowerCase(Locale.ROOT))) {
+                fields.add(new org.apache.avro.Schema.Field(field, field.schema()));
+            }
+        }
+        return org.apache.avro.Schema.createRecord(writerSchema.getName(), writerSchema.getDoc(), writerSchema.getNamespace(), writerSchema.isError(), fields);
+    }
+}
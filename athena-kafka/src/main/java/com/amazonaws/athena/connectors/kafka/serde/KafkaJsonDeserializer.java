@@ -22,23 +22,44 @@ package com.amazonaws.athena.connectors.kafka.serde;
 import com.amazonaws.athena.connectors.kafka.dto.KafkaField;
 import com.amazonaws.athena.connectors.kafka.dto.Message;
 import com.amazonaws.athena.connectors.kafka.dto.TopicResultSet;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Decodes json messages in a single pass over the tokens of the message, without building a json tree.
+ *
+ * The top level keys the (projected) table schema maps to are resolved once, when the deserializer is created.
+ * Values of keys that are not mapped, including whole objects and arrays, are skipped by the parser.
+ * Field names are interned by the {@link JsonFactory}, so repeated keys do not allocate new strings.
+ */
 public class KafkaJsonDeserializer extends KafkaDeserializer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaJsonDeserializer.class);
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    // For each top level json key, the index of the schema fields mapped to it.
+    private final Map<String, List<Integer>> fieldsByMapping = new HashMap<>();
+    private final List<Field> fields;
 
     public KafkaJsonDeserializer(Schema schema)
     {
         super(schema);
+        this.fields = schema.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            String mapping = fields.get(i).getMetadata().get("mapping");
+            fieldsByMapping.computeIfAbsent(mapping, it -> new ArrayList<>()).add(i);
+        }
     }
 
     @Override
@@ -53,35 +74,57 @@ public class KafkaJsonDeserializer extends KafkaDeserializer
         topicResultSet.setTopicName(topic);
         topicResultSet.setDataFormat(Message.DATA_FORMAT_JSON);
 
-        try {
-            // Transforming the topic raw (json) data to JsonNode using ObjectMapper.
-            JsonNode json = objectMapper.readValue(new String(data, StandardCharsets.UTF_8), JsonNode.class);
-
-            // Creating Field object for each fields in raw data.
-            // Also putting additional information in fields from fields metadata.
-            schema.getFields().forEach(field -> {
-                String mapping = field.getMetadata().get("mapping");
-                try {
-                    topicResultSet.getFields().add(new KafkaField(
-                            field.getName(),
-                            mapping,
-                            field.getMetadata().get("type"),
-                            field.getMetadata().get("formatHint"),
-                            castValue(field, json.get(mapping).asText())
-                    ));
+        // Raw text value of each schema field, a field stays null when its key is not in the message.
+        String[] values = new String[fields.size()];
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Json message of topic " + topic + " is not an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                List<Integer> mappedFields = fieldsByMapping.get(parser.currentName());
+                JsonToken token = parser.nextToken();
+                if (mappedFields == null) {
+                    parser.skipChildren();
+                    continue;
                 }
-                catch (Exception e) {
-                    LOGGER.error("KafkaJsonDeserializer: Error in castValue : while converting raw value to typed value", e);
+
+                // Same text a json tree gives for the value, objects and arrays have none.
+                String value = token.isScalarValue() ? parser.getText() : "";
+                parser.skipChildren();
+                for (int index : mappedFields) {
+                    values[index] = value;
                 }
-            });
-            return topicResultSet;
+            }
         }
         catch (Exception e) {
             LOGGER.error("KafkaJsonDeserializer: Error when deserializing byte[] to TopicResultSet", e);
+            return topicResultSet;
         }
         finally {
             close();
         }
+
+        // Creating Field object for each fields in raw data.
+        // Also putting additional information in fields from fields metadata.
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            if (values[i] == null) {
+                LOGGER.debug("KafkaJsonDeserializer: key {} of field {} is not in the message", field.getMetadata().get("mapping"), field.getName());
+                continue;
+            }
+            try {
+                topicResultSet.getFields().add(new KafkaField(
+                        field.getName(),
+                        field.getMetadata().get("mapping"),
+                        field.getMetadata().get("type"),
+                        field.getMetadata().get("formatHint"),
+                        castValue(field, values[i])
+                ));
+            }
+            catch (Exception e) {
+                LOGGER.error("KafkaJsonDeserializer: Error in castValue : while converting raw value to typed value", e);
+            }
+        }
         return topicResultSet;
     }
 
@@ -92,7 +135,7 @@ public class KafkaJsonDeserializer extends KafkaDeserializer
      * @param value - raw value
      * @return Object
      */
-    private Object castValue(org.apache.arrow.vector.types.pojo.Field field, String value) throws Exception
+    private Object castValue(Field field, String value) throws Exception
     {
         return cast(field, value);
     }
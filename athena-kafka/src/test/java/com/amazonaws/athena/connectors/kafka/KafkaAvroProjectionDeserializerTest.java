@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Athena Kafka Connector
+ * %%
+ * Copyright (C) 2019 - 2022 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.kafka;
+
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connectors.kafka.serde.KafkaAvroProjectionDeserializer;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class KafkaAvroProjectionDeserializerTest
+{
+    private static final String AVRO_SCHEMA = "{\"type\":\"record\",\"name\":\"Greetings\",\"namespace\":\"com.example\",\"fields\":[" +
+            "{\"name\":\"id\",\"type\":\"int\"}," +
+            "{\"name\":\"name\",\"type\":\"string\"}," +
+            "{\"name\":\"greeting\",\"type\":\"string\"}]}";
+
+    private MockSchemaRegistryClient schemaRegistryClient;
+    private org.apache.avro.Schema avroSchema;
+    private int schemaId;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        schemaRegistryClient = new MockSchemaRegistryClient();
+        avroSchema = new org.apache.avro.Schema.Parser().parse(AVRO_SCHEMA);
+        schemaId = schemaRegistryClient.register("greetings-value", new AvroSchema(avroSchema));
+    }
+
+    @Test
+    public void testDeserializeProjectedColumns() throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("id")
+                .addStringField("greeting")
+                .build();
+        KafkaAvroProjectionDeserializer deserializer = new KafkaAvroProjectionDeserializer(schemaRegistryClient, schema);
+
+        GenericRecord record = deserializer.deserialize("greetings", serialize(1, "James", "hello"));
+        assertEquals(1, record.get("id"));
+        assertEquals("hello", record.get("greeting").toString());
+        assertNull(record.getSchema().getField("name"));
+
+        // the cached datum reader is reused for the next message
+        record = deserializer.deserialize("greetings", serialize(2, "Jane", "hi"));
+        assertEquals(2, record.get("id"));
+        assertEquals("hi", record.get("greeting").toString());
+    }
+
+    @Test
+    public void testDeserializeNull()
+    {
+        Schema schema = SchemaBuilder.newBuilder().addIntField("id").build();
+        KafkaAvroProjectionDeserializer deserializer = new KafkaAvroProjectionDeserializer(schemaRegistryClient, schema);
+        assertNull(deserializer.deserialize("greetings", null));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testDeserializeUnknownMagicByte()
+    {
+        Schema schema = SchemaBuilder.newBuilder().addIntField("id").build();
+        KafkaAvroProjectionDeserializer deserializer = new KafkaAvroProjectionDeserializer(schemaRegistryClient, schema);
+        deserializer.deserialize("greetings", new byte[] {0x1, 0x0, 0x0, 0x0, 0x1, 0x2});
+    }
+
+    private byte[] serialize(int id, String name, String greeting) throws Exception
+    {
+        GenericRecord record = new GenericData.Record(avroSchema);
+        record.put("id", id);
+        record.put("name", name);
+        record.put("greeting", greeting);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x0);
+        out.write(ByteBuffer.allocate(4).putInt(schemaId).array());
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(avroSchema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
@@ -27,6 +27,8 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -50,6 +52,24 @@ public class KafkaJsonDeserializerTest extends KafkaAbstractDeserializerTest
         assertEquals(resultSet.getDataFormat(), topicSchema.getMessage().getDataFormat());
     }
 
+    @Test
+    public void testKafkaJsonDeserializerSkipsUnmappedKeys() throws Exception
+    {
+        TopicSchema topicSchema = createJsonTopicSchema();
+        Schema schema = createSchema(topicSchema);
+        KafkaJsonDeserializer jsonDeserializer = new KafkaJsonDeserializer(schema);
+
+        // nested objects and arrays of keys that are not mapped are skipped, the phone key is missing
+        TopicResultSet resultSet = jsonDeserializer.deserialize("test", ("{\"id\": 10, \"payload\": {\"name\": \"nested\", \"tags\": [1, {\"id\": 2}]}, " +
+                "\"name\": \"James\", \"isActive\": true, \"extra\": [\"a\", \"b\"]}").getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> values = new HashMap<>();
+        resultSet.getFields().forEach(it -> values.put(it.getName(), it.getValue()));
+        assertEquals(3, values.size());
+        assertEquals(10, values.get("id"));
+        assertEquals("James", values.get("name"));
+        assertEquals(true, values.get("isActive"));
+    }
+
     @Test
     public void testExceptionInKafkaJsonDeserializer() throws Exception
     {
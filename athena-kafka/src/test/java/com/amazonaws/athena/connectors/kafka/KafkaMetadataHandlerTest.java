@@ -25,8 +25,12 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.metadata.*;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
+import com.amazonaws.athena.connectors.kafka.dto.SplitParameters;
 
 import software.amazon.awssdk.services.glue.GlueClient;
 import software.amazon.awssdk.services.glue.model.GetSchemaRequest;
@@ -37,10 +41,18 @@ import software.amazon.awssdk.services.glue.model.ListRegistriesRequest;
 import software.amazon.awssdk.services.glue.model.ListRegistriesResponse;
 import software.amazon.awssdk.services.glue.model.RegistryListItem;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.vector.types.Types;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -51,15 +63,22 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 
 import static org.mockito.Mockito.mock;
@@ -90,7 +109,7 @@ public class KafkaMetadataHandlerTest {
         partitions = Mockito.mock(Block.class);
         partitionCols = Mockito.mock(List.class);
         constraints = Mockito.mock(Constraints.class);
-        java.util.Map configOptions = com.google.common.collect.ImmutableMap.of(
+        java.util.Map configOptions = ImmutableMap.of(
             "aws.region", "us-west-2",
             "glue_registry_arn", "arn:aws:glue:us-west-2:123456789101:registry/Athena-NEW",
             "auth_type", KafkaUtils.AuthType.SSL.toString(),
@@ -142,7 +161,7 @@ public class KafkaMetadataHandlerTest {
         ListSchemasRequest listSchemasRequest = new ListSchemasRequest(federatedIdentity, QUERY_ID, "default");
         ListSchemasResponse listSchemasResponse = kafkaMetadataHandler.doListSchemaNames(blockAllocator, listSchemasRequest);
 
-        assertEquals(new ArrayList(com.google.common.collect.ImmutableList.of("Asdf")), new ArrayList(listSchemasResponse.getSchemas()));
+        assertEquals(new ArrayList(ImmutableList.of("Asdf")), new ArrayList(listSchemasResponse.getSchemas()));
     }
 
     @Test(expected = RuntimeException.class)
@@ -183,7 +202,9 @@ public class KafkaMetadataHandlerTest {
         Mockito.when(glueClient.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getSchemaVersionResponse);
         GetTableRequest getTableRequest = new GetTableRequest(federatedIdentity, QUERY_ID, "kafka", new TableName("default", "testtable"), Collections.emptyMap());
         GetTableResponse getTableResponse = kafkaMetadataHandler.doGetTable(blockAllocator, getTableRequest);
-        assertEquals(1, getTableResponse.getSchema().getFields().size());
+        // the message field and the record timestamp
+        assertEquals(2, getTableResponse.getSchema().getFields().size());
+        assertEquals(KafkaConstants.MESSAGE_TIMESTAMP_COLUMN, getTableResponse.getSchema().getFields().get(1).getName());
     }
 
     @Test
@@ -244,4 +265,124 @@ public class KafkaMetadataHandlerTest {
         assertEquals(500, response.getSplits().size());
         assertNull(response.getContinuationToken());
     }
+
+    @Test
+    public void testGetMinMessageTimestamp()
+    {
+        BlockAllocator rangeAllocator = new BlockAllocatorImpl();
+        LocalDateTime low = LocalDateTime.ofInstant(Instant.ofEpochMilli(1000L), ZoneOffset.UTC);
+        LocalDateTime high = LocalDateTime.ofInstant(Instant.ofEpochMilli(2000L), ZoneOffset.UTC);
+        Map<String, ValueSet> summary = new HashMap<>();
+        summary.put(KafkaConstants.MESSAGE_TIMESTAMP_COLUMN, SortedRangeSet.copyOf(Types.MinorType.DATEMILLI.getType(),
+                ImmutableList.of(Range.range(rangeAllocator, Types.MinorType.DATEMILLI.getType(), low, true, high, true)), false));
+        assertEquals(1000L, (long) KafkaUtils.getMinMessageTimestamp(makeConstraints(summary)));
+
+        // only an upper bound, nothing to push down
+        summary.put(KafkaConstants.MESSAGE_TIMESTAMP_COLUMN, SortedRangeSet.copyOf(Types.MinorType.DATEMILLI.getType(),
+                ImmutableList.of(Range.lessThan(rangeAllocator, Types.MinorType.DATEMILLI.getType(), high)), false));
+        assertNull(KafkaUtils.getMinMessageTimestamp(makeConstraints(summary)));
+
+        // predicates on message columns are not pushed down, their values are not ordered by offset
+        Map<String, ValueSet> otherSummary = new HashMap<>();
+        otherSummary.put("ts", SortedRangeSet.copyOf(Types.MinorType.BIGINT.getType(),
+                ImmutableList.of(Range.range(rangeAllocator, Types.MinorType.BIGINT.getType(), 1000L, true, 2000L, true)), false));
+        assertNull(KafkaUtils.getMinMessageTimestamp(makeConstraints(otherSummary)));
+        rangeAllocator.close();
+    }
+
+    @Test
+    public void testNarrowStartOffsetsByTimestamp()
+    {
+        Consumer<String, String> timeIndexedConsumer = mock(Consumer.class);
+        TopicPartition partition0 = new TopicPartition("testTopic", 0);
+        TopicPartition partition1 = new TopicPartition("testTopic", 1);
+        Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes = new HashMap<>();
+        offsetsForTimes.put(partition0, new OffsetAndTimestamp(40L, 1000L));
+        offsetsForTimes.put(partition1, null);
+        when(timeIndexedConsumer.offsetsForTimes(any())).thenReturn(offsetsForTimes);
+
+        Map<TopicPartition, Long> startOffsets = new HashMap<>();
+        startOffsets.put(partition0, 0L);
+        startOffsets.put(partition1, 0L);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        endOffsets.put(partition0, 100L);
+        endOffsets.put(partition1, 100L);
+
+        KafkaMetadataHandler handler = new KafkaMetadataHandler(timeIndexedConsumer, ImmutableMap.of("aws.region", "us-west-2"));
+        handler.narrowStartOffsetsByTimestamp(ImmutableList.of(partition0, partition1), startOffsets, endOffsets, 1000L);
+
+        assertEquals(40L, (long) startOffsets.get(partition0));
+        // records after any offset may still have an older timestamp, so the end offsets are kept
+        assertEquals(100L, (long) endOffsets.get(partition0));
+        // no message at or after the lower bound, so the partition has nothing to read
+        assertEquals(100L, (long) startOffsets.get(partition1));
+        assertEquals(100L, (long) endOffsets.get(partition1));
+    }
+
+    private Constraints makeConstraints(Map<String, ValueSet> summary)
+    {
+        return new Constraints(summary, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+    }
+
+    @Test
+    public void testDoGetSplitsBySize() throws Exception
+    {
+        GetSchemaResponse getSchemaResponse = GetSchemaResponse.builder()
+                .schemaArn("defaultarn")
+                .schemaName("defaultschemaname")
+                .latestSchemaVersion(123L)
+                .build();
+        GetSchemaVersionResponse getSchemaVersionResponse = GetSchemaVersionResponse.builder()
+                .schemaArn("defaultarn")
+                .schemaVersionId("defaultversionid")
+                .dataFormat("json")
+                .schemaDefinition("{\"topicName\": \"sizedTopic\", \"message\": {\"dataFormat\": \"json\", \"fields\": []}}")
+                .build();
+        Mockito.when(glueClient.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse);
+        Mockito.when(glueClient.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getSchemaVersionResponse);
+
+        // partition 0 holds 100KB, partitions 1 and 2 hold 1KB each, every record is 100 bytes.
+        MockConsumer<String, String> sizedConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        Map<TopicPartition, Long> partitionsStart = new HashMap<>();
+        Map<TopicPartition, Long> partitionsEnd = new HashMap<>();
+        partitionsStart.put(new TopicPartition("sizedTopic", 0), 0L);
+        partitionsEnd.put(new TopicPartition("sizedTopic", 0), 1000L);
+        partitionsStart.put(new TopicPartition("sizedTopic", 1), 0L);
+        partitionsEnd.put(new TopicPartition("sizedTopic", 1), 10L);
+        partitionsStart.put(new TopicPartition("sizedTopic", 2), 0L);
+        partitionsEnd.put(new TopicPartition("sizedTopic", 2), 10L);
+        sizedConsumer.updateBeginningOffsets(partitionsStart);
+        sizedConsumer.updateEndOffsets(partitionsEnd);
+        sizedConsumer.updatePartitions("sizedTopic", partitionsStart.keySet().stream()
+                .map(it -> new PartitionInfo(it.topic(), it.partition(), null, null, null))
+                .collect(Collectors.toList()));
+        sizedConsumer.schedulePollTask(() -> partitionsEnd.forEach((partition, endOffset) ->
+                sizedConsumer.addRecord(new ConsumerRecord<>(partition.topic(), partition.partition(), endOffset - 1, 0L,
+                        TimestampType.CREATE_TIME, 0, 100, null, "value", new RecordHeaders(), Optional.empty()))));
+
+        KafkaMetadataHandler handler = new KafkaMetadataHandler(sizedConsumer, ImmutableMap.of(
+                "aws.region", "us-west-2",
+                KafkaConstants.SPLIT_TARGET_BYTES, "10000"));
+        GetSplitsRequest request = new GetSplitsRequest(
+                federatedIdentity,
+                QUERY_ID,
+                "kafka",
+                new TableName("default", "sizedTopic"),
+                Mockito.mock(Block.class),
+                new ArrayList<>(),
+                Mockito.mock(Constraints.class),
+                null
+        );
+        GetSplitsResponse response = handler.doGetSplits(blockAllocator, request);
+
+        // 10 splits of 100 records for partition 0 and one merged split for partitions 1 and 2
+        assertEquals(11, response.getSplits().size());
+        assertNull(response.getContinuationToken());
+        List<String> mergedPieces = response.getSplits().stream()
+                .map(it -> it.getProperty(SplitParameters.PIECES))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        assertEquals(ImmutableList.of("1:0:9,2:0:9"), mergedPieces);
+        assertTrue(sizedConsumer.assignment().isEmpty());
+    }
 }
@@ -64,14 +64,20 @@ import software.amazon.awssdk.services.glue.model.GetSchemaVersionResponse;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.AVRO_DATA_FORMAT;
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.PROTOBUF_DATA_FORMAT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyMap;
 
 import static org.mockito.Mockito.*;
@@ -210,7 +216,7 @@ public class KafkaRecordHandlerTest {
         SplitParameters splitParameters = new SplitParameters("greetings", 0, 0, 1);
         Schema schema = createAvroSchema(createAvroTopicSchema());
 
-        mockedKafkaUtils.when(() -> KafkaUtils.getAvroKafkaConsumer(com.google.common.collect.ImmutableMap.of())).thenReturn(avroConsumer);
+        mockedKafkaUtils.when(() -> KafkaUtils.getAvroKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of())).thenReturn(avroConsumer);
         mockedKafkaUtils.when(() -> KafkaUtils.createSplitParam(anyMap())).thenReturn(splitParameters);
 
         Mockito.when(awsGlue.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse());
@@ -337,6 +343,101 @@ public class KafkaRecordHandlerTest {
         kafkaRecordHandler.readWithConstraint(null, request, queryStatusChecker);
     }
 
+    @Test
+    public void testForPooledConsumerWritesInBatches() throws Exception {
+        MockConsumer<String, TopicResultSet> pooledConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition("myTopic", 0);
+        pooledConsumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+        pooledConsumer.updateEndOffsets(Collections.singletonMap(partition, 250L));
+        pooledConsumer.schedulePollTask(() -> {
+            for (int offset = 0; offset < 250; offset++) {
+                pooledConsumer.addRecord(new ConsumerRecord<>("myTopic", 0, offset, "k" + offset, createTopicResultSet("myTopic")));
+            }
+        });
+
+        Schema schema = createSchema(createCsvTopicSchema());
+        mockedKafkaUtils.when(() -> KafkaUtils.getKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of())).thenReturn(pooledConsumer);
+        mockedKafkaUtils.when(() -> KafkaUtils.createSplitParam(anyMap()))
+                .thenReturn(new SplitParameters("myTopic", 0, 0, 249), new SplitParameters("myTopic", 0, 0, 0));
+        // Only count the consumers created by the handler, not the stubbing calls.
+        mockedKafkaUtils.clearInvocations();
+
+        Mockito.when(awsGlue.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse());
+        Mockito.when(awsGlue.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getJsonSchemaVersionResponse());
+
+        QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+        when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+
+        List<Integer> writtenRows = new ArrayList<>();
+        BlockSpiller spiller = createBlockSpiller(schema, writtenRows);
+        kafkaRecordHandler.readWithConstraint(spiller, createReadRecordsRequest(schema), queryStatusChecker);
+
+        // 250 records are written with one spiller call per MAX_ROWS_PER_WRITE rows.
+        assertEquals(Arrays.asList(100, 100, 50), writtenRows);
+        // The consumer was unsubscribed when it went back to the pool.
+        assertTrue(pooledConsumer.assignment().isEmpty());
+        assertFalse(pooledConsumer.closed());
+
+        // The next split with the same pool key reuses the pooled consumer.
+        pooledConsumer.schedulePollTask(() -> pooledConsumer.addRecord(new ConsumerRecord<>("myTopic", 0, 0, "k0", createTopicResultSet("myTopic"))));
+        writtenRows.clear();
+        kafkaRecordHandler.readWithConstraint(spiller, createReadRecordsRequest(schema), queryStatusChecker);
+
+        assertEquals(Collections.singletonList(1), writtenRows);
+        assertTrue(pooledConsumer.assignment().isEmpty());
+        mockedKafkaUtils.verify(() -> KafkaUtils.getKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of()), times(1));
+    }
+
+    @Test
+    public void testForFailedConsumerIsNotPooled() throws Exception {
+        MockConsumer<String, TopicResultSet> failedConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        MockConsumer<String, TopicResultSet> newConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition("myTopic", 0);
+        failedConsumer.updateEndOffsets(Collections.singletonMap(partition, 1L));
+        newConsumer.updateEndOffsets(Collections.singletonMap(partition, 1L));
+
+        Schema schema = createSchema(createCsvTopicSchema());
+        mockedKafkaUtils.when(() -> KafkaUtils.getKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of())).thenReturn(failedConsumer, newConsumer);
+        mockedKafkaUtils.when(() -> KafkaUtils.createSplitParam(anyMap()))
+                .thenReturn(new SplitParameters("myTopic", 0, 0, 1), new SplitParameters("myTopic", 0, 0, 1));
+        // Only count the consumers created by the handler, not the stubbing calls.
+        mockedKafkaUtils.clearInvocations();
+
+        Mockito.when(awsGlue.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse());
+        Mockito.when(awsGlue.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getJsonSchemaVersionResponse());
+
+        QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+        when(queryStatusChecker.isQueryRunning()).thenThrow(new IllegalStateException("query status unavailable")).thenReturn(false);
+
+        BlockSpiller spiller = createBlockSpiller(schema, new ArrayList<>());
+        assertThrows(IllegalStateException.class, () -> kafkaRecordHandler.readWithConstraint(spiller, createReadRecordsRequest(schema), queryStatusChecker));
+
+        // The consumer that failed mid split is closed, which also drops its assignment, instead of being pooled.
+        assertTrue(failedConsumer.closed());
+
+        kafkaRecordHandler.readWithConstraint(spiller, createReadRecordsRequest(schema), queryStatusChecker);
+
+        assertFalse(newConsumer.closed());
+        assertTrue(newConsumer.assignment().isEmpty());
+        mockedKafkaUtils.verify(() -> KafkaUtils.getKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of()), times(2));
+    }
+
+    /**
+     * Creates a spiller which writes into a single block and records how many rows each call wrote.
+     */
+    private BlockSpiller createBlockSpiller(Schema schema, List<Integer> writtenRows) {
+        Block block = allocator.createBlock(schema);
+        BlockSpiller spiller = mock(BlockSpiller.class);
+        doAnswer(invocation -> {
+            BlockWriter.RowWriter rowWriter = invocation.getArgument(0);
+            int rows = rowWriter.writeRows(block, block.getRowCount());
+            block.setRowCount(block.getRowCount() + rows);
+            writtenRows.add(rows);
+            return null;
+        }).when(spiller).writeRows(any());
+        return spiller;
+    }
+
     private ReadRecordsRequest createReadRecordsRequest(Schema schema) {
         return new ReadRecordsRequest(
                 federatedIdentity,
@@ -218,6 +218,21 @@ public class KafkaUtilsTest {
         assertEquals(100L, splitParameters.endOffset);
     }
 
+    @Test
+    public void testCreateSplitParamsForMergedSplit() {
+        Map<String, String> params = com.google.common.collect.ImmutableMap.of(
+                SplitParameters.TOPIC, "testTopic",
+                SplitParameters.PIECES, "1:0:9,2:5:20"
+        );
+        List<SplitParameters> splitParameters = createSplitParams(params);
+        assertEquals(2, splitParameters.size());
+        assertEquals(1, splitParameters.get(0).partition);
+        assertEquals(9L, splitParameters.get(0).endOffset);
+        assertEquals(2, splitParameters.get(1).partition);
+        assertEquals(5L, splitParameters.get(1).startOffset);
+        assertEquals("testTopic", splitParameters.get(1).topic);
+    }
+
     @Test(expected = RuntimeException.class)
     public void testGetKafkaPropertiesForRuntimeException() throws Exception {
         java.util.HashMap testConfigOptions = new java.util.HashMap(configOptions);
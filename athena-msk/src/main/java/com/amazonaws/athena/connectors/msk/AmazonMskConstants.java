@@ -63,6 +63,36 @@ public class AmazonMskConstants
     public static final String AWS_SECRET_PWD = "password";
 
     public static final int MAX_RECORDS_IN_SPLIT = 10_000;
+    /**
+     * Name of the column holding the timestamp of each kafka record (the CreateTime set by the producer or the
+     * LogAppendTime set by the broker). It is filled from the record metadata rather than decoded from the message,
+     * and a lower bound on it is translated into the start offset of each topic partition while creating the splits.
+     */
+    public static final String MESSAGE_TIMESTAMP_COLUMN = "_timestamp";
+
+    /**
+     * Consumer fetch tuning, the maximum number of records returned by a single poll.
+     */
+    public static final String MAX_POLL_RECORDS = "max_poll_records";
+    public static final String DEFAULT_MAX_POLL_RECORDS = "10000";
+    /**
+     * Consumer fetch tuning, the maximum number of bytes fetched per partition by a single request.
+     */
+    public static final String MAX_PARTITION_FETCH_BYTES = "max_partition_fetch_bytes";
+    public static final String DEFAULT_MAX_PARTITION_FETCH_BYTES = "1048576";
+    /**
+     * Consumer fetch tuning, how long a single poll waits for records.
+     */
+    public static final String POLL_TIMEOUT_MS = "poll_timeout_ms";
+    public static final long DEFAULT_POLL_TIMEOUT_MS = 1000L;
+    /**
+     * How many idle consumers per cluster and credentials we keep in a warm container,
+     * and for how long. Setting the pool size to 0 disables consumer reuse.
+     */
+    public static final String CONSUMER_POOL_SIZE = "consumer_pool_size";
+    public static final int DEFAULT_CONSUMER_POOL_SIZE = 2;
+    public static final String CONSUMER_POOL_IDLE_MS = "consumer_pool_idle_ms";
+    public static final long DEFAULT_CONSUMER_POOL_IDLE_MS = 300_000L;
 
     public static final String AVRO_DATA_FORMAT = "avro";
     public static final String PROTOBUF_DATA_FORMAT = "protobuf";
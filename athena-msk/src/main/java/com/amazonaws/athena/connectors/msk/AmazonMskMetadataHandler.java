@@ -43,10 +43,12 @@ import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import com.amazonaws.athena.connectors.msk.dto.TopicPartitionPiece;
 import com.amazonaws.athena.connectors.msk.dto.TopicSchema;
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +62,7 @@ import software.amazon.awssdk.services.glue.model.RegistryListItem;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -359,7 +362,7 @@ public class AmazonMskMetadataHandler extends MetadataHandler
         LOGGER.debug("[KafkaPartition] total partitions {} found for topic: {}", topicPartitions.size(), topic);
 
         // Get start offset of each topic partitions from kafka server.
-        Map<TopicPartition, Long> startOffsets = kafkaConsumer.beginningOffsets(topicPartitions);
+        Map<TopicPartition, Long> startOffsets = new HashMap<>(kafkaConsumer.beginningOffsets(topicPartitions));
         if (LOGGER.isDebugEnabled()) {
             startOffsets.forEach((k, v) -> {
                 LOGGER.debug("[KafkaPartitionOffset] start offset info [topic: {}, partition: {}, start-offset: {}]",
@@ -369,7 +372,7 @@ public class AmazonMskMetadataHandler extends MetadataHandler
         }
 
         // Get end offset of each topic partitions from kafka server.
-        Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(topicPartitions);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>(kafkaConsumer.endOffsets(topicPartitions));
         if (LOGGER.isDebugEnabled()) {
             endOffsets.forEach((k, v) -> {
                 LOGGER.debug("[KafkaPartitionOffset] end offset info [topic: {}, partition: {}, end-offset: {}]",
@@ -378,6 +381,14 @@ public class AmazonMskMetadataHandler extends MetadataHandler
             });
         }
 
+        // If the query has a lower bound on the record timestamp column, the records written before it
+        // do not need to be read.
+        Long minTimestamp = AmazonMskUtils.getMinMessageTimestamp(request.getConstraints());
+        if (minTimestamp != null) {
+            LOGGER.info("[KafkaPartitionOffset] narrowing start offsets of topic {} to timestamp {}", topic, minTimestamp);
+            narrowStartOffsetsByTimestamp(topicPartitions, startOffsets, endOffsets, minTimestamp);
+        }
+
         Set<Split> splits = new HashSet<>();
         SpillLocation spillLocation = makeSpillLocation(request);
         int continuationToken = request.getContinuationToken() == null ? 0 : Integer.parseInt(request.getContinuationToken());
@@ -386,6 +397,10 @@ public class AmazonMskMetadataHandler extends MetadataHandler
             partitionIndex < topicPartitions.size();
             partitionIndex++) {
             TopicPartition partition = topicPartitions.get(partitionIndex);
+            if (minTimestamp != null && startOffsets.get(partition) >= endOffsets.get(partition)) {
+                LOGGER.debug("[KafkaPartitionOffset] skipping partition {}, no message in timestamp range", partition.partition());
+                continue;
+            }
             // Calculate how many pieces we can divide a topic partition.
             List<TopicPartitionPiece>  topicPartitionPieces = pieceTopicPartition(startOffsets.get(partition), endOffsets.get(partition));
             LOGGER.info("[TopicPartitionPiece] Total pieces created {} for partition {} in topic {}",
@@ -502,6 +517,9 @@ public class AmazonMskMetadataHandler extends MetadataHandler
             // Putting the additional schema level information into the metadata in ArrowType schema.
             schemaBuilder.addMetadata("dataFormat", topicSchema.getMessage().getDataFormat());
         }
+        // The record timestamp is not part of the message, it is filled from the metadata of each record.
+        // It is added last so that it replaces a message field of the same name.
+        schemaBuilder.addField(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, Types.MinorType.DATEMILLI.getType());
         // NOTE: these values are being shoved in here for usage later in the calling context
         // of doGetTable() since Java doesn't have tuples.
         schemaBuilder.addMetadata("glueRegistryName", glueRegistryName);
@@ -510,6 +528,45 @@ public class AmazonMskMetadataHandler extends MetadataHandler
         return schemaBuilder.build();
     }
 
+    /**
+     * Moves the start offset of each topic partition to the earliest offset whose timestamp is greater than
+     * or equal to the given timestamp, using the time index of the kafka broker (offsetsForTimes). Every record
+     * before that offset has a smaller timestamp, so no matching record is skipped.
+     *
+     * The end offsets are not narrowed: record timestamps are not ordered within a partition when they are
+     * set by the producer, so a record after the first offset past an upper bound may still match.
+     *
+     * @param topicPartitions - the partitions of the topic
+     * @param startOffsets - start offset of each partition, updated in place
+     * @param endOffsets - end offset of each partition
+     * @param minTimestamp - the lowest record timestamp (epoch millis) the query reads
+     */
+    @VisibleForTesting
+    void narrowStartOffsetsByTimestamp(
+            List<TopicPartition> topicPartitions,
+            Map<TopicPartition, Long> startOffsets,
+            Map<TopicPartition, Long> endOffsets,
+            long minTimestamp)
+    {
+        Map<TopicPartition, Long> timestampsToSearch = new HashMap<>();
+        topicPartitions.forEach(it -> timestampsToSearch.put(it, minTimestamp));
+        Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes = kafkaConsumer.offsetsForTimes(timestampsToSearch);
+        for (TopicPartition partition : topicPartitions) {
+            OffsetAndTimestamp offsetAndTimestamp = offsetsForTimes.get(partition);
+            // No message has been written with a timestamp at or after the lower bound, nothing to read from this partition.
+            long startOffset = offsetAndTimestamp == null ? endOffsets.get(partition) : offsetAndTimestamp.offset();
+            startOffsets.put(partition, Math.max(startOffsets.get(partition), startOffset));
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            topicPartitions.forEach(it -> {
+                LOGGER.debug("[KafkaPartitionOffset] narrowed offset info [topic: {}, partition: {}, start-offset: {}, end-offset: {}]",
+                        it.topic(), it.partition(), startOffsets.get(it), endOffsets.get(it)
+                );
+            });
+        }
+    }
+
     /**
      * Splits topic partition into smaller piece and calculates
      * the start and end offsets of each piece.
@@ -23,12 +23,14 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connector.util.ResourcePool;
 import com.amazonaws.athena.connectors.msk.consumer.MskAvroConsumer;
 import com.amazonaws.athena.connectors.msk.consumer.MskConsumer;
 import com.amazonaws.athena.connectors.msk.consumer.MskDefaultConsumer;
 import com.amazonaws.athena.connectors.msk.consumer.MskProtobufConsumer;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +38,8 @@ import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.time.Duration;
+
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.AVRO_DATA_FORMAT;
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.PROTOBUF_DATA_FORMAT;
 
@@ -44,6 +48,9 @@ public class AmazonMskRecordHandler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(AmazonMskRecordHandler.class);
 
+    // Lives as long as the lambda container, so consumers are reused across splits.
+    private final ResourcePool<Consumer<?, ?>> consumerPool;
+
     AmazonMskRecordHandler(java.util.Map<String, String> configOptions)
     {
         this(
@@ -57,6 +64,10 @@ public class AmazonMskRecordHandler
     public AmazonMskRecordHandler(S3Client amazonS3, SecretsManagerClient secretsManager, AthenaClient athena, java.util.Map<String, String> configOptions)
     {
         super(amazonS3, secretsManager, athena, AmazonMskConstants.MSK_SOURCE, configOptions);
+        this.consumerPool = new ResourcePool<>(
+                Integer.parseInt(configOptions.getOrDefault(AmazonMskConstants.CONSUMER_POOL_SIZE, String.valueOf(AmazonMskConstants.DEFAULT_CONSUMER_POOL_SIZE))),
+                Long.parseLong(configOptions.getOrDefault(AmazonMskConstants.CONSUMER_POOL_IDLE_MS, String.valueOf(AmazonMskConstants.DEFAULT_CONSUMER_POOL_IDLE_MS))),
+                Consumer::unsubscribe);
     }
 
     /**
@@ -75,26 +86,36 @@ public class AmazonMskRecordHandler
         GlueRegistryReader registryReader = new GlueRegistryReader();
 
         String dataFormat = registryReader.getGlueSchemaType(recordsRequest.getTableName().getSchemaName(), recordsRequest.getTableName().getTableName());
+        // The record timestamp column is filled from the record metadata, the messages are decoded without it.
+        Schema valueSchema = AmazonMskUtils.getValueSchema(recordsRequest.getSchema());
+        String poolKey = AmazonMskUtils.getConsumerPoolKey(dataFormat, valueSchema, configOptions);
+        Duration pollTimeout = AmazonMskUtils.getPollTimeout(configOptions);
         MskConsumer mskConsumer;
         Consumer<?, ?> consumer;
 
         switch (dataFormat.toLowerCase()) {
             case AVRO_DATA_FORMAT:
-                consumer = AmazonMskUtils.getAvroKafkaConsumer(configOptions);
-                mskConsumer = new MskAvroConsumer();
+                consumer = consumerPool.acquire(poolKey, () -> AmazonMskUtils.getAvroKafkaConsumer(valueSchema, configOptions));
+                mskConsumer = new MskAvroConsumer(pollTimeout);
                 break;
             case PROTOBUF_DATA_FORMAT:
-                consumer = AmazonMskUtils.getProtobufKafkaConsumer(configOptions);
-                mskConsumer = new MskProtobufConsumer();
+                consumer = consumerPool.acquire(poolKey, () -> AmazonMskUtils.getProtobufKafkaConsumer(configOptions));
+                mskConsumer = new MskProtobufConsumer(pollTimeout);
                 break;
             default:
-                consumer = AmazonMskUtils.getKafkaConsumer(recordsRequest.getSchema(), configOptions);
-                mskConsumer = new MskDefaultConsumer();
+                consumer = consumerPool.acquire(poolKey, () -> AmazonMskUtils.getKafkaConsumer(valueSchema, configOptions));
+                mskConsumer = new MskDefaultConsumer(pollTimeout);
                 break;
         }
 
-        try (Consumer<?, ?> kafkaConsumer = consumer) {
-            mskConsumer.consume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaConsumer);
+        // The consumer goes back to the pool once the split is read, unless it failed while reading.
+        try {
+            mskConsumer.consume(spiller, recordsRequest, queryStatusChecker, splitParameters, consumer);
+        }
+        catch (RuntimeException ex) {
+            consumerPool.invalidate(consumer);
+            throw ex;
         }
+        consumerPool.release(poolKey, consumer);
     }
 }
@@ -19,20 +19,26 @@
  */
 package com.amazonaws.athena.connectors.msk;
 
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connectors.msk.dto.Message;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import com.amazonaws.athena.connectors.msk.dto.TopicResultSet;
+import com.amazonaws.athena.connectors.msk.serde.MskAvroProjectionDeserializer;
 import com.amazonaws.athena.connectors.msk.serde.MskCsvDeserializer;
 import com.amazonaws.athena.connectors.msk.serde.MskJsonDeserializer;
 import com.amazonaws.services.schemaregistry.deserializers.GlueSchemaRegistryKafkaDeserializer;
 import com.amazonaws.services.schemaregistry.utils.AWSSchemaRegistryConstants;
-import com.amazonaws.services.schemaregistry.utils.AvroRecordType;
 import com.amazonaws.services.schemaregistry.utils.ProtobufMessageType;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.protobuf.DynamicMessage;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.commons.lang3.StringUtils;
@@ -60,9 +66,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class AmazonMskUtils
 {
@@ -155,13 +168,27 @@ public class AmazonMskUtils
                 valueDeserializer
         );
     }
-    public static Consumer<String, GenericRecord> getAvroKafkaConsumer(java.util.Map<String, String> configOptions) throws Exception
+    /**
+     * Creates a kafka consumer for avro topics which only decodes the columns of the given
+     * (projected) schema, see {@link MskAvroProjectionDeserializer}.
+     *
+     * @param schema - the projected schema of the query
+     * @return {@link Consumer}
+     * @throws Exception - {@link Exception}
+     */
+    public static Consumer<String, GenericRecord> getAvroKafkaConsumer(Schema schema, java.util.Map<String, String> configOptions) throws Exception
     {
         Properties properties = getKafkaProperties(configOptions);
-        properties.put(KAFKA_VALUE_DESERIALIZER_CLASS_CONFIG, GlueSchemaRegistryKafkaDeserializer.class
-                .getName());
-        properties.put(AWSSchemaRegistryConstants.AVRO_RECORD_TYPE, AvroRecordType.GENERIC_RECORD.getName());
-        return new KafkaConsumer<>(properties);
+        // KafkaConsumer only configures the deserializers it creates itself, the schema registry settings come from the consumer properties.
+        MskAvroProjectionDeserializer valueDeserializer = new MskAvroProjectionDeserializer(schema);
+        Map<String, Object> deserializerConfigs = new HashMap<>();
+        properties.forEach((key, value) -> deserializerConfigs.put(key.toString(), value));
+        valueDeserializer.configure(deserializerConfigs, false);
+        return new KafkaConsumer<>(
+                properties,
+                new StringDeserializer(),
+                valueDeserializer
+        );
     }
 
     public static Consumer<String, DynamicMessage> getProtobufKafkaConsumer(java.util.Map<String, String> configOptions) throws Exception
@@ -187,8 +214,10 @@ public class AmazonMskUtils
         properties.setProperty(KAFKA_EXCLUDE_INTERNAL_TOPICS_CONFIG, "true");
         properties.setProperty(KAFKA_ENABLE_AUTO_COMMIT_CONFIG, "false");
         properties.setProperty(KAFKA_AUTO_OFFSET_RESET_CONFIG, "earliest");
-        properties.setProperty(KAFKA_MAX_POLL_RECORDS_CONFIG, "10000");
-        properties.setProperty(KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG, "1048576");
+        properties.setProperty(KAFKA_MAX_POLL_RECORDS_CONFIG,
+                configOptions.getOrDefault(AmazonMskConstants.MAX_POLL_RECORDS, AmazonMskConstants.DEFAULT_MAX_POLL_RECORDS));
+        properties.setProperty(KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG,
+                configOptions.getOrDefault(AmazonMskConstants.MAX_PARTITION_FETCH_BYTES, AmazonMskConstants.DEFAULT_MAX_PARTITION_FETCH_BYTES));
         properties.setProperty(KAFKA_KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
 
         //fetch authentication type for the kafka cluster
@@ -401,6 +430,39 @@ public class AmazonMskUtils
         return value;
     }
 
+    /**
+     * Builds the key under which consumers are pooled. Consumers can only be shared when they
+     * talk to the same cluster with the same credentials, and decode the values the same way.
+     *
+     * @param dataFormat - the data format of the topic
+     * @param schema - the table schema, the json, csv and avro deserializers are bound to it
+     * @return the pool key
+     */
+    public static String getConsumerPoolKey(String dataFormat, Schema schema, java.util.Map<String, String> configOptions)
+    {
+        StringBuilder key = new StringBuilder();
+        key.append(configOptions.get(AmazonMskConstants.ENV_KAFKA_ENDPOINT)).append('|');
+        key.append(configOptions.get(AmazonMskConstants.AUTH_TYPE)).append('|');
+        key.append(configOptions.get(AmazonMskConstants.SECRET_MANAGER_MSK_CREDS_NAME)).append('|');
+        key.append(configOptions.get(AmazonMskConstants.CERTIFICATES_S3_REFERENCE)).append('|');
+        key.append(dataFormat.toLowerCase());
+        if (!dataFormat.equalsIgnoreCase(AmazonMskConstants.PROTOBUF_DATA_FORMAT)) {
+            key.append('|').append(schema.toJson());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Gets how long a single poll waits for records.
+     *
+     * @return {@link Duration}
+     */
+    public static Duration getPollTimeout(java.util.Map<String, String> configOptions)
+    {
+        String pollTimeout = configOptions.get(AmazonMskConstants.POLL_TIMEOUT_MS);
+        return Duration.ofMillis(StringUtils.isBlank(pollTimeout) ? AmazonMskConstants.DEFAULT_POLL_TIMEOUT_MS : Long.parseLong(pollTimeout.trim()));
+    }
+
     /**
      * Translates Split parameters as readable pojo format.
      *
@@ -416,6 +478,63 @@ public class AmazonMskUtils
         return new SplitParameters(topic, partition, startOffset, endOffset);
     }
 
+    /**
+     * Gives the lower bound of the predicate on the record timestamp column, in epoch millis. Only the span of a
+     * {@link SortedRangeSet} is used, the exact predicate is still applied by the ConstraintEvaluator when the
+     * records are written to the spiller.
+     *
+     * @param constraints - the constraints of the query
+     * @return the lowest record timestamp the query reads, or null when there is nothing to push down
+     */
+    public static Long getMinMessageTimestamp(Constraints constraints)
+    {
+        if (constraints == null || constraints.getSummary() == null) {
+            return null;
+        }
+
+        ValueSet valueSet = constraints.getSummary().get(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN);
+        if (!(valueSet instanceof SortedRangeSet) || valueSet.isNone()) {
+            return null;
+        }
+
+        Range span = ((SortedRangeSet) valueSet).getSpan();
+        return span.getLow().isNullValue() ? null : toEpochMillis(span.getLow());
+    }
+
+    /**
+     * Removes the record timestamp column, which is not part of the message, from the schema the messages are
+     * decoded with.
+     *
+     * @param schema - the schema of the request
+     * @return {@link Schema} of the message value
+     */
+    public static Schema getValueSchema(Schema schema)
+    {
+        List<Field> fields = schema.getFields().stream()
+                .filter(it -> !AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN.equals(it.getName()))
+                .collect(Collectors.toList());
+        return new Schema(fields, schema.getCustomMetadata());
+    }
+
+    private static Long toEpochMillis(Marker marker)
+    {
+        Object value = marker.getValue();
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        else if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        else if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).getTime();
+        }
+        else if (value instanceof Long) {
+            return (Long) value;
+        }
+        LOGGER.info("Skipping timestamp pushdown, unsupported value type {}", value == null ? null : value.getClass());
+        return null;
+    }
+
     /**
      * Converts string data type name to ArrowType.
      * After pulling schema from glue schema registry we use this method
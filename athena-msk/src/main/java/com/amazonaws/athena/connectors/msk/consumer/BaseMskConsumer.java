@@ -20,8 +20,10 @@
 package com.amazonaws.athena.connectors.msk.consumer;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connectors.msk.AmazonMskConstants;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -31,13 +33,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public abstract class BaseMskConsumer<T> implements MskConsumer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseMskConsumer.class);
     protected static final int MAX_EMPTY_RESULT_FOUND_COUNT = 3;
+    // Must not exceed the max rows per call of the BlockSpiller.
+    protected static final int MAX_ROWS_PER_WRITE = 100;
+
+    private final Duration pollTimeout;
+
+    protected BaseMskConsumer(Duration pollTimeout)
+    {
+        this.pollTimeout = pollTimeout;
+    }
 
     @Override
     public void consume(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker, SplitParameters splitParameters, Consumer<?, ?> consumer)
@@ -49,8 +65,7 @@ public abstract class BaseMskConsumer<T> implements MskConsumer
 
         Map<TopicPartition, Long> endOffsets = typedConsumer.endOffsets(Collections.singleton(new TopicPartition(splitParameters.topic, splitParameters.partition)));
         if (endOffsets.get(new TopicPartition(splitParameters.topic, splitParameters.partition)) == 0) {
-            LOGGER.debug("[kafka] topic does not have data, closing consumer {}", splitParameters);
-            typedConsumer.close();
+            LOGGER.debug("[kafka] topic does not have data, stopping consumer {}", splitParameters);
             splitParameters.info = "endOffset is 0 i.e partition does not have data";
             return;
         }
@@ -62,14 +77,15 @@ public abstract class BaseMskConsumer<T> implements MskConsumer
     {
         LOGGER.info("[kafka] {} Polling for data", splitParameters);
         int emptyResultFoundCount = 0;
+        List<ConsumerRecord<String, T>> batch = new ArrayList<>(MAX_ROWS_PER_WRITE);
         while (true) {
             if (!queryStatusChecker.isQueryRunning()) {
-                LOGGER.debug("[kafka]{} Stopping and closing consumer due to query execution terminated by athena", splitParameters);
+                LOGGER.debug("[kafka]{} Stopping consumer due to query execution terminated by athena", splitParameters);
                 splitParameters.info = "query status is false i.e no need to work";
                 return;
             }
 
-            ConsumerRecords<String, T> records = consumer.poll(Duration.ofSeconds(1L));
+            ConsumerRecords<String, T> records = consumer.poll(pollTimeout);
             LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
 
             splitParameters.pulled += records.count();
@@ -79,30 +95,74 @@ public abstract class BaseMskConsumer<T> implements MskConsumer
             }
 
             if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
-                LOGGER.debug("[kafka] {} Closing consumer due to getting empty result from broker", splitParameters);
+                LOGGER.debug("[kafka] {} Stopping consumer due to getting empty result from broker", splitParameters);
                 splitParameters.info = "always getting empty data i.e leaving from work";
                 return;
             }
 
+            // The polled records are written to the spiller in batches of up to MAX_ROWS_PER_WRITE rows
+            // instead of dispatching through the spiller once per record.
+            boolean done = false;
             for (ConsumerRecord<String, T> record : records) {
                 if (record == null || record.value() == null) {
                     LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
-                    return;
+                    done = true;
+                    break;
+                }
+                batch.add(record);
+                if (batch.size() >= MAX_ROWS_PER_WRITE) {
+                    writeBatch(spiller, splitParameters, batch);
                 }
-                processRecord(spiller, splitParameters, record);
 
                 if (record.offset() >= splitParameters.endOffset) {
-                    LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
+                    LOGGER.debug("[kafka] {} Stopping consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
                     splitParameters.info = String.format(
                             "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
                             record.offset(),
                             splitParameters.endOffset
                     );
-                    return;
+                    done = true;
+                    break;
                 }
             }
+            writeBatch(spiller, splitParameters, batch);
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of records to the spiller with a single call. Records that do not satisfy
+     * the constraints are not counted, so the next record is written into the same row.
+     */
+    private void writeBatch(BlockSpiller spiller, SplitParameters splitParameters, List<ConsumerRecord<String, T>> batch)
+    {
+        if (batch.isEmpty()) {
+            return;
         }
+        MskRecordProcessor<T> recordProcessor = getRecordProcessor();
+        spiller.writeRows((Block block, int rowNum) -> {
+            int written = 0;
+            for (ConsumerRecord<String, T> record : batch) {
+                if (writeTimestamp(block, rowNum + written, record) && recordProcessor.processRecord(block, rowNum + written, record)) {
+                    written++;
+                }
+                else {
+                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
+                }
+            }
+            splitParameters.spilled += written;
+            return written;
+        });
+        batch.clear();
+    }
+
+    private boolean writeTimestamp(Block block, int rowNum, ConsumerRecord<String, T> record)
+    {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC);
+        return block.offerValue(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, rowNum, timestamp);
     }
 
-    protected abstract void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, T> record);
+    protected abstract MskRecordProcessor<T> getRecordProcessor();
 }
@@ -19,37 +19,28 @@
  */
 package com.amazonaws.athena.connectors.msk.consumer;
 
-import com.amazonaws.athena.connector.lambda.data.Block;
-import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
-import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
 
 public class MskAvroConsumer extends BaseMskConsumer<GenericRecord>
 {
-    private static final Logger LOGGER = LoggerFactory.getLogger(MskAvroConsumer.class);
-
-    @Override
-    protected void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, GenericRecord> record)
+    public MskAvroConsumer(Duration pollTimeout)
     {
-        getRecordProcessor().processRecord(spiller, splitParameters, record);
+        super(pollTimeout);
     }
 
-    private MskRecordProcessor<GenericRecord> getRecordProcessor()
+    @Override
+    protected MskRecordProcessor<GenericRecord> getRecordProcessor()
     {
-        return (spiller, splitParameters, record) -> spiller.writeRows((Block block, int rowNum) -> {
+        return (block, rowNum, record) -> {
             for (Schema.Field next : record.value().getSchema().getFields()) {
-                boolean isMatched = block.offerValue(next.name(), rowNum, record.value().get(next.name()));
-                if (!isMatched) {
-                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
+                if (!block.offerValue(next.name(), rowNum, record.value().get(next.name()))) {
+                    return false;
                 }
             }
-            splitParameters.spilled += 1;
-            return 1;
-        });
+            return true;
+        };
     }
 }
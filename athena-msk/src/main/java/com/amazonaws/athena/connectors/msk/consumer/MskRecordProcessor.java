@@ -19,11 +19,15 @@
  */
 package com.amazonaws.athena.connectors.msk.consumer;
 
-import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
-import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 public interface MskRecordProcessor<T>
 {
-    void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, T> record);
+    /**
+     * Writes the fields of a single record into the given row of the block.
+     *
+     * @return false if a value did not satisfy the constraints, so the row must not be counted
+     */
+    boolean processRecord(Block block, int rowNum, ConsumerRecord<String, T> record);
 }
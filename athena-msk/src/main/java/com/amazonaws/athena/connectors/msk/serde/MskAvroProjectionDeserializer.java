@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * Athena MSK Connector
+ * %%
+ * Copyright (C) 2019 - 2022 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.msk.serde;
+
+import com.amazonaws.services.schemaregistry.deserializers.GlueSchemaRegistryDeserializationFacade;
+import com.amazonaws.services.schemaregistry.exception.AWSSchemaRegistryException;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Decodes avro messages written with the glue schema registry serializer into records which only hold
+ * the columns projected by the query.
+ *
+ * The wire format (header, compression and schema version id) and the lookup of the writer schema are left
+ * to the glue schema registry library, configured from the consumer properties like the
+ * GlueSchemaRegistryKafkaDeserializer used for the other topics. The writer schema is then resolved against
+ * a reader schema made of the projected fields, so the avro decoder skips the other fields without
+ * materializing them.
+ */
+public class MskAvroProjectionDeserializer implements Deserializer<GenericRecord>
+{
+    //Datum readers are bound to the projection of this deserializer, we keep the ones of the most recent writer schemas.
+    private static final int MAX_DATUM_READERS = 64;
+
+    private final Set<String> projectedColumns;
+    private final Map<String, DatumReader<GenericRecord>> datumReaders = new LinkedHashMap<String, DatumReader<GenericRecord>>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DatumReader<GenericRecord>> eldest)
+        {
+            return size() > MAX_DATUM_READERS;
+        }
+    };
+    private GlueSchemaRegistryDeserializationFacade deserializationFacade;
+    private BinaryDecoder decoder;
+
+    public MskAvroProjectionDeserializer(Schema schema)
+    {
+        this.projectedColumns = new TreeSet<>();
+        schema.getFields().forEach(field -> projectedColumns.add(field.getName().toLowerCase(Locale.ROOT)));
+    }
+
+    @VisibleForTesting
+    public MskAvroProjectionDeserializer(GlueSchemaRegistryDeserializationFacade deserializationFacade, Schema schema)
+    {
+        this(schema);
+        this.deserializationFacade = deserializationFacade;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey)
+    {
+        this.deserializationFacade = GlueSchemaRegistryDeserializationFacade.builder()
+                .configs(configs)
+                .credentialProvider(DefaultCredentialsProvider.create())
+                .build();
+    }
+
+    @Override
+    public GenericRecord deserialize(String topic, byte[] data)
+    {
+        if (data == null) {
+            return null;
+        }
+        try {
+            com.amazonaws.services.schemaregistry.common.Schema writerSchema = deserializationFacade.getSchema(data);
+            byte[] payload = deserializationFacade.getActualData(data);
+            decoder = DecoderFactory.get().binaryDecoder(payload, decoder);
+            return getDatumReader(writerSchema.getSchemaDefinition()).read(null, decoder);
+        }
+        catch (IOException | AWSSchemaRegistryException e) {
+            throw new SerializationException("Error deserializing avro message of topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (deserializationFacade != null) {
+            deserializationFacade.close();
+        }
+    }
+
+    private DatumReader<GenericRecord> getDatumReader(String schemaDefinition)
+    {
+        DatumReader<GenericRecord> datumReader = datumReaders.get(schemaDefinition);
+        if (datumReader == null) {
+            org.apache.avro.Schema writerSchema = new org.apache.avro.Schema.Parser().parse(schemaDefinition);
+            datumReader = new GenericDatumReader<>(writerSchema, projectSchema(writerSchema, projectedColumns));
+            datumReaders.put(schemaDefinition, datumReader);
+        }
+        return datumReader;
+    }
+
+    /**
+     * Creates the reader schema holding only the projected fields of the writer schema.
+     *
+     * @param writerSchema - the avro schema the message was written with
+     * @param projectedColumns - lower case names of the projected columns
+     * @return the reader schema
+     */
+    @VisibleForTesting
+    static org.apache.avro.Schema projectSchema(org.apache.avro.Schema writerSchema, Set<String> projectedColumns)
+    {
+        List<org.apache.avro.Schema.Field> fields = new ArrayList<>();
+        for (org.apache.avro.Schema.Field field : writerSchema.getFields()) {
+            if (projectedColumns.contains(field.name().toLowerCase(Locale.ROOT))) {
+                fields.add(new org.apache.avro.Schema.Field(field, field.schema()));
+            }
+        }
+        return org.apache.avro.Schema.createRecord(writerSchema.getName(), writerSchema.getDoc(), writerSchema.getNamespace(), writerSchema.isError(), fields);
+    }
+}
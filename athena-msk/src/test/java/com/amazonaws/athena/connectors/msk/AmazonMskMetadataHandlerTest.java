@@ -25,10 +25,17 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.metadata.*;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import org.apache.arrow.vector.types.Types;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
@@ -51,6 +58,9 @@ import software.amazon.awssdk.services.glue.model.ListRegistriesRequest;
 import software.amazon.awssdk.services.glue.model.ListRegistriesResponse;
 import software.amazon.awssdk.services.glue.model.RegistryListItem;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,6 +69,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.PROTOBUF_DATA_FORMAT;
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
@@ -90,7 +101,7 @@ public class AmazonMskMetadataHandlerTest {
         partitions = Mockito.mock(Block.class);
         partitionCols = Mockito.mock(List.class);
         constraints = Mockito.mock(Constraints.class);
-        java.util.Map configOptions = com.google.common.collect.ImmutableMap.of(
+        java.util.Map configOptions = ImmutableMap.of(
             "aws.region", "us-west-2",
             "glue_registry_arn", "arn:aws:glue:us-west-2:123456789101:registry/Athena-NEW",
             "auth_type", AmazonMskUtils.AuthType.SSL.toString(),
@@ -140,7 +151,7 @@ public class AmazonMskMetadataHandlerTest {
         ListSchemasRequest listSchemasRequest = new ListSchemasRequest(federatedIdentity, QUERY_ID, "default");
         ListSchemasResponse listSchemasResponse = amazonMskMetadataHandler.doListSchemaNames(blockAllocator, listSchemasRequest);
 
-        assertEquals(new ArrayList(com.google.common.collect.ImmutableList.of(registryName)), new ArrayList(listSchemasResponse.getSchemas()));
+        assertEquals(new ArrayList(ImmutableList.of(registryName)), new ArrayList(listSchemasResponse.getSchemas()));
     }
 
     @Test(expected = RuntimeException.class)
@@ -181,7 +192,9 @@ public class AmazonMskMetadataHandlerTest {
         Mockito.when(awsGlue.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getSchemaVersionResponse);
         GetTableRequest getTableRequest = new GetTableRequest(federatedIdentity, QUERY_ID, "kafka", new TableName("default", "testtable"), Collections.emptyMap());
         GetTableResponse getTableResponse = amazonMskMetadataHandler.doGetTable(blockAllocator, getTableRequest);
-        assertEquals(1, getTableResponse.getSchema().getFields().size());
+        // the message field and the record timestamp
+        assertEquals(2, getTableResponse.getSchema().getFields().size());
+        assertEquals(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, getTableResponse.getSchema().getFields().get(1).getName());
     }
 
     @Test
@@ -229,10 +242,11 @@ public class AmazonMskMetadataHandlerTest {
         }
         
         // Verify schema field names
-        assertEquals(3, getTableResponse.getSchema().getFields().size());
+        assertEquals(4, getTableResponse.getSchema().getFields().size());
         assertEquals("id", getTableResponse.getSchema().getFields().get(0).getName());
         assertEquals("name", getTableResponse.getSchema().getFields().get(1).getName());
         assertEquals("value", getTableResponse.getSchema().getFields().get(2).getName());
+        assertEquals(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, getTableResponse.getSchema().getFields().get(3).getName());
 
         // verify schema field types
         assertEquals(Types.MinorType.INT.getType(), getTableResponse.getSchema().getFields().get(0).getType());
@@ -300,4 +314,62 @@ public class AmazonMskMetadataHandlerTest {
         assertEquals(500, response.getSplits().size());
         assertNull(response.getContinuationToken());
     }
+
+    @Test
+    public void testGetMinMessageTimestamp()
+    {
+        BlockAllocator rangeAllocator = new BlockAllocatorImpl();
+        LocalDateTime low = LocalDateTime.ofInstant(Instant.ofEpochMilli(1000L), ZoneOffset.UTC);
+        LocalDateTime high = LocalDateTime.ofInstant(Instant.ofEpochMilli(2000L), ZoneOffset.UTC);
+        Map<String, ValueSet> summary = new HashMap<>();
+        summary.put(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, SortedRangeSet.copyOf(Types.MinorType.DATEMILLI.getType(),
+                ImmutableList.of(Range.range(rangeAllocator, Types.MinorType.DATEMILLI.getType(), low, true, high, true)), false));
+        assertEquals(1000L, (long) AmazonMskUtils.getMinMessageTimestamp(makeConstraints(summary)));
+
+        // only an upper bound, nothing to push down
+        summary.put(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, SortedRangeSet.copyOf(Types.MinorType.DATEMILLI.getType(),
+                ImmutableList.of(Range.lessThan(rangeAllocator, Types.MinorType.DATEMILLI.getType(), high)), false));
+        assertNull(AmazonMskUtils.getMinMessageTimestamp(makeConstraints(summary)));
+
+        // predicates on message columns are not pushed down, their values are not ordered by offset
+        Map<String, ValueSet> otherSummary = new HashMap<>();
+        otherSummary.put("ts", SortedRangeSet.copyOf(Types.MinorType.BIGINT.getType(),
+                ImmutableList.of(Range.range(rangeAllocator, Types.MinorType.BIGINT.getType(), 1000L, true, 2000L, true)), false));
+        assertNull(AmazonMskUtils.getMinMessageTimestamp(makeConstraints(otherSummary)));
+        rangeAllocator.close();
+    }
+
+    @Test
+    public void testNarrowStartOffsetsByTimestamp()
+    {
+        Consumer<String, String> timeIndexedConsumer = mock(Consumer.class);
+        TopicPartition partition0 = new TopicPartition("testTopic", 0);
+        TopicPartition partition1 = new TopicPartition("testTopic", 1);
+        Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes = new HashMap<>();
+        offsetsForTimes.put(partition0, new OffsetAndTimestamp(40L, 1000L));
+        offsetsForTimes.put(partition1, null);
+        when(timeIndexedConsumer.offsetsForTimes(any())).thenReturn(offsetsForTimes);
+
+        Map<TopicPartition, Long> startOffsets = new HashMap<>();
+        startOffsets.put(partition0, 0L);
+        startOffsets.put(partition1, 0L);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        endOffsets.put(partition0, 100L);
+        endOffsets.put(partition1, 100L);
+
+        AmazonMskMetadataHandler handler = new AmazonMskMetadataHandler(timeIndexedConsumer, ImmutableMap.of("aws.region", "us-west-2"));
+        handler.narrowStartOffsetsByTimestamp(ImmutableList.of(partition0, partition1), startOffsets, endOffsets, 1000L);
+
+        assertEquals(40L, (long) startOffsets.get(partition0));
+        // records after any offset may still have an older timestamp, so the end offsets are kept
+        assertEquals(100L, (long) endOffsets.get(partition0));
+        // no message at or after the lower bound, so the partition has nothing to read
+        assertEquals(100L, (long) startOffsets.get(partition1));
+        assertEquals(100L, (long) endOffsets.get(partition1));
+    }
+
+    private Constraints makeConstraints(Map<String, ValueSet> summary)
+    {
+        return new Constraints(summary, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+    }
 }
@@ -51,6 +51,7 @@ import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -60,6 +61,8 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.MockConsumer;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -87,8 +90,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
@@ -238,7 +245,7 @@ public class AmazonMskRecordHandlerTest
         SplitParameters splitParameters = new SplitParameters("greetings", 0, 0, 1);
         Schema schema = createAvroSchema(createAvroTopicSchema());
 
-        mockedMskUtils.when(() -> AmazonMskUtils.getAvroKafkaConsumer(com.google.common.collect.ImmutableMap.of())).thenReturn(avroConsumer);
+        mockedMskUtils.when(() -> AmazonMskUtils.getAvroKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of())).thenReturn(avroConsumer);
         mockedMskUtils.when(() -> AmazonMskUtils.createSplitParam(anyMap())).thenReturn(splitParameters);
 
         Mockito.when(awsGlue.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse());
@@ -253,6 +260,44 @@ public class AmazonMskRecordHandlerTest
         assertEquals(1, spiller.getBlock().getRowCount());
     }
 
+    @Test
+    public void testForConsumeAvroDataWritesMessageTimestamp() throws Exception
+    {
+        long timestamp = 1700000000000L;
+        MockConsumer<String, GenericRecord> timestampedConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        ConsumerRecord<String, GenericRecord> record = new ConsumerRecord<>("greetings", 0, 0, timestamp, TimestampType.CREATE_TIME,
+                0, 0, "k1", createGenericRecord("greetings"), new RecordHeaders(), Optional.empty());
+        timestampedConsumer.schedulePollTask(() -> timestampedConsumer.addRecord(record));
+        timestampedConsumer.updateBeginningOffsets(Collections.singletonMap(new TopicPartition("greetings", 0), 0L));
+        timestampedConsumer.updateEndOffsets(Collections.singletonMap(new TopicPartition("greetings", 0), 1L));
+
+        SplitParameters splitParameters = new SplitParameters("greetings", 0, 0, 0);
+        SchemaBuilder schemaBuilder = SchemaBuilder.newBuilder();
+        Schema valueSchema = createAvroSchema(createAvroTopicSchema());
+        valueSchema.getFields().forEach(schemaBuilder::addField);
+        valueSchema.getCustomMetadata().forEach(schemaBuilder::addMetadata);
+        schemaBuilder.addField(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN, Types.MinorType.DATEMILLI.getType());
+        Schema schema = schemaBuilder.build();
+
+        // The deserializer only sees the message fields; the timestamp comes from the record metadata.
+        mockedMskUtils.when(() -> AmazonMskUtils.getAvroKafkaConsumer(valueSchema, com.google.common.collect.ImmutableMap.of())).thenReturn(timestampedConsumer);
+        mockedMskUtils.when(() -> AmazonMskUtils.createSplitParam(anyMap())).thenReturn(splitParameters);
+
+        Mockito.when(awsGlue.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse());
+        Mockito.when(awsGlue.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getAvroSchemaVersionResponse());
+
+        QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+        when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+
+        ReadRecordsRequest request = createReadRecordsRequest(schema);
+        BlockSpiller spiller = new S3BlockSpiller(amazonS3, spillConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of());
+        amazonMskRecordHandler.readWithConstraint(spiller, request, queryStatusChecker);
+
+        assertEquals(1, spiller.getBlock().getRowCount());
+        assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC),
+                spiller.getBlock().getFieldReader(AmazonMskConstants.MESSAGE_TIMESTAMP_COLUMN).readLocalDateTime());
+    }
+
     @Test
     public void testForConsumeProtobufDataFromTopic() throws Exception
     {
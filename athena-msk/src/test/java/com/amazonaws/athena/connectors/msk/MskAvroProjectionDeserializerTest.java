@@ -0,0 +1,152 @@
+/*-
+ * #%L
+ * Athena MSK Connector
+ * %%
+ * Copyright (C) 2019 - 2022 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.msk;
+
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connectors.msk.serde.MskAvroProjectionDeserializer;
+import com.amazonaws.services.schemaregistry.common.AWSSchemaRegistryClient;
+import com.amazonaws.services.schemaregistry.deserializers.GlueSchemaRegistryDeserializationFacade;
+import com.amazonaws.services.schemaregistry.utils.AWSSchemaRegistryConstants;
+import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.services.glue.model.DataFormat;
+import software.amazon.awssdk.services.glue.model.GetSchemaVersionResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MskAvroProjectionDeserializerTest
+{
+    private static final String AVRO_SCHEMA = "{\"type\":\"record\",\"name\":\"Greetings\",\"namespace\":\"com.example\",\"fields\":[" +
+            "{\"name\":\"id\",\"type\":\"int\"}," +
+            "{\"name\":\"name\",\"type\":\"string\"}," +
+            "{\"name\":\"greeting\",\"type\":\"string\"}]}";
+
+    private AWSSchemaRegistryClient schemaRegistryClient;
+    private GlueSchemaRegistryDeserializationFacade deserializationFacade;
+    private org.apache.avro.Schema avroSchema;
+    private UUID schemaVersionId;
+    private Schema schema;
+
+    @Before
+    public void setUp()
+    {
+        schemaRegistryClient = mock(AWSSchemaRegistryClient.class);
+        deserializationFacade = GlueSchemaRegistryDeserializationFacade.builder()
+                .configs(ImmutableMap.of(AWSSchemaRegistryConstants.AWS_REGION, "us-east-1"))
+                .credentialProvider(mock(AwsCredentialsProvider.class))
+                .schemaRegistryClient(schemaRegistryClient)
+                .build();
+        avroSchema = new org.apache.avro.Schema.Parser().parse(AVRO_SCHEMA);
+        schemaVersionId = UUID.randomUUID();
+        schema = SchemaBuilder.newBuilder()
+                .addIntField("id")
+                .addStringField("greeting")
+                .build();
+    }
+
+    @Test
+    public void testDeserializeProjectedColumns() throws Exception
+    {
+        when(schemaRegistryClient.getSchemaVersionResponse(schemaVersionId.toString()))
+                .thenReturn(GetSchemaVersionResponse.builder()
+                        .schemaDefinition(AVRO_SCHEMA)
+                        .dataFormat(DataFormat.AVRO)
+                        .schemaArn("arn:aws:glue:us-east-1:123456789012:schema/registry/greetings")
+                        .build());
+        MskAvroProjectionDeserializer deserializer = new MskAvroProjectionDeserializer(deserializationFacade, schema);
+
+        GenericRecord record = deserializer.deserialize("greetings", serialize(1, "James", "hello", false));
+        assertEquals(1, record.get("id"));
+        assertEquals("hello", record.get("greeting").toString());
+        assertNull(record.getSchema().getField("name"));
+
+        record = deserializer.deserialize("greetings", serialize(2, "Jane", "hi", true));
+        assertEquals(2, record.get("id"));
+        assertEquals("hi", record.get("greeting").toString());
+
+        // the writer schema is only fetched once per schema version
+        verify(schemaRegistryClient, times(1)).getSchemaVersionResponse(schemaVersionId.toString());
+    }
+
+    @Test
+    public void testDeserializeNull()
+    {
+        MskAvroProjectionDeserializer deserializer = new MskAvroProjectionDeserializer(deserializationFacade, schema);
+        assertNull(deserializer.deserialize("greetings", null));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testDeserializeUnknownHeaderVersion()
+    {
+        MskAvroProjectionDeserializer deserializer = new MskAvroProjectionDeserializer(deserializationFacade, schema);
+        deserializer.deserialize("greetings", new byte[20]);
+    }
+
+    private byte[] serialize(int id, String name, String greeting, boolean compress) throws Exception
+    {
+        GenericRecord record = new GenericData.Record(avroSchema);
+        record.put("id", id);
+        record.put("name", name);
+        record.put("greeting", greeting);
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(payload, null);
+        new GenericDatumWriter<GenericRecord>(avroSchema).write(record, encoder);
+        encoder.flush();
+        byte[] body = payload.toByteArray();
+        if (compress) {
+            Deflater deflater = new Deflater();
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] buffer = new byte[1024];
+            int length = deflater.deflate(buffer);
+            deflater.end();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            compressed.write(buffer, 0, length);
+            body = compressed.toByteArray();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(3);
+        out.write(compress ? 5 : 0);
+        out.write(ByteBuffer.allocate(16).putLong(schemaVersionId.getMostSignificantBits()).putLong(schemaVersionId.getLeastSignificantBits()).array());
+        out.write(body);
+        return out.toByteArray();
+    }
+}
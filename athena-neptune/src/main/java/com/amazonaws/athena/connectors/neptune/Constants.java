@@ -33,6 +33,11 @@ public class Constants
    public static final String CFG_IAM = "iam_enabled";
    public static final String CFG_REGION = "AWS_REGION";
    public static final String CFG_ClUSTER_RES_ID = "neptune_cluster_res_id";
+   // Number of vertices/edges (or subjects, for RDF class tables) each split should read, and max splits per query.
+   // Tables are only read in ranges when the split size is set, since planning them counts the elements of the table.
+   public static final String CFG_SPLIT_SIZE = "neptune_split_size";
+   public static final String CFG_MAX_SPLITS = "neptune_max_splits";
+   public static final int DEFAULT_MAX_SPLITS = 32;
     
    public static final String SCHEMA_QUERY = "query";
    public static final String SCHEMA_CASE_INSEN = "enable_caseinsensitivematch";
@@ -49,6 +54,10 @@ public class Constants
    public static final String QUERY_MODE_CLASS = "class";
    public static final String QUERY_MODE_SPARQL = "sparql";
     
+   // Range [start, end) of the elements read by a split, an end of -1 means the range is unbounded.
+   public static final String SPLIT_RANGE_START = "range_start";
+   public static final String SPLIT_RANGE_END = "range_end";
+
    public static final String PREFIX_KEY = "prefix_";
    public static final int PREFIX_LEN = PREFIX_KEY.length();
 
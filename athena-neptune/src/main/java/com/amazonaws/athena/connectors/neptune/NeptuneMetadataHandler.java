@@ -20,12 +20,12 @@
 package com.amazonaws.athena.connectors.neptune;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
-import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
@@ -44,8 +44,10 @@ import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connectors.neptune.propertygraph.PropertyGraphHandler;
 import com.amazonaws.athena.connectors.neptune.qpt.NeptuneQueryPassthrough;
 import com.amazonaws.athena.connectors.neptune.rdf.NeptuneSparqlConnection;
+import com.amazonaws.athena.connectors.neptune.rdf.RDFHandler;
 import com.google.common.collect.ImmutableMap;
 import org.apache.arrow.util.VisibleForTesting;
+import org.apache.arrow.vector.complex.reader.FieldReader;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.tinkerpop.gremlin.driver.Client;
@@ -121,6 +123,7 @@ public class NeptuneMetadataHandler extends GlueMetadataHandler
         super(glue, keyFactory, awsSecretsManager, athena, Constants.SOURCE_TYPE, spillBucket, spillPrefix, configOptions);
         this.glue = glue;
         this.glueDBName = configOptions.get("glue_database_name");
+        this.neptuneConnection = neptuneConnection;
     }
 
     @Override
@@ -221,14 +224,109 @@ public class NeptuneMetadataHandler extends GlueMetadataHandler
     }
 
     /**
-     * Our table doesn't support complex layouts or partitioning so we simply make
-     * this method a NoOp.
+     * Adds the columns used to hand the element ranges planned by getPartitions over to doGetSplits. Athena ignores
+     * them as they are not partition columns of the table.
+     */
+    @Override
+    public void enhancePartitionSchema(SchemaBuilder partitionSchemaBuilder, GetTableLayoutRequest request)
+    {
+        partitionSchemaBuilder.addBigIntField(Constants.SPLIT_RANGE_START);
+        partitionSchemaBuilder.addBigIntField(Constants.SPLIT_RANGE_END);
+    }
+
+    /**
+     * Our tables are not partitioned, instead we plan ranges of the vertices/edges of a label (or of the subjects of an
+     * RDF class) so that large tables can be read by several splits in parallel. This is opt-in through
+     * neptune_split_size, without it (as for views, SPARQL query mode tables and query passthrough) tables are read with
+     * a single, unbounded range.
      */
     @Override
     public void getPartitions(BlockWriter blockWriter, GetTableLayoutRequest request,
             QueryStatusChecker queryStatusChecker) throws Exception 
     {
-        // No implemenation as connector doesn't support partitioning
+        // Counting costs a full scan of the label (or class), so ranged reads are only planned when a split size is configured.
+        long splitSize = configOptions.containsKey(Constants.CFG_SPLIT_SIZE) ?
+                Long.parseLong(configOptions.get(Constants.CFG_SPLIT_SIZE)) : -1;
+        long count = -1;
+        if (splitSize > 0 && !request.getConstraints().isQueryPassThrough()) {
+            try {
+                count = countElements(request.getTableName(), request.getSchema().getCustomMetadata());
+            }
+            catch (RuntimeException ex) {
+                logger.warn("getPartitions: Unable to count the elements of {}, using a single split.", request.getTableName(), ex);
+            }
+        }
+
+        int maxSplits = configOptions.containsKey(Constants.CFG_MAX_SPLITS) ?
+                Integer.parseInt(configOptions.get(Constants.CFG_MAX_SPLITS)) : Constants.DEFAULT_MAX_SPLITS;
+        long numSplits = (count > splitSize) ? Math.min(maxSplits, (count + splitSize - 1) / splitSize) : 1;
+        long rangeSize = (numSplits > 1) ? (count + numSplits - 1) / numSplits : 0;
+        logger.info("getPartitions: count[{}] numSplits[{}] rangeSize[{}]", count, numSplits, rangeSize);
+
+        for (long i = 0; i < numSplits; i++) {
+            final long rangeStart = i * rangeSize;
+            //the last range is left unbounded so that it also reads elements added since we counted.
+            final long rangeEnd = (i == numSplits - 1) ? -1 : rangeStart + rangeSize;
+            blockWriter.writeRows((Block block, int rowNum) -> {
+                boolean matched = block.setValue(Constants.SPLIT_RANGE_START, rowNum, rangeStart);
+                matched &= block.setValue(Constants.SPLIT_RANGE_END, rowNum, rangeEnd);
+                return matched ? 1 : 0;
+            });
+        }
+    }
+
+    /**
+     * Counts the vertices/edges of the table's label, or the distinct subjects of the table's RDF class.
+     *
+     * @return The number of elements, -1 if the table can not be read in ranges.
+     */
+    private long countElements(TableName tableName, Map<String, String> customMetadata)
+    {
+        Enums.GraphType graphType = Enums.GraphType.PROPERTYGRAPH;
+        if (configOptions.get(Constants.CFG_GRAPH_TYPE) != null) {
+            graphType = Enums.GraphType.valueOf(configOptions.get(Constants.CFG_GRAPH_TYPE).toUpperCase());
+        }
+
+        switch (graphType) {
+            case PROPERTYGRAPH:
+                String type = customMetadata.get(Constants.SCHEMA_COMPONENT_TYPE);
+                if (type == null) {
+                    return -1;
+                }
+                String glabel = customMetadata.get(Constants.SCHEMA_GLABEL);
+                String labelName = (glabel != null && !glabel.trim().isEmpty()) ? glabel : tableName.getTableName();
+                GraphTraversalSource graphTraversalSource = neptuneConnection.getTraversalSource(neptuneConnection.getNeptuneClientConnection());
+                switch (Enums.TableSchemaMetaType.valueOf(type.toUpperCase())) {
+                    case VERTEX:
+                        return graphTraversalSource.V().hasLabel(labelName).count().next();
+                    case EDGE:
+                        return graphTraversalSource.E().hasLabel(labelName).count().next();
+                    default:
+                        return -1;
+                }
+
+            case RDF:
+                String queryMode = customMetadata.get(Constants.SCHEMA_QUERY_MODE);
+                String classURI = customMetadata.get(Constants.SCHEMA_CLASS_URI);
+                String subject = customMetadata.get(Constants.SCHEMA_SUBJECT);
+                if (!Constants.QUERY_MODE_CLASS.equalsIgnoreCase(queryMode) || classURI == null || subject == null) {
+                    return -1;
+                }
+                NeptuneSparqlConnection neptuneSparqlConnection = (NeptuneSparqlConnection) neptuneConnection;
+                neptuneSparqlConnection.runQuery(RDFHandler.makePrefixBlock(customMetadata)
+                        + "\nSELECT (COUNT(DISTINCT ?" + subject + ") AS ?count) WHERE { ?" + subject + " a " + classURI + " }");
+                long count = -1;
+                while (neptuneSparqlConnection.hasNext()) {
+                    Object value = neptuneSparqlConnection.next(false).get("count");
+                    if (value != null) {
+                        count = (value instanceof Number) ? ((Number) value).longValue() : Long.parseLong(value.toString());
+                    }
+                }
+                return count;
+
+            default:
+                return -1;
+        }
     }
 
     /**
@@ -250,19 +348,33 @@ public class NeptuneMetadataHandler extends GlueMetadataHandler
      */
 
     /*
-     * Since our connector does not support parallel scans we generate a single
-     * Split and include the connection details as a property on the split so that
-     * the RecordHandler has easy access to it.
+     * We generate a Split per range planned by getPartitions, a single (unbounded) range results in a single Split
+     * without range properties.
      */
     @Override
     public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest request) 
     {
-        // Every split must have a unique location if we wish to spill to avoid failures
-        SpillLocation spillLocation = makeSpillLocation(request);
+        Set<Split> splits = new HashSet<>();
+        Block partitions = request.getPartitions();
+        boolean hasRanges = partitions.getRowCount() > 1
+                && partitions.getFields().stream().anyMatch(next -> next.getName().equals(Constants.SPLIT_RANGE_START));
+
+        for (int i = 0; hasRanges && i < partitions.getRowCount(); i++) {
+            FieldReader rangeStart = partitions.getFieldReader(Constants.SPLIT_RANGE_START);
+            FieldReader rangeEnd = partitions.getFieldReader(Constants.SPLIT_RANGE_END);
+            rangeStart.setPosition(i);
+            rangeEnd.setPosition(i);
+            // Every split must have a unique location if we wish to spill to avoid failures
+            splits.add(Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
+                    .add(Constants.SPLIT_RANGE_START, String.valueOf(rangeStart.readLong()))
+                    .add(Constants.SPLIT_RANGE_END, String.valueOf(rangeEnd.readLong()))
+                    .build());
+        }
 
-        // Since our connector does not support parallel reads we return a fixed split.
-        return new GetSplitsResponse(request.getCatalogName(),
-                Split.newBuilder(spillLocation, makeEncryptionKey()).build());
+        if (splits.isEmpty()) {
+            splits.add(Split.newBuilder(makeSpillLocation(request), makeEncryptionKey()).build());
+        }
+        return new GetSplitsResponse(request.getCatalogName(), splits);
     }
 
     @Override
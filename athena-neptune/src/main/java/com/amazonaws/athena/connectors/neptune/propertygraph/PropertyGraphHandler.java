@@ -23,6 +23,7 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.writers.GeneratedRowWriter;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.neptune.Constants;
 import com.amazonaws.athena.connectors.neptune.Enums.TableSchemaMetaType;
@@ -39,6 +40,7 @@ import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.WithOptions;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -143,6 +145,7 @@ public class PropertyGraphHandler
                 case VERTEX:
                     if (!recordsRequest.getConstraints().isQueryPassThrough()) {
                         graphTraversal = graphTraversalSource.V().hasLabel(labelName);
+                        graphTraversal = applySplitRange(graphTraversal, recordsRequest.getSplit());
                         graphTraversal = graphTraversal.valueMap().with(WithOptions.tokens);
                     }
 
@@ -157,6 +160,7 @@ public class PropertyGraphHandler
                 case EDGE:
                     if (!recordsRequest.getConstraints().isQueryPassThrough()) {
                         graphTraversal = graphTraversalSource.E().hasLabel(labelName);
+                        graphTraversal = applySplitRange(graphTraversal, recordsRequest.getSplit());
                         graphTraversal = graphTraversal.elementMap();
                     }
 
@@ -205,6 +209,27 @@ public class PropertyGraphHandler
         return engine.eval(gremlinQuery, bindings);
     }
 
+    /**
+     * Restricts the traversal to the range of vertices/edges assigned to the split by NeptuneMetadataHandler. Neptune
+     * does not guarantee the iteration order of a label, so the elements are ordered by id (as RDFHandler orders the
+     * subjects of a class) to make the ranges of all splits of the table disjoint.
+     *
+     * @param graphTraversal The traversal over the vertices/edges of the table's label.
+     * @param split The split being read.
+     * @return The traversal restricted to the split's range, or the unchanged traversal if the split has no range.
+     */
+    private GraphTraversal applySplitRange(GraphTraversal graphTraversal, Split split)
+    {
+        if (split.getProperty(Constants.SPLIT_RANGE_START) == null) {
+            return graphTraversal;
+        }
+        //an end of -1 leaves the range unbounded, which Gremlin's range step supports as well.
+        long rangeStart = Long.parseLong(split.getProperty(Constants.SPLIT_RANGE_START));
+        long rangeEnd = Long.parseLong(split.getProperty(Constants.SPLIT_RANGE_END));
+        logger.info("applySplitRange: range[{}, {})", rangeStart, rangeEnd);
+        return graphTraversal.order().by(T.id).range(rangeStart, rangeEnd);
+    }
+
     private void parseNodeOrEdge(final QueryStatusChecker queryStatusChecker, final BlockSpiller spiller, long numRows,
             GraphTraversal graphTraversal, GeneratedRowWriter.RowWriterBuilder builder) 
     {
@@ -23,6 +23,7 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.writers.GeneratedRowWriter;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.neptune.Constants;
 import com.amazonaws.athena.connectors.neptune.NeptuneConnection;
@@ -31,7 +32,6 @@ import org.apache.arrow.vector.types.pojo.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -107,16 +107,7 @@ public class RDFHandler
         }
         else {
             // 1. Get the specified prefixes
-            Map<String, String> prefixMap = new HashMap<>();
-            StringBuilder prefixBlock = new StringBuilder("");
-            for (String k : recordsRequest.getSchema().getCustomMetadata().keySet()) {
-                if (k.startsWith(Constants.PREFIX_KEY)) {
-                    String pfx = k.substring(Constants.PREFIX_LEN);
-                    String val = recordsRequest.getSchema().getCustomMetadata().get(k);
-                    prefixMap.put(pfx, val);
-                    prefixBlock.append("PREFIX " + pfx + ": <" + val + ">\n");
-                }
-            }
+            String prefixBlock = makePrefixBlock(recordsRequest.getSchema().getCustomMetadata());
 
             // 2. Build the SPARQL query
             String queryMode = recordsRequest.getSchema().getCustomMetadata().get(Constants.SCHEMA_QUERY_MODE);
@@ -150,7 +141,17 @@ public class RDFHandler
                     sparql.append("?" + prop.getName() + " ");
                 }
                 sparql.append(" WHERE {");
-                sparql.append("\n?" + subject + " a " + classURI + " . ");
+                Split split = recordsRequest.getSplit();
+                if (split.getProperty(Constants.SPLIT_RANGE_START) != null) {
+                    // only read the range of subjects assigned to this split by NeptuneMetadataHandler
+                    long rangeStart = Long.parseLong(split.getProperty(Constants.SPLIT_RANGE_START));
+                    long rangeEnd = Long.parseLong(split.getProperty(Constants.SPLIT_RANGE_END));
+                    sparql.append("\n{ SELECT DISTINCT ?" + subject + " WHERE { ?" + subject + " a " + classURI + " } ORDER BY ?" + subject
+                            + " OFFSET " + rangeStart + (rangeEnd >= 0 ? " LIMIT " + (rangeEnd - rangeStart) : "") + " }");
+                }
+                else {
+                    sparql.append("\n?" + subject + " a " + classURI + " . ");
+                }
                 for (Field prop : recordsRequest.getSchema().getFields()) {
                     if (!prop.getName().equals(subject)) {
                         sparql.append("\n?" + subject + " " + predsPrefix + ":" + prop.getName() + " ?" + prop.getName()
@@ -184,4 +185,22 @@ public class RDFHandler
             });
         }
     }
+
+    /**
+     * Builds the SPARQL PREFIX declarations from the prefix_ properties of a table.
+     *
+     * @param customMetadata The custom metadata (Glue table properties) of the table's schema.
+     * @return The PREFIX declarations, one per line.
+     */
+    public static String makePrefixBlock(Map<String, String> customMetadata)
+    {
+        StringBuilder prefixBlock = new StringBuilder("");
+        for (String k : customMetadata.keySet()) {
+            if (k.startsWith(Constants.PREFIX_KEY)) {
+                String pfx = k.substring(Constants.PREFIX_LEN);
+                prefixBlock.append("PREFIX " + pfx + ": <" + customMetadata.get(k) + ">\n");
+            }
+        }
+        return prefixBlock.toString();
+    }
 }
@@ -19,8 +19,16 @@
  */
 package com.amazonaws.athena.connectors.neptune;
 
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.data.SimpleBlockWriter;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
+import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
+import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableResponse;
 import com.amazonaws.athena.connector.lambda.metadata.ListSchemasRequest;
@@ -29,6 +37,10 @@ import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.tinkerpop.gremlin.driver.Client;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,14 +61,18 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import org.mockito.junit.MockitoJUnitRunner;
@@ -172,4 +188,74 @@ public class NeptuneMetadataHandlerTest extends TestBase {
         logger.info("doGetTable - exit");
     }
 
+    @Test
+    public void doGetSplitsRanges() throws Exception {
+        logger.info("doGetSplitsRanges - enter");
+
+        handler = new NeptuneMetadataHandler(glue, neptuneConnection,
+                new LocalKeyFactory(), mock(SecretsManagerClient.class), mock(AthenaClient.class), "spill-bucket",
+                "spill-prefix", com.google.common.collect.ImmutableMap.of(Constants.CFG_SPLIT_SIZE, "2"));
+
+        TinkerGraph tinkerGraph = TinkerGraph.open();
+        for (int i = 0; i < 5; i++) {
+            tinkerGraph.addVertex(T.id, "vertex" + i, T.label, "airport");
+        }
+        when(neptuneConnection.getTraversalSource(nullable(Client.class))).thenReturn(tinkerGraph.traversal());
+
+        Schema tableSchema = SchemaBuilder.newBuilder()
+                .addStringField("code")
+                .addMetadata(Constants.SCHEMA_COMPONENT_TYPE, "vertex")
+                .build();
+        Constraints constraints = new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(),
+                DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+        TableName tableName = new TableName("schema1", "airport");
+        GetTableLayoutRequest layoutRequest = new GetTableLayoutRequest(IDENTITY, QUERY_ID, DEFAULT_CATALOG, tableName,
+                constraints, tableSchema, Collections.emptySet());
+
+        SchemaBuilder partitionSchemaBuilder = SchemaBuilder.newBuilder();
+        handler.enhancePartitionSchema(partitionSchemaBuilder, layoutRequest);
+        Block partitions = allocator.createBlock(partitionSchemaBuilder.build());
+        handler.getPartitions(new SimpleBlockWriter(partitions), layoutRequest, null);
+
+        // 5 vertices in ranges of 2, the last range is unbounded
+        assertEquals(3, partitions.getRowCount());
+
+        GetSplitsRequest req = new GetSplitsRequest(IDENTITY, QUERY_ID, DEFAULT_CATALOG, tableName, partitions,
+                Collections.emptyList(), constraints, null);
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        Set<String> ranges = new HashSet<>();
+        for (Split split : response.getSplits()) {
+            ranges.add(split.getProperty(Constants.SPLIT_RANGE_START) + ":" + split.getProperty(Constants.SPLIT_RANGE_END));
+        }
+        assertEquals(com.google.common.collect.ImmutableSet.of("0:2", "2:4", "4:-1"), ranges);
+
+        logger.info("doGetSplitsRanges - exit");
+    }
+
+    @Test
+    public void getPartitionsSingleRangeByDefault() throws Exception {
+        logger.info("getPartitionsSingleRangeByDefault - enter");
+
+        Schema tableSchema = SchemaBuilder.newBuilder()
+                .addStringField("code")
+                .addMetadata(Constants.SCHEMA_COMPONENT_TYPE, "vertex")
+                .build();
+        Constraints constraints = new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(),
+                DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+        GetTableLayoutRequest layoutRequest = new GetTableLayoutRequest(IDENTITY, QUERY_ID, DEFAULT_CATALOG,
+                new TableName("schema1", "airport"), constraints, tableSchema, Collections.emptySet());
+
+        SchemaBuilder partitionSchemaBuilder = SchemaBuilder.newBuilder();
+        handler.enhancePartitionSchema(partitionSchemaBuilder, layoutRequest);
+        Block partitions = allocator.createBlock(partitionSchemaBuilder.build());
+        handler.getPartitions(new SimpleBlockWriter(partitions), layoutRequest, null);
+
+        // without neptune_split_size the table is not counted and read by a single split
+        assertEquals(1, partitions.getRowCount());
+        verifyNoInteractions(neptuneConnection);
+
+        logger.info("getPartitionsSingleRangeByDefault - exit");
+    }
+
 }
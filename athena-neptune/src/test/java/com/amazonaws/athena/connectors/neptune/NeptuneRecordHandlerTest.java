@@ -20,6 +20,7 @@
 package com.amazonaws.athena.connectors.neptune;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -47,6 +48,7 @@ import com.amazonaws.athena.connector.lambda.records.RemoteReadRecordsResponse;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.google.common.io.ByteStreams;
+import org.apache.arrow.vector.complex.reader.FieldReader;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.tinkerpop.gremlin.driver.Client;
@@ -83,6 +85,7 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -302,6 +305,52 @@ public class NeptuneRecordHandlerTest extends TestBase {
                 }
         }
 
+        @Test
+        public void doReadRecordsSplitRange() throws Exception {
+                GraphTraversalSource graphTraversalSource = mock(GraphTraversalSource.class);
+                Client client = mock(Client.class);
+                when(neptuneConnection.getNeptuneClientConnection()).thenReturn(client);
+                when(neptuneConnection.getTraversalSource(nullable(Client.class))).thenReturn(graphTraversalSource);
+
+                // vertices are added out of id order, the split ranges must still be disjoint ranges of ids
+                TinkerGraph tinkerGraph = TinkerGraph.open();
+                for (String id : Arrays.asList("vertex4", "vertex2", "vertex1", "vertex3")) {
+                        tinkerGraph.addVertex(T.id, id, T.label, "default");
+                }
+                when(graphTraversalSource.V()).thenAnswer(invocation -> tinkerGraph.traversal().V());
+
+                assertEquals(Arrays.asList("vertex1", "vertex2"), readVertexIds(0, 2));
+                assertEquals(Arrays.asList("vertex3", "vertex4"), readVertexIds(2, -1));
+        }
+
+        private List<String> readVertexIds(long rangeStart, long rangeEnd) throws Exception {
+                S3SpillLocation splitLoc = S3SpillLocation.newBuilder().withBucket(UUID.randomUUID().toString())
+                                .withSplitId(UUID.randomUUID().toString()).withQueryId(UUID.randomUUID().toString())
+                                .withIsDirectory(true).build();
+                Split split = Split.newBuilder(splitLoc, keyFactory.create())
+                                .add(Constants.SPLIT_RANGE_START, String.valueOf(rangeStart))
+                                .add(Constants.SPLIT_RANGE_END, String.valueOf(rangeEnd))
+                                .build();
+
+                ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY, DEFAULT_CATALOG, QUERY_ID, TABLE_NAME,
+                                schemaPGVertexForRead, split,
+                                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                                100_000_000_000L, 100_000_000_000L);
+
+                RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+                assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+                List<String> ids = new ArrayList<>();
+                try (ReadRecordsResponse response = (ReadRecordsResponse) rawResponse) {
+                        FieldReader idReader = response.getRecords().getFieldReader("id");
+                        for (int i = 0; i < response.getRecords().getRowCount(); i++) {
+                                idReader.setPosition(i);
+                                ids.add(idReader.readText().toString());
+                        }
+                }
+                return ids;
+        }
+
         private class ByteHolder {
                 private byte[] bytes;
 
@@ -66,6 +66,7 @@ import software.amazon.awssdk.services.glue.model.Table;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -129,6 +130,8 @@ public class RedisMetadataHandler
     protected static final String REDIS_CLUSTER_FLAG = "redis-cluster-flag";
     //Defines the redis database to use
     protected static final String REDIS_DB_NUMBER = "redis-db-number";
+    //Defines the hash slots whose keys a split scans, only set on the prefix splits of a cluster
+    protected static final String REDIS_CLUSTER_SLOTS = "redis-cluster-slots";
     public static final String DEFAULT_REDIS_DB_NUMBER = "0";
 
     //Used to filter out Glue tables which lack a redis endpoint.
@@ -292,7 +295,8 @@ public class RedisMetadataHandler
      * If the table is comprised of multiple key prefixes, then we parallelize those by making them each a split.
      *
      * @note This function essentially takes each key-prefix and makes it a split. For zset keys, it breaks each zset
-     * into a max of N split that we have configured to generate as defined by REDIS_MAX_SPLITS.
+     * into a max of N split that we have configured to generate as defined by REDIS_MAX_SPLITS. On a cluster each
+     * key-prefix is further split by upstream node, every split scanning the keys held by its node.
      */
     @Override
     public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest request)
@@ -353,10 +357,23 @@ public class RedisMetadataHandler
             keyType = KeyType.ZSET;
         }
 
+        //In a cluster the slots of every upstream node are scanned by their own split, so that the prefixes are read
+        //in parallel across the shards. The splits carry slots rather than node ids as the nodes serving them may
+        //change before the splits are read.
+        List<String> clusterSlots = (isCluster && keyType == KeyType.PREFIX)
+                ? connection.getUpstreamSlotRanges() : Collections.emptyList();
+        logger.info("doGetSplits: Found {} cluster nodes", clusterSlots.size());
+
         Set<Split> splits = new HashSet<>();
         for (String next : splitInputs) {
-            splits.addAll(makeSplits(request, syncCommands, redisEndpoint, next, keyType, redisValueType, sslEnabled,
-                                     isCluster, dbNumber));
+            if (clusterSlots.isEmpty()) {
+                splits.addAll(makeSplits(request, syncCommands, redisEndpoint, next, keyType, redisValueType,
+                                         sslEnabled, isCluster, dbNumber, null));
+            }
+            for (String slotRanges : clusterSlots) {
+                splits.addAll(makeSplits(request, syncCommands, redisEndpoint, next, keyType, redisValueType,
+                                         sslEnabled, isCluster, dbNumber, slotRanges));
+            }
         }
 
         return new GetSplitsResponse(request.getCatalogName(), splits, null);
@@ -374,11 +391,12 @@ public class RedisMetadataHandler
      * @param sslEnabled The value from the REDIS_SSL_FLAG on the table being queried.
      * @param isCluster The value from the REDIS_CLUSTER_FLAG on the table being queried.
      * @param dbNumber The value from the REDIS_DB_NUMBER on the table being queried.
+     * @param clusterSlots The hash slots of the cluster to scan, or null to scan the whole instance.
      * @return A Set of splits to optionally parallelize reading the values associated with the keyPrefix.
      */
     private Set<Split> makeSplits(GetSplitsRequest request, RedisCommandsWrapper<String, String> syncCommands,
                                   String endpoint, String keyPrefix, KeyType keyType, String valueType,
-                                  boolean sslEnabled, boolean isCluster, String dbNumber)
+                                  boolean sslEnabled, boolean isCluster, String dbNumber, String clusterSlots)
     {
         Set<Split> splits = new HashSet<>();
         long numberOfKeys = 1;
@@ -399,7 +417,7 @@ public class RedisMetadataHandler
             //Every split must have a unique location if we wish to spill to avoid failures
             SpillLocation spillLocation = makeSpillLocation(request);
 
-            Split split = Split.newBuilder(spillLocation, makeEncryptionKey())
+            Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
                     .add(KEY_PREFIX_TABLE_PROP, keyPrefix)
                     .add(KEY_TYPE, keyType.getId())
                     .add(VALUE_TYPE_TABLE_PROP, valueType)
@@ -408,8 +426,11 @@ public class RedisMetadataHandler
                     .add(SPLIT_END_INDEX, String.valueOf(endIndex))
                     .add(REDIS_SSL_FLAG, String.valueOf(sslEnabled))
                     .add(REDIS_CLUSTER_FLAG, String.valueOf(isCluster))
-                    .add(REDIS_DB_NUMBER, dbNumber)
-                    .build();
+                    .add(REDIS_DB_NUMBER, dbNumber);
+            if (clusterSlots != null) {
+                splitBuilder.add(REDIS_CLUSTER_SLOTS, clusterSlots);
+            }
+            Split split = splitBuilder.build();
 
             splits.add(split);
 
@@ -29,7 +29,9 @@ import com.amazonaws.athena.connectors.redis.lettuce.RedisCommandsWrapper;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionFactory;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionWrapper;
 import com.amazonaws.athena.connectors.redis.qpt.RedisQueryPassthrough;
+import com.google.common.collect.Iterables;
 import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
 import io.lettuce.core.ScoredValue;
@@ -48,6 +50,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_COLUMN_NAME;
@@ -55,6 +58,7 @@ import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_PRE
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_TYPE;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.QPT_COLUMN_NAME;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_CLUSTER_FLAG;
+import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_CLUSTER_SLOTS;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_DB_NUMBER;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_ENDPOINT_PROP;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_SSL_FLAG;
@@ -81,8 +85,12 @@ public class RedisRecordHandler
     private static final String SOURCE_TYPE = "redis";
     private static final String END_CURSOR = "0";
 
-    //The page size for Jedis scans.
+    //The initial page size for Jedis scans, adapted to the density of the matching keys as the scan goes.
     private static final int SCAN_COUNT_SIZE = 100;
+    private static final int MAX_SCAN_COUNT_SIZE = 10_000;
+
+    //The number of keys whose values are fetched with one batch of pipelined commands.
+    private static final int FETCH_BATCH_SIZE = 500;
 
     private final RedisConnectionFactory redisConnectionFactory;
     private final S3Client amazonS3;
@@ -195,7 +203,9 @@ public class RedisRecordHandler
     }
 
     /**
-     * readWithConstraint case for when the query does not involve Query Passthrough
+     * readWithConstraint case for when the query does not involve Query Passthrough. Values are fetched in windows
+     * of at most FETCH_BATCH_SIZE keys with pipelined commands, and the next window (or the next SCAN page) is
+     * requested while the rows of the previous window are being written.
      * @see RecordHandler
      */
     private void handleStandardQuery(BlockSpiller spiller,
@@ -204,36 +214,84 @@ public class RedisRecordHandler
     {
         Split split = recordsRequest.getSplit();
         ScanCursor keyCursor = null;
+        int scanCount = SCAN_COUNT_SIZE;
         ValueType valueType = ValueType.fromId(split.getProperty(VALUE_TYPE_TABLE_PROP));
         List<Field> fieldList = recordsRequest.getSchema().getFields().stream()
                 .filter((Field next) -> !KEY_COLUMN_NAME.equals(next.getName())).collect(Collectors.toList());
         RedisCommandsWrapper<String, String> syncCommands = getSyncCommands(recordsRequest);
+        Runnable pendingRows = null;
         do {
             Set<String> keys = new HashSet<>();
-            //Load all the keys associated with this split
-            keyCursor = loadKeys(syncCommands, split, keyCursor, keys);
+            //Load all the keys associated with this split, the values of the last window are still in flight
+            keyCursor = loadKeys(syncCommands, split, keyCursor, keys, scanCount);
+            scanCount = nextScanCount(scanCount, keys.size());
 
             //Scan the data associated with all the keys.
-            for (String nextKey : keys) {
+            for (List<String> window : Iterables.partition(keys, FETCH_BATCH_SIZE)) {
+                Runnable windowRows = fetchRows(syncCommands, valueType, window, spiller, fieldList);
+                if (pendingRows != null) {
+                    pendingRows.run();
+                }
+                pendingRows = windowRows;
                 if (!queryStatusChecker.isQueryRunning()) {
                     return;
                 }
-                switch (valueType) {
-                    case LITERAL:   //The key value is a row with single column
-                        loadLiteralRow(syncCommands, nextKey, spiller, fieldList);
-                        break;
-                    case HASH:
-                        loadHashRow(syncCommands, nextKey, spiller, fieldList);
-                        break;
-                    case ZSET:
-                        loadZSetRows(syncCommands, nextKey, spiller, fieldList);
-                        break;
-                    default:
-                        throw new RuntimeException("Unsupported value type " + valueType);
-                }
             }
         }
         while (keyCursor != null && !keyCursor.isFinished());
+
+        if (pendingRows != null) {
+            pendingRows.run();
+        }
+    }
+
+    /**
+     * Sends the commands fetching the values of the given keys and returns without waiting for the replies.
+     *
+     * @return Writes the rows of the keys once the replies are in, must be run on the calling thread.
+     */
+    private Runnable fetchRows(RedisCommandsWrapper<String, String> syncCommands, ValueType valueType,
+                               List<String> keys, BlockSpiller spiller, List<Field> fieldList)
+    {
+        switch (valueType) {
+            case LITERAL:   //The key value is a row with single column
+                CompletableFuture<List<KeyValue<String, String>>> literals = syncCommands.mgetAsync(keys);
+                return () -> literals.join().forEach((KeyValue<String, String> next) ->
+                        loadLiteralRow(next.getKey(), next.getValueOrElse(null), spiller, fieldList));
+            case HASH:
+                CompletableFuture<List<Map<String, String>>> hashes = syncCommands.hgetallAsync(keys);
+                return () -> {
+                    List<Map<String, String>> values = hashes.join();
+                    for (int i = 0; i < keys.size(); i++) {
+                        loadHashRow(keys.get(i), values.get(i), spiller, fieldList);
+                    }
+                };
+            case ZSET:
+                //a zset can be arbitrarily large, so it is still read with a ZSCAN cursor per key
+                return () -> keys.forEach((String next) -> loadZSetRows(syncCommands, next, spiller, fieldList));
+            default:
+                throw new RuntimeException("Unsupported value type " + valueType);
+        }
+    }
+
+    /**
+     * Adapts the COUNT hint of the next SCAN to the density of the keys matching the prefix, so that a sparse prefix
+     * does not cost one round trip per handful of keys and a dense one does not return more than a few windows.
+     *
+     * @param scanCount The COUNT hint used for the last SCAN.
+     * @param keysFound The number of keys returned by the last SCAN.
+     * @return The COUNT hint to use for the next SCAN.
+     */
+    @VisibleForTesting
+    protected static int nextScanCount(int scanCount, int keysFound)
+    {
+        if (keysFound < FETCH_BATCH_SIZE / 2) {
+            return Math.min(scanCount * 2, MAX_SCAN_COUNT_SIZE);
+        }
+        if (keysFound > FETCH_BATCH_SIZE * 2) {
+            return Math.max(scanCount / 2, SCAN_COUNT_SIZE);
+        }
+        return scanCount;
     }
 
     /**
@@ -243,10 +301,11 @@ public class RedisRecordHandler
      * @param split The split for this request, mostly used to get the redis endpoint and config details.
      * @param redisCursor The previous Redis cursor (aka continuation token).
      * @param keys The collections of keys we collected so far. Any new keys we find are added to this.
+     * @param scanCount The COUNT hint of the SCAN.
      * @return The Redis cursor to use when continuing the scan.
      */
     private ScanCursor loadKeys(RedisCommandsWrapper<String, String> syncCommands, Split split,
-                                        ScanCursor redisCursor, Set<String> keys)
+                                        ScanCursor redisCursor, Set<String> keys, int scanCount)
     {
         KeyType keyType = KeyType.fromId(split.getProperty(KEY_TYPE));
         String keyPrefix = split.getProperty(KEY_PREFIX_TABLE_PROP);
@@ -259,10 +318,11 @@ public class RedisRecordHandler
         else {
             ScanCursor cursor = (redisCursor == null) ? INITIAL : redisCursor;
             ScanArgs scanArgs = new ScanArgs();
-            scanArgs.limit(SCAN_COUNT_SIZE);
+            scanArgs.limit(scanCount);
             scanArgs.match(split.getProperty(KEY_PREFIX_TABLE_PROP));
 
-            KeyScanCursor<String> newCursor = syncCommands.scan(cursor, scanArgs);
+            //Splits of a cluster only scan the keys of their slots, the other splits scan the whole instance
+            KeyScanCursor<String> newCursor = syncCommands.scan(split.getProperty(REDIS_CLUSTER_SLOTS), cursor, scanArgs);
             keys.addAll(newCursor.getKeys());
             return newCursor;
         }
@@ -303,7 +363,7 @@ public class RedisRecordHandler
         }
     }
 
-    private void loadLiteralRow(RedisCommandsWrapper<String, String> syncCommands, String keyString, BlockSpiller spiller, List<Field> fieldList)
+    private void loadLiteralRow(String keyString, String rawValue, BlockSpiller spiller, List<Field> fieldList)
     {
         spiller.writeRows((Block block, int row) -> {
             if (fieldList.size() != 1) {
@@ -311,14 +371,14 @@ public class RedisRecordHandler
             }
 
             Field field = fieldList.get(0);
-            Object value = ValueConverter.convert(field, syncCommands.get(keyString));
+            Object value = ValueConverter.convert(field, rawValue);
             boolean literalMatched = block.offerValue(KEY_COLUMN_NAME, row, keyString);
             literalMatched &= block.offerValue(field.getName(), row, value);
             return literalMatched ? 1 : 0;
         });
     }
 
-    private void loadHashRow(RedisCommandsWrapper<String, String> syncCommands, String keyString, BlockSpiller spiller,
+    private void loadHashRow(String keyString, Map<String, String> hashValues, BlockSpiller spiller,
                              List<Field> fieldList)
     {
         spiller.writeRows((Block block, int row) -> {
@@ -327,7 +387,7 @@ public class RedisRecordHandler
             Map<String, String> rawValues = new HashMap<>();
             //Glue only supports lowercase column names / also could do a better job only fetching the columns
             //that are needed
-            syncCommands.hgetall(keyString).forEach((key, entry) -> rawValues.put(key.toLowerCase(), entry));
+            hashValues.forEach((key, entry) -> rawValues.put(key.toLowerCase(), entry));
 
             for (Field hfield : fieldList) {
                 Object hvalue = ValueConverter.convert(hfield, rawValues.get(hfield.getName()));
@@ -20,37 +20,64 @@
 package com.amazonaws.athena.connectors.redis.lettuce;
 
 import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.Range;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
 import io.lettuce.core.ScoredValueScanCursor;
 import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
 import io.lettuce.core.cluster.api.sync.RedisAdvancedClusterCommands;
+import io.lettuce.core.cluster.models.partitions.Partitions;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
 import org.apache.arrow.util.VisibleForTesting;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 public class RedisCommandsWrapper<K, V>
 {
   private final RedisCommands<K, V> standaloneCommands;
+  private final RedisAsyncCommands<K, V> standaloneAsyncCommands;
   private final RedisAdvancedClusterCommands<K, V> clusterCommands;
+  private final RedisAdvancedClusterAsyncCommands<K, V> clusterAsyncCommands;
+  private final Supplier<Partitions> clusterPartitions;
   private final boolean isCluster;
 
   public RedisCommandsWrapper(RedisCommands<K, V> standaloneCommands,
-                              RedisAdvancedClusterCommands<K, V> clusterCommands, boolean isCluster)
+                              RedisAsyncCommands<K, V> standaloneAsyncCommands,
+                              RedisAdvancedClusterCommands<K, V> clusterCommands,
+                              RedisAdvancedClusterAsyncCommands<K, V> clusterAsyncCommands,
+                              Supplier<Partitions> clusterPartitions,
+                              boolean isCluster)
   {
     this.standaloneCommands = standaloneCommands;
+    this.standaloneAsyncCommands = standaloneAsyncCommands;
     this.clusterCommands = clusterCommands;
+    this.clusterAsyncCommands = clusterAsyncCommands;
+    this.clusterPartitions = clusterPartitions;
     this.isCluster = isCluster;
     if (isCluster) {
       requireNonNull(clusterCommands, "RedisAdvancedClusterCommands is required");
+      requireNonNull(clusterAsyncCommands, "RedisAdvancedClusterAsyncCommands is required");
+      requireNonNull(clusterPartitions, "Cluster Partitions are required");
     }
     else {
       requireNonNull(standaloneCommands, "RedisCommands is required");
+      requireNonNull(standaloneAsyncCommands, "RedisAsyncCommands is required");
     }
   }
 
@@ -64,6 +91,126 @@ public class RedisCommandsWrapper<K, V>
     }
   }
 
+  /**
+   * Scans the keys of the given hash slots of the cluster, the slots are ignored if the connection is not a cluster
+   * connection. The nodes serving the slots are looked up when the scan starts rather than when the split was planned,
+   * so that a failover or a resharding in between does not send the scan to a stale node, and only the keys hashing
+   * to the slots are returned so that a node serving the slots of several splits does not produce duplicates.
+   *
+   * @param slotRanges The hash slots to scan, as formatted by {@link #formatSlotRanges(List)}.
+   */
+  public KeyScanCursor<K> scan(String slotRanges, ScanCursor var1, ScanArgs var2)
+  {
+    if (!isCluster || slotRanges == null) {
+      return scan(var1, var2);
+    }
+
+    SlotScanCursor<K> previous = (var1 instanceof SlotScanCursor) ? (SlotScanCursor<K>) var1 : null;
+    BitSet slots = (previous != null) ? previous.slots : parseSlotRanges(slotRanges);
+    List<String> nodeIds = (previous != null) ? previous.nodeIds : getNodeIds(slots);
+    int nodeIndex = (previous != null) ? previous.nodeIndex : 0;
+    ScanCursor nodeCursor = (previous != null) ? ScanCursor.of(previous.getCursor()) : ScanCursor.INITIAL;
+
+    SlotScanCursor<K> next = new SlotScanCursor<>(slots, nodeIds);
+    if (nodeIndex < nodeIds.size()) {
+      KeyScanCursor<K> nodeResult = clusterCommands.getConnection(nodeIds.get(nodeIndex)).scan(nodeCursor, var2);
+      for (K key : nodeResult.getKeys()) {
+        if (slots.get(SlotHash.getSlot(String.valueOf(key)))) {
+          next.getKeys().add(key);
+        }
+      }
+      if (nodeResult.isFinished()) {
+        nodeIndex++;
+        next.setCursor(ScanCursor.INITIAL.getCursor());
+      }
+      else {
+        next.setCursor(nodeResult.getCursor());
+      }
+    }
+    next.nodeIndex = nodeIndex;
+    next.setFinished(nodeIndex >= nodeIds.size());
+    return next;
+  }
+
+  /**
+   * Formats hash slots as comma separated ranges, i.e. "0-5460,10923".
+   */
+  static String formatSlotRanges(List<Integer> slots)
+  {
+    List<Integer> sorted = new ArrayList<>(slots);
+    Collections.sort(sorted);
+    StringBuilder ranges = new StringBuilder();
+    int i = 0;
+    while (i < sorted.size()) {
+      int first = sorted.get(i);
+      int last = first;
+      while (i + 1 < sorted.size() && sorted.get(i + 1) <= last + 1) {
+        last = sorted.get(++i);
+      }
+      if (ranges.length() > 0) {
+        ranges.append(',');
+      }
+      ranges.append(first);
+      if (last != first) {
+        ranges.append('-').append(last);
+      }
+      i++;
+    }
+    return ranges.toString();
+  }
+
+  static BitSet parseSlotRanges(String slotRanges)
+  {
+    BitSet slots = new BitSet(SlotHash.SLOT_COUNT);
+    for (String range : slotRanges.split(",")) {
+      if (range.isEmpty()) {
+        continue;
+      }
+      int separator = range.indexOf('-');
+      if (separator < 0) {
+        slots.set(Integer.parseInt(range));
+      }
+      else {
+        slots.set(Integer.parseInt(range.substring(0, separator)), Integer.parseInt(range.substring(separator + 1)) + 1);
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * @return the ids of the upstream nodes currently serving the slots, in slot order.
+   */
+  private List<String> getNodeIds(BitSet slots)
+  {
+    Partitions partitions = clusterPartitions.get();
+    Set<String> nodeIds = new LinkedHashSet<>();
+    for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+      RedisClusterNode node = partitions.getPartitionBySlot(slot);
+      if (node == null) {
+        throw new RuntimeException("No cluster node is serving hash slot " + slot);
+      }
+      nodeIds.add(node.getNodeId());
+    }
+    return new ArrayList<>(nodeIds);
+  }
+
+  /**
+   * Cursor of a slot scan, remembers which node is being scanned and the cursor of that node.
+   */
+  private static class SlotScanCursor<K>
+      extends KeyScanCursor<K>
+  {
+    private final BitSet slots;
+    private final List<String> nodeIds;
+    private int nodeIndex;
+
+    private SlotScanCursor(BitSet slots, List<String> nodeIds)
+    {
+      this.slots = slots;
+      this.nodeIds = nodeIds;
+    }
+  }
+
   public Long zcount(K var1, Range<? extends Number> var2)
   {
     if (isCluster) {
@@ -104,6 +251,40 @@ public class RedisCommandsWrapper<K, V>
     }
   }
 
+  /**
+   * Sends a single MGET for all the keys without waiting for the reply. In cluster mode Lettuce splits the
+   * command by hash slot.
+   */
+  public CompletableFuture<List<KeyValue<K, V>>> mgetAsync(List<K> keys)
+  {
+    K[] keyArray = (K[]) keys.toArray();
+    if (isCluster) {
+      return clusterAsyncCommands.mget(keyArray).toCompletableFuture();
+    }
+    else {
+      return standaloneAsyncCommands.mget(keyArray).toCompletableFuture();
+    }
+  }
+
+  /**
+   * Pipelines one HGETALL per key on the shared connection, the commands are all written before any reply
+   * is awaited. The values are returned in the order of the keys.
+   */
+  public CompletableFuture<List<Map<K, V>>> hgetallAsync(List<K> keys)
+  {
+    List<CompletableFuture<Map<K, V>>> futures = new ArrayList<>(keys.size());
+    for (K key : keys) {
+      if (isCluster) {
+        futures.add(clusterAsyncCommands.hgetall(key).toCompletableFuture());
+      }
+      else {
+        futures.add(standaloneAsyncCommands.hgetall(key).toCompletableFuture());
+      }
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+        .thenApply(ignored -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+  }
+
   public ScoredValueScanCursor<V> zscan(K var1, ScanCursor var2)
   {
     if (isCluster) {
@@ -21,6 +21,11 @@ package com.amazonaws.athena.connectors.redis.lettuce;
 
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -39,11 +44,13 @@ public class RedisConnectionWrapper<K, V>
     this.isCluster = isCluster;
     if (isCluster) {
       requireNonNull(clusterConnection, "Cluster Connection is required");
-      redisCommandsWrapper = new RedisCommandsWrapper<K, V>(null, clusterConnection.sync(), isCluster);
+      redisCommandsWrapper = new RedisCommandsWrapper<K, V>(null, null, clusterConnection.sync(),
+          clusterConnection.async(), clusterConnection::getPartitions, isCluster);
     }
     else {
       requireNonNull(standaloneConnection, "Standalone Connection is required");
-      redisCommandsWrapper = new RedisCommandsWrapper<K, V>(standaloneConnection.sync(), null, isCluster);
+      redisCommandsWrapper = new RedisCommandsWrapper<K, V>(standaloneConnection.sync(),
+          standaloneConnection.async(), null, null, null, isCluster);
     }
   }
 
@@ -52,6 +59,25 @@ public class RedisConnectionWrapper<K, V>
     return this.redisCommandsWrapper;
   }
 
+  /**
+   * @return the hash slots served by each upstream node of the cluster, as last seen by the connection and formatted
+   * for {@link RedisCommandsWrapper#scan(String, io.lettuce.core.ScanCursor, io.lettuce.core.ScanArgs)}, or an empty
+   * list if the connection is not a cluster connection.
+   */
+  public List<String> getUpstreamSlotRanges()
+  {
+    if (!isCluster) {
+      return Collections.emptyList();
+    }
+    List<String> slotRanges = new ArrayList<>();
+    for (RedisClusterNode node : clusterConnection.getPartitions()) {
+      if (node.is(RedisClusterNode.NodeFlag.UPSTREAM) && !node.getSlots().isEmpty()) {
+        slotRanges.add(RedisCommandsWrapper.formatSlotRanges(node.getSlots()));
+      }
+    }
+    return slotRanges;
+  }
+
   public void close()
   {
     if (isCluster) {
@@ -24,6 +24,7 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
@@ -36,6 +37,8 @@ import com.amazonaws.athena.connectors.redis.lettuce.RedisCommandsWrapper;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionFactory;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionWrapper;
 import com.amazonaws.athena.connectors.redis.util.MockKeyScanCursor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.lettuce.core.Range;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
@@ -63,11 +66,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_PREFIX_TABLE_PROP;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_CLUSTER_FLAG;
+import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_CLUSTER_SLOTS;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_DB_NUMBER;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_ENDPOINT_PROP;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_SSL_FLAG;
@@ -305,4 +310,53 @@ public class RedisMetadataHandlerTest
         assertTrue("Continuation criteria violated", response.getSplits().size() == 3);
         assertTrue("Continuation criteria violated", response.getContinuationToken() == null);
     }
+
+    @Test
+    public void doGetSplitsPrefixCluster()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField("partitionId", Types.MinorType.INT.getType())
+                .addStringField(REDIS_ENDPOINT_PROP)
+                .addStringField(VALUE_TYPE_TABLE_PROP)
+                .addStringField(KEY_PREFIX_TABLE_PROP)
+                .addStringField(ZSET_KEYS_TABLE_PROP)
+                .addStringField(REDIS_SSL_FLAG)
+                .addStringField(REDIS_CLUSTER_FLAG)
+                .addStringField(REDIS_DB_NUMBER)
+                .build();
+
+        Block partitions = allocator.createBlock(schema);
+        partitions.setValue(REDIS_ENDPOINT_PROP, 0, endpoint);
+        partitions.setValue(VALUE_TYPE_TABLE_PROP, 0, "literal");
+        partitions.setValue(KEY_PREFIX_TABLE_PROP, 0, "prefix1-*,prefix2-*, prefix3-*");
+        partitions.setValue(ZSET_KEYS_TABLE_PROP, 0, null);
+        partitions.setValue(REDIS_SSL_FLAG, 0, null);
+        partitions.setValue(REDIS_CLUSTER_FLAG, 0, "true");
+        partitions.setValue(REDIS_DB_NUMBER, 0, null);
+        partitions.setRowCount(1);
+
+        when(mockConnection.getUpstreamSlotRanges()).thenReturn(ImmutableList.of("0-8191", "8192-16383"));
+
+        GetSplitsRequest req = new GetSplitsRequest(IDENTITY,
+                QUERY_ID,
+                DEFAULT_CATALOG,
+                TABLE_NAME,
+                partitions,
+                new ArrayList<>(),
+                new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = (GetSplitsResponse) handler.doGetSplits(allocator, req);
+
+        logger.info("doGetSplitsPrefixCluster: numSplits[{}]", response.getSplits().size());
+
+        //one split per prefix and node
+        assertEquals(6, response.getSplits().size());
+        Map<String, Integer> splitsPerSlots = new HashMap<>();
+        for (Split next : response.getSplits()) {
+            splitsPerSlots.merge(next.getProperty(REDIS_CLUSTER_SLOTS), 1, Integer::sum);
+        }
+        assertEquals(ImmutableMap.of("0-8191", 3, "8192-16383", 3), splitsPerSlots);
+        assertNull(response.getContinuationToken());
+    }
 }
@@ -42,6 +42,7 @@ import com.amazonaws.athena.connectors.redis.util.MockKeyScanCursor;
 import com.amazonaws.athena.connectors.redis.util.MockScoredValueScanCursor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteStreams;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
 import io.lettuce.core.ScoredValue;
@@ -80,6 +81,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
@@ -191,8 +193,8 @@ public class RedisRecordHandlerTest
             throws Exception
     {
         //4 keys per prefix
-        when(mockSyncCommands.scan(nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
-            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[0];
+        when(mockSyncCommands.scan(nullable(String.class), nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
+            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[1];
             if (cursor == null || cursor.getCursor().equals("0")) {
                 List<String> result = new ArrayList<>();
                 result.add(UUID.randomUUID().toString());
@@ -215,8 +217,12 @@ public class RedisRecordHandlerTest
         });
 
         AtomicLong value = new AtomicLong(0);
-        when(mockSyncCommands.get(nullable(String.class)))
-                .thenAnswer((InvocationOnMock invocationOnMock) -> String.valueOf(value.getAndIncrement()));
+        when(mockSyncCommands.mgetAsync(nullable(List.class))).then((InvocationOnMock invocationOnMock) -> {
+            List<String> keys = invocationOnMock.getArgument(0);
+            List<KeyValue<String, String>> result = new ArrayList<>();
+            keys.forEach(key -> result.add(KeyValue.just(key, String.valueOf(value.getAndIncrement()))));
+            return CompletableFuture.completedFuture(result);
+        });
 
         S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
                 .withBucket(UUID.randomUUID().toString())
@@ -276,8 +282,8 @@ public class RedisRecordHandlerTest
             throws Exception
     {
         //4 keys per prefix
-        when(mockSyncCommands.scan(nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
-            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[0];
+        when(mockSyncCommands.scan(nullable(String.class), nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
+            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[1];
             if (cursor == null || cursor.getCursor().equals("0")) {
                 List<String> result = new ArrayList<>();
                 result.add(UUID.randomUUID().toString());
@@ -304,12 +310,17 @@ public class RedisRecordHandlerTest
 
         //4 columns per key
         AtomicLong intColVal = new AtomicLong(0);
-        when(mockSyncCommands.hgetall(nullable(String.class))).then((InvocationOnMock invocationOnMock) -> {
-            Map<String, String> result = new HashMap<>();
-            result.put("intcol", String.valueOf(intColVal.getAndIncrement()));
-            result.put("stringcol", UUID.randomUUID().toString());
-            result.put("extracol", UUID.randomUUID().toString());
-            return result;
+        when(mockSyncCommands.hgetallAsync(nullable(List.class))).then((InvocationOnMock invocationOnMock) -> {
+            List<String> keys = invocationOnMock.getArgument(0);
+            List<Map<String, String>> result = new ArrayList<>();
+            for (String key : keys) {
+                Map<String, String> hash = new HashMap<>();
+                hash.put("intcol", String.valueOf(intColVal.getAndIncrement()));
+                hash.put("stringcol", UUID.randomUUID().toString());
+                hash.put("extracol", UUID.randomUUID().toString());
+                result.add(hash);
+            }
+            return CompletableFuture.completedFuture(result);
         });
 
         AtomicLong value = new AtomicLong(0);
@@ -380,8 +391,8 @@ public class RedisRecordHandlerTest
             throws Exception
     {
         //4 keys per prefix
-        when(mockSyncCommands.scan(nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
-            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[0];
+        when(mockSyncCommands.scan(nullable(String.class), nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
+            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[1];
             if (cursor == null || cursor.getCursor().equals("0")) {
                 List<String> result = new ArrayList<>();
                 result.add(UUID.randomUUID().toString());
@@ -484,6 +495,19 @@ public class RedisRecordHandlerTest
         assertNotNull(intCol.readInteger());
     }
 
+    @Test
+    public void nextScanCount()
+    {
+        //sparse prefixes grow the COUNT hint up to its maximum
+        assertEquals(200, RedisRecordHandler.nextScanCount(100, 10));
+        assertEquals(10_000, RedisRecordHandler.nextScanCount(8_000, 0));
+        //a page that fills about a window keeps the hint
+        assertEquals(400, RedisRecordHandler.nextScanCount(400, 500));
+        //dense prefixes shrink it back, but not below the initial hint
+        assertEquals(200, RedisRecordHandler.nextScanCount(400, 1_500));
+        assertEquals(100, RedisRecordHandler.nextScanCount(100, 5_000));
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;
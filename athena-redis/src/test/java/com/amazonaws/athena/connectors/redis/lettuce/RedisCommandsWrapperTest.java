@@ -0,0 +1,146 @@
+/*-
+ * #%L
+ * athena-redis
+ * %%
+ * Copyright (C) 2019 - 2021 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.redis.lettuce;
+
+import com.amazonaws.athena.connectors.redis.util.MockKeyScanCursor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisAdvancedClusterCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.cluster.models.partitions.Partitions;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RedisCommandsWrapperTest
+{
+  @Mock
+  private RedisAdvancedClusterCommands<String, String> mockClusterCommands;
+
+  @Mock
+  private RedisAdvancedClusterAsyncCommands<String, String> mockClusterAsyncCommands;
+
+  @Mock
+  private RedisClusterCommands<String, String> mockNode1Commands;
+
+  @Mock
+  private RedisClusterCommands<String, String> mockNode2Commands;
+
+  private RedisCommandsWrapper<String, String> commands;
+
+  @Before
+  public void setUp()
+  {
+    //the split was planned against another topology, the nodes serving its slots are only known at scan time
+    Partitions partitions = new Partitions();
+    partitions.addPartition(makeNode("node-1", 0, 8191));
+    partitions.addPartition(makeNode("node-2", 8192, 16383));
+    partitions.updateCache();
+
+    commands = new RedisCommandsWrapper<>(null, null, mockClusterCommands, mockClusterAsyncCommands, () -> partitions, true);
+  }
+
+  @Test
+  public void scanSlots()
+  {
+    int barSlot = SlotHash.getSlot("bar");
+    int fooSlot = SlotHash.getSlot("foo");
+    assertTrue(barSlot < 8192 && fooSlot >= 8192);
+    String slotRanges = RedisCommandsWrapper.formatSlotRanges(ImmutableList.of(fooSlot, barSlot));
+
+    when(mockClusterCommands.getConnection("node-1")).thenReturn(mockNode1Commands);
+    when(mockClusterCommands.getConnection("node-2")).thenReturn(mockNode2Commands);
+    //node-1 also serves "baz" whose slot belongs to another split
+    when(mockNode1Commands.scan(argThat((ScanCursor cursor) -> cursor != null && "0".equals(cursor.getCursor())), any(ScanArgs.class)))
+        .thenReturn(makeCursor("7", false, "bar", "baz"));
+    when(mockNode1Commands.scan(argThat((ScanCursor cursor) -> cursor != null && "7".equals(cursor.getCursor())), any(ScanArgs.class)))
+        .thenReturn(makeCursor("0", true));
+    when(mockNode2Commands.scan(any(ScanCursor.class), any(ScanArgs.class)))
+        .thenReturn(makeCursor("0", true, "foo"));
+
+    Set<String> keys = new HashSet<>();
+    ScanCursor cursor = ScanCursor.INITIAL;
+    int pages = 0;
+    do {
+      KeyScanCursor<String> next = commands.scan(slotRanges, cursor, new ScanArgs());
+      keys.addAll(next.getKeys());
+      cursor = next;
+      pages++;
+    }
+    while (!cursor.isFinished());
+
+    assertEquals(3, pages);
+    assertEquals(ImmutableSet.of("bar", "foo"), keys);
+  }
+
+  @Test
+  public void slotRanges()
+  {
+    assertEquals("0-2,5,7-8", RedisCommandsWrapper.formatSlotRanges(ImmutableList.of(8, 0, 5, 1, 7, 2)));
+
+    List<Integer> slots = IntStream.range(0, 16384).filter(slot -> slot % 1000 != 0).boxed().collect(Collectors.toList());
+    BitSet parsed = RedisCommandsWrapper.parseSlotRanges(RedisCommandsWrapper.formatSlotRanges(slots));
+    assertEquals(slots, parsed.stream().boxed().collect(Collectors.toList()));
+    assertFalse(parsed.get(16000));
+  }
+
+  private static RedisClusterNode makeNode(String nodeId, int firstSlot, int lastSlot)
+  {
+    RedisClusterNode node = new RedisClusterNode();
+    node.setNodeId(nodeId);
+    node.setFlags(Collections.singleton(RedisClusterNode.NodeFlag.UPSTREAM));
+    node.setSlots(IntStream.rangeClosed(firstSlot, lastSlot).boxed().collect(Collectors.toList()));
+    return node;
+  }
+
+  private static KeyScanCursor<String> makeCursor(String cursor, boolean finished, String... keys)
+  {
+    MockKeyScanCursor<String> result = new MockKeyScanCursor<>();
+    result.setKeys(new ArrayList<>(ImmutableList.copyOf(keys)));
+    result.setCursor(cursor);
+    result.setFinished(finished);
+    return result;
+  }
+}
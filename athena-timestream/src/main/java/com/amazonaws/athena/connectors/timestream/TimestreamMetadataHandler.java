@@ -25,6 +25,9 @@ import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
@@ -60,12 +63,20 @@ import software.amazon.awssdk.services.timestreamquery.model.QueryResponse;
 import software.amazon.awssdk.services.timestreamquery.model.Row;
 import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteClient;
 import software.amazon.awssdk.services.timestreamwrite.model.Database;
+import software.amazon.awssdk.services.timestreamwrite.model.DescribeTableRequest;
 import software.amazon.awssdk.services.timestreamwrite.model.ListDatabasesRequest;
 import software.amazon.awssdk.services.timestreamwrite.model.ListDatabasesResponse;
+import software.amazon.awssdk.services.timestreamwrite.model.RetentionProperties;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -86,6 +97,18 @@ public class TimestreamMetadataHandler
 
     private static final long MAX_RESULTS = 100_000;
 
+    //The column holding the time of every record of a Timestream table.
+    protected static final String TIME_COLUMN = "time";
+    //Split properties holding the time range of a split in epoch milliseconds, a missing property leaves the range open.
+    protected static final String TIME_RANGE_START = "time_range_start";
+    protected static final String TIME_RANGE_END = "time_range_end";
+    //Config for the maximum number of time ranges, each read by its own split, that a query is cut into. This is opt-in,
+    //by default a query is read by a single split since every split is a separate (billed) Timestream query.
+    protected static final String TIME_RANGE_SPLITS_CONFIG = "time_range_splits";
+    private static final String DEFAULT_TIME_RANGE_SPLITS = "1";
+    //Time ranges are not cut into pieces shorter than this, as every query has a fixed cost.
+    private static final long MIN_SPLIT_TIME_RANGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
     //Used to generate TimeStream queries using templates query patterns.
     private final QueryFactory queryFactory = new QueryFactory();
 
@@ -345,22 +368,114 @@ public class TimestreamMetadataHandler
         //NoOp as we do not support partitioning.
     }
 
+    /**
+     * Cuts the time range of the query into consecutive time ranges, each read by its own split with its own query.
+     * The time range is taken from the predicate on the time column, or from the retention of the table when the
+     * predicate is missing or open-ended. The first and the last split are left open-ended, so that records outside of
+     * the estimated time range (e.g. written with a time in the future) are still read.
+     */
     @Override
     public GetSplitsResponse doGetSplits(BlockAllocator allocator, GetSplitsRequest request)
             throws Exception
     {
-        //Since we do not support connector level parallelism for this source at the moment, we generate a single
-        //basic split.
-        Split split;
         if (request.getConstraints().isQueryPassThrough()) {
             logger.info("QPT Split Requested");
             Map<String, String> qptArguments = request.getConstraints().getQueryPassthroughArguments();
-            split = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey()).applyProperties(qptArguments).build();
+            Split split = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey()).applyProperties(qptArguments).build();
+            return new GetSplitsResponse(request.getCatalogName(), split);
         }
-        else {
-            split = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey()).build();
+
+        List<Long> boundaries = getTimeRangeBoundaries(request);
+        Set<Split> splits = new HashSet<>();
+        Long start = null;
+        for (int i = 0; i <= boundaries.size(); i++) {
+            Long end = (i < boundaries.size()) ? boundaries.get(i) : null;
+            Split.Builder splitBuilder = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey());
+            if (start != null) {
+                splitBuilder.add(TIME_RANGE_START, String.valueOf(start));
+            }
+            if (end != null) {
+                splitBuilder.add(TIME_RANGE_END, String.valueOf(end));
+            }
+            splits.add(splitBuilder.build());
+            start = end;
         }
 
-        return new GetSplitsResponse(request.getCatalogName(), split);
+        logger.info("doGetSplits: table[{}] split into {} time ranges", request.getTableName(), splits.size());
+        return new GetSplitsResponse(request.getCatalogName(), splits);
+    }
+
+    /**
+     * @return The epoch milliseconds at which the time range of the query is cut, empty if the query is read by a single split.
+     */
+    private List<Long> getTimeRangeBoundaries(GetSplitsRequest request)
+    {
+        List<Long> boundaries = new ArrayList<>();
+        int maxSplits = Integer.parseInt(configOptions.getOrDefault(TIME_RANGE_SPLITS_CONFIG, DEFAULT_TIME_RANGE_SPLITS));
+        if (maxSplits <= 1) {
+            return boundaries;
+        }
+
+        Long low = null;
+        Long high = null;
+        ValueSet timeConstraint = request.getConstraints().getSummary().get(TIME_COLUMN);
+        if (timeConstraint instanceof SortedRangeSet) {
+            if (timeConstraint.isNone()) {
+                return boundaries;
+            }
+            Range span = ((SortedRangeSet) timeConstraint).getSpan();
+            low = span.getLow().isLowerUnbounded() ? null : toEpochMilli(span.getLow().getValue());
+            high = span.getHigh().isUpperUnbounded() ? null : toEpochMilli(span.getHigh().getValue());
+        }
+        if (high == null) {
+            high = System.currentTimeMillis();
+        }
+        if (low == null) {
+            low = getRetentionStart(request.getTableName(), high);
+        }
+        if (low == null || high - low < 2 * MIN_SPLIT_TIME_RANGE_MILLIS) {
+            return boundaries;
+        }
+
+        int numSplits = (int) Math.min(maxSplits, (high - low) / MIN_SPLIT_TIME_RANGE_MILLIS);
+        long step = (high - low) / numSplits;
+        for (int i = 1; i < numSplits; i++) {
+            boundaries.add(low + i * step);
+        }
+        return boundaries;
+    }
+
+    /**
+     * @return The time of the oldest record the table can hold, or null if the table can not be described (e.g. a view).
+     */
+    private Long getRetentionStart(TableName tableName, long now)
+    {
+        try {
+            RetentionProperties retention = tsMeta.describeTable(DescribeTableRequest.builder()
+                    .databaseName(tableName.getSchemaName())
+                    .tableName(tableName.getTableName())
+                    .build())
+                    .table()
+                    .retentionProperties();
+            long retentionMillis = Math.max(TimeUnit.HOURS.toMillis(retention.memoryStoreRetentionPeriodInHours()),
+                    TimeUnit.DAYS.toMillis(retention.magneticStoreRetentionPeriodInDays()));
+            return now - retentionMillis;
+        }
+        catch (RuntimeException ex) {
+            logger.warn("getRetentionStart: Unable to retrieve the retention of table[{}], reading it with a single split.", tableName, ex);
+            return null;
+        }
+    }
+
+    private static Long toEpochMilli(Object value)
+    {
+        if (value instanceof LocalDateTime) {
+            //Timestream times do not hold zone information and are treated as UTC
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return null;
     }
 }
@@ -32,6 +32,7 @@ import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float8Extractor;
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarCharExtractor;
 import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCharHolder;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
 import com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler;
@@ -40,6 +41,7 @@ import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.timestream.qpt.TimestreamQueryPassthrough;
 import com.amazonaws.athena.connectors.timestream.query.QueryFactory;
 import com.amazonaws.athena.connectors.timestream.query.SelectQueryBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.holders.NullableBigIntHolder;
@@ -69,6 +71,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_COLUMN;
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_RANGE_END;
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_RANGE_START;
 
 public class TimestreamRecordHandler
         extends RecordHandler
@@ -106,12 +116,14 @@ public class TimestreamRecordHandler
     }
 
     /**
-     * Scans TimeStream.
+     * Scans TimeStream. The next page of the query is fetched in the background while the rows of the current page are
+     * written.
      *
      * @see RecordHandler
      */
     @Override
     protected void readWithConstraint(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
     {
         TableName tableName = recordsRequest.getTableName();
         String query;
@@ -120,32 +132,60 @@ public class TimestreamRecordHandler
             query = recordsRequest.getConstraints().getQueryPassthroughArguments().get(TimestreamQueryPassthrough.QUERY);
         }
         else {
+            Split split = recordsRequest.getSplit();
             SelectQueryBuilder queryBuilder = queryFactory.createSelectQueryBuilder(GlueMetadataHandler.VIEW_METADATA_FIELD);
             query = queryBuilder.withDatabaseName(tableName.getSchemaName())
                     .withTableName(tableName.getTableName())
                     .withProjection(recordsRequest.getSchema())
                     .withConjucts(recordsRequest.getConstraints())
+                    .withTimeRange(TIME_COLUMN, split.getProperty(TIME_RANGE_START), split.getProperty(TIME_RANGE_END))
                     .build();
         }
 
         logger.info("readWithConstraint: query[{}]", query);
 
         GeneratedRowWriter rowWriter = buildRowWriter(recordsRequest);
-        String nextToken = null;
         long numRows = 0;
 
-        do {
-            QueryResponse queryResult = tsQuery.query(QueryRequest.builder().queryString(query).nextToken(nextToken).build());
-            List<Row> data = queryResult.rows();
-            if (data != null) {
-                numRows += data.size();
-                for (Row nextRow : data) {
-                    spiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, nextRow) ? 1 : 0);
+        ExecutorService pagePrefetcher = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("timestream-page-prefetch-%d").setDaemon(true).build());
+        try {
+            QueryResponse queryResult = tsQuery.query(QueryRequest.builder().queryString(query).build());
+            while (queryResult != null) {
+                List<Row> data = queryResult.rows();
+                String nextToken = queryResult.nextToken();
+                Future<QueryResponse> nextPage = null;
+                if (nextToken != null && !nextToken.isEmpty() && queryStatusChecker.isQueryRunning()) {
+                    QueryRequest nextRequest = QueryRequest.builder().queryString(query).nextToken(nextToken).build();
+                    nextPage = pagePrefetcher.submit(() -> tsQuery.query(nextRequest));
+                }
+                if (data != null) {
+                    numRows += data.size();
+                    for (Row nextRow : data) {
+                        spiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, nextRow) ? 1 : 0);
+                    }
                 }
+                logger.info("readWithConstraint: numRows[{}]", numRows);
+                queryResult = (nextPage != null) ? getNextPage(nextPage) : null;
+            }
+        }
+        finally {
+            pagePrefetcher.shutdownNow();
+        }
+    }
+
+    private static QueryResponse getNextPage(Future<QueryResponse> nextPage)
+            throws Exception
+    {
+        try {
+            return nextPage.get();
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
             }
-            nextToken = queryResult.nextToken();
-            logger.info("readWithConstraint: numRows[{}]", numRows);
-        } while (nextToken != null && !nextToken.isEmpty());
+            throw ex;
+        }
     }
 
     private GeneratedRowWriter buildRowWriter(ReadRecordsRequest request)
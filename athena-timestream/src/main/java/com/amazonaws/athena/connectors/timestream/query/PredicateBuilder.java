@@ -55,6 +55,26 @@ public class PredicateBuilder
         return toConjuncts(constraints);
     }
 
+    /**
+     * Builds the conjuncts which restrict a query to the time range of a split.
+     *
+     * @param timeColumn The name of the time column.
+     * @param startMillis The inclusive start of the time range in epoch milliseconds, or null if the range has no start.
+     * @param endMillis The exclusive end of the time range in epoch milliseconds, or null if the range has no end.
+     * @return The conjuncts, empty if the range has neither a start nor an end.
+     */
+    public static List<String> buildTimeRangeConjucts(String timeColumn, String startMillis, String endMillis)
+    {
+        List<String> conjuncts = new ArrayList<>();
+        if (startMillis != null) {
+            conjuncts.add("(" + quoteColumn(timeColumn) + " >= from_milliseconds(" + Long.parseLong(startMillis) + "))");
+        }
+        if (endMillis != null) {
+            conjuncts.add("(" + quoteColumn(timeColumn) + " < from_milliseconds(" + Long.parseLong(endMillis) + "))");
+        }
+        return conjuncts;
+    }
+
     private static List<String> toConjuncts(Constraints constraints)
     {
         List<String> conjuncts = new ArrayList<>();
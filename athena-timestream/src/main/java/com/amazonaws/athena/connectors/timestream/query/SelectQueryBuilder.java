@@ -24,6 +24,8 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.commons.lang3.Validate;
 import org.stringtemplate.v4.ST;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -42,6 +44,7 @@ public class SelectQueryBuilder
     private List<String> projection;
     private String viewText;
     private List<String> conjucts;
+    private List<String> timeRangeConjucts = Collections.emptyList();
     private String databaseName;
     private String tableName;
 
@@ -75,7 +78,15 @@ public class SelectQueryBuilder
 
     public List<String> getConjucts()
     {
-        return conjucts;
+        if (timeRangeConjucts.isEmpty()) {
+            return conjucts;
+        }
+        List<String> allConjucts = new ArrayList<>();
+        if (conjucts != null) {
+            allConjucts.addAll(conjucts);
+        }
+        allConjucts.addAll(timeRangeConjucts);
+        return allConjucts;
     }
 
     public SelectQueryBuilder withConjucts(Constraints constraints)
@@ -84,6 +95,15 @@ public class SelectQueryBuilder
         return this;
     }
 
+    /**
+     * Restricts the query to the time range of a split, see {@link PredicateBuilder#buildTimeRangeConjucts}.
+     */
+    public SelectQueryBuilder withTimeRange(String timeColumn, String startMillis, String endMillis)
+    {
+        this.timeRangeConjucts = PredicateBuilder.buildTimeRangeConjucts(timeColumn, startMillis, endMillis);
+        return this;
+    }
+
     public String getTableName()
     {
         return tableName;
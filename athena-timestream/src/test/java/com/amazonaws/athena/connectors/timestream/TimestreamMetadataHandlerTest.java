@@ -24,8 +24,12 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
@@ -40,6 +44,9 @@ import com.amazonaws.athena.connector.lambda.metadata.MetadataRequestType;
 import com.amazonaws.athena.connector.lambda.metadata.MetadataResponse;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -64,18 +71,31 @@ import software.amazon.awssdk.services.timestreamquery.model.QueryResponse;
 import software.amazon.awssdk.services.timestreamquery.model.Row;
 import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteClient;
 import software.amazon.awssdk.services.timestreamwrite.model.Database;
+import software.amazon.awssdk.services.timestreamwrite.model.DescribeTableRequest;
+import software.amazon.awssdk.services.timestreamwrite.model.DescribeTableResponse;
 import software.amazon.awssdk.services.timestreamwrite.model.ListDatabasesRequest;
 import software.amazon.awssdk.services.timestreamwrite.model.ListDatabasesResponse;
+import software.amazon.awssdk.services.timestreamwrite.model.RetentionProperties;
 import software.amazon.awssdk.services.timestreamwrite.model.Table;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler.VIEW_METADATA_FIELD;
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_COLUMN;
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_RANGE_END;
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_RANGE_SPLITS_CONFIG;
+import static com.amazonaws.athena.connectors.timestream.TimestreamMetadataHandler.TIME_RANGE_START;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.nullable;
@@ -457,9 +477,93 @@ public class TimestreamMetadataHandlerTest
         logger.info("doGetSplits: continuationToken[{}] - numSplits[{}]",
                 new Object[] {continuationToken, response.getSplits().size()});
 
+        //time range splits are opt-in, so the table is read by a single split
         assertTrue("Continuation criteria violated", response.getSplits().size() == 1);
         assertTrue("Continuation criteria violated", response.getContinuationToken() == null);
+        verify(mockTsMeta, times(0)).describeTable(nullable(DescribeTableRequest.class));
 
         logger.info("doGetSplits - exit");
     }
+
+    @Test
+    public void doGetSplitsRetention()
+            throws Exception
+    {
+        handler = makeHandler(ImmutableMap.of(TIME_RANGE_SPLITS_CONFIG, "8"));
+        Block partitions = BlockUtils.newBlock(allocator, "partition_id", Types.MinorType.INT.getType(), 0);
+
+        GetSplitsRequest req = new GetSplitsRequest(identity,
+                "query-id",
+                defaultSchema,
+                new TableName("database1", "table1"),
+                partitions,
+                new ArrayList<>(),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        when(mockTsMeta.describeTable(nullable(DescribeTableRequest.class))).thenReturn(DescribeTableResponse.builder()
+                .table(Table.builder()
+                        .retentionProperties(RetentionProperties.builder()
+                                .memoryStoreRetentionPeriodInHours(12L)
+                                .magneticStoreRetentionPeriodInDays(1L)
+                                .build())
+                        .build())
+                .build());
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        //the day of retention of the table is cut into the maximum number of time ranges
+        assertEquals(8, response.getSplits().size());
+        assertEquals(1, response.getSplits().stream().filter(next -> next.getProperty(TIME_RANGE_START) == null).count());
+        assertEquals(1, response.getSplits().stream().filter(next -> next.getProperty(TIME_RANGE_END) == null).count());
+    }
+
+    @Test
+    public void doGetSplitsTimeRange()
+            throws Exception
+    {
+        handler = makeHandler(ImmutableMap.of(TIME_RANGE_SPLITS_CONFIG, "8"));
+        Block partitions = BlockUtils.newBlock(allocator, "partition_id", Types.MinorType.INT.getType(), 0);
+
+        LocalDateTime start = LocalDateTime.of(2024, 4, 5, 0, 0);
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(TIME_COLUMN, SortedRangeSet.copyOf(Types.MinorType.DATEMILLI.getType(),
+                ImmutableList.of(Range.range(allocator, Types.MinorType.DATEMILLI.getType(), start, true, start.plusHours(3), false)), false));
+
+        GetSplitsRequest req = new GetSplitsRequest(identity,
+                "query-id",
+                defaultSchema,
+                new TableName("database1", "table1"),
+                partitions,
+                new ArrayList<>(),
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        //three hours are cut into hourly time ranges, the outer ones are left open
+        long startMillis = start.toInstant(ZoneOffset.UTC).toEpochMilli();
+        Set<String> boundaries = new HashSet<>();
+        for (Split next : response.getSplits()) {
+            if (next.getProperty(TIME_RANGE_START) != null) {
+                boundaries.add(next.getProperty(TIME_RANGE_START));
+            }
+        }
+        assertEquals(3, response.getSplits().size());
+        assertEquals(ImmutableSet.of(String.valueOf(startMillis + 3_600_000L), String.valueOf(startMillis + 7_200_000L)), boundaries);
+        verify(mockTsMeta, times(0)).describeTable(nullable(DescribeTableRequest.class));
+    }
+
+    private TimestreamMetadataHandler makeHandler(Map<String, String> configOptions)
+    {
+        return new TimestreamMetadataHandler(mockTsQuery,
+                mockTsMeta,
+                mockGlue,
+                new LocalKeyFactory(),
+                mockSecretsManager,
+                mockAthena,
+                "spillBucket",
+                "spillPrefix",
+                configOptions);
+    }
 }
@@ -134,6 +134,38 @@ public class SelectQueryBuilderTest
         logger.info("build: exit");
     }
 
+    @Test
+    public void buildWithTimeRange()
+    {
+        String expected = "SELECT val FROM \"myDatabase\".\"myTable\" WHERE (val IS NOT NULL) AND (\"time\" >= from_milliseconds(1000)) AND (\"time\" < from_milliseconds(2000))";
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("val", SortedRangeSet.notNull(allocator, Types.MinorType.BIGINT.getType()));
+
+        Schema schema = SchemaBuilder.newBuilder()
+                .addBigIntField("val")
+                .build();
+
+        String actual = queryFactory.createSelectQueryBuilder(VIEW_METADATA_FIELD)
+                .withDatabaseName("myDatabase")
+                .withTableName("myTable")
+                .withProjection(schema)
+                .withConjucts(new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null))
+                .withTimeRange("time", "1000", "2000")
+                .build().replace("\n", "");
+        assertEquals(expected, actual);
+
+        //the first split of a table has no start
+        actual = queryFactory.createSelectQueryBuilder(VIEW_METADATA_FIELD)
+                .withDatabaseName("myDatabase")
+                .withTableName("myTable")
+                .withProjection(schema)
+                .withConjucts(new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null))
+                .withTimeRange("time", null, "2000")
+                .build().replace("\n", "");
+        assertEquals("SELECT val FROM \"myDatabase\".\"myTable\" WHERE (\"time\" < from_milliseconds(2000))", actual);
+    }
+
     @Test
     public void buildWithView()
     {
@@ -98,6 +98,9 @@ public class VerticaMetadataHandler
      */
     static final Map<String, String> JDBC_PROPERTIES = ImmutableMap.of("databaseTerm", "SCHEMA");
     private static final String EXPORT_BUCKET_KEY = "export_bucket";
+    // size of the exported parquet files, each file is read by its own split
+    private static final String EXPORT_FILE_SIZE_MB_KEY = "export_file_size_mb";
+    private static final String DEFAULT_EXPORT_FILE_SIZE_MB = "16";
     private static final String EMPTY_STRING = StringUtils.EMPTY;
     private static final String TABLE_SCHEMA = "TABLE_SCHEM";
     private static final String[] TABLE_TYPES = {"TABLE"};
@@ -294,6 +297,7 @@ public class VerticaMetadataHandler
 
             preparedSQLStmt = queryBuilder.withS3ExportBucket(s3ExportBucket)
                     .withQueryID(queryID)
+                    .withFileSizeMB(getExportFileSizeMB())
                     .withColumns(definition, schemaName)
                     .fromTable(tableName.getSchemaName(), tableName.getTableName())
                     .withConstraints(constraints, schemaName)
@@ -359,6 +363,7 @@ public class VerticaMetadataHandler
             VerticaExportQueryBuilder queryBuilder = queryFactory.createQptVerticaExportQueryBuilder();
             sqlStatement = queryBuilder.withS3ExportBucket(s3ExportBucket)
                     .withQueryID(queryID)
+                    .withFileSizeMB(getExportFileSizeMB())
                     .withPreparedStatementSQL(preparedSQL).build();
             logger.info("Vertica Export Statement: {}", sqlStatement);
         }
@@ -446,22 +451,32 @@ public class VerticaMetadataHandler
     }
 
     /*
-     * Get the list of all the exported S3 objects
+     * Get the list of all the exported S3 objects, a listing returns at most 1000 objects per page
      */
     private List<S3Object> getlistExportedObjects(String s3ExportBucket, String prefix){
-        ListObjectsResponse listObjectsResponse;
+        List<S3Object> exportedObjects = new ArrayList<>();
+        String marker = null;
         try
         {
-            listObjectsResponse = amazonS3.listObjects(ListObjectsRequest.builder()
-                    .bucket(s3ExportBucket)
-                    .prefix(prefix)
-                    .build());
+            ListObjectsResponse listObjectsResponse;
+            do {
+                listObjectsResponse = amazonS3.listObjects(ListObjectsRequest.builder()
+                        .bucket(s3ExportBucket)
+                        .prefix(prefix)
+                        .marker(marker)
+                        .build());
+                exportedObjects.addAll(listObjectsResponse.contents());
+                if (!listObjectsResponse.contents().isEmpty()) {
+                    marker = listObjectsResponse.contents().get(listObjectsResponse.contents().size() - 1).key();
+                }
+            }
+            while (Boolean.TRUE.equals(listObjectsResponse.isTruncated()) && !listObjectsResponse.contents().isEmpty());
         }
         catch (SdkClientException e)
         {
             throw new RuntimeException("Exception listing the exported objects : " + e.getMessage(), e);
         }
-        return listObjectsResponse.contents();
+        return exportedObjects;
     }
 
     private void testAccess(Connection conn, TableName table) {
@@ -491,6 +506,11 @@ public class VerticaMetadataHandler
         return configOptions.get(EXPORT_BUCKET_KEY);
     }
 
+    public int getExportFileSizeMB()
+    {
+        return Integer.parseInt(configOptions.getOrDefault(EXPORT_FILE_SIZE_MB_KEY, DEFAULT_EXPORT_FILE_SIZE_MB));
+    }
+
     public String buildQueryPassthroughSql(Constraints constraints)
     {
         queryPassthrough.verify(constraints.getQueryPassthroughArguments());
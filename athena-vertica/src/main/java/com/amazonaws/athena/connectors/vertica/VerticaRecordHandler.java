@@ -42,6 +42,12 @@ import org.apache.arrow.dataset.source.DatasetFactory;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.util.VisibleForTesting;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.holders.*;
 import org.apache.arrow.vector.ipc.ArrowReader;
@@ -60,6 +66,7 @@ import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_S
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -69,6 +76,8 @@ public class VerticaRecordHandler
         extends RecordHandler {
     private static final Logger logger = LoggerFactory.getLogger(VerticaRecordHandler.class);
     private static final String SOURCE_TYPE = "vertica";
+    // The BlockSpiller accepts at most 100 rows per call to writeRows(...).
+    private static final int MAX_ROWS_PER_WRITE = 100;
 
     public VerticaRecordHandler(java.util.Map<String, String> configOptions)
     {
@@ -120,7 +129,7 @@ public class VerticaRecordHandler
             }
 
 
-            // creating a RowContext class to hold the column name and value.
+            // creating a RowContext class to hold the column vectors and the current row.
             final RowContext rowContext = new RowContext(id);
 
             //Generating the RowWriter and Extractor
@@ -132,24 +141,31 @@ public class VerticaRecordHandler
             GeneratedRowWriter rowWriter = builder.build();
 
             /*
-            Using Arrow Dataset to read the S3 Parquet file generated in the split
+            Using Arrow Dataset to read the S3 Parquet file generated in the split. The extractors read the values of the
+            primitive columns straight from the typed vectors of each batch (without boxing them through getObject), and
+            several rows are written per call to the BlockSpiller.
             */
             try (ArrowReader reader = constructArrowReader(constructS3Uri(exportBucket, s3ObjectKey)))
             {
-                while (reader.loadNextBatch()) {
+                while (reader.loadNextBatch() && queryStatusChecker.isQueryRunning()) {
                     VectorSchemaRoot root = reader.getVectorSchemaRoot();
-                    for (int row = 0; row < root.getRowCount(); row++) {
-                        HashMap<String, Object> map = new HashMap<>();
-                        for (Field field : root.getSchema().getFields()) {
-                            map.put(field.getName(), root.getVector(field).getObject(row));
-                        }
-                        rowContext.setNameValue(map);
-    
-                        //Passing the RowContext to BlockWriter;
-                        spiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, rowContext) ? 1 : 0);
+                    rowContext.setVectors(root);
+                    int rowCount = root.getRowCount();
+                    int row = 0;
+                    while (row < rowCount) {
+                        int firstRow = row;
+                        int lastRow = Math.min(rowCount, firstRow + MAX_ROWS_PER_WRITE);
+                        spiller.writeRows((Block block, int rowNum) -> {
+                            int matched = 0;
+                            for (int next = firstRow; next < lastRow; next++) {
+                                rowContext.setRow(next);
+                                matched += rowWriter.writeRow(block, rowNum + matched, rowContext) ? 1 : 0;
+                            }
+                            return matched;
+                        });
+                        row = lastRow;
                     }
                 }
-                reader.close();
             } catch (Exception e) {
                 throw new RuntimeException("Error in connecting to S3 and selecting the object content for object : " + s3ObjectKey, e);
             }
@@ -170,39 +186,53 @@ public class VerticaRecordHandler
             case BIT:
                 return (BitExtractor) (Object context, NullableBitHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null)
-                    {
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
+                    else if (vector instanceof BitVector) {
+                        dst.value = ((BitVector) vector).get(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
                     else {
-                        dst.value = ((boolean) value) ? 1 : 0;
+                        dst.value = ((boolean) vector.getObject(rowContext.getRow())) ? 1 : 0;
                         dst.isSet = 1;
-                        }
+                    }
                 };
             case TINYINT:
                 return (TinyIntExtractor) (Object context, NullableTinyIntHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null)
-                    {
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
+                    else if (vector instanceof BaseIntVector) {
+                        dst.value = (byte) ((BaseIntVector) vector).getValueAsLong(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
                     else {
-                        dst.value = Byte.parseByte(value.toString());
+                        Object value = vector.getObject(rowContext.getRow());
+                        dst.value = value instanceof Number ? ((Number) value).byteValue() : Byte.parseByte(value.toString());
                         dst.isSet = 1;
                     }
                 };
             case SMALLINT:
                 return (SmallIntExtractor) (Object context, NullableSmallIntHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null)
-                    {
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
-                    else{
-                        dst.value = Short.parseShort(value.toString());
+                    else if (vector instanceof BaseIntVector) {
+                        dst.value = (short) ((BaseIntVector) vector).getValueAsLong(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
+                    else {
+                        Object value = vector.getObject(rowContext.getRow());
+                        dst.value = value instanceof Number ? ((Number) value).shortValue() : Short.parseShort(value.toString());
                         dst.isSet = 1;
                     }
                 };
@@ -210,43 +240,61 @@ public class VerticaRecordHandler
             case BIGINT:
                 return (BigIntExtractor) (Object context, NullableBigIntHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null){
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
+                    else if (vector instanceof BaseIntVector) {
+                        dst.value = ((BaseIntVector) vector).getValueAsLong(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
                     else {
-                        dst.value = Long.parseLong(value.toString());
+                        Object value = vector.getObject(rowContext.getRow());
+                        dst.value = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
                         dst.isSet = 1;
                     }
                 };
             case FLOAT4:
                 return (Float4Extractor) (Object context, NullableFloat4Holder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null){
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
+                    else if (vector instanceof FloatingPointVector) {
+                        dst.value = (float) ((FloatingPointVector) vector).getValueAsDouble(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
                     else {
-                        dst.value = Float.parseFloat(value.toString());
+                        Object value = vector.getObject(rowContext.getRow());
+                        dst.value = value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString());
                         dst.isSet = 1;
                     }
                 };
             case FLOAT8:
                 return (Float8Extractor) (Object context, NullableFloat8Holder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null){
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
+                    else if (vector instanceof FloatingPointVector) {
+                        dst.value = ((FloatingPointVector) vector).getValueAsDouble(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
                     else {
-                        dst.value = Double.parseDouble(value.toString());
+                        Object value = vector.getObject(rowContext.getRow());
+                        dst.value = value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
                         dst.isSet = 1;
                     }
                 };
             case DECIMAL:
                 return (DecimalExtractor) (Object context, NullableDecimalHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
+                    Object value = ((RowContext) context).getValue(fieldName);
                     if(value == null)
                     {
                         dst.isSet = 0;
@@ -260,21 +308,26 @@ public class VerticaRecordHandler
             case DATEDAY:
                 return (DateDayExtractor) (Object context, NullableDateDayHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null){
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
-                    else{
+                    else if (vector instanceof DateDayVector) {
+                        dst.value = ((DateDayVector) vector).get(rowContext.getRow());
+                        dst.isSet = 1;
+                    }
+                    else {
+                        Object value = vector.getObject(rowContext.getRow());
+                        dst.value = value instanceof Number ? ((Number) value).intValue() : (int) LocalDate.parse(value.toString()).toEpochDay();
                         dst.isSet = 1;
-                        dst.value = (int) LocalDate.parse(value.toString()).toEpochDay();
                     }
-
                 };
 
             case DATEMILLI:
                 return (DateMilliExtractor) (Object context, NullableDateMilliHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName).toString();
+                    Object value = ((RowContext) context).getValue(fieldName);
                     if(value == null)
                     {
                         dst.isSet = 0;
@@ -287,20 +340,24 @@ public class VerticaRecordHandler
             case VARCHAR:
                 return (VarCharExtractor) (Object context, NullableVarCharHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName);
-                    if(value == null)
-                    {
+                    RowContext rowContext = (RowContext) context;
+                    FieldVector vector = rowContext.getVector(fieldName);
+                    if (rowContext.isNull(vector)) {
                         dst.isSet = 0;
                     }
-                    else{
-                        dst.value = value.toString();
+                    else if (vector instanceof VarCharVector) {
+                        dst.value = new String(((VarCharVector) vector).get(rowContext.getRow()), StandardCharsets.UTF_8);
+                        dst.isSet = 1;
+                    }
+                    else {
+                        dst.value = vector.getObject(rowContext.getRow()).toString();
                         dst.isSet = 1;
                     }
                 };
             case VARBINARY:
                 return (VarBinaryExtractor) (Object context, NullableVarBinaryHolder dst) ->
                 {
-                    Object value = ((RowContext) context).getNameValue().get(fieldName).toString();
+                    Object value = ((RowContext) context).getValue(fieldName);
                     if(value == null)
                     {
                         dst.isSet = 0;
@@ -319,17 +376,39 @@ public class VerticaRecordHandler
     {
 
         private final String queryId;
-        private HashMap<String, Object> nameValue;
+        private final HashMap<String, FieldVector> vectors = new HashMap<>();
+        private int row;
 
         public RowContext(String queryId){
             this.queryId = queryId;
         }
 
-        public void setNameValue(HashMap<String, Object> map){
-            this.nameValue = map;
+        public void setVectors(VectorSchemaRoot root){
+            vectors.clear();
+            for (FieldVector vector : root.getFieldVectors()) {
+                vectors.put(vector.getName(), vector);
+            }
         }
-        public HashMap<String, Object> getNameValue() {
-            return this.nameValue;
+
+        public void setRow(int row){
+            this.row = row;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public FieldVector getVector(String fieldName) {
+            return vectors.get(fieldName);
+        }
+
+        public boolean isNull(FieldVector vector) {
+            return vector == null || vector.isNull(row);
+        }
+
+        public Object getValue(String fieldName) {
+            FieldVector vector = vectors.get(fieldName);
+            return vector == null ? null : vector.getObject(row);
         }
     }
 
@@ -45,6 +45,8 @@ public class VerticaExportQueryBuilder {
     private static final String QPT_TEMPLATE_NAME = "templateVerticaExportQPTQuery";
     private static final String TEMPLATE_FIELD = "builder";
     private static final String QUOTE_CHARS = "\"";
+    private static final int DEFAULT_FILE_SIZE_MB = 16;
+    private static final int MAX_ROW_GROUP_SIZE_MB = 16;
     private final ST query;
     private String s3ExportBucket;
     private String table;
@@ -52,6 +54,7 @@ public class VerticaExportQueryBuilder {
     private String colNames;
     private String constraintValues;
     private String preparedStatementSQL;
+    private int fileSizeMB = DEFAULT_FILE_SIZE_MB;
 
     public VerticaExportQueryBuilder(ST template)
     {
@@ -227,6 +230,19 @@ public class VerticaExportQueryBuilder {
         return this;
     }
 
+    public int getFileSizeMB(){return fileSizeMB;}
+
+    // row groups can not be larger than the files, smaller row groups are read with less memory
+    public int getRowGroupSizeMB(){return Math.min(fileSizeMB, MAX_ROW_GROUP_SIZE_MB);}
+
+    // each exported file is read by its own split, the file size sets the number of splits of the query
+    public VerticaExportQueryBuilder withFileSizeMB(int fileSizeMB)
+    {
+        Validate.isTrue(fileSizeMB > 0, "fileSizeMB must be positive.");
+        this.fileSizeMB = fileSizeMB;
+        return this;
+    }
+
     public String getQueryID(){return queryID;}
 
     public VerticaExportQueryBuilder withQueryID(String queryID)
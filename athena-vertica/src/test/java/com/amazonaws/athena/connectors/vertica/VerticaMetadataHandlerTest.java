@@ -48,12 +48,14 @@ import com.amazonaws.athena.connector.credentials.CredentialsProvider;
 import com.amazonaws.athena.connectors.vertica.query.QueryFactory;
 import com.amazonaws.athena.connectors.vertica.query.VerticaExportQueryBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -360,6 +362,53 @@ public class VerticaMetadataHandlerTest extends TestBase
         doGetSplitsFunctionTest(req);
     }
 
+    @Test
+    public void doGetSplitsPaginatedListing() throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addStringField("preparedStmt")
+                .addStringField("queryId")
+                .addStringField("awsRegionSql")
+                .build();
+
+        Block partitions = allocator.createBlock(schema);
+        BlockUtils.setValue(partitions.getFieldVector("preparedStmt"), 0, "test");
+        BlockUtils.setValue(partitions.getFieldVector("queryId"), 0, "123");
+        BlockUtils.setValue(partitions.getFieldVector("awsRegionSql"), 0, "us-west-2");
+        partitions.setRowCount(1);
+
+        // the export has more files than a single listing returns
+        ListObjectsResponse firstPage = ListObjectsResponse.builder()
+                .contents(S3Object.builder().key("queryId/file1.parquet").build(),
+                        S3Object.builder().key("queryId/file2.parquet").build())
+                .isTruncated(true)
+                .build();
+        ListObjectsResponse lastPage = ListObjectsResponse.builder()
+                .contents(S3Object.builder().key("queryId/file3.parquet").build())
+                .isTruncated(false)
+                .build();
+        Mockito.when(verticaMetadataHandlerMocked.getS3ExportBucket()).thenReturn("testS3Bucket");
+        Mockito.when(amazonS3.listObjects(nullable(ListObjectsRequest.class))).thenReturn(firstPage, lastPage);
+
+        GetSplitsRequest req = new GetSplitsRequest(this.federatedIdentity, "queryId", "catalog_name",
+                new TableName("schema", "table_name"),
+                partitions,
+                ImmutableList.of("preparedStmt", "queryId", "awsRegionSql"),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = verticaMetadataHandlerMocked.doGetSplits(allocator, req);
+
+        Set<String> objectKeys = new HashSet<>();
+        response.getSplits().forEach(split -> objectKeys.add(split.getProperty("s3ObjectKey")));
+        assertEquals(ImmutableSet.of("queryId/file1.parquet", "queryId/file2.parquet", "queryId/file3.parquet"), objectKeys);
+
+        // the second page starts after the last object of the first one
+        ArgumentCaptor<ListObjectsRequest> listRequests = ArgumentCaptor.forClass(ListObjectsRequest.class);
+        Mockito.verify(amazonS3, Mockito.times(2)).listObjects(listRequests.capture());
+        assertEquals("queryId/file2.parquet", listRequests.getAllValues().get(1).marker());
+    }
+
     private void doGetSplitsFunctionTest(GetSplitsRequest req) {
         MetadataResponse rawResponse = verticaMetadataHandlerMocked.doGetSplits(allocator, req);
         assertEquals(MetadataRequestType.GET_SPLITS, rawResponse.getRequestType());
@@ -21,6 +21,7 @@ package com.amazonaws.athena.connectors.vertica;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -31,6 +32,8 @@ import java.util.UUID;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.ipc.ArrowReader;
@@ -88,7 +91,9 @@ import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints
 import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_SPLIT_EXPORT_BUCKET;
 import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_SPLIT_OBJECT_KEY;
 import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_SPLIT_QUERY_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
@@ -287,6 +292,64 @@ public class VerticaRecordHandlerTest
         logger.info("doReadRecordsSpill: exit");
     }
 
+    @Test
+    public void doReadRecordsTypedColumnsWithNulls()
+            throws Exception
+    {
+        VectorSchemaRoot schemaRoot = createTypedRoot();
+        ArrowReader mockReader = mock(ArrowReader.class);
+        when(mockReader.loadNextBatch()).thenReturn(true, false);
+        when(mockReader.getVectorSchemaRoot()).thenReturn(schemaRoot);
+        VerticaRecordHandler handlerSpy = spy(handler);
+        doReturn(mockReader).when(handlerSpy).constructArrowReader(any());
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        Split.Builder splitBuilder = Split.newBuilder(splitLoc, keyFactory.create())
+                .add(VERTICA_SPLIT_QUERY_ID, "query_id")
+                .add(VERTICA_SPLIT_EXPORT_BUCKET, "export_bucket")
+                .add(VERTICA_SPLIT_OBJECT_KEY, "s3_object_key");
+
+        ReadRecordsRequest request = new ReadRecordsRequest(identity,
+                DEFAULT_CATALOG,
+                QUERY_ID,
+                TABLE_NAME,
+                schemaRoot.getSchema(),
+                splitBuilder.build(),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L,
+                100_000_000_000L
+        );
+        RecordResponse rawResponse = handlerSpy.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+        try (ReadRecordsResponse response = (ReadRecordsResponse) rawResponse) {
+            Block block = response.getRecords();
+            assertEquals(3, block.getRowCount());
+
+            assertEquals(1L, block.getFieldVector("id").getObject(0));
+            assertEquals(new BigDecimal("1234.56"), block.getFieldVector("amount").getObject(0));
+            assertEquals(18_000, block.getFieldVector("created").getObject(0));
+            assertEquals(new Text("first"), block.getFieldVector("name").getObject(0));
+
+            assertEquals(2L, block.getFieldVector("id").getObject(1));
+            assertNull(block.getFieldVector("amount").getObject(1));
+            assertNull(block.getFieldVector("created").getObject(1));
+            assertNull(block.getFieldVector("name").getObject(1));
+
+            assertEquals(3L, block.getFieldVector("id").getObject(2));
+            assertEquals(new BigDecimal("-0.01"), block.getFieldVector("amount").getObject(2));
+            assertEquals(0, block.getFieldVector("created").getObject(2));
+            assertEquals(new Text(""), block.getFieldVector("name").getObject(2));
+        }
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;
@@ -346,4 +409,45 @@ public class VerticaRecordHandlerTest
         schemaRoot.setRowCount(2);
         return schemaRoot;
     }
+
+    /**
+     * Creates a batch like the ones read from a Vertica export, with a row whose decimal, date and varchar columns
+     * are all null between two rows with values.
+     */
+    private VectorSchemaRoot createTypedRoot()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addBigIntField("id")
+                .addDecimalField("amount", 10, 2)
+                .addDateDayField("created")
+                .addStringField("name")
+                .build();
+        VectorSchemaRoot schemaRoot = VectorSchemaRoot.create(schema, bufferAllocator);
+        BigIntVector idVector = (BigIntVector) schemaRoot.getVector("id");
+        idVector.allocateNew(3);
+        idVector.set(0, 1);
+        idVector.set(1, 2);
+        idVector.set(2, 3);
+        idVector.setValueCount(3);
+        DecimalVector amountVector = (DecimalVector) schemaRoot.getVector("amount");
+        amountVector.allocateNew(3);
+        amountVector.set(0, new BigDecimal("1234.56"));
+        amountVector.setNull(1);
+        amountVector.set(2, new BigDecimal("-0.01"));
+        amountVector.setValueCount(3);
+        DateDayVector createdVector = (DateDayVector) schemaRoot.getVector("created");
+        createdVector.allocateNew(3);
+        createdVector.set(0, 18_000);
+        createdVector.setNull(1);
+        createdVector.set(2, 0);
+        createdVector.setValueCount(3);
+        VarCharVector nameVector = (VarCharVector) schemaRoot.getVector("name");
+        nameVector.allocateNew(3);
+        nameVector.set(0, new Text("first"));
+        nameVector.setNull(1);
+        nameVector.set(2, new Text(""));
+        nameVector.setValueCount(3);
+        schemaRoot.setRowCount(3);
+        return schemaRoot;
+    }
 }